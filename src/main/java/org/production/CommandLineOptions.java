@@ -0,0 +1,409 @@
+package org.production;
+
+import org.apache.logging.log4j.Level;
+import org.production.io.OutputFormat;
+import org.production.io.ScenarioReader;
+import org.production.models.ServiceTimeDistribution;
+import org.production.service.BufferType;
+import org.production.service.CheckpointSettings;
+import org.production.service.ConvergenceSettings;
+import org.production.service.ExecutionStrategy;
+import org.production.service.MonteCarloSettings;
+import org.production.service.OptimizationMethod;
+import org.production.service.OptimizerSettings;
+import org.production.service.RoutingPolicyType;
+import org.production.service.SimulationMode;
+import org.production.service.SimulationSettings;
+import org.production.service.SweepSpecification;
+import org.production.service.TransferMode;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Options passed to {@link Main} on the command line.
+ * <p>
+ * Usage: {@code [--mode=real-time|discrete-event|parallel-discrete-event] [--executor=fork-join|virtual-threads]
+ * [--transfer=per-detail|batched] [--buffer=synchronized|lock-free|lock-free-bounded]
+ * [--routing=weighted|round-robin|shortest-queue|least-loaded]
+ * [--reader=workbook|streaming] [--rebuild-cache] [--format=csv|columnar]
+ * [--estimate] [--optimize=marginal|annealing] [--phases=N] [--iterations=N] [--sweep-workers=values] [--sweep-details=values] [--parallelism=N]
+ * [--replications=N] [--seed=N] [--service-time=deterministic|exponential|lognormal|triangular] [--variation=X]
+ * [--steady-state[=precision]] [--checkpoint=file] [--checkpoint-interval=seconds] [--resume] [--metrics] [--metrics-dump=file] [--metrics-interval=seconds]
+ * [--log-level=trace|debug|info|warn|error|off] [--progress-interval=seconds] [input.xlsx [output]]}.
+ * Paths that are not given are requested interactively. When a count is swept, the output is the summary table
+ * of the sweep; the values are given as described in {@link SweepSpecification#parseValues}.
+ * With replications, the output holds the Monte Carlo estimates; with {@code --estimate}, it holds the analytical
+ * estimates of {@link org.production.service.QueueingNetworkEstimator} and nothing is simulated.
+ * With {@code --optimize}, the output holds the best worker allocation found by
+ * {@link org.production.service.AllocationOptimizer}, over {@code --phases} phases (1 by default) and,
+ * for annealing, {@code --iterations} steps (200 by default) seeded by {@code --seed}.
+ * With {@code --checkpoint}, a single discrete-event run saves its state to the file every
+ * {@code --checkpoint-interval} seconds (60 by default); {@code --resume} continues the run from that file
+ * and appends to the CSV output written so far.
+ * In the parallel discrete-event mode, {@code --parallelism} is the maximum number of graph regions simulated
+ * on separate threads.
+ * The metrics options apply to a single run: {@code --metrics} exposes the metrics as a JMX MBean and
+ * {@code --metrics-dump} writes snapshots of them every {@code --metrics-interval} seconds (1 by default).
+ * The log level applies to the {@code org.production} loggers; a progress interval of {@code 0} disables
+ * the progress summaries.
+ */
+public class CommandLineOptions {
+    private String inputFilePath;
+    private String outputFilePath;
+    private SimulationSettings settings = SimulationSettings.defaults();
+    private ScenarioReader scenarioReader = ScenarioReader.WORKBOOK;
+    private boolean rebuildCache;
+    private boolean estimate;
+    private OptimizationMethod optimizationMethod;
+    private int phases = 1;
+    private int iterations = 200;
+    private OutputFormat outputFormat = OutputFormat.CSV;
+    private List<Integer> sweptWorkersCounts = List.of();
+    private List<Integer> sweptDetailsCounts = List.of();
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int replications;
+    private long seed = 42;
+    private ServiceTimeDistribution serviceTimeDistribution = ServiceTimeDistribution.DETERMINISTIC;
+    private double serviceTimeVariation = Double.NaN;
+    private boolean metricsMBean;
+    private String metricsDumpPath;
+    private Duration metricsInterval = Duration.ofSeconds(1);
+    private String checkpointPath;
+    private Duration checkpointInterval = Duration.ofMinutes(1);
+    private boolean resume;
+    private Level logLevel;
+
+    private CommandLineOptions() {
+    }
+
+    /**
+     * Parses the command line arguments.
+     *
+     * @param args the arguments passed to the application
+     * @return the parsed options
+     * @throws IllegalArgumentException if an option is unknown or malformed
+     */
+    public static CommandLineOptions parse(String[] args) {
+        CommandLineOptions options = new CommandLineOptions();
+
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                int separator = arg.indexOf('=');
+                String name = separator < 0 ? arg.substring(2) : arg.substring(2, separator);
+                String value = separator < 0 ? null : arg.substring(separator + 1);
+                options.applyOption(name, value);
+            } else if (options.inputFilePath == null) {
+                options.inputFilePath = arg;
+            } else if (options.outputFilePath == null) {
+                options.outputFilePath = arg;
+            } else {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+        }
+        options.applyCheckpoint();
+        options.applyServiceTime();
+        return options;
+    }
+
+    private void applyOption(String name, String value) {
+        switch (name) {
+            case "mode":
+                settings = settings.withMode(SimulationMode.fromOptionName(requireValue(name, value)));
+                break;
+            case "executor":
+                settings = settings.withExecutionStrategy(ExecutionStrategy.fromOptionName(requireValue(name, value)));
+                break;
+            case "transfer":
+                settings = settings.withTransferMode(TransferMode.fromOptionName(requireValue(name, value)));
+                break;
+            case "buffer":
+                settings = settings.withBufferType(BufferType.fromOptionName(requireValue(name, value)));
+                break;
+            case "routing":
+                settings = settings.withRoutingPolicy(RoutingPolicyType.fromOptionName(requireValue(name, value)));
+                break;
+            case "reader":
+                scenarioReader = ScenarioReader.fromOptionName(requireValue(name, value));
+                break;
+            case "format":
+                outputFormat = OutputFormat.fromOptionName(requireValue(name, value));
+                break;
+            case "sweep-workers":
+                sweptWorkersCounts = SweepSpecification.parseValues(requireValue(name, value));
+                break;
+            case "sweep-details":
+                sweptDetailsCounts = SweepSpecification.parseValues(requireValue(name, value));
+                break;
+            case "parallelism":
+                parallelism = parseInt(name, value);
+                if (parallelism < 1) {
+                    throw new IllegalArgumentException("Option --" + name + " must be at least 1");
+                }
+                settings = settings.withRegions(parallelism);
+                break;
+            case "replications":
+                replications = parseInt(name, value);
+                if (replications < 1) {
+                    throw new IllegalArgumentException("Option --" + name + " must be at least 1");
+                }
+                break;
+            case "seed":
+                try {
+                    seed = Long.parseLong(requireValue(name, value).trim());
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Option --" + name + " requires a number: " + value);
+                }
+                break;
+            case "service-time":
+                serviceTimeDistribution = ServiceTimeDistribution.fromOptionName(requireValue(name, value));
+                break;
+            case "variation":
+                try {
+                    serviceTimeVariation = Double.parseDouble(requireValue(name, value).trim());
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Option --" + name + " requires a number: " + value);
+                }
+                if (serviceTimeVariation < 0) {
+                    throw new IllegalArgumentException("Option --" + name + " must not be negative");
+                }
+                break;
+            case "steady-state":
+                ConvergenceSettings convergence = ConvergenceSettings.defaults();
+                if (value != null) {
+                    try {
+                        convergence = convergence.withRelativePrecision(Double.parseDouble(value.trim()));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Option --" + name + " requires a number: " + value);
+                    }
+                }
+                settings = settings.withConvergence(convergence);
+                break;
+            case "metrics":
+                requireNoValue(name, value);
+                metricsMBean = true;
+                break;
+            case "metrics-dump":
+                metricsDumpPath = requireValue(name, value);
+                break;
+            case "metrics-interval":
+                metricsInterval = parseSeconds(name, value);
+                if (metricsInterval.isZero()) {
+                    throw new IllegalArgumentException("Option --" + name + " must be positive");
+                }
+                break;
+            case "log-level":
+                logLevel = Level.toLevel(requireValue(name, value).trim(), null);
+                if (logLevel == null) {
+                    throw new IllegalArgumentException("Unknown log level: " + value);
+                }
+                break;
+            case "progress-interval":
+                Duration progressInterval = parseSeconds(name, value);
+                settings = settings.withProgressInterval(progressInterval.isZero() ? null : progressInterval);
+                break;
+            case "estimate":
+                requireNoValue(name, value);
+                estimate = true;
+                break;
+            case "optimize":
+                optimizationMethod = OptimizationMethod.fromOptionName(requireValue(name, value));
+                break;
+            case "phases":
+                phases = parseInt(name, value);
+                if (phases < 1) {
+                    throw new IllegalArgumentException("Option --" + name + " must be at least 1");
+                }
+                break;
+            case "iterations":
+                iterations = parseInt(name, value);
+                if (iterations < 0) {
+                    throw new IllegalArgumentException("Option --" + name + " must not be negative");
+                }
+                break;
+            case "checkpoint":
+                checkpointPath = requireValue(name, value);
+                break;
+            case "checkpoint-interval":
+                checkpointInterval = parseSeconds(name, value);
+                break;
+            case "resume":
+                requireNoValue(name, value);
+                resume = true;
+                break;
+            case "rebuild-cache":
+                requireNoValue(name, value);
+                rebuildCache = true;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown option: --" + name);
+        }
+    }
+
+    private void applyCheckpoint() {
+        if (checkpointPath == null) {
+            if (resume) {
+                throw new IllegalArgumentException("Option --resume requires --checkpoint");
+            }
+            return;
+        }
+        if (!outputFormat.supportsResume()) {
+            throw new IllegalArgumentException("Option --checkpoint cannot be combined with the "
+                    + outputFormat.getOptionName() + " output format");
+        }
+        settings = settings.withCheckpoint(new CheckpointSettings(Path.of(checkpointPath), checkpointInterval));
+    }
+
+    /**
+     * Defaults the variation to 0.5, or to the largest one the service time distribution can take if it is lower.
+     */
+    private void applyServiceTime() {
+        if (Double.isNaN(serviceTimeVariation)) {
+            serviceTimeVariation = Math.min(0.5, serviceTimeDistribution.maxVariation());
+        } else if (serviceTimeVariation > serviceTimeDistribution.maxVariation()) {
+            throw new IllegalArgumentException("Option --variation must not exceed "
+                    + serviceTimeDistribution.maxVariation() + " for the " + serviceTimeDistribution.getOptionName()
+                    + " service time");
+        }
+    }
+
+    private static String requireValue(String name, String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Option --" + name + " requires a value");
+        }
+        return value;
+    }
+
+    private static int parseInt(String name, String value) {
+        try {
+            return Integer.parseInt(requireValue(name, value).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Option --" + name + " requires a number: " + value);
+        }
+    }
+
+    private static Duration parseSeconds(String name, String value) {
+        double seconds;
+        try {
+            seconds = Double.parseDouble(requireValue(name, value).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Option --" + name + " requires a number: " + value);
+        }
+        if (!(seconds >= 0)) {
+            throw new IllegalArgumentException("Option --" + name + " must not be negative");
+        }
+        return Duration.ofNanos(Math.round(seconds * 1_000_000_000L));
+    }
+
+    private static void requireNoValue(String name, String value) {
+        if (value != null) {
+            throw new IllegalArgumentException("Option --" + name + " does not take a value");
+        }
+    }
+
+    public String getInputFilePath() {
+        return inputFilePath;
+    }
+
+    public String getOutputFilePath() {
+        return outputFilePath;
+    }
+
+    public SimulationSettings getSettings() {
+        return settings;
+    }
+
+    public ScenarioReader getScenarioReader() {
+        return scenarioReader;
+    }
+
+    public boolean isRebuildCache() {
+        return rebuildCache;
+    }
+
+    /**
+     * @return whether the scenario is estimated analytically instead of simulated
+     */
+    public boolean isEstimate() {
+        return estimate;
+    }
+
+    /**
+     * @return whether the run continues from the checkpoint file of {@link SimulationSettings#checkpoint()}
+     */
+    public boolean isResume() {
+        return resume;
+    }
+
+    public OutputFormat getOutputFormat() {
+        return outputFormat;
+    }
+
+    /**
+     * @return the sweep to run, or {@code null} if no count is swept
+     */
+    public SweepSpecification getSweep() {
+        if (sweptWorkersCounts.isEmpty() && sweptDetailsCounts.isEmpty()) {
+            return null;
+        }
+        return new SweepSpecification(sweptWorkersCounts, sweptDetailsCounts);
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * @return the Monte Carlo replications to run, or {@code null} if no replications were requested
+     */
+    public MonteCarloSettings getMonteCarloSettings() {
+        if (replications == 0) {
+            return null;
+        }
+        return new MonteCarloSettings(replications, seed, serviceTimeDistribution, serviceTimeVariation, parallelism);
+    }
+
+    /**
+     * @return the worker allocation search to run, or {@code null} if no optimization was requested
+     */
+    public OptimizerSettings getOptimizerSettings() {
+        if (optimizationMethod == null) {
+            return null;
+        }
+        return new OptimizerSettings(optimizationMethod, phases, iterations, seed, settings.routingPolicy(),
+                parallelism);
+    }
+
+    /**
+     * @return whether the metrics of the run are registered as a JMX MBean
+     */
+    public boolean isMetricsMBean() {
+        return metricsMBean;
+    }
+
+    /**
+     * @return the file to dump the metrics snapshots to, or {@code null} if no snapshots are dumped
+     */
+    public String getMetricsDumpPath() {
+        return metricsDumpPath;
+    }
+
+    public Duration getMetricsInterval() {
+        return metricsInterval;
+    }
+
+    /**
+     * @return whether the metrics of the run are recorded
+     */
+    public boolean isMetricsEnabled() {
+        return metricsMBean || metricsDumpPath != null;
+    }
+
+    /**
+     * @return the level of the {@code org.production} loggers, or {@code null} to keep the configured one
+     */
+    public Level getLogLevel() {
+        return logLevel;
+    }
+}
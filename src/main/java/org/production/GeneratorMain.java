@@ -0,0 +1,30 @@
+package org.production;
+
+import org.production.generator.GeneratorSettings;
+import org.production.generator.ScenarioGenerator;
+import org.production.io.ScenarioWorkbookWriter;
+import org.production.models.ScenarioData;
+
+/**
+ * Writes a synthetic scenario workbook for load tests, see {@link GeneratorOptions} for the arguments.
+ */
+public class GeneratorMain {
+    public static void main(String[] args) {
+        try {
+            GeneratorOptions options = GeneratorOptions.parse(args);
+            if (options.getOutputFilePath() == null) {
+                throw new IllegalArgumentException("The path of the output workbook is required");
+            }
+
+            GeneratorSettings settings = options.getSettings();
+            ScenarioData scenarioData = ScenarioGenerator.generate(settings);
+            ScenarioWorkbookWriter.write(options.getOutputFilePath(), scenarioData);
+            System.out.printf("Generated %s scenario with %d centers and %d connections (seed %d): %s%n",
+                    settings.topology().getOptionName(), scenarioData.centers().size(),
+                    scenarioData.connections().size(), settings.seed(), options.getOutputFilePath());
+        } catch (Exception e) {
+            System.err.println("Error occurred: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package org.production;
+
+import org.production.generator.GeneratorSettings;
+import org.production.generator.PerformanceDistribution;
+import org.production.generator.Topology;
+
+/**
+ * Options passed to {@link GeneratorMain} on the command line.
+ * <p>
+ * Usage: {@code [--topology=chain|fan-out|diamond|random-dag] [--centers=N] [--workers=N] [--details=N]
+ * [--max-workers=N] [--max-out-degree=N] [--performance=constant|uniform|exponential|lognormal]
+ * [--mean-performance=X] [--performance-spread=X] [--seed=N] output.xlsx}.
+ * Unless given, the plant has one worker and ten details per center.
+ */
+public class GeneratorOptions {
+    private String outputFilePath;
+    private Topology topology;
+    private Integer centersCount;
+    private Integer workersCount;
+    private Integer detailsCount;
+    private Integer maxWorkers;
+    private Integer maxOutDegree;
+    private PerformanceDistribution performanceDistribution;
+    private Double meanPerformance;
+    private Double performanceSpread;
+    private Long seed;
+
+    private GeneratorOptions() {
+    }
+
+    /**
+     * Parses the command line arguments.
+     *
+     * @param args the arguments passed to the generator
+     * @return the parsed options
+     * @throws IllegalArgumentException if an option is unknown or malformed
+     */
+    public static GeneratorOptions parse(String[] args) {
+        GeneratorOptions options = new GeneratorOptions();
+
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                int separator = arg.indexOf('=');
+                String name = separator < 0 ? arg.substring(2) : arg.substring(2, separator);
+                String value = separator < 0 ? null : arg.substring(separator + 1);
+                options.applyOption(name, value);
+            } else if (options.outputFilePath == null) {
+                options.outputFilePath = arg;
+            } else {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+        }
+        return options;
+    }
+
+    private void applyOption(String name, String value) {
+        switch (name) {
+            case "topology":
+                topology = Topology.fromOptionName(requireValue(name, value));
+                break;
+            case "centers":
+                centersCount = parseInt(name, value);
+                break;
+            case "workers":
+                workersCount = parseInt(name, value);
+                break;
+            case "details":
+                detailsCount = parseInt(name, value);
+                break;
+            case "max-workers":
+                maxWorkers = parseInt(name, value);
+                break;
+            case "max-out-degree":
+                maxOutDegree = parseInt(name, value);
+                break;
+            case "performance":
+                performanceDistribution = PerformanceDistribution.fromOptionName(requireValue(name, value));
+                break;
+            case "mean-performance":
+                meanPerformance = parseDouble(name, value);
+                break;
+            case "performance-spread":
+                performanceSpread = parseDouble(name, value);
+                break;
+            case "seed":
+                try {
+                    seed = Long.parseLong(requireValue(name, value).trim());
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Option --" + name + " requires a number: " + value);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown option: --" + name);
+        }
+    }
+
+    private static String requireValue(String name, String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Option --" + name + " requires a value");
+        }
+        return value;
+    }
+
+    private static int parseInt(String name, String value) {
+        try {
+            return Integer.parseInt(requireValue(name, value).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Option --" + name + " requires a number: " + value);
+        }
+    }
+
+    private static double parseDouble(String name, String value) {
+        try {
+            return Double.parseDouble(requireValue(name, value).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Option --" + name + " requires a number: " + value);
+        }
+    }
+
+    public String getOutputFilePath() {
+        return outputFilePath;
+    }
+
+    /**
+     * @return the generator settings, with the defaults of {@link GeneratorSettings#defaults()} for the options
+     *         that were not given
+     * @throws IllegalArgumentException if the options describe an invalid scenario
+     */
+    public GeneratorSettings getSettings() {
+        GeneratorSettings defaults = GeneratorSettings.defaults();
+        int centers = centersCount != null ? centersCount : defaults.centersCount();
+        return new GeneratorSettings(
+                topology != null ? topology : defaults.topology(),
+                centers,
+                workersCount != null ? workersCount : centers,
+                detailsCount != null ? detailsCount : centers * 10,
+                maxWorkers != null ? maxWorkers : defaults.maxWorkers(),
+                maxOutDegree != null ? maxOutDegree : defaults.maxOutDegree(),
+                performanceDistribution != null ? performanceDistribution : defaults.performanceDistribution(),
+                meanPerformance != null ? meanPerformance : defaults.meanPerformance(),
+                performanceSpread != null ? performanceSpread : defaults.performanceSpread(),
+                seed != null ? seed : defaults.seed());
+    }
+}
@@ -1,29 +1,110 @@
 package org.production;
 
-import org.production.io.CsvWritter;
-import org.production.io.ExcelReader;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.production.io.AllocationResultWriter;
+import org.production.io.MonteCarloSummaryWriter;
+import org.production.io.ResultSink;
+import org.production.io.ScenarioCache;
+import org.production.io.SweepSummaryWriter;
+import org.production.io.ThroughputEstimateWriter;
+import org.production.metrics.MetricsDumper;
+import org.production.metrics.SimulationMetrics;
 import org.production.models.ScenarioData;
+import org.production.service.AllocationOptimizer;
+import org.production.service.BatchRunner;
+import org.production.service.MonteCarloRunner;
+import org.production.service.MonteCarloSettings;
+import org.production.service.OptimizerSettings;
+import org.production.service.QueueingNetworkEstimator;
+import org.production.service.SimulationCheckpoint;
 import org.production.service.SimulationRunner;
+import org.production.service.SweepSpecification;
 
+import javax.management.ObjectName;
+import java.nio.file.Path;
 import java.util.Scanner;
 
 public class Main {
     public static void main(String[] args) {
+        CommandLineOptions options = CommandLineOptions.parse(args);
+        if (options.getLogLevel() != null) {
+            Configurator.setLevel("org.production", options.getLogLevel());
+        }
         Scanner scanner = new Scanner(System.in);
 
-        System.out.println("Enter the path to the input Excel file:");
-        String inputFilePath = scanner.nextLine();
+        String inputFilePath = options.getInputFilePath();
+        if (inputFilePath == null) {
+            System.out.println("Enter the path to the input Excel file:");
+            inputFilePath = scanner.nextLine();
+        }
 
-        System.out.println("Enter the path for the output CSV file:");
-        String outputFilePath = scanner.nextLine();
+        String outputFilePath = options.getOutputFilePath();
+        if (outputFilePath == null) {
+            System.out.println("Enter the path for the output file:");
+            outputFilePath = scanner.nextLine();
+        }
 
         try {
-            ScenarioData scenarioData = ExcelReader.collectData(inputFilePath);
-            SimulationRunner simulationRunner = new SimulationRunner(scenarioData);
-
-            simulationRunner.runSimulation();
+            ScenarioData scenarioData = ScenarioCache.load(Path.of(inputFilePath), options.getScenarioReader()::read,
+                    options.isRebuildCache());
+            if (options.isEstimate()) {
+                ThroughputEstimateWriter.writeEstimate(outputFilePath,
+                        QueueingNetworkEstimator.estimate(scenarioData, options.getSettings().routingPolicy()));
+                System.out.println("The estimate was successfully computed. It is written to: " + outputFilePath);
+                return;
+            }
+            OptimizerSettings optimizerSettings = options.getOptimizerSettings();
+            if (optimizerSettings != null) {
+                AllocationResultWriter.writeResult(outputFilePath,
+                        AllocationOptimizer.optimize(scenarioData, optimizerSettings));
+                System.out.println("The optimization was successfully completed. The allocation is written to: "
+                        + outputFilePath);
+                return;
+            }
+            MonteCarloSettings monteCarloSettings = options.getMonteCarloSettings();
+            if (monteCarloSettings != null) {
+                MonteCarloSummaryWriter.writeSummary(outputFilePath, MonteCarloRunner.run(scenarioData, monteCarloSettings));
+                System.out.println("The replications were successfully completed. The estimates are written to: "
+                        + outputFilePath);
+                return;
+            }
+            SweepSpecification sweep = options.getSweep();
+            if (sweep != null) {
+                SweepSummaryWriter.writeSummaries(outputFilePath,
+                        BatchRunner.run(scenarioData, sweep, options.getSettings(), options.getParallelism()));
+                System.out.println("The sweep was successfully completed. The summary is written to: " + outputFilePath);
+                return;
+            }
+            SimulationMetrics metrics = options.isMetricsEnabled() ? new SimulationMetrics(scenarioData) : null;
+            ObjectName metricsMBean = options.isMetricsMBean() ? metrics.registerMBean() : null;
+            SimulationCheckpoint checkpoint = options.isResume()
+                    ? SimulationCheckpoint.read(options.getSettings().checkpoint().file())
+                    : null;
+            MetricsDumper metricsDumper = options.getMetricsDumpPath() == null ? null
+                    : new MetricsDumper(metrics, Path.of(options.getMetricsDumpPath()), options.getMetricsInterval());
+            try (ResultSink resultSink = checkpoint == null
+                    ? options.getOutputFormat().createSink(outputFilePath)
+                    : options.getOutputFormat().resumeSink(outputFilePath, checkpoint.sinkPosition())) {
+                SimulationRunner simulationRunner =
+                        new SimulationRunner(scenarioData, options.getSettings(), resultSink, metrics);
 
-            CsvWritter.writeResults(outputFilePath, simulationRunner.getResults());
+                if (checkpoint == null) {
+                    simulationRunner.runSimulation();
+                } else {
+                    simulationRunner.resumeSimulation(checkpoint);
+                }
+            } finally {
+                try {
+                    // Closing the dumper writes the final snapshot of the run.
+                    if (metricsDumper != null) {
+                        metricsDumper.close();
+                    }
+                } finally {
+                    if (metricsMBean != null) {
+                        SimulationMetrics.unregisterMBean(metricsMBean);
+                    }
+                }
+            }
             System.out.println("The simulation was successfully completed. The results are written to: " + outputFilePath);
         } catch (Exception e) {
             System.err.println("Error occurred: " + e.getMessage());
@@ -0,0 +1,88 @@
+package org.production.generator;
+
+/**
+ * Settings of a {@link ScenarioGenerator}.
+ *
+ * @param topology                the shape of the production graph
+ * @param centersCount            the number of production centers
+ * @param workersCount            the number of workers of the plant
+ * @param detailsCount            the number of details waiting in the start center
+ * @param maxWorkers              the upper bound of the maximum workers of a center, drawn uniformly from {@code 1..maxWorkers}
+ * @param maxOutDegree            the upper bound of the outgoing connections of a center in a {@link Topology#RANDOM_DAG}
+ * @param performanceDistribution the distribution of the processing times
+ * @param meanPerformance         the mean processing time
+ * @param performanceSpread       the spread of the processing times around the mean
+ * @param seed                    the seed of all random choices; equal settings produce equal scenarios
+ */
+public record GeneratorSettings(Topology topology, int centersCount, int workersCount, int detailsCount,
+                                int maxWorkers, int maxOutDegree, PerformanceDistribution performanceDistribution,
+                                double meanPerformance, double performanceSpread, long seed) {
+
+    /**
+     * @throws IllegalArgumentException if a count is out of range or the topology needs more centers
+     */
+    public GeneratorSettings {
+        if (centersCount < topology.getMinCenters()) {
+            throw new IllegalArgumentException("Topology " + topology.getOptionName() + " needs at least "
+                    + topology.getMinCenters() + " centers");
+        }
+        if (workersCount < 0 || detailsCount < 0) {
+            throw new IllegalArgumentException("Workers and details counts must not be negative");
+        }
+        if (maxWorkers < 1 || maxOutDegree < 1) {
+            throw new IllegalArgumentException("Maximum workers and out-degree must be at least 1");
+        }
+        if (meanPerformance < 0 || performanceSpread < 0) {
+            throw new IllegalArgumentException("Performance mean and spread must not be negative");
+        }
+    }
+
+    /**
+     * @return a random plant of 100 centers with one worker per center and ten details per center
+     */
+    public static GeneratorSettings defaults() {
+        return new GeneratorSettings(Topology.RANDOM_DAG, 100, 100, 1000, 5, 4,
+                PerformanceDistribution.UNIFORM, 2.0, 1.5, 42);
+    }
+
+    public GeneratorSettings withTopology(Topology topology) {
+        return new GeneratorSettings(topology, centersCount, workersCount, detailsCount, maxWorkers, maxOutDegree,
+                performanceDistribution, meanPerformance, performanceSpread, seed);
+    }
+
+    public GeneratorSettings withCentersCount(int centersCount) {
+        return new GeneratorSettings(topology, centersCount, workersCount, detailsCount, maxWorkers, maxOutDegree,
+                performanceDistribution, meanPerformance, performanceSpread, seed);
+    }
+
+    public GeneratorSettings withWorkersCount(int workersCount) {
+        return new GeneratorSettings(topology, centersCount, workersCount, detailsCount, maxWorkers, maxOutDegree,
+                performanceDistribution, meanPerformance, performanceSpread, seed);
+    }
+
+    public GeneratorSettings withDetailsCount(int detailsCount) {
+        return new GeneratorSettings(topology, centersCount, workersCount, detailsCount, maxWorkers, maxOutDegree,
+                performanceDistribution, meanPerformance, performanceSpread, seed);
+    }
+
+    public GeneratorSettings withMaxWorkers(int maxWorkers) {
+        return new GeneratorSettings(topology, centersCount, workersCount, detailsCount, maxWorkers, maxOutDegree,
+                performanceDistribution, meanPerformance, performanceSpread, seed);
+    }
+
+    public GeneratorSettings withMaxOutDegree(int maxOutDegree) {
+        return new GeneratorSettings(topology, centersCount, workersCount, detailsCount, maxWorkers, maxOutDegree,
+                performanceDistribution, meanPerformance, performanceSpread, seed);
+    }
+
+    public GeneratorSettings withPerformance(PerformanceDistribution performanceDistribution, double meanPerformance,
+                                             double performanceSpread) {
+        return new GeneratorSettings(topology, centersCount, workersCount, detailsCount, maxWorkers, maxOutDegree,
+                performanceDistribution, meanPerformance, performanceSpread, seed);
+    }
+
+    public GeneratorSettings withSeed(long seed) {
+        return new GeneratorSettings(topology, centersCount, workersCount, detailsCount, maxWorkers, maxOutDegree,
+                performanceDistribution, meanPerformance, performanceSpread, seed);
+    }
+}
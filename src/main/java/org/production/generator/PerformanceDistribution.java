@@ -0,0 +1,98 @@
+package org.production.generator;
+
+import java.util.SplittableRandom;
+
+/**
+ * Distribution of the processing times ({@code performance}) of generated centers.
+ * Every distribution is described by its mean and a spread; samples are never negative.
+ */
+public enum PerformanceDistribution {
+
+    /**
+     * Every center has the mean processing time; the spread is ignored.
+     */
+    CONSTANT("constant") {
+        @Override
+        double sample(SplittableRandom random, double mean, double spread) {
+            return mean;
+        }
+    },
+
+    /**
+     * Uniform between {@code mean - spread} and {@code mean + spread}.
+     */
+    UNIFORM("uniform") {
+        @Override
+        double sample(SplittableRandom random, double mean, double spread) {
+            if (spread <= 0) {
+                return mean;
+            }
+            return random.nextDouble(mean - spread, mean + spread);
+        }
+    },
+
+    /**
+     * Exponential with the given mean; the spread is ignored.
+     */
+    EXPONENTIAL("exponential") {
+        @Override
+        double sample(SplittableRandom random, double mean, double spread) {
+            return mean * random.nextExponential();
+        }
+    },
+
+    /**
+     * Lognormal with the given mean and the spread as standard deviation; models a few very slow centers.
+     */
+    LOGNORMAL("lognormal") {
+        @Override
+        double sample(SplittableRandom random, double mean, double spread) {
+            if (mean <= 0 || spread <= 0) {
+                return mean;
+            }
+            double sigmaSquared = Math.log1p((spread * spread) / (mean * mean));
+            double mu = Math.log(mean) - sigmaSquared / 2;
+            return Math.exp(mu + Math.sqrt(sigmaSquared) * random.nextGaussian());
+        }
+    };
+
+    private final String optionName;
+
+    PerformanceDistribution(String optionName) {
+        this.optionName = optionName;
+    }
+
+    abstract double sample(SplittableRandom random, double mean, double spread);
+
+    /**
+     * Draws the processing time of the next center, rounded to hundredths so generated workbooks stay readable.
+     *
+     * @param random the generator of the scenario
+     * @param mean   the mean processing time
+     * @param spread the spread around the mean, its meaning depends on the distribution
+     * @return the processing time, at least {@code 0}
+     */
+    public double next(SplittableRandom random, double mean, double spread) {
+        return Math.max(0.0, Math.round(sample(random, mean, spread) * 100) / 100.0);
+    }
+
+    public String getOptionName() {
+        return optionName;
+    }
+
+    /**
+     * Resolves a distribution by its command line name.
+     *
+     * @param optionName the name of the distribution, e.g. {@code lognormal}
+     * @return the matching distribution
+     * @throws IllegalArgumentException if no distribution has the given name
+     */
+    public static PerformanceDistribution fromOptionName(String optionName) {
+        for (PerformanceDistribution distribution : values()) {
+            if (distribution.optionName.equalsIgnoreCase(optionName.trim())) {
+                return distribution;
+            }
+        }
+        throw new IllegalArgumentException("Unknown performance distribution: " + optionName);
+    }
+}
@@ -0,0 +1,42 @@
+package org.production.generator;
+
+import org.production.models.Connection;
+import org.production.models.ProductionCenter;
+import org.production.models.ScenarioData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Generates synthetic scenarios for load tests and benchmarks.
+ * Centers get the ids {@code 1..centersCount} in the order of the center list; the first center is the start
+ * center and the last one is the end center. All random choices come from one generator seeded by the settings,
+ * so a scaling problem found with a generated scenario can be reproduced from its settings alone.
+ */
+public class ScenarioGenerator {
+
+    /**
+     * Generates the scenario described by the settings.
+     *
+     * @param settings the shape, size and seed of the scenario
+     * @return the scenario
+     */
+    public static ScenarioData generate(GeneratorSettings settings) {
+        SplittableRandom random = new SplittableRandom(settings.seed());
+
+        List<ProductionCenter> centers = new ArrayList<>(settings.centersCount());
+        for (int i = 1; i <= settings.centersCount(); i++) {
+            int maxWorkers = 1 + random.nextInt(settings.maxWorkers());
+            double performance = settings.performanceDistribution()
+                    .next(random, settings.meanPerformance(), settings.performanceSpread());
+            centers.add(new ProductionCenter(String.valueOf(i), "Center " + i, maxWorkers, performance));
+        }
+
+        List<Connection> connections = new ArrayList<>();
+        settings.topology().connect(centers, connections, settings.maxOutDegree(), random);
+
+        return new ScenarioData(centers, connections, settings.workersCount(), settings.detailsCount(),
+                "1", String.valueOf(settings.centersCount()));
+    }
+}
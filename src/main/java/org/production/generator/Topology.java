@@ -0,0 +1,142 @@
+package org.production.generator;
+
+import org.production.models.Connection;
+import org.production.models.ProductionCenter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Shape of a generated production graph.
+ * The first center of the list is the only center without incoming connections and the last one
+ * is the only center without outgoing connections, so they are found as the start and end centers.
+ */
+public enum Topology {
+
+    /**
+     * Every center feeds the next one.
+     */
+    CHAIN("chain", 2) {
+        @Override
+        void connect(List<ProductionCenter> centers, List<Connection> connections, int maxOutDegree,
+                     SplittableRandom random) {
+            for (int i = 0; i + 1 < centers.size(); i++) {
+                connections.add(new Connection(centers.get(i), centers.get(i + 1)));
+            }
+        }
+    },
+
+    /**
+     * The start center feeds all the other centers, which all feed the end center.
+     */
+    FAN_OUT("fan-out", 3) {
+        @Override
+        void connect(List<ProductionCenter> centers, List<Connection> connections, int maxOutDegree,
+                     SplittableRandom random) {
+            ProductionCenter source = centers.get(0);
+            ProductionCenter sink = centers.get(centers.size() - 1);
+            for (int i = 1; i + 1 < centers.size(); i++) {
+                connections.add(new Connection(source, centers.get(i)));
+                connections.add(new Connection(centers.get(i), sink));
+            }
+        }
+    },
+
+    /**
+     * A chain of diamonds: a center splits into two branches which merge into the next split center.
+     * Centers that do not complete a diamond extend the chain.
+     */
+    DIAMOND("diamond", 4) {
+        @Override
+        void connect(List<ProductionCenter> centers, List<Connection> connections, int maxOutDegree,
+                     SplittableRandom random) {
+            int split = 0;
+            while (split + 3 < centers.size()) {
+                ProductionCenter merge = centers.get(split + 3);
+                for (int branch = split + 1; branch <= split + 2; branch++) {
+                    connections.add(new Connection(centers.get(split), centers.get(branch)));
+                    connections.add(new Connection(centers.get(branch), merge));
+                }
+                split += 3;
+            }
+            for (int i = split; i + 1 < centers.size(); i++) {
+                connections.add(new Connection(centers.get(i), centers.get(i + 1)));
+            }
+        }
+    },
+
+    /**
+     * A random acyclic graph: every center except the end center feeds one to {@code maxOutDegree} distinct later centers,
+     * and every center except the start center is fed by at least one earlier center.
+     */
+    RANDOM_DAG("random-dag", 2) {
+        @Override
+        void connect(List<ProductionCenter> centers, List<Connection> connections, int maxOutDegree,
+                     SplittableRandom random) {
+            int count = centers.size();
+            boolean[] fed = new boolean[count];
+            // The positions of a partial Fisher-Yates shuffle of the later centers that differ from their index.
+            Map<Integer, Integer> shuffled = new HashMap<>();
+            for (int from = 0; from + 1 < count; from++) {
+                int later = count - from - 1;
+                int outDegree = 1 + random.nextInt(Math.min(maxOutDegree, later));
+                shuffled.clear();
+                for (int k = 0; k < outDegree; k++) {
+                    int swap = k + random.nextInt(later - k);
+                    int to = from + 1 + shuffled.getOrDefault(swap, swap);
+                    shuffled.put(swap, shuffled.getOrDefault(k, k));
+                    connections.add(new Connection(centers.get(from), centers.get(to)));
+                    fed[to] = true;
+                }
+            }
+            for (int to = 1; to < count; to++) {
+                if (!fed[to]) {
+                    connections.add(new Connection(centers.get(random.nextInt(to)), centers.get(to)));
+                }
+            }
+        }
+    };
+
+    private final String optionName;
+    private final int minCenters;
+
+    Topology(String optionName, int minCenters) {
+        this.optionName = optionName;
+        this.minCenters = minCenters;
+    }
+
+    /**
+     * Appends the connections of the shape between the given centers.
+     */
+    abstract void connect(List<ProductionCenter> centers, List<Connection> connections, int maxOutDegree,
+                          SplittableRandom random);
+
+    public String getOptionName() {
+        return optionName;
+    }
+
+    /**
+     * @return the smallest number of centers the shape can be built with
+     */
+    public int getMinCenters() {
+        return minCenters;
+    }
+
+    /**
+     * Resolves a topology by its command line name.
+     *
+     * @param optionName the name of the topology, e.g. {@code random-dag}
+     * @return the matching topology
+     * @throws IllegalArgumentException if no topology has the given name
+     */
+    public static Topology fromOptionName(String optionName) {
+        for (Topology topology : values()) {
+            if (topology.optionName.equalsIgnoreCase(optionName.trim())) {
+                return topology;
+            }
+        }
+        throw new IllegalArgumentException("Unknown topology: " + optionName);
+    }
+}
@@ -0,0 +1,39 @@
+package org.production.io;
+
+import org.production.service.AllocationResult;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes the best worker allocation of an optimization in the comma separated layout of {@link CsvWritter}:
+ * the makespans and the number of evaluations first, then one row per phase and center with its workers.
+ */
+public class AllocationResultWriter {
+    static final String HEADER = "Metric, Phase, PhaseStart, ProductionCenter, Value";
+
+    public static void writeResult(String filePath, AllocationResult result) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
+            writer.write(HEADER);
+            writer.newLine();
+
+            writer.write(String.format(Locale.ROOT, "Makespan, , , , %.2f", result.makespan()));
+            writer.newLine();
+            writer.write(String.format(Locale.ROOT, "GreedyMakespan, , , , %.2f", result.greedyMakespan()));
+            writer.newLine();
+            writer.write(String.format(Locale.ROOT, "Evaluations, , , , %d", result.evaluations()));
+            writer.newLine();
+            for (int phase = 0; phase < result.phaseWorkers().size(); phase++) {
+                List<Integer> workers = result.phaseWorkers().get(phase);
+                for (int center = 0; center < workers.size(); center++) {
+                    writer.write(String.format(Locale.ROOT, "Workers, %d, %.2f, %s, %d", phase,
+                            phase * result.phaseLength(), result.centerNames().get(center), workers.get(center)));
+                    writer.newLine();
+                }
+            }
+        }
+    }
+}
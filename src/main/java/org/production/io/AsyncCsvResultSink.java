@@ -0,0 +1,199 @@
+package org.production.io;
+
+import org.production.models.SimulationResult;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the rows to a CSV file with a {@link FastCsvWriter} on a background thread.
+ * <p>
+ * Rows are collected into batches; full batches are handed to the writer thread through a bounded queue.
+ * When the writer falls behind, {@link #accept} blocks until a batch was written, so at most
+ * {@code (queueCapacity + 2) * batchSize} rows are held in memory regardless of the length of the run.
+ */
+public class AsyncCsvResultSink implements ResultSink {
+    private static final int DEFAULT_BATCH_SIZE = 4096;
+    private static final int DEFAULT_QUEUE_CAPACITY = 4;
+    private static final List<SimulationResult> END_OF_STREAM = List.of();
+    private static final List<SimulationResult> SYNC = Collections.unmodifiableList(new ArrayList<>());
+
+    private final int batchSize;
+    private final BlockingQueue<List<SimulationResult>> batches;
+    private final BlockingQueue<Long> syncedPositions = new ArrayBlockingQueue<>(1);
+    private final Thread writerThread;
+    private List<SimulationResult> currentBatch;
+    private volatile IOException failure;
+    private boolean closed;
+
+    public AsyncCsvResultSink(String filePath) throws IOException {
+        this(filePath, DEFAULT_BATCH_SIZE, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param filePath      the CSV file to write, replaced if it exists
+     * @param batchSize     the number of rows handed to the writer thread at once
+     * @param queueCapacity the number of full batches that may wait for the writer thread
+     * @throws IOException if the file cannot be created
+     */
+    public AsyncCsvResultSink(String filePath, int batchSize, int queueCapacity) throws IOException {
+        this(new FastCsvWriter(filePath), batchSize, queueCapacity);
+    }
+
+    /**
+     * Creates a sink continuing a CSV file written up to a checkpoint.
+     *
+     * @param filePath       the CSV file to continue
+     * @param resumePosition the length of the file at the checkpoint, as returned by {@link #sync()};
+     *                       the rest of the file is discarded
+     * @throws IOException if the file cannot be opened or is shorter than the resume position
+     */
+    public AsyncCsvResultSink(String filePath, long resumePosition) throws IOException {
+        this(new FastCsvWriter(Path.of(filePath), Locale.getDefault(Locale.Category.FORMAT), resumePosition),
+                DEFAULT_BATCH_SIZE, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    private AsyncCsvResultSink(FastCsvWriter writer, int batchSize, int queueCapacity) throws IOException {
+        if (batchSize <= 0 || queueCapacity <= 0) {
+            writer.close();
+            throw new IllegalArgumentException("Batch size and queue capacity must be positive");
+        }
+        this.batchSize = batchSize;
+        this.batches = new ArrayBlockingQueue<>(queueCapacity);
+        this.currentBatch = new ArrayList<>(batchSize);
+
+        this.writerThread = new Thread(() -> writeBatches(writer), "csv-result-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    @Override
+    public void accept(SimulationResult result) {
+        if (closed) {
+            throw new IllegalStateException("The result sink is closed");
+        }
+        currentBatch.add(result);
+        if (currentBatch.size() >= batchSize) {
+            try {
+                handOver(currentBatch);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            currentBatch = new ArrayList<>(batchSize);
+        }
+    }
+
+    @Override
+    public boolean supportsSync() {
+        return true;
+    }
+
+    /**
+     * Hands the pending rows to the writer thread and waits until it has written them to the file.
+     */
+    @Override
+    public long sync() throws IOException {
+        if (closed) {
+            throw new IllegalStateException("The result sink is closed");
+        }
+        if (!currentBatch.isEmpty()) {
+            handOver(currentBatch);
+            currentBatch = new ArrayList<>(batchSize);
+        }
+        handOver(SYNC);
+        try {
+            Long position;
+            while ((position = syncedPositions.poll(100, TimeUnit.MILLISECONDS)) == null) {
+                if (failure != null || !writerThread.isAlive()) {
+                    break;
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            if (position == null) {
+                throw new IOException("The CSV writer has stopped");
+            }
+            return position;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the CSV writer");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            if (!currentBatch.isEmpty()) {
+                handOver(currentBatch);
+            }
+            handOver(END_OF_STREAM);
+        } finally {
+            try {
+                writerThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the CSV writer");
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Puts the batch into the queue, waiting for free space while the writer thread is alive.
+     */
+    private void handOver(List<SimulationResult> batch) throws IOException {
+        try {
+            while (!batches.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+                if (failure != null || !writerThread.isAlive()) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while handing rows to the CSV writer");
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void writeBatches(FastCsvWriter writer) {
+        try (writer) {
+            List<SimulationResult> batch;
+            while ((batch = batches.take()) != END_OF_STREAM) {
+                if (batch == SYNC) {
+                    syncedPositions.add(writer.sync());
+                    continue;
+                }
+                for (SimulationResult result : batch) {
+                    writer.accept(result);
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+        } catch (UncheckedIOException e) {
+            failure = e.getCause();
+        } catch (InterruptedException e) {
+            failure = new InterruptedIOException("The CSV writer was interrupted");
+        } catch (RuntimeException e) {
+            failure = new IOException("The CSV writer failed", e);
+        }
+    }
+}
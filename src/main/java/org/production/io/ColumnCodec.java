@@ -0,0 +1,137 @@
+package org.production.io;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Encoding of the integer columns of the columnar output.
+ * <p>
+ * A column is stored as the deltas between consecutive values, run-length encoded as pairs of
+ * (run length, zigzag delta), both written as unsigned LEB128 varints. The simulated time advances
+ * by a constant step and the counts of a center change rarely, so most columns collapse to a few runs.
+ */
+final class ColumnCodec {
+
+    private ColumnCodec() {
+    }
+
+    /**
+     * Growable byte array the columns are encoded into.
+     */
+    static final class Encoder {
+        private byte[] bytes = new byte[256];
+        private int size;
+
+        /**
+         * Appends a delta/RLE encoded column.
+         *
+         * @param values the column values
+         * @param count  the number of values to encode
+         */
+        void writeColumn(long[] values, int count) {
+            long previous = 0;
+            long runDelta = 0;
+            int runLength = 0;
+            for (int i = 0; i < count; i++) {
+                long delta = values[i] - previous;
+                previous = values[i];
+                if (runLength > 0 && delta == runDelta) {
+                    runLength++;
+                } else {
+                    if (runLength > 0) {
+                        writeRun(runLength, runDelta);
+                    }
+                    runDelta = delta;
+                    runLength = 1;
+                }
+            }
+            if (runLength > 0) {
+                writeRun(runLength, runDelta);
+            }
+        }
+
+        private void writeRun(int runLength, long delta) {
+            writeVarLong(runLength);
+            writeVarLong((delta << 1) ^ (delta >> 63));
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void writeBytes(byte[] data) {
+            ensureCapacity(data.length);
+            System.arraycopy(data, 0, bytes, size, data.length);
+            size += data.length;
+        }
+
+        void write(Encoder other) {
+            ensureCapacity(other.size);
+            System.arraycopy(other.bytes, 0, bytes, size, other.size);
+            size += other.size;
+        }
+
+        private void ensureCapacity(int length) {
+            if (size + length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + length));
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        void reset() {
+            size = 0;
+        }
+
+        ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(bytes, 0, size);
+        }
+    }
+
+    /**
+     * Reads back the values of a delta/RLE encoded column.
+     */
+    static final class Decoder {
+        private final ByteBuffer buffer;
+        private long value;
+        private long runDelta;
+        private long runRemaining;
+
+        /**
+         * @param buffer the encoded column; its position is advanced while decoding
+         */
+        Decoder(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        long next() {
+            if (runRemaining == 0) {
+                runRemaining = readVarLong(buffer);
+                long zigzag = readVarLong(buffer);
+                runDelta = (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+            runRemaining--;
+            value += runDelta;
+            return value;
+        }
+    }
+
+    static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in columnar output");
+    }
+}
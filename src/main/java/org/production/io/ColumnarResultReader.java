@@ -0,0 +1,258 @@
+package org.production.io;
+
+import org.production.models.SimulationResult;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads the files written by {@link ColumnarResultSink}.
+ * Only the footer is read when the file is opened; scanning a single center reads the index of every row group
+ * and just the segments of that center, so its series can be extracted without reading the rows of the other
+ * centers.
+ */
+public class ColumnarResultReader implements AutoCloseable {
+
+    /**
+     * Receives the rows of a scan.
+     */
+    @FunctionalInterface
+    public interface RowConsumer {
+        void accept(double time, String productionCenter, int workersCount, int bufferCount);
+    }
+
+    private final FileChannel channel;
+    private final List<String> centerNames;
+    private final long[] groupRows;
+    private final long[] groupIndexOffsets;
+    private final int[] groupIndexLengths;
+
+    private ColumnarResultReader(FileChannel channel, List<String> centerNames, long[] groupRows,
+                                 long[] groupIndexOffsets, int[] groupIndexLengths) {
+        this.channel = channel;
+        this.centerNames = centerNames;
+        this.groupRows = groupRows;
+        this.groupIndexOffsets = groupIndexOffsets;
+        this.groupIndexLengths = groupIndexLengths;
+    }
+
+    /**
+     * Opens a columnar output file and reads its footer.
+     *
+     * @param path the file written by {@link ColumnarResultSink}
+     * @return the reader, to be closed by the caller
+     * @throws IOException if the file cannot be read or is not a columnar output file
+     */
+    public static ColumnarResultReader open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < 2 * Integer.BYTES + ColumnarResultSink.TRAILER_SIZE) {
+                throw new IOException("Not a columnar output file: " + path);
+            }
+            ByteBuffer header = read(channel, 0, 2 * Integer.BYTES);
+            ByteBuffer trailer = read(channel, size - ColumnarResultSink.TRAILER_SIZE, ColumnarResultSink.TRAILER_SIZE);
+            long footerOffset = trailer.getLong();
+            if (header.getInt() != ColumnarResultSink.MAGIC || trailer.getInt() != ColumnarResultSink.MAGIC) {
+                throw new IOException("Not a columnar output file: " + path);
+            }
+            int version = header.getInt();
+            if (version != ColumnarResultSink.VERSION) {
+                throw new IOException("Unsupported columnar output version " + version + ": " + path);
+            }
+            long footerLength = size - ColumnarResultSink.TRAILER_SIZE - footerOffset;
+            if (footerOffset < 0 || footerLength < 0 || footerLength > Integer.MAX_VALUE) {
+                throw new IOException("Damaged columnar output footer: " + path);
+            }
+
+            ByteBuffer footer = read(channel, footerOffset, (int) footerLength);
+            List<String> centerNames = readDictionary(footer);
+            int groupCount = (int) ColumnCodec.readVarLong(footer);
+            long[] groupRows = new long[groupCount];
+            long[] groupIndexOffsets = new long[groupCount];
+            int[] groupIndexLengths = new int[groupCount];
+            for (int group = 0; group < groupCount; group++) {
+                groupRows[group] = ColumnCodec.readVarLong(footer);
+                groupIndexOffsets[group] = ColumnCodec.readVarLong(footer);
+                groupIndexLengths[group] = (int) ColumnCodec.readVarLong(footer);
+            }
+            return new ColumnarResultReader(channel, centerNames, groupRows, groupIndexOffsets, groupIndexLengths);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static List<String> readDictionary(ByteBuffer footer) {
+        int count = (int) ColumnCodec.readVarLong(footer);
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte[] bytes = new byte[(int) ColumnCodec.readVarLong(footer)];
+            footer.get(bytes);
+            names.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    /**
+     * Reads the index of a row group, which follows the segments of the group.
+     */
+    private RowGroupIndex readRowGroup(int group) throws IOException {
+        long groupOffset = group == 0
+                ? 2 * Integer.BYTES
+                : groupIndexOffsets[group - 1] + groupIndexLengths[group - 1];
+        ByteBuffer index = read(channel, groupIndexOffsets[group], groupIndexLengths[group]);
+        int rows = (int) ColumnCodec.readVarLong(index);
+        int centerColumnLength = (int) ColumnCodec.readVarLong(index);
+        int segmentCount = (int) ColumnCodec.readVarLong(index);
+        int[] centers = new int[segmentCount];
+        int[] segmentRows = new int[segmentCount];
+        long[] segmentOffsets = new long[segmentCount];
+        int[] segmentLengths = new int[segmentCount];
+        int center = -1;
+        long offset = groupOffset + centerColumnLength;
+        for (int segment = 0; segment < segmentCount; segment++) {
+            center += (int) ColumnCodec.readVarLong(index) + 1;
+            centers[segment] = center;
+            segmentRows[segment] = (int) ColumnCodec.readVarLong(index);
+            segmentLengths[segment] = (int) ColumnCodec.readVarLong(index);
+            segmentOffsets[segment] = offset;
+            offset += segmentLengths[segment];
+        }
+        return new RowGroupIndex(rows, groupOffset, centerColumnLength, centers, segmentRows, segmentOffsets,
+                segmentLengths);
+    }
+
+    /**
+     * @return the names of the centers in the order they first appeared in the output
+     */
+    public List<String> getCenterNames() {
+        return centerNames;
+    }
+
+    /**
+     * @return the total number of rows in the file
+     */
+    public long getRowCount() {
+        long count = 0;
+        for (long rows : groupRows) {
+            count += rows;
+        }
+        return count;
+    }
+
+    /**
+     * Passes the rows of a single center to the consumer in the order they were written.
+     *
+     * @param productionCenter the name of the center
+     * @param consumer         the consumer of the rows
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the file has no rows of the center
+     */
+    public void scanCenter(String productionCenter, RowConsumer consumer) throws IOException {
+        int center = centerNames.indexOf(productionCenter);
+        if (center < 0) {
+            throw new IllegalArgumentException("No rows for production center: " + productionCenter);
+        }
+
+        for (int group = 0; group < groupRows.length; group++) {
+            RowGroupIndex rowGroup = readRowGroup(group);
+            int segment = Arrays.binarySearch(rowGroup.centers(), center);
+            if (segment < 0) {
+                continue;
+            }
+            SegmentDecoder decoder = readSegment(rowGroup, segment);
+            for (int row = 0; row < rowGroup.segmentRows()[segment]; row++) {
+                decoder.next(productionCenter, consumer);
+            }
+        }
+    }
+
+    /**
+     * Passes all rows to the consumer in the order they were written.
+     *
+     * @param consumer the consumer of the rows
+     * @throws IOException if the file cannot be read
+     */
+    public void scanAll(RowConsumer consumer) throws IOException {
+        SegmentDecoder[] decoders = new SegmentDecoder[centerNames.size()];
+        for (int group = 0; group < groupRows.length; group++) {
+            RowGroupIndex rowGroup = readRowGroup(group);
+            ColumnCodec.Decoder centerColumn = new ColumnCodec.Decoder(
+                    read(channel, rowGroup.centerColumnOffset(), rowGroup.centerColumnLength()));
+            for (int segment = 0; segment < rowGroup.centers().length; segment++) {
+                decoders[rowGroup.centers()[segment]] = readSegment(rowGroup, segment);
+            }
+
+            for (int row = 0; row < rowGroup.rows(); row++) {
+                int center = (int) centerColumn.next();
+                decoders[center].next(centerNames.get(center), consumer);
+            }
+        }
+    }
+
+    /**
+     * Reads the rows of a single center.
+     *
+     * @param productionCenter the name of the center
+     * @return the rows of the center in the order they were written
+     * @throws IOException if the file cannot be read
+     */
+    public List<SimulationResult> readCenter(String productionCenter) throws IOException {
+        List<SimulationResult> results = new ArrayList<>();
+        scanCenter(productionCenter, (time, name, workers, buffer) ->
+                results.add(new SimulationResult(time, name, workers, buffer)));
+        return results;
+    }
+
+    private SegmentDecoder readSegment(RowGroupIndex rowGroup, int segment) throws IOException {
+        ByteBuffer bytes = read(channel, rowGroup.segmentOffsets()[segment], rowGroup.segmentLengths()[segment]);
+        return new SegmentDecoder(nextColumn(bytes), nextColumn(bytes), nextColumn(bytes));
+    }
+
+    private static ColumnCodec.Decoder nextColumn(ByteBuffer segment) {
+        int length = (int) ColumnCodec.readVarLong(segment);
+        ByteBuffer column = segment.slice(segment.position(), length);
+        segment.position(segment.position() + length);
+        return new ColumnCodec.Decoder(column);
+    }
+
+    private static ByteBuffer read(FileChannel channel, long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of columnar output");
+            }
+        }
+        return buffer.flip();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Location of the columns of a row group in the file; only the non-empty segments are listed,
+     * in ascending center order.
+     */
+    private record RowGroupIndex(int rows, long centerColumnOffset, int centerColumnLength, int[] centers,
+                                 int[] segmentRows, long[] segmentOffsets, int[] segmentLengths) {
+    }
+
+    private record SegmentDecoder(ColumnCodec.Decoder times, ColumnCodec.Decoder workers,
+                                  ColumnCodec.Decoder buffers) {
+
+        void next(String productionCenter, RowConsumer consumer) {
+            consumer.accept(times.next() / 100.0, productionCenter, (int) workers.next(), (int) buffers.next());
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package org.production.io;
+
+import org.production.models.SimulationResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the rows into a compact columnar file that {@link ColumnarResultReader} reads back.
+ * <p>
+ * Rows are collected into row groups. Within a row group the rows of every center form a segment holding
+ * three columns: the time in hundredths (the precision of the CSV output), the workers and the buffer
+ * size, each delta/RLE encoded by {@link ColumnCodec}. The row order across centers is kept in a separate
+ * center index column. Center names are stored once, in a dictionary. A row group ends when a center has
+ * {@code rowsPerCenter} rows in it, so every segment holds a long series however many centers the plant has,
+ * or earlier when {@code maxBufferedRows} rows are buffered, which bounds the memory of the sink.
+ * <p>
+ * Layout: magic {@code "PSCF"} and format version, then per row group the center column, the non-empty
+ * segments in center order and the index of the group: its rows, the length of the center column and
+ * (center, rows, length) of every segment, whose offsets follow from the lengths. The footer holds the
+ * dictionary and the rows and the index location of every row group, followed by the footer offset and
+ * the magic. A reader locates a center's segments from the group indexes and reads only those bytes.
+ * Only the location of every written group is kept in memory.
+ */
+public class ColumnarResultSink implements ResultSink {
+    static final int MAGIC = 0x50534346;
+    static final int VERSION = 2;
+    static final int TRAILER_SIZE = Long.BYTES + Integer.BYTES;
+    private static final int DEFAULT_ROWS_PER_CENTER = 4096;
+    private static final int DEFAULT_MAX_BUFFERED_ROWS = 1 << 21;
+
+    private final FileChannel channel;
+    private final int rowsPerCenter;
+    private final int maxBufferedRows;
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final List<String> centerNames = new ArrayList<>();
+    private final List<CenterSegment> segments = new ArrayList<>();
+    private final ColumnCodec.Encoder columnEncoder = new ColumnCodec.Encoder();
+    private final ColumnCodec.Encoder segmentEncoder = new ColumnCodec.Encoder();
+    private final ColumnCodec.Encoder groupIndexEncoder = new ColumnCodec.Encoder();
+    private long[] centerColumn;
+    private int rows;
+    private long position;
+    private long[] groupRows = new long[16];
+    private long[] groupIndexOffsets = new long[16];
+    private long[] groupIndexLengths = new long[16];
+    private int groupCount;
+
+    public ColumnarResultSink(String filePath) throws IOException {
+        this(Path.of(filePath), DEFAULT_ROWS_PER_CENTER, DEFAULT_MAX_BUFFERED_ROWS);
+    }
+
+    /**
+     * @param path            the file to write, replaced if it exists
+     * @param rowsPerCenter   the number of rows of a center after which the row group is encoded and written
+     * @param maxBufferedRows the number of rows of all centers after which the row group is written in any case
+     * @throws IOException if the file cannot be created
+     */
+    public ColumnarResultSink(Path path, int rowsPerCenter, int maxBufferedRows) throws IOException {
+        if (rowsPerCenter <= 0 || maxBufferedRows <= 0) {
+            throw new IllegalArgumentException("Row group sizes must be positive: " + rowsPerCenter + ", "
+                    + maxBufferedRows);
+        }
+        this.rowsPerCenter = rowsPerCenter;
+        this.maxBufferedRows = maxBufferedRows;
+        this.centerColumn = new long[Math.min(maxBufferedRows, 1024)];
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+
+        ByteBuffer header = ByteBuffer.allocate(2 * Integer.BYTES).putInt(MAGIC).putInt(VERSION);
+        writeFully(header.flip());
+    }
+
+    @Override
+    public void accept(SimulationResult result) {
+        Integer center = dictionary.get(result.getProductionCenter());
+        if (center == null) {
+            center = centerNames.size();
+            dictionary.put(result.getProductionCenter(), center);
+            centerNames.add(result.getProductionCenter());
+            segments.add(new CenterSegment());
+        }
+
+        if (rows == centerColumn.length) {
+            centerColumn = Arrays.copyOf(centerColumn, Math.min(rows * 2, maxBufferedRows));
+        }
+        centerColumn[rows++] = center;
+        CenterSegment segment = segments.get(center);
+        segment.add(Math.round(result.getTime() * 100), result.getWorkersCount(), result.getBufferCount());
+
+        if (segment.rows == rowsPerCenter || rows == maxBufferedRows) {
+            try {
+                writeRowGroup();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void writeRowGroup() throws IOException {
+        columnEncoder.reset();
+        columnEncoder.writeColumn(centerColumn, rows);
+        int centerColumnLength = columnEncoder.size();
+        writeFully(columnEncoder.toByteBuffer());
+
+        groupIndexEncoder.reset();
+        int segmentCount = 0;
+        for (CenterSegment segment : segments) {
+            if (segment.rows > 0) {
+                segmentCount++;
+            }
+        }
+        groupIndexEncoder.writeVarLong(rows);
+        groupIndexEncoder.writeVarLong(centerColumnLength);
+        groupIndexEncoder.writeVarLong(segmentCount);
+        int previousCenter = -1;
+        for (int center = 0; center < segments.size(); center++) {
+            CenterSegment segment = segments.get(center);
+            if (segment.rows == 0) {
+                continue;
+            }
+            segmentEncoder.reset();
+            appendColumn(segment.times, segment.rows);
+            appendColumn(segment.workers, segment.rows);
+            appendColumn(segment.buffers, segment.rows);
+            groupIndexEncoder.writeVarLong(center - previousCenter - 1);
+            groupIndexEncoder.writeVarLong(segment.rows);
+            groupIndexEncoder.writeVarLong(segmentEncoder.size());
+            writeFully(segmentEncoder.toByteBuffer());
+            segment.rows = 0;
+            previousCenter = center;
+        }
+
+        if (groupCount == groupRows.length) {
+            groupRows = Arrays.copyOf(groupRows, groupCount * 2);
+            groupIndexOffsets = Arrays.copyOf(groupIndexOffsets, groupCount * 2);
+            groupIndexLengths = Arrays.copyOf(groupIndexLengths, groupCount * 2);
+        }
+        groupRows[groupCount] = rows;
+        groupIndexOffsets[groupCount] = position;
+        groupIndexLengths[groupCount] = groupIndexEncoder.size();
+        groupCount++;
+        writeFully(groupIndexEncoder.toByteBuffer());
+        rows = 0;
+    }
+
+    /**
+     * Appends a column to the current segment, prefixed with its encoded length.
+     */
+    private void appendColumn(long[] values, int count) {
+        columnEncoder.reset();
+        columnEncoder.writeColumn(values, count);
+        segmentEncoder.writeVarLong(columnEncoder.size());
+        segmentEncoder.write(columnEncoder);
+    }
+
+    private void writeFooter() throws IOException {
+        long footerOffset = position;
+        ColumnCodec.Encoder footer = new ColumnCodec.Encoder();
+
+        footer.writeVarLong(centerNames.size());
+        for (String name : centerNames) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            footer.writeVarLong(bytes.length);
+            footer.writeBytes(bytes);
+        }
+
+        footer.writeVarLong(groupCount);
+        for (int group = 0; group < groupCount; group++) {
+            footer.writeVarLong(groupRows[group]);
+            footer.writeVarLong(groupIndexOffsets[group]);
+            footer.writeVarLong(groupIndexLengths[group]);
+        }
+        writeFully(footer.toByteBuffer());
+
+        ByteBuffer trailer = ByteBuffer.allocate(TRAILER_SIZE).putLong(footerOffset).putInt(MAGIC);
+        writeFully(trailer.flip());
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (channel) {
+            if (rows > 0) {
+                writeRowGroup();
+            }
+            writeFooter();
+        }
+    }
+
+    /**
+     * Rows of one center in the current row group.
+     */
+    private static final class CenterSegment {
+        private long[] times = new long[16];
+        private long[] workers = new long[16];
+        private long[] buffers = new long[16];
+        private int rows;
+
+        void add(long time, int workersCount, int bufferCount) {
+            if (rows == times.length) {
+                times = Arrays.copyOf(times, rows * 2);
+                workers = Arrays.copyOf(workers, rows * 2);
+                buffers = Arrays.copyOf(buffers, rows * 2);
+            }
+            times[rows] = time;
+            workers[rows] = workersCount;
+            buffers[rows] = bufferCount;
+            rows++;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.production.io;
+
+import org.production.models.SimulationResult;
+
+/**
+ * Discards all rows and only counts them; suited for sweeps and benchmarks that need the totals of a run only.
+ */
+public class CountingResultSink implements ResultSink {
+    private long rows;
+
+    @Override
+    public void accept(SimulationResult result) {
+        rows++;
+    }
+
+    /**
+     * @return the number of rows accepted so far
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -8,12 +8,13 @@ import java.io.IOException;
 import java.util.List;
 
 public class CsvWritter {
+    static final String HEADER = "Time, ProductionCenter, WorkersCount, BufferCount";
 
     public static void writeResults(String filePath, List<SimulationResult> results) throws IOException {
 
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))){
 
-            writer.write("Time, ProductionCenter, WorkersCount, BufferCount");
+            writer.write(HEADER);
             writer.newLine();
 
 
@@ -1,10 +1,14 @@
 package org.production.io;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.production.models.ScenarioData;
 import org.production.models.Connection;
 import org.production.models.ProductionCenter;
+import org.production.models.ProductionGraph;
+import org.production.models.ServiceTimeDistribution;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -12,6 +16,9 @@ import java.io.IOException;
 import java.util.*;
 
 public class ExcelReader {
+    private static final Logger LOGGER = LogManager.getLogger(ExcelReader.class);
+    static final String SERVICE_TIME_COLUMN = "serviceTime";
+    static final String VARIATION_COLUMN = "variation";
 
     public static ScenarioData collectData(String filePath) throws IOException {
         try (FileInputStream fis = new FileInputStream(new File(filePath));
@@ -36,19 +43,31 @@ public class ExcelReader {
             }
             List<Connection> connections = readConnections(connSheet, centers);
 
-            String startCenterId = findStartCenterId(connections);
-            System.out.println("Defined Start Center ID: " + startCenterId);
-            String endCenterId = findEndCenterId(connections);
-
-            return new ScenarioData(centers, connections, workersCount, detailsCount, startCenterId, endCenterId);
+            return toScenarioData(centers, connections, workersCount, detailsCount);
         }
     }
 
+    /**
+     * Builds the scenario from the read sheets, locating the start and end centers in the production graph.
+     */
+    static ScenarioData toScenarioData(List<ProductionCenter> centers, List<Connection> connections,
+                                       int workersCount, int detailsCount) {
+        ProductionGraph graph = ProductionGraph.build(centers, connections);
+
+        String startCenterId = findStartCenterId(graph);
+        LOGGER.debug("Defined Start Center ID: {}", startCenterId);
+        String endCenterId = findEndCenterId(graph);
+
+        return new ScenarioData(centers, connections, workersCount, detailsCount, startCenterId, endCenterId, graph);
+    }
+
 
     private static List<ProductionCenter> readProductionCenters(Sheet sheet) {
-        System.out.println("=== Reading data from the ProductionCenter sheet ===");
+        LOGGER.debug("=== Reading data from the ProductionCenter sheet ===");
         List<ProductionCenter> result = new ArrayList<>();
         int headerRowIndex = findHeaderRow(sheet, "id");
+        int serviceTimeColumn = findColumn(sheet.getRow(headerRowIndex), SERVICE_TIME_COLUMN);
+        int variationColumn = findColumn(sheet.getRow(headerRowIndex), VARIATION_COLUMN);
 
         for (int i = headerRowIndex + 1; i <= sheet.getLastRowNum(); i++) {
             Row row = sheet.getRow(i);
@@ -60,17 +79,51 @@ public class ExcelReader {
             String name = getCellValueAsString(row.getCell(1));
             double performance = getNumericValue(row.getCell(2));
             int maxWorkers = (int) getNumericValue(row.getCell(3));
+            String serviceTime = serviceTimeColumn < 0 ? "" : getCellValueAsString(row.getCell(serviceTimeColumn));
+            double variation = variationColumn < 0 ? 0 : getNumericValue(row.getCell(variationColumn));
 
 
-            ProductionCenter pc = new ProductionCenter(id, name, maxWorkers, performance);
+            ProductionCenter pc = toProductionCenter(id, name, maxWorkers, performance, serviceTime, variation);
             result.add(pc);
-            System.out.println("Read center: " + pc);
+            LOGGER.debug("Read center: {}", pc);
         }
         return result;
     }
 
+    /**
+     * Creates a center from the cells of its row; without a service time distribution the processing time
+     * is deterministic.
+     *
+     * @throws IllegalArgumentException if the distribution is unknown or cannot take the variation
+     */
+    static ProductionCenter toProductionCenter(String id, String name, int maxWorkers, double performance,
+                                               String serviceTime, double variation) {
+        ServiceTimeDistribution distribution = serviceTime.isBlank()
+                ? ServiceTimeDistribution.DETERMINISTIC
+                : ServiceTimeDistribution.fromOptionName(serviceTime);
+        if (variation < 0 || variation > distribution.maxVariation()) {
+            throw new IllegalArgumentException("Center " + id + ": the variation of the "
+                    + distribution.getOptionName() + " service time must be between 0 and "
+                    + distribution.maxVariation() + ", got " + variation);
+        }
+        return new ProductionCenter(id, name, maxWorkers, performance, distribution, variation);
+    }
+
+    private static int findColumn(Row headerRow, String key) {
+        if (headerRow == null) {
+            return -1;
+        }
+        for (Cell cell : headerRow) {
+            if (cell != null && getCellValueAsString(cell).equalsIgnoreCase(key)) {
+                return cell.getColumnIndex();
+            }
+        }
+        return -1;
+    }
+
     private static List<Connection> readConnections(Sheet sheet, List<ProductionCenter> centers) {
         List<Connection> connections = new ArrayList<>();
+        Map<String, ProductionCenter> centersById = indexCentersById(centers);
         int headerRowIndex = findHeaderRow(sheet, "sourceCenter");
 
         for (int i = headerRowIndex + 1; i <= sheet.getLastRowNum(); i++) {
@@ -82,8 +135,8 @@ public class ExcelReader {
             String sourceId = getCellValueAsString(row.getCell(0));
             String destId = getCellValueAsString(row.getCell(1));
 
-            ProductionCenter fromCenter = findCenterById(centers, sourceId);
-            ProductionCenter toCenter = findCenterById(centers, destId);
+            ProductionCenter fromCenter = findCenterById(centersById, sourceId);
+            ProductionCenter toCenter = findCenterById(centersById, destId);
 
             if (fromCenter != null && toCenter != null) {
                 Connection conn = new Connection(fromCenter, toCenter);
@@ -93,36 +146,20 @@ public class ExcelReader {
         return connections;
     }
 
-    private static String findStartCenterId(List<Connection> connections) {
-        Set<String> sourceCenters = new HashSet<>();
-        Set<String> destCenters = new HashSet<>();
-
-        for (Connection conn : connections) {
-            sourceCenters.add(conn.fromCenter().getId());
-            destCenters.add(conn.toCenter().getId());
-        }
-
-        for (String source : sourceCenters) {
-            if (!destCenters.contains(source.trim())) {
-                return source.trim();
+    private static String findStartCenterId(ProductionGraph graph) {
+        for (int i = 0; i < graph.size(); i++) {
+            if (graph.inDegree(i) == 0 && graph.outDegree(i) > 0) {
+                return graph.center(i).getId();
             }
         }
         throw new RuntimeException("Unable to find starting center.");
     }
 
 
-    private static String findEndCenterId(List<Connection> connections) {
-        Set<String> sourceCenters = new HashSet<>();
-        Set<String> destCenters = new HashSet<>();
-
-        for (Connection conn : connections) {
-            sourceCenters.add(conn.fromCenter().getId());
-            destCenters.add(conn.toCenter().getId());
-        }
-
-        for (String dest : destCenters) {
-            if (!sourceCenters.contains(dest)) {
-                return dest;
+    private static String findEndCenterId(ProductionGraph graph) {
+        for (int i = 0; i < graph.size(); i++) {
+            if (graph.outDegree(i) == 0 && graph.inDegree(i) > 0) {
+                return graph.center(i).getId();
             }
         }
         throw new RuntimeException("Unable to find final center.");
@@ -170,13 +207,24 @@ public class ExcelReader {
         return cell.getNumericCellValue();
     }
 
-    private static ProductionCenter findCenterById(List<ProductionCenter> centers, String id) {
+    /**
+     * Indexes the centers by their normalized id; when ids differ only in case, the first center wins,
+     * matching the former case-insensitive linear lookup.
+     */
+    static Map<String, ProductionCenter> indexCentersById(List<ProductionCenter> centers) {
+        Map<String, ProductionCenter> centersById = new HashMap<>(centers.size() * 2);
         for (ProductionCenter pc : centers) {
-            if (pc.getId().equalsIgnoreCase(id.trim())) {
-                return pc;
-            }
+            centersById.putIfAbsent(normalizeId(pc.getId()), pc);
         }
-        return null;
+        return centersById;
+    }
+
+    static ProductionCenter findCenterById(Map<String, ProductionCenter> centersById, String id) {
+        return centersById.get(normalizeId(id));
+    }
+
+    private static String normalizeId(String id) {
+        return id.trim().toLowerCase(Locale.ROOT);
     }
 
     private static int extractColumnNumericValue(Sheet sheet, String key) {
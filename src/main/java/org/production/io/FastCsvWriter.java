@@ -0,0 +1,246 @@
+package org.production.io;
+
+import org.production.models.SimulationResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.DecimalFormatSymbols;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes the rows in the layout of {@link CsvWritter} without going through {@link String#format}.
+ * <p>
+ * Numbers are encoded digit by digit into a reusable byte buffer that is written to a {@link FileChannel}
+ * when full, and the UTF-8 bytes of every center name are encoded once. The time is rounded to two
+ * decimals half-up like {@code %.2f} does; values close to a rounding tie, very large values and
+ * non-finite values are left to the formatter, so the output is byte-for-byte the one of
+ * {@link CsvWritter} in the same locale.
+ */
+public class FastCsvWriter implements ResultSink {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final double MAX_FAST_VALUE = 1e9;
+    private static final double TIE_TOLERANCE = 1e-6;
+    private static final byte[] SEPARATOR = ", ".getBytes(StandardCharsets.US_ASCII);
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final Map<String, byte[]> encodedNames = new HashMap<>();
+    private final byte[] lineSeparator = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    private final byte[] digits = new byte[20];
+    private final Locale locale;
+    private final byte decimalSeparator;
+    private final boolean asciiDigits;
+
+    public FastCsvWriter(String filePath) throws IOException {
+        this(Path.of(filePath), Locale.getDefault(Locale.Category.FORMAT));
+    }
+
+    /**
+     * @param path   the CSV file to write, replaced if it exists
+     * @param locale the locale whose decimal separator is used, as {@code String.format} would
+     * @throws IOException if the file cannot be created
+     */
+    public FastCsvWriter(Path path, Locale locale) throws IOException {
+        this(path, locale, -1);
+    }
+
+    /**
+     * @param path           the CSV file to write
+     * @param locale         the locale whose decimal separator is used, as {@code String.format} would
+     * @param resumePosition the length returned by {@link #sync()} when the file was written before: the file is cut
+     *                       to it and the rows are appended; or a negative value to replace the file
+     * @throws IOException if the file cannot be opened, or is shorter than the resume position
+     */
+    public FastCsvWriter(Path path, Locale locale, long resumePosition) throws IOException {
+        this.locale = locale;
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+        char separator = symbols.getDecimalSeparator();
+        // Locales with non-ASCII digits or separators are rare; they are encoded by the formatter.
+        this.asciiDigits = symbols.getZeroDigit() == '0' && separator < 0x80;
+        this.decimalSeparator = (byte) separator;
+        if (resumePosition >= 0) {
+            this.channel = FileChannel.open(path, StandardOpenOption.WRITE);
+            if (channel.size() < resumePosition) {
+                channel.close();
+                throw new IOException("The file " + path + " is shorter than the resume position " + resumePosition);
+            }
+            channel.truncate(resumePosition);
+            channel.position(resumePosition);
+            return;
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+
+        put(CsvWritter.HEADER.getBytes(StandardCharsets.US_ASCII));
+        put(lineSeparator);
+    }
+
+    /**
+     * Writes all rows to a CSV file.
+     *
+     * @param filePath the CSV file to write
+     * @param results  the rows
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeResults(String filePath, List<SimulationResult> results) throws IOException {
+        try (FastCsvWriter writer = new FastCsvWriter(filePath)) {
+            for (SimulationResult result : results) {
+                writer.accept(result);
+            }
+        }
+    }
+
+    @Override
+    public void accept(SimulationResult result) {
+        try {
+            Double time = result.getTime();
+            if (time == null) {
+                putFormattedRow(null, result.getProductionCenter(), result.getWorkersCount(), result.getBufferCount());
+            } else {
+                write(time, result.getProductionCenter(), result.getWorkersCount(), result.getBufferCount());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes one row.
+     *
+     * @param time             the simulated time
+     * @param productionCenter the name of the center
+     * @param workersCount     the workers assigned to the center
+     * @param bufferCount      the details waiting in the buffer of the center
+     * @throws IOException if the buffer cannot be flushed to the file
+     */
+    public void write(double time, String productionCenter, int workersCount, int bufferCount) throws IOException {
+        if (!asciiDigits) {
+            putFormattedRow(time, productionCenter, workersCount, bufferCount);
+            return;
+        }
+        putFixed2(time);
+        put(SEPARATOR);
+        put(encodedNames.computeIfAbsent(String.valueOf(productionCenter), n -> n.getBytes(StandardCharsets.UTF_8)));
+        put(SEPARATOR);
+        putLong(workersCount);
+        put(SEPARATOR);
+        putLong(bufferCount);
+        put(lineSeparator);
+    }
+
+    /**
+     * Encodes the value with two decimals rounded half-up, like {@code %.2f}.
+     */
+    private void putFixed2(double value) throws IOException {
+        double magnitude = Math.abs(value);
+        if (!(magnitude < MAX_FAST_VALUE)) {
+            putFormatted(value);
+            return;
+        }
+
+        double scaled = magnitude * 100;
+        long floor = (long) scaled;
+        double fraction = scaled - floor;
+        // The formatter rounds the shortest decimal representation of the double; only near a tie
+        // can that differ from rounding the binary value, so ties are left to the formatter.
+        if (Math.abs(fraction - 0.5) <= TIE_TOLERANCE + 4 * Math.ulp(scaled)) {
+            putFormatted(value);
+            return;
+        }
+        long hundredths = fraction > 0.5 ? floor + 1 : floor;
+
+        if (value < 0 || (value == 0 && 1 / value < 0)) {
+            putByte((byte) '-');
+        }
+        putLong(hundredths / 100);
+        putByte(decimalSeparator);
+        long cents = hundredths % 100;
+        putByte((byte) ('0' + cents / 10));
+        putByte((byte) ('0' + cents % 10));
+    }
+
+    private void putFormattedRow(Double time, String productionCenter, int workersCount, int bufferCount)
+            throws IOException {
+        put(String.format(locale, "%.2f, %s, %d, %d", time, productionCenter, workersCount, bufferCount)
+                .getBytes(StandardCharsets.UTF_8));
+        put(lineSeparator);
+    }
+
+    private void putFormatted(double value) throws IOException {
+        put(String.format(locale, "%.2f", value).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void putLong(long value) throws IOException {
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                put(Long.toString(value).getBytes(StandardCharsets.US_ASCII));
+                return;
+            }
+            putByte((byte) '-');
+            value = -value;
+        }
+        int position = digits.length;
+        do {
+            digits[--position] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        ensureCapacity(digits.length - position);
+        buffer.put(digits, position, digits.length - position);
+    }
+
+    private void putByte(byte value) throws IOException {
+        ensureCapacity(1);
+        buffer.put(value);
+    }
+
+    private void put(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.capacity()) {
+            flushBuffer();
+            channel.write(ByteBuffer.wrap(bytes));
+            return;
+        }
+        ensureCapacity(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private void ensureCapacity(int length) throws IOException {
+        if (buffer.remaining() < length) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public boolean supportsSync() {
+        return true;
+    }
+
+    @Override
+    public long sync() throws IOException {
+        flushBuffer();
+        channel.force(false);
+        return channel.position();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (channel) {
+            flushBuffer();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.production.io;
+
+import org.production.models.SimulationResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Keeps all rows in memory; suited for tests and short runs whose results are inspected programmatically.
+ */
+public class InMemoryResultSink implements ResultSink {
+    private final List<SimulationResult> results = new ArrayList<>();
+
+    @Override
+    public void accept(SimulationResult result) {
+        results.add(result);
+    }
+
+    /**
+     * @return the unmodifiable view of the rows accepted so far
+     */
+    public List<SimulationResult> getResults() {
+        return Collections.unmodifiableList(results);
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,38 @@
+package org.production.io;
+
+import org.production.service.Estimate;
+import org.production.service.MonteCarloSummary;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Writes the estimates of Monte Carlo replications, one row per quantity, in the comma separated layout
+ * of {@link CsvWritter}. The per-center rows hold the time-averaged buffer size of the center.
+ */
+public class MonteCarloSummaryWriter {
+    static final String HEADER = "Metric, ProductionCenter, Mean, StdDev, Lower95, Upper95, Replications";
+
+    public static void writeSummary(String filePath, MonteCarloSummary summary) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
+            writer.write(HEADER);
+            writer.newLine();
+
+            writeRow(writer, "Makespan", "", summary.makespan());
+            writeRow(writer, "Throughput", "", summary.throughput());
+            writeRow(writer, "BufferedDetails", "", summary.meanBufferedDetails());
+            for (int center = 0; center < summary.centerNames().size(); center++) {
+                writeRow(writer, "Buffer", summary.centerNames().get(center), summary.centerMeanBuffers().get(center));
+            }
+        }
+    }
+
+    private static void writeRow(BufferedWriter writer, String metric, String center, Estimate estimate)
+            throws IOException {
+        writer.write(String.format(Locale.ROOT, "%s, %s, %.4f, %.4f, %.4f, %.4f, %d", metric, center,
+                estimate.mean(), estimate.standardDeviation(), estimate.lower(), estimate.upper(), estimate.count()));
+        writer.newLine();
+    }
+}
@@ -0,0 +1,96 @@
+package org.production.io;
+
+import java.io.IOException;
+
+/**
+ * Defines the format of the simulation output file.
+ */
+public enum OutputFormat {
+
+    /**
+     * Text rows in the layout of {@link CsvWritter}, written on a background thread.
+     */
+    CSV("csv", true) {
+        @Override
+        public ResultSink createSink(String filePath) throws IOException {
+            return new AsyncCsvResultSink(filePath);
+        }
+
+        @Override
+        public ResultSink resumeSink(String filePath, long position) throws IOException {
+            return new AsyncCsvResultSink(filePath, position);
+        }
+    },
+
+    /**
+     * Compressed columnar file, read back with {@link ColumnarResultReader}; suited for long runs.
+     */
+    COLUMNAR("columnar", false) {
+        @Override
+        public ResultSink createSink(String filePath) throws IOException {
+            return new ColumnarResultSink(filePath);
+        }
+
+        @Override
+        public ResultSink resumeSink(String filePath, long position) {
+            throw new UnsupportedOperationException("The columnar format cannot be resumed");
+        }
+    };
+
+    private final String optionName;
+    private final boolean resumable;
+
+    OutputFormat(String optionName, boolean resumable) {
+        this.optionName = optionName;
+        this.resumable = resumable;
+    }
+
+    /**
+     * Creates the sink writing the output file.
+     *
+     * @param filePath the output file, replaced if it exists
+     * @return the sink, to be closed once the simulation is complete
+     * @throws IOException if the file cannot be created
+     */
+    public abstract ResultSink createSink(String filePath) throws IOException;
+
+    /**
+     * Creates the sink continuing an output file written up to a checkpoint.
+     *
+     * @param filePath the output file
+     * @param position the length of the file at the checkpoint, as returned by {@link ResultSink#sync()};
+     *                 the rest of the file is discarded
+     * @return the sink appending the rows recorded after the checkpoint
+     * @throws IOException                   if the file cannot be opened or is shorter than the position
+     * @throws UnsupportedOperationException if the format does not {@linkplain #supportsResume() support resuming}
+     */
+    public abstract ResultSink resumeSink(String filePath, long position) throws IOException;
+
+    /**
+     * @return true if an output file written up to a checkpoint can be continued with {@link #resumeSink};
+     *         the columnar format only writes the footer indexing its row groups when the file is closed
+     */
+    public boolean supportsResume() {
+        return resumable;
+    }
+
+    public String getOptionName() {
+        return optionName;
+    }
+
+    /**
+     * Resolves a format by its command line name.
+     *
+     * @param optionName the name of the format, e.g. {@code columnar}
+     * @return the matching format
+     * @throws IllegalArgumentException if no format has the given name
+     */
+    public static OutputFormat fromOptionName(String optionName) {
+        for (OutputFormat format : values()) {
+            if (format.optionName.equalsIgnoreCase(optionName.trim())) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown output format: " + optionName);
+    }
+}
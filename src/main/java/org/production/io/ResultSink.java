@@ -0,0 +1,49 @@
+package org.production.io;
+
+import org.production.models.SimulationResult;
+
+import java.io.IOException;
+
+/**
+ * Destination of the rows recorded during a simulation run.
+ * The runner pushes every row as soon as it is recorded, so a sink decides how many rows are kept in memory.
+ * Rows are pushed from a single thread at a time.
+ */
+public interface ResultSink extends AutoCloseable {
+
+    /**
+     * Accepts the next recorded row.
+     *
+     * @param result the row
+     * @throws java.io.UncheckedIOException if the sink failed to store earlier rows
+     */
+    void accept(SimulationResult result);
+
+    /**
+     * @return true if {@link #sync()} can store the rows accepted so far, so the output can be continued
+     *         from a checkpoint
+     */
+    default boolean supportsSync() {
+        return false;
+    }
+
+    /**
+     * Writes the rows accepted so far to the output file, so they survive the process, e.g. for a checkpoint.
+     *
+     * @return the length of the output file holding exactly these rows, from which
+     *         {@link OutputFormat#resumeSink} continues the file
+     * @throws IOException                   if the rows cannot be stored
+     * @throws UnsupportedOperationException if the sink does not {@linkplain #supportsSync() support syncing}
+     */
+    default long sync() throws IOException {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " cannot be resumed");
+    }
+
+    /**
+     * Stores the pending rows and releases the resources of the sink.
+     *
+     * @throws IOException if the rows cannot be stored
+     */
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,255 @@
+package org.production.io;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.production.models.Connection;
+import org.production.models.ProductionCenter;
+import org.production.models.ProductionGraph;
+import org.production.models.ScenarioData;
+import org.production.models.ServiceTimeDistribution;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compiled form of a scenario workbook, stored next to it as {@code <workbook>.scenario}.
+ * <p>
+ * The cache file holds the centers, the connections as pairs of center indexes, the counts and
+ * the start/end center ids, and is keyed by the SHA-256 hash of the workbook content. As long as
+ * the workbook is unchanged the scenario is decoded from the memory-mapped cache instead of
+ * parsing the workbook again.
+ * <p>
+ * Layout (big-endian): magic {@code "PSCN"}, format version, 32 bytes of source hash,
+ * workers count, details count, start and end center ids, center count followed by
+ * (id, name, performance, max workers, service time distribution name, variation) per center,
+ * connection count followed by (source index, destination index) per connection. Strings are a byte length and UTF-8 bytes.
+ */
+public class ScenarioCache {
+    private static final Logger LOGGER = LogManager.getLogger(ScenarioCache.class);
+    private static final int MAGIC = 0x5053434E;
+    private static final int VERSION = 2;
+    private static final int HASH_LENGTH = 32;
+    private static final String EXTENSION = ".scenario";
+
+    /**
+     * Loads a scenario from a workbook.
+     */
+    @FunctionalInterface
+    public interface Loader {
+        ScenarioData load(String filePath) throws IOException;
+    }
+
+    /**
+     * Returns the scenario of the workbook, from its cache if the cache matches the workbook content,
+     * otherwise by loading the workbook and writing the cache for the next runs.
+     *
+     * @param sourcePath the path of the scenario workbook
+     * @param loader     the reader used when the cache is missing or stale
+     * @param rebuild    if {@code true}, the workbook is loaded and the cache rewritten even if it is up to date
+     * @return the scenario
+     * @throws IOException if the workbook cannot be read
+     */
+    public static ScenarioData load(Path sourcePath, Loader loader, boolean rebuild) throws IOException {
+        byte[] sourceHash = hash(sourcePath);
+        Path cachePath = cachePathFor(sourcePath);
+
+        if (!rebuild && Files.isRegularFile(cachePath)) {
+            ScenarioData cached = read(cachePath, sourceHash);
+            if (cached != null) {
+                LOGGER.info("Scenario loaded from cache: {}", cachePath);
+                return cached;
+            }
+        }
+
+        ScenarioData scenarioData = loader.load(sourcePath.toString());
+        try {
+            write(cachePath, sourceHash, scenarioData);
+        } catch (IOException e) {
+            // The cache only speeds up the next run, the scenario itself was loaded.
+            LOGGER.warn("Unable to write scenario cache {}: {}", cachePath, e.getMessage());
+        }
+        return scenarioData;
+    }
+
+    /**
+     * @param sourcePath the path of the scenario workbook
+     * @return the path of its cache file
+     */
+    public static Path cachePathFor(Path sourcePath) {
+        return sourcePath.resolveSibling(sourcePath.getFileName() + EXTENSION);
+    }
+
+    /**
+     * @param path the file to hash
+     * @return the SHA-256 hash of the file content
+     * @throws IOException if the file cannot be read
+     */
+    public static byte[] hash(Path path) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+
+        byte[] chunk = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(path)) {
+            int read;
+            while ((read = in.read(chunk)) > 0) {
+                digest.update(chunk, 0, read);
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Decodes a cache file.
+     *
+     * @param cachePath  the cache file
+     * @param sourceHash the hash of the current workbook content
+     * @return the cached scenario, or {@code null} if the cache is malformed, of another format version
+     *         or was compiled from a different workbook content
+     * @throws IOException if the cache file cannot be read
+     */
+    public static ScenarioData read(Path cachePath, byte[] sourceHash) throws IOException {
+        try (FileChannel channel = FileChannel.open(cachePath, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return decode(buffer, sourceHash);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static ScenarioData decode(ByteBuffer buffer, byte[] sourceHash) {
+        if (buffer.remaining() < 8 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            return null;
+        }
+        byte[] storedHash = new byte[HASH_LENGTH];
+        buffer.get(storedHash);
+        if (!Arrays.equals(storedHash, sourceHash)) {
+            return null;
+        }
+
+        int workersCount = buffer.getInt();
+        int detailsCount = buffer.getInt();
+        String startCenterId = readString(buffer);
+        String endCenterId = readString(buffer);
+
+        int centerCount = requireCount(buffer, buffer.getInt());
+        List<ProductionCenter> centers = new ArrayList<>(centerCount);
+        for (int i = 0; i < centerCount; i++) {
+            String id = readString(buffer);
+            String name = readString(buffer);
+            double performance = buffer.getDouble();
+            int maxWorkers = buffer.getInt();
+            ServiceTimeDistribution distribution = ServiceTimeDistribution.fromOptionName(readString(buffer));
+            double variation = buffer.getDouble();
+            centers.add(new ProductionCenter(id, name, maxWorkers, performance, distribution, variation));
+        }
+
+        int connectionCount = requireCount(buffer, buffer.getInt());
+        List<Connection> connections = new ArrayList<>(connectionCount);
+        for (int i = 0; i < connectionCount; i++) {
+            ProductionCenter from = centers.get(requireIndex(buffer.getInt(), centerCount));
+            ProductionCenter to = centers.get(requireIndex(buffer.getInt(), centerCount));
+            connections.add(new Connection(from, to));
+        }
+
+        if (buffer.hasRemaining()) {
+            return null;
+        }
+        return new ScenarioData(centers, connections, workersCount, detailsCount, startCenterId, endCenterId);
+    }
+
+    /**
+     * Writes the cache file for a scenario. The file is written next to the target and moved in place,
+     * so a concurrent or interrupted run never sees a partial cache.
+     *
+     * @param cachePath    the cache file
+     * @param sourceHash   the hash of the workbook content the scenario was loaded from
+     * @param scenarioData the scenario
+     * @throws IOException if the cache file cannot be written
+     */
+    public static void write(Path cachePath, byte[] sourceHash, ScenarioData scenarioData) throws IOException {
+        if (sourceHash.length != HASH_LENGTH) {
+            throw new IllegalArgumentException("Expected a SHA-256 hash, got " + sourceHash.length + " bytes");
+        }
+        ProductionGraph graph = scenarioData.graph();
+        Path tempPath = cachePath.resolveSibling(cachePath.getFileName() + ".tmp");
+
+        try (OutputStream fileOut = Files.newOutputStream(tempPath);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut, 64 * 1024))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.write(sourceHash);
+            out.writeInt(scenarioData.workersCount());
+            out.writeInt(scenarioData.detailsCount());
+            writeString(out, scenarioData.startCenterId());
+            writeString(out, scenarioData.endCenterId());
+
+            out.writeInt(graph.size());
+            for (int i = 0; i < graph.size(); i++) {
+                ProductionCenter center = graph.center(i);
+                writeString(out, center.getId());
+                writeString(out, center.getName());
+                out.writeDouble(center.getPerformance());
+                out.writeInt(center.getMaxWorkers());
+                writeString(out, center.getServiceTimeDistribution().getOptionName());
+                out.writeDouble(center.getServiceTimeVariation());
+            }
+
+            out.writeInt(scenarioData.connections().size());
+            for (Connection connection : scenarioData.connections()) {
+                out.writeInt(graph.indexOf(connection.fromCenter().getId()));
+                out.writeInt(graph.indexOf(connection.toCenter().getId()));
+            }
+        }
+        Files.move(tempPath, cachePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[requireCount(buffer, buffer.getInt())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Every counted item takes at least one byte, so a count beyond the remaining bytes means a damaged file.
+     */
+    private static int requireCount(ByteBuffer buffer, int count) {
+        if (count < 0 || count > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid length in scenario cache: " + count);
+        }
+        return count;
+    }
+
+    private static int requireIndex(int index, int centerCount) {
+        if (index < 0 || index >= centerCount) {
+            throw new IllegalArgumentException("Center index out of range in scenario cache: " + index);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,59 @@
+package org.production.io;
+
+import org.production.models.ScenarioData;
+
+import java.io.IOException;
+
+/**
+ * Defines how the scenario workbook is loaded.
+ */
+public enum ScenarioReader {
+
+    /**
+     * Loads the whole workbook into memory with {@link ExcelReader}.
+     */
+    WORKBOOK("workbook") {
+        @Override
+        public ScenarioData read(String filePath) throws IOException {
+            return ExcelReader.collectData(filePath);
+        }
+    },
+
+    /**
+     * Parses the sheets row by row with {@link StreamingExcelReader}; suited for large plant models.
+     */
+    STREAMING("streaming") {
+        @Override
+        public ScenarioData read(String filePath) throws IOException {
+            return StreamingExcelReader.collectData(filePath);
+        }
+    };
+
+    private final String optionName;
+
+    ScenarioReader(String optionName) {
+        this.optionName = optionName;
+    }
+
+    public abstract ScenarioData read(String filePath) throws IOException;
+
+    public String getOptionName() {
+        return optionName;
+    }
+
+    /**
+     * Resolves a reader by its command line name.
+     *
+     * @param optionName the name of the reader, e.g. {@code streaming}
+     * @return the matching reader
+     * @throws IllegalArgumentException if no reader has the given name
+     */
+    public static ScenarioReader fromOptionName(String optionName) {
+        for (ScenarioReader reader : values()) {
+            if (reader.optionName.equalsIgnoreCase(optionName.trim())) {
+                return reader;
+            }
+        }
+        throw new IllegalArgumentException("Unknown scenario reader: " + optionName);
+    }
+}
@@ -0,0 +1,83 @@
+package org.production.io;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.production.models.Connection;
+import org.production.models.ProductionCenter;
+import org.production.models.ScenarioData;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes a scenario as a workbook with the Scenario, ProductionCenter and Connection sheets read by
+ * {@link ExcelReader} and {@link StreamingExcelReader}.
+ * Rows are streamed to disk through a small window, so scenarios with hundreds of thousands of connections
+ * can be written without holding the workbook in memory.
+ */
+public class ScenarioWorkbookWriter {
+    private static final int ROW_WINDOW = 1000;
+
+    /**
+     * @param filePath     the workbook to create, replaced if it exists
+     * @param scenarioData the scenario to write
+     * @throws IOException if the workbook cannot be written
+     */
+    public static void write(String filePath, ScenarioData scenarioData) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        try (OutputStream out = new FileOutputStream(filePath)) {
+            writeScenarioSheet(workbook.createSheet("Scenario"), scenarioData);
+            writeProductionCenterSheet(workbook.createSheet("ProductionCenter"), scenarioData);
+            writeConnectionSheet(workbook.createSheet("Connection"), scenarioData);
+            workbook.write(out);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private static void writeScenarioSheet(Sheet sheet, ScenarioData scenarioData) {
+        Row header = sheet.createRow(0);
+        header.createCell(0).setCellValue("workersCount");
+        header.createCell(1).setCellValue("detailsCount");
+        Row values = sheet.createRow(1);
+        values.createCell(0).setCellValue(scenarioData.workersCount());
+        values.createCell(1).setCellValue(scenarioData.detailsCount());
+    }
+
+    private static void writeProductionCenterSheet(Sheet sheet, ScenarioData scenarioData) {
+        Row header = sheet.createRow(0);
+        header.createCell(0).setCellValue("id");
+        header.createCell(1).setCellValue("name");
+        header.createCell(2).setCellValue("performance");
+        header.createCell(3).setCellValue("maxWorkers");
+        header.createCell(4).setCellValue(ExcelReader.SERVICE_TIME_COLUMN);
+        header.createCell(5).setCellValue(ExcelReader.VARIATION_COLUMN);
+
+        int rowNum = 1;
+        for (ProductionCenter center : scenarioData.centers()) {
+            Row row = sheet.createRow(rowNum++);
+            row.createCell(0).setCellValue(center.getId());
+            row.createCell(1).setCellValue(center.getName());
+            row.createCell(2).setCellValue(center.getPerformance());
+            row.createCell(3).setCellValue(center.getMaxWorkers());
+            row.createCell(4).setCellValue(center.getServiceTimeDistribution().getOptionName());
+            row.createCell(5).setCellValue(center.getServiceTimeVariation());
+        }
+    }
+
+    private static void writeConnectionSheet(Sheet sheet, ScenarioData scenarioData) {
+        Row header = sheet.createRow(0);
+        header.createCell(0).setCellValue("sourceCenter");
+        header.createCell(1).setCellValue("destCenter");
+
+        int rowNum = 1;
+        for (Connection connection : scenarioData.connections()) {
+            Row row = sheet.createRow(rowNum++);
+            row.createCell(0).setCellValue(connection.fromCenter().getId());
+            row.createCell(1).setCellValue(connection.toCenter().getId());
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package org.production.io;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.production.models.Connection;
+import org.production.models.ProductionCenter;
+import org.production.models.ScenarioData;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * Reads a scenario workbook with the SAX event model of POI instead of building the workbook DOM.
+ * The sheets are parsed in one pass in workbook order, row by row, so memory stays bounded by the
+ * scenario itself rather than by the size of the file. The sheets are interpreted exactly like
+ * {@link ExcelReader} does and produce the same {@link ScenarioData}.
+ */
+public class StreamingExcelReader {
+    private static final Logger LOGGER = LogManager.getLogger(StreamingExcelReader.class);
+
+    public static ScenarioData collectData(String filePath) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(filePath, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(pkg);
+
+            ScenarioSheetHandler scenarioHandler = null;
+            ProductionCenterSheetHandler centerHandler = null;
+            ConnectionSheetHandler connectionHandler = null;
+
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheets.hasNext()) {
+                try (InputStream sheet = sheets.next()) {
+                    // Sheet names are matched case-insensitively, like Workbook.getSheet does.
+                    String sheetName = sheets.getSheetName();
+                    RowHandler handler;
+                    if (sheetName.equalsIgnoreCase("Scenario")) {
+                        handler = scenarioHandler = new ScenarioSheetHandler();
+                    } else if (sheetName.equalsIgnoreCase("ProductionCenter")) {
+                        handler = centerHandler = new ProductionCenterSheetHandler();
+                    } else if (sheetName.equalsIgnoreCase("Connection")) {
+                        handler = connectionHandler = new ConnectionSheetHandler();
+                    } else {
+                        continue;
+                    }
+                    parseSheet(sheet, new SheetHandler(sharedStrings, handler));
+                }
+            }
+
+            if (scenarioHandler == null) {
+                throw new RuntimeException("Sheet 'Scenario' not found in Excel.");
+            }
+            int workersCount = scenarioHandler.getValue("workersCount");
+            int detailsCount = scenarioHandler.getValue("detailsCount");
+
+            if (centerHandler == null) {
+                throw new RuntimeException("Sheet 'ProductionCenter' not found in Excel.");
+            }
+            List<ProductionCenter> centers = centerHandler.getCenters();
+
+            if (connectionHandler == null) {
+                throw new RuntimeException("Sheet 'Connection' not found in Excel.");
+            }
+            List<Connection> connections = connectionHandler.resolveConnections(centers);
+
+            return ExcelReader.toScenarioData(centers, connections, workersCount, detailsCount);
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Unable to read workbook " + filePath, e);
+        }
+    }
+
+    private static void parseSheet(InputStream sheet, SheetHandler handler)
+            throws IOException, SAXException, ParserConfigurationException {
+        XMLReader xmlReader = XMLHelper.newXMLReader();
+        xmlReader.setContentHandler(handler);
+        xmlReader.parse(new InputSource(sheet));
+    }
+
+    /**
+     * Value of a cell as the workbook stores it.
+     */
+    private record CellValue(CellType type, String text) {
+
+        /**
+         * @return the value as {@link ExcelReader} renders it: strings as is, numbers and booleans via
+         *         {@link String#valueOf}, anything else as an empty string
+         */
+        String asString() {
+            switch (type) {
+                case STRING:
+                    return text;
+                case NUMERIC:
+                    return String.valueOf(Double.parseDouble(text));
+                case BOOLEAN:
+                    return String.valueOf("1".equals(text));
+                default:
+                    return "";
+            }
+        }
+
+        double asNumber() {
+            return type == CellType.NUMERIC ? Double.parseDouble(text) : 0;
+        }
+    }
+
+    /**
+     * Receives the non-empty rows of a sheet, keyed by column index.
+     */
+    private interface RowHandler {
+        void row(int rowNum, Map<Integer, CellValue> cells);
+    }
+
+    /**
+     * @return the column of the cell matching the key case-insensitively, or {@code -1} if the row has no such cell
+     */
+    private static int findColumn(Map<Integer, CellValue> cells, String key) {
+        for (Map.Entry<Integer, CellValue> cell : cells.entrySet()) {
+            if (cell.getValue().asString().equalsIgnoreCase(key)) {
+                return cell.getKey();
+            }
+        }
+        return -1;
+    }
+
+    private static String stringAt(Map<Integer, CellValue> cells, int column) {
+        CellValue cell = cells.get(column);
+        return cell == null ? "" : cell.asString();
+    }
+
+    private static double numberAt(Map<Integer, CellValue> cells, int column) {
+        CellValue cell = cells.get(column);
+        return cell == null ? 0 : cell.asNumber();
+    }
+
+    private static final class ScenarioSheetHandler implements RowHandler {
+        private static final String[] KEYS = {"workersCount", "detailsCount"};
+
+        private final Map<String, Integer> columns = new HashMap<>();
+        private final Map<String, Integer> values = new HashMap<>();
+
+        @Override
+        public void row(int rowNum, Map<Integer, CellValue> cells) {
+            for (String key : KEYS) {
+                Integer column = columns.get(key);
+                if (column == null) {
+                    int headerColumn = findColumn(cells, key);
+                    if (headerColumn >= 0) {
+                        columns.put(key, headerColumn);
+                    }
+                } else if (!values.containsKey(key)) {
+                    CellValue cell = cells.get(column);
+                    if (cell != null && cell.type() == CellType.NUMERIC) {
+                        values.put(key, (int) cell.asNumber());
+                    }
+                }
+            }
+        }
+
+        int getValue(String key) {
+            if (!columns.containsKey(key)) {
+                throw new RuntimeException("No header line found with key: " + key + " on sheet Scenario");
+            }
+            Integer value = values.get(key);
+            if (value == null) {
+                throw new RuntimeException("No numeric value found for key " + key + " on sheet Scenario");
+            }
+            return value;
+        }
+    }
+
+    private static final class ProductionCenterSheetHandler implements RowHandler {
+        private final List<ProductionCenter> centers = new ArrayList<>();
+        private boolean headerFound;
+        private int serviceTimeColumn = -1;
+        private int variationColumn = -1;
+
+        @Override
+        public void row(int rowNum, Map<Integer, CellValue> cells) {
+            if (!headerFound) {
+                headerFound = findColumn(cells, "id") >= 0;
+                if (headerFound) {
+                    serviceTimeColumn = findColumn(cells, ExcelReader.SERVICE_TIME_COLUMN);
+                    variationColumn = findColumn(cells, ExcelReader.VARIATION_COLUMN);
+                }
+                return;
+            }
+
+            String id = stringAt(cells, 0);
+            String name = stringAt(cells, 1);
+            double performance = numberAt(cells, 2);
+            int maxWorkers = (int) numberAt(cells, 3);
+            String serviceTime = serviceTimeColumn < 0 ? "" : stringAt(cells, serviceTimeColumn);
+            double variation = variationColumn < 0 ? 0 : numberAt(cells, variationColumn);
+
+            centers.add(ExcelReader.toProductionCenter(id, name, maxWorkers, performance, serviceTime, variation));
+        }
+
+        List<ProductionCenter> getCenters() {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("=== Reading data from the ProductionCenter sheet ===");
+                for (ProductionCenter center : centers) {
+                    LOGGER.debug("Read center: {}", center);
+                }
+            }
+            return centers;
+        }
+    }
+
+    /**
+     * Keeps the raw id pairs, since the Connection sheet may precede the ProductionCenter sheet in the workbook.
+     */
+    private static final class ConnectionSheetHandler implements RowHandler {
+        private final List<String[]> idPairs = new ArrayList<>();
+        private boolean headerFound;
+
+        @Override
+        public void row(int rowNum, Map<Integer, CellValue> cells) {
+            if (!headerFound) {
+                headerFound = findColumn(cells, "sourceCenter") >= 0;
+                return;
+            }
+            idPairs.add(new String[]{stringAt(cells, 0), stringAt(cells, 1)});
+        }
+
+        List<Connection> resolveConnections(List<ProductionCenter> centers) {
+            Map<String, ProductionCenter> centersById = ExcelReader.indexCentersById(centers);
+            List<Connection> connections = new ArrayList<>(idPairs.size());
+            for (String[] idPair : idPairs) {
+                ProductionCenter fromCenter = ExcelReader.findCenterById(centersById, idPair[0]);
+                ProductionCenter toCenter = ExcelReader.findCenterById(centersById, idPair[1]);
+
+                if (fromCenter != null && toCenter != null) {
+                    connections.add(new Connection(fromCenter, toCenter));
+                }
+            }
+            return connections;
+        }
+    }
+
+    /**
+     * SAX handler for a worksheet part: collects the cells of a row and passes non-empty rows on.
+     */
+    private static final class SheetHandler extends DefaultHandler {
+        private final ReadOnlySharedStringsTable sharedStrings;
+        private final RowHandler rowHandler;
+        private final Map<Integer, CellValue> cells = new TreeMap<>();
+        private final StringBuilder text = new StringBuilder();
+        private int rowNum;
+        private int nextColumn;
+        private int column;
+        private String cellType;
+        private boolean formula;
+        private boolean collectingText;
+
+        SheetHandler(ReadOnlySharedStringsTable sharedStrings, RowHandler rowHandler) {
+            this.sharedStrings = sharedStrings;
+            this.rowHandler = rowHandler;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "row":
+                    cells.clear();
+                    nextColumn = 0;
+                    String r = attributes.getValue("r");
+                    rowNum = r == null ? rowNum + 1 : Integer.parseInt(r) - 1;
+                    break;
+                case "c":
+                    String reference = attributes.getValue("r");
+                    column = reference == null ? nextColumn : columnIndex(reference);
+                    nextColumn = column + 1;
+                    cellType = attributes.getValue("t");
+                    formula = false;
+                    text.setLength(0);
+                    break;
+                case "f":
+                    formula = true;
+                    break;
+                case "v":
+                case "t":
+                    collectingText = true;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (localName) {
+                case "v":
+                case "t":
+                    collectingText = false;
+                    break;
+                case "c":
+                    CellValue value = toCellValue();
+                    if (value != null) {
+                        cells.put(column, value);
+                    }
+                    break;
+                case "row":
+                    if (!cells.isEmpty()) {
+                        rowHandler.row(rowNum, cells);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (collectingText) {
+                text.append(ch, start, length);
+            }
+        }
+
+        private CellValue toCellValue() {
+            if (formula) {
+                // The workbook reader does not evaluate formulas either.
+                return new CellValue(CellType.FORMULA, "");
+            }
+            if (text.length() == 0 && !"inlineStr".equals(cellType)) {
+                return null;
+            }
+            if (cellType == null || "n".equals(cellType)) {
+                return new CellValue(CellType.NUMERIC, text.toString());
+            }
+            switch (cellType) {
+                case "s":
+                    int index = Integer.parseInt(text.toString().trim());
+                    return new CellValue(CellType.STRING, sharedStrings.getItemAt(index).getString());
+                case "inlineStr":
+                case "str":
+                    return new CellValue(CellType.STRING, text.toString());
+                case "b":
+                    return new CellValue(CellType.BOOLEAN, text.toString());
+                default:
+                    return new CellValue(CellType.ERROR, text.toString());
+            }
+        }
+
+        private static int columnIndex(String reference) {
+            int column = 0;
+            for (int i = 0; i < reference.length(); i++) {
+                char c = reference.charAt(i);
+                if (c < 'A' || c > 'Z') {
+                    break;
+                }
+                column = column * 26 + (c - 'A' + 1);
+            }
+            return column - 1;
+        }
+    }
+}
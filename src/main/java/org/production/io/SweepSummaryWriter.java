@@ -0,0 +1,31 @@
+package org.production.io;
+
+import org.production.service.VariantSummary;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes the summary table of a parameter sweep, one row per variant, in the comma separated layout
+ * of {@link CsvWritter}.
+ */
+public class SweepSummaryWriter {
+    static final String HEADER = "WorkersCount, DetailsCount, Makespan, Utilization, ProcessedDetails, WallTimeMs";
+
+    public static void writeSummaries(String filePath, List<VariantSummary> summaries) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
+            writer.write(HEADER);
+            writer.newLine();
+
+            for (VariantSummary summary : summaries) {
+                writer.write(String.format(Locale.ROOT, "%d, %d, %.2f, %.4f, %d, %d",
+                        summary.workersCount(), summary.detailsCount(), summary.makespan(), summary.utilization(),
+                        summary.processedDetails(), summary.wallTimeMillis()));
+                writer.newLine();
+            }
+        }
+    }
+}
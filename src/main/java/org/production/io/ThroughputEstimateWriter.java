@@ -0,0 +1,49 @@
+package org.production.io;
+
+import org.production.service.ThroughputEstimate;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Writes the analytical estimates of a scenario, one row per quantity, in the comma separated layout
+ * of {@link CsvWritter}. The bottleneck row names the limiting center, or {@code Workforce}, with its utilization;
+ * the per-center rows hold the mean visits of a detail and the utilization of the center.
+ */
+public class ThroughputEstimateWriter {
+    static final String HEADER = "Metric, ProductionCenter, Value";
+    static final String WORKFORCE = "Workforce";
+
+    public static void writeEstimate(String filePath, ThroughputEstimate estimate) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
+            writer.write(HEADER);
+            writer.newLine();
+
+            writeRow(writer, "Throughput", "", estimate.throughput());
+            writeRow(writer, "Makespan", "", estimate.makespan());
+            writeRow(writer, "DetailTime", "", estimate.detailTime());
+            writeRow(writer, "BusyWorkers", "", estimate.busyWorkers());
+            if (estimate.workforceBound()) {
+                writeRow(writer, "Bottleneck", WORKFORCE, 1.0);
+            } else {
+                int bottleneck = estimate.centerNames().indexOf(estimate.bottleneck());
+                writeRow(writer, "Bottleneck", estimate.bottleneck(), estimate.centerUtilizations().get(bottleneck));
+            }
+            for (int center = 0; center < estimate.centerNames().size(); center++) {
+                writeRow(writer, "Visits", estimate.centerNames().get(center), estimate.centerVisits().get(center));
+            }
+            for (int center = 0; center < estimate.centerNames().size(); center++) {
+                writeRow(writer, "Utilization", estimate.centerNames().get(center),
+                        estimate.centerUtilizations().get(center));
+            }
+        }
+    }
+
+    private static void writeRow(BufferedWriter writer, String metric, String center, double value)
+            throws IOException {
+        writer.write(String.format(Locale.ROOT, "%s, %s, %.4f", metric, center, value));
+        writer.newLine();
+    }
+}
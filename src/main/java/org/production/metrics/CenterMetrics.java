@@ -0,0 +1,14 @@
+package org.production.metrics;
+
+/**
+ * Metrics of one production center.
+ *
+ * @param name             the name of the center
+ * @param detailsProcessed the number of details the center finished processing
+ * @param queueWait        the simulated time the details waited in the buffer of the center before processing,
+ *                         in thousandths of a time unit
+ * @param utilization      the share of the capacity of the center, {@code maxWorkers} workers over the simulated
+ *                         time, spent processing details; details in progress count in full
+ */
+public record CenterMetrics(String name, long detailsProcessed, HistogramSummary queueWait, double utilization) {
+}
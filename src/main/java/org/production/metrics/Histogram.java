@@ -0,0 +1,97 @@
+package org.production.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative {@code long} values with logarithmic buckets.
+ * Every power of two is split into {@code 2^subBucketBits} equal buckets, so a recorded value is known with
+ * a relative error of at most {@code 2^-subBucketBits} over the whole {@code long} range, in a fixed number of
+ * buckets. Recording is wait-free and can happen from any thread.
+ */
+public final class Histogram {
+    private final int subBucketBits;
+    private final int subBuckets;
+    private final AtomicLongArray counts;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * @param subBucketBits the number of bits resolved below the leading bit of a value, from 1 to 6
+     */
+    public Histogram(int subBucketBits) {
+        if (subBucketBits < 1 || subBucketBits > 6) {
+            throw new IllegalArgumentException("Sub-bucket bits must be between 1 and 6: " + subBucketBits);
+        }
+        this.subBucketBits = subBucketBits;
+        this.subBuckets = 1 << subBucketBits;
+        this.counts = new AtomicLongArray(subBuckets + (63 - subBucketBits) * subBuckets);
+    }
+
+    /**
+     * @param value the value to record; negative values are recorded as {@code 0}
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        counts.incrementAndGet(bucketOf(v));
+        count.increment();
+        sum.add(v);
+        max.accumulate(v);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    public double mean() {
+        long n = count.sum();
+        return n == 0 ? 0.0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * @param quantile the quantile, between {@code 0} and {@code 1}
+     * @return the upper bound of the bucket holding the quantile, at most the largest recorded value;
+     *         {@code 0} if nothing was recorded
+     */
+    public long percentile(double quantile) {
+        long n = count.sum();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * n));
+        long seen = 0;
+        for (int bucket = 0; bucket < counts.length(); bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(bucket), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    private int bucketOf(long value) {
+        if (value < subBuckets) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - subBucketBits;
+        int subBucket = (int) (value >>> shift) & (subBuckets - 1);
+        return subBuckets + shift * subBuckets + subBucket;
+    }
+
+    private long upperBoundOf(int bucket) {
+        if (bucket < subBuckets) {
+            return bucket;
+        }
+        int shift = (bucket - subBuckets) / subBuckets;
+        long subBucket = (bucket - subBuckets) % subBuckets;
+        long lowerBound = (subBuckets + subBucket) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,18 @@
+package org.production.metrics;
+
+/**
+ * Summary of the values recorded by a {@link Histogram}. Percentiles are bucket upper bounds.
+ *
+ * @param count the number of recorded values
+ * @param mean  the mean of the recorded values
+ * @param p50   the median
+ * @param p99   the 99th percentile
+ * @param max   the largest recorded value
+ */
+public record HistogramSummary(long count, double mean, long p50, long p99, long max) {
+
+    static HistogramSummary of(Histogram histogram) {
+        return new HistogramSummary(histogram.count(), histogram.mean(), histogram.percentile(0.5),
+                histogram.percentile(0.99), histogram.max());
+    }
+}
@@ -0,0 +1,35 @@
+package org.production.metrics;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+
+/**
+ * State of the JVM running the simulation, read from the platform MXBeans.
+ *
+ * @param uptimeMillis       the time since the JVM started
+ * @param heapUsedBytes      the heap currently in use
+ * @param heapCommittedBytes the heap currently committed by the JVM
+ * @param gcCount            the number of collections of all collectors
+ * @param gcTimeMillis       the accumulated time of all collections
+ * @param liveThreads        the number of live threads, including virtual thread carriers
+ */
+public record JvmStats(long uptimeMillis, long heapUsedBytes, long heapCommittedBytes, long gcCount,
+                       long gcTimeMillis, int liveThreads) {
+
+    /**
+     * @return the current state of this JVM
+     */
+    public static JvmStats capture() {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        long gcCount = 0;
+        long gcTime = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            // Collectors that do not report return -1.
+            gcCount += Math.max(0, collector.getCollectionCount());
+            gcTime += Math.max(0, collector.getCollectionTime());
+        }
+        return new JvmStats(ManagementFactory.getRuntimeMXBean().getUptime(), heap.getUsed(), heap.getCommitted(),
+                gcCount, gcTime, ManagementFactory.getThreadMXBean().getThreadCount());
+    }
+}
@@ -0,0 +1,112 @@
+package org.production.metrics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends a {@link MetricsSnapshot} of a run to a file at a fixed wall-clock interval, on a background daemon thread,
+ * and a final one when closed. Every snapshot is a block of comma separated lines: the run totals, then one row per
+ * center, followed by an empty line. Queue waits are written in simulated time units.
+ */
+public class MetricsDumper implements AutoCloseable {
+    static final String RUN_HEADER = "Snapshot, SimulatedTime, Steps, DetailsProcessed, StepMeanNs, StepP99Ns, "
+            + "RedistributionMeanNs, RedistributionP99Ns, HeapUsedBytes, GcCount, GcTimeMs, LiveThreads";
+    static final String CENTER_HEADER = "Center, DetailsProcessed, MeanQueueWait, P99QueueWait, MaxQueueWait, Utilization";
+
+    private final SimulationMetrics metrics;
+    private final BufferedWriter writer;
+    private final ScheduledExecutorService scheduler;
+    private long snapshots;
+    private IOException failure;
+
+    /**
+     * Starts dumping the metrics; the first snapshot is written after one interval.
+     *
+     * @param metrics  the metrics of the run
+     * @param filePath the file to write, replaced if it exists
+     * @param interval the wall-clock time between two snapshots
+     * @throws IOException if the file cannot be opened
+     */
+    public MetricsDumper(SimulationMetrics metrics, Path filePath, Duration interval) throws IOException {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Dump interval must be positive: " + interval);
+        }
+        this.metrics = metrics;
+        this.writer = Files.newBufferedWriter(filePath, StandardCharsets.UTF_8);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "metrics-dumper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalNanos = interval.toNanos();
+        scheduler.scheduleAtFixedRate(this::dump, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops the background dumps, writes the final snapshot and closes the file.
+     *
+     * @throws IOException if a snapshot could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try (writer) {
+            dump();
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    private synchronized void dump() {
+        if (failure != null) {
+            return;
+        }
+        try {
+            write(metrics.snapshot());
+            writer.flush();
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    private void write(MetricsSnapshot snapshot) throws IOException {
+        snapshots++;
+        writer.write(RUN_HEADER);
+        writer.newLine();
+        writer.write(String.format(Locale.ROOT, "%d, %.2f, %d, %d, %.0f, %d, %.0f, %d, %d, %d, %d, %d",
+                snapshots, snapshot.simulatedTime(), snapshot.steps(), snapshot.detailsProcessed(),
+                snapshot.stepDuration().mean(), snapshot.stepDuration().p99(),
+                snapshot.redistributionTime().mean(), snapshot.redistributionTime().p99(),
+                snapshot.jvm().heapUsedBytes(), snapshot.jvm().gcCount(), snapshot.jvm().gcTimeMillis(),
+                snapshot.jvm().liveThreads()));
+        writer.newLine();
+
+        writer.write(CENTER_HEADER);
+        writer.newLine();
+        for (CenterMetrics center : snapshot.centers()) {
+            HistogramSummary wait = center.queueWait();
+            writer.write(String.format(Locale.ROOT, "%s, %d, %.3f, %.3f, %.3f, %.4f",
+                    center.name(), center.detailsProcessed(),
+                    wait.mean() / SimulationMetrics.TIME_RESOLUTION,
+                    (double) wait.p99() / SimulationMetrics.TIME_RESOLUTION,
+                    (double) wait.max() / SimulationMetrics.TIME_RESOLUTION,
+                    center.utilization()));
+            writer.newLine();
+        }
+        writer.newLine();
+    }
+}
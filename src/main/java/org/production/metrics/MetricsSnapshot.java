@@ -0,0 +1,20 @@
+package org.production.metrics;
+
+import java.util.List;
+
+/**
+ * Point-in-time copy of the {@link SimulationMetrics} of a run.
+ * Values recorded concurrently with taking the snapshot may be partially included.
+ *
+ * @param simulatedTime        the simulated time of the last completed step
+ * @param steps                the number of completed steps (ticks in the discrete-event mode)
+ * @param detailsProcessed     the number of details processed at any center
+ * @param stepDuration         the wall-clock duration of the steps, in nanoseconds
+ * @param redistributionTime   the wall-clock duration of the worker redistributions, in nanoseconds
+ * @param centers              the metrics of the centers, in the order of the graph
+ * @param jvm                  the state of the JVM when the snapshot was taken
+ */
+public record MetricsSnapshot(double simulatedTime, long steps, long detailsProcessed,
+                              HistogramSummary stepDuration, HistogramSummary redistributionTime,
+                              List<CenterMetrics> centers, JvmStats jvm) {
+}
@@ -0,0 +1,263 @@
+package org.production.metrics;
+
+import org.production.models.ProductionGraph;
+import org.production.models.ScenarioData;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registry of the metrics of one simulation run, fed by the runner while it runs and safe to read from any
+ * thread: per-center processed details, queue waits and worker utilization, the wall-clock durations of the
+ * steps and of the worker redistributions, and the state of the JVM.
+ * <p>
+ * Queue waits are measured in simulated time from the moment a detail enters the buffer of a center until a
+ * worker takes it, so they are comparable between the real-time and the discrete-event modes.
+ * The registry keeps one entry time per detail of the scenario.
+ */
+public class SimulationMetrics implements SimulationMetricsMXBean {
+    /**
+     * Queue waits are recorded in thousandths of a simulated time unit.
+     */
+    public static final int TIME_RESOLUTION = 1000;
+
+    private static final int CENTER_HISTOGRAM_BITS = 2;
+    private static final int DURATION_HISTOGRAM_BITS = 3;
+
+    private final ProductionGraph graph;
+    private final LongAdder[] processed;
+    private final DoubleAdder[] busyTime;
+    private final Histogram[] queueWait;
+    private final double[] enqueuedAt;
+    private final Histogram stepDuration = new Histogram(DURATION_HISTOGRAM_BITS);
+    private final Histogram redistributionTime = new Histogram(DURATION_HISTOGRAM_BITS);
+    private final LongAdder steps = new LongAdder();
+    private volatile double simulatedTime;
+
+    /**
+     * Creates an empty registry. All details of the scenario are taken to enter the start center at time {@code 0}.
+     *
+     * @param scenarioData the scenario of the run
+     */
+    public SimulationMetrics(ScenarioData scenarioData) {
+        this.graph = scenarioData.graph();
+        int size = graph.size();
+        this.processed = new LongAdder[size];
+        this.busyTime = new DoubleAdder[size];
+        this.queueWait = new Histogram[size];
+        for (int center = 0; center < size; center++) {
+            processed[center] = new LongAdder();
+            busyTime[center] = new DoubleAdder();
+            queueWait[center] = new Histogram(CENTER_HISTOGRAM_BITS);
+        }
+        this.enqueuedAt = new double[scenarioData.detailsCount() + 1];
+    }
+
+    /**
+     * Records that a detail entered the buffer of a center. A detail is in at most one buffer at a time.
+     *
+     * @param center the dense index of the center
+     * @param detail the number of the detail
+     * @param time   the simulated time
+     */
+    public void detailQueued(int center, int detail, double time) {
+        enqueuedAt[detail] = time;
+    }
+
+    /**
+     * Records that a worker took a detail from the buffer of a center.
+     *
+     * @param center         the dense index of the center
+     * @param detail         the number of the detail
+     * @param time           the simulated time
+     * @param processingTime the simulated time the processing takes
+     */
+    public void detailStarted(int center, int detail, double time, double processingTime) {
+        queueWait[center].record(Math.round((time - enqueuedAt[detail]) * TIME_RESOLUTION));
+        busyTime[center].add(processingTime);
+    }
+
+    /**
+     * Records that a center finished processing a detail.
+     *
+     * @param center the dense index of the center
+     */
+    public void detailProcessed(int center) {
+        processed[center].increment();
+    }
+
+    /**
+     * @param durationNanos the wall-clock duration of a redistribution of the workers
+     */
+    public void redistributionCompleted(long durationNanos) {
+        redistributionTime.record(durationNanos);
+    }
+
+    /**
+     * Records a completed step.
+     *
+     * @param time          the simulated time of the step
+     * @param durationNanos the wall-clock duration of the step
+     */
+    public void stepCompleted(double time, long durationNanos) {
+        stepDuration.record(durationNanos);
+        steps.increment();
+        simulatedTime = time;
+    }
+
+    /**
+     * @return a copy of the current metrics
+     */
+    public MetricsSnapshot snapshot() {
+        List<CenterMetrics> centers = new ArrayList<>(processed.length);
+        for (int center = 0; center < processed.length; center++) {
+            centers.add(new CenterMetrics(graph.center(center).getName(), processed[center].sum(),
+                    HistogramSummary.of(queueWait[center]), utilization(center)));
+        }
+        return new MetricsSnapshot(simulatedTime, steps.sum(), getDetailsProcessed(),
+                HistogramSummary.of(stepDuration), HistogramSummary.of(redistributionTime), centers,
+                JvmStats.capture());
+    }
+
+    /**
+     * Registers this registry in the platform MBean server.
+     *
+     * @return the name of the registered MBean; pass it to {@link #unregisterMBean(ObjectName)} when the run is over
+     * @throws IllegalStateException if the MBean cannot be registered
+     */
+    public ObjectName registerMBean() {
+        try {
+            ObjectName name = new ObjectName("org.production:type=SimulationMetrics,id="
+                    + Integer.toHexString(System.identityHashCode(this)));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            return name;
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register the simulation metrics MBean", e);
+        }
+    }
+
+    /**
+     * @param name the name returned by {@link #registerMBean()}
+     */
+    public static void unregisterMBean(ObjectName name) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot unregister the MBean " + name, e);
+        }
+    }
+
+    private double utilization(int center) {
+        double capacity = graph.center(center).getMaxWorkers() * simulatedTime;
+        return capacity <= 0 ? 0.0 : Math.min(1.0, busyTime[center].sum() / capacity);
+    }
+
+    @Override
+    public double getSimulatedTime() {
+        return simulatedTime;
+    }
+
+    @Override
+    public long getSteps() {
+        return steps.sum();
+    }
+
+    @Override
+    public long getDetailsProcessed() {
+        long total = 0;
+        for (LongAdder counter : processed) {
+            total += counter.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public double getMeanStepDurationNanos() {
+        return stepDuration.mean();
+    }
+
+    @Override
+    public long getP99StepDurationNanos() {
+        return stepDuration.percentile(0.99);
+    }
+
+    @Override
+    public double getMeanRedistributionNanos() {
+        return redistributionTime.mean();
+    }
+
+    @Override
+    public long getP99RedistributionNanos() {
+        return redistributionTime.percentile(0.99);
+    }
+
+    @Override
+    public String[] getCenterNames() {
+        String[] names = new String[processed.length];
+        for (int center = 0; center < names.length; center++) {
+            names[center] = graph.center(center).getName();
+        }
+        return names;
+    }
+
+    @Override
+    public long[] getCenterDetailsProcessed() {
+        long[] values = new long[processed.length];
+        for (int center = 0; center < values.length; center++) {
+            values[center] = processed[center].sum();
+        }
+        return values;
+    }
+
+    @Override
+    public double[] getCenterMeanQueueWait() {
+        double[] values = new double[processed.length];
+        for (int center = 0; center < values.length; center++) {
+            values[center] = queueWait[center].mean();
+        }
+        return values;
+    }
+
+    @Override
+    public long[] getCenterP99QueueWait() {
+        long[] values = new long[processed.length];
+        for (int center = 0; center < values.length; center++) {
+            values[center] = queueWait[center].percentile(0.99);
+        }
+        return values;
+    }
+
+    @Override
+    public double[] getCenterUtilization() {
+        double[] values = new double[processed.length];
+        for (int center = 0; center < values.length; center++) {
+            values[center] = utilization(center);
+        }
+        return values;
+    }
+
+    @Override
+    public long getHeapUsedBytes() {
+        return JvmStats.capture().heapUsedBytes();
+    }
+
+    @Override
+    public long getGcCount() {
+        return JvmStats.capture().gcCount();
+    }
+
+    @Override
+    public long getGcTimeMillis() {
+        return JvmStats.capture().gcTimeMillis();
+    }
+
+    @Override
+    public int getLiveThreads() {
+        return JvmStats.capture().liveThreads();
+    }
+}
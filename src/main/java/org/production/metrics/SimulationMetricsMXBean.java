@@ -0,0 +1,41 @@
+package org.production.metrics;
+
+/**
+ * Management interface of {@link SimulationMetrics}, registered by {@link SimulationMetrics#registerMBean()}.
+ * Per-center values are arrays in the order of {@link #getCenterNames()}; durations are in nanoseconds
+ * and queue waits in thousandths of a simulated time unit.
+ */
+public interface SimulationMetricsMXBean {
+
+    double getSimulatedTime();
+
+    long getSteps();
+
+    long getDetailsProcessed();
+
+    double getMeanStepDurationNanos();
+
+    long getP99StepDurationNanos();
+
+    double getMeanRedistributionNanos();
+
+    long getP99RedistributionNanos();
+
+    String[] getCenterNames();
+
+    long[] getCenterDetailsProcessed();
+
+    double[] getCenterMeanQueueWait();
+
+    long[] getCenterP99QueueWait();
+
+    double[] getCenterUtilization();
+
+    long getHeapUsedBytes();
+
+    long getGcCount();
+
+    long getGcTimeMillis();
+
+    int getLiveThreads();
+}
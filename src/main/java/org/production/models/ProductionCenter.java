@@ -5,14 +5,27 @@ public class ProductionCenter {
     private final String name;
     private final int maxWorkers;
     private final double performance;
+    private final ServiceTimeDistribution serviceTimeDistribution;
+    private final double serviceTimeVariation;
     private int currentWorkers;
     private int buffer;
 
     public ProductionCenter(String id, String name, int maxWorkers, double performance) {
+        this(id, name, maxWorkers, performance, ServiceTimeDistribution.DETERMINISTIC, 0.0);
+    }
+
+    /**
+     * @param serviceTimeDistribution the distribution of the processing time, whose mean is the performance
+     * @param serviceTimeVariation    the coefficient of variation of the processing time
+     */
+    public ProductionCenter(String id, String name, int maxWorkers, double performance,
+                            ServiceTimeDistribution serviceTimeDistribution, double serviceTimeVariation) {
         this.id = id;
         this.name = name;
         this.maxWorkers = maxWorkers;
         this.performance = performance;
+        this.serviceTimeDistribution = serviceTimeDistribution;
+        this.serviceTimeVariation = serviceTimeVariation;
         this.currentWorkers = 0;
         this.buffer = 0;
     }
@@ -33,6 +46,14 @@ public class ProductionCenter {
         return performance;
     }
 
+    public ServiceTimeDistribution getServiceTimeDistribution() {
+        return serviceTimeDistribution;
+    }
+
+    public double getServiceTimeVariation() {
+        return serviceTimeVariation;
+    }
+
     public int getCurrentWorkers() {
         return currentWorkers;
     }
@@ -0,0 +1,182 @@
+package org.production.models;
+
+import java.util.*;
+
+/**
+ * Immutable index of the production graph.
+ * Every center gets a dense index in the order of the center list; outgoing and incoming
+ * connections are stored in compressed sparse row form, so the neighbours of a center are
+ * a contiguous range of an array and can be looked up without scanning all connections.
+ */
+public final class ProductionGraph {
+    private final ProductionCenter[] centers;
+    private final Map<String, Integer> indexById;
+    private final int[] outOffsets;
+    private final int[] outTargets;
+    private final int[] inOffsets;
+    private final int[] inSources;
+    private final List<List<Connection>> outgoingConnections;
+
+    private ProductionGraph(ProductionCenter[] centers, Map<String, Integer> indexById, int[] outOffsets,
+                            int[] outTargets, int[] inOffsets, int[] inSources,
+                            List<List<Connection>> outgoingConnections) {
+        this.centers = centers;
+        this.indexById = indexById;
+        this.outOffsets = outOffsets;
+        this.outTargets = outTargets;
+        this.inOffsets = inOffsets;
+        this.inSources = inSources;
+        this.outgoingConnections = outgoingConnections;
+    }
+
+    /**
+     * Builds the index of the given centers and connections.
+     *
+     * @param centers     the production centers, their order defines the center indexes
+     * @param connections the connections between the centers
+     * @return the immutable graph index
+     * @throws IllegalArgumentException if a center id is duplicated or a connection references an unknown center
+     */
+    public static ProductionGraph build(List<ProductionCenter> centers, List<Connection> connections) {
+        ProductionCenter[] centerArray = centers.toArray(new ProductionCenter[0]);
+        Map<String, Integer> indexById = new HashMap<>(centerArray.length * 2);
+        for (int i = 0; i < centerArray.length; i++) {
+            if (indexById.putIfAbsent(centerArray[i].getId(), i) != null) {
+                throw new IllegalArgumentException("Duplicate production center id: " + centerArray[i].getId());
+            }
+        }
+
+        int[] from = new int[connections.size()];
+        int[] to = new int[connections.size()];
+        int[] outOffsets = new int[centerArray.length + 1];
+        int[] inOffsets = new int[centerArray.length + 1];
+        for (int e = 0; e < connections.size(); e++) {
+            Connection connection = connections.get(e);
+            from[e] = requireIndex(indexById, connection.fromCenter());
+            to[e] = requireIndex(indexById, connection.toCenter());
+            outOffsets[from[e] + 1]++;
+            inOffsets[to[e] + 1]++;
+        }
+        for (int i = 0; i < centerArray.length; i++) {
+            outOffsets[i + 1] += outOffsets[i];
+            inOffsets[i + 1] += inOffsets[i];
+        }
+
+        int[] outTargets = new int[connections.size()];
+        int[] inSources = new int[connections.size()];
+        Connection[] outConnections = new Connection[connections.size()];
+        int[] outFill = Arrays.copyOf(outOffsets, centerArray.length);
+        int[] inFill = Arrays.copyOf(inOffsets, centerArray.length);
+        for (int e = 0; e < connections.size(); e++) {
+            int outSlot = outFill[from[e]]++;
+            outTargets[outSlot] = to[e];
+            outConnections[outSlot] = connections.get(e);
+            inSources[inFill[to[e]]++] = from[e];
+        }
+
+        List<List<Connection>> outgoingConnections = new ArrayList<>(centerArray.length);
+        for (int i = 0; i < centerArray.length; i++) {
+            outgoingConnections.add(List.of(Arrays.copyOfRange(outConnections, outOffsets[i], outOffsets[i + 1])));
+        }
+
+        return new ProductionGraph(centerArray, indexById, outOffsets, outTargets, inOffsets, inSources,
+                outgoingConnections);
+    }
+
+    private static int requireIndex(Map<String, Integer> indexById, ProductionCenter center) {
+        Integer index = indexById.get(center.getId());
+        if (index == null) {
+            throw new IllegalArgumentException("Connection references an unknown production center: " + center.getId());
+        }
+        return index;
+    }
+
+    /**
+     * @return the number of production centers
+     */
+    public int size() {
+        return centers.length;
+    }
+
+    /**
+     * @param index the dense index of a center
+     * @return the production center with the given index
+     */
+    public ProductionCenter center(int index) {
+        return centers[index];
+    }
+
+    /**
+     * @param centerId the id of a production center
+     * @return the dense index of the center, or {@code -1} if there is no center with this id
+     */
+    public int indexOf(String centerId) {
+        Integer index = indexById.get(centerId);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * @param index the dense index of a center
+     * @return the number of connections leaving the center
+     */
+    public int outDegree(int index) {
+        return outOffsets[index + 1] - outOffsets[index];
+    }
+
+    /**
+     * @param index the dense index of a center
+     * @return the number of connections entering the center
+     */
+    public int inDegree(int index) {
+        return inOffsets[index + 1] - inOffsets[index];
+    }
+
+    /**
+     * Returns the index of the k-th destination of a center, in the order the connections were given.
+     *
+     * @param index the dense index of the source center
+     * @param k     the position among the outgoing connections, {@code 0 <= k < outDegree(index)}
+     * @return the dense index of the destination center
+     */
+    public int outTarget(int index, int k) {
+        return outTargets[outOffsets[index] + k];
+    }
+
+    /**
+     * @return the number of connections
+     */
+    public int connectionCount() {
+        return outTargets.length;
+    }
+
+    /**
+     * Returns the position of the k-th outgoing connection of a center among all connections,
+     * which are numbered by source center and then in the order they were given.
+     *
+     * @param index the dense index of the source center
+     * @param k     the position among the outgoing connections, {@code 0 <= k < outDegree(index)}
+     * @return the index of the connection, {@code 0 <= index < connectionCount()}
+     */
+    public int connectionIndex(int index, int k) {
+        return outOffsets[index] + k;
+    }
+
+    /**
+     * Returns the index of the k-th source of a center, in the order the connections were given.
+     *
+     * @param index the dense index of the destination center
+     * @param k     the position among the incoming connections, {@code 0 <= k < inDegree(index)}
+     * @return the dense index of the source center
+     */
+    public int inSource(int index, int k) {
+        return inSources[inOffsets[index] + k];
+    }
+
+    /**
+     * @param index the dense index of a center
+     * @return the unmodifiable list of connections leaving the center
+     */
+    public List<Connection> outgoingConnections(int index) {
+        return outgoingConnections.get(index);
+    }
+}
@@ -1,8 +1,27 @@
 package org.production.models;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public record ScenarioData(List<ProductionCenter> centers, List<Connection> connections, int workersCount,
-                           int detailsCount, String startCenterId, String endCenterId) {
+                           int detailsCount, String startCenterId, String endCenterId, ProductionGraph graph) {
 
+    public ScenarioData(List<ProductionCenter> centers, List<Connection> connections, int workersCount,
+                        int detailsCount, String startCenterId, String endCenterId) {
+        this(centers, connections, workersCount, detailsCount, startCenterId, endCenterId,
+                ProductionGraph.build(centers, connections));
+    }
+
+    /**
+     * Creates a variant of the scenario with other counts. The variant gets its own center and connection lists,
+     * since the map-based redistribution sorts the center list in place; the immutable graph index is shared.
+     *
+     * @param workersCount the number of workers of the variant
+     * @param detailsCount the number of details of the variant
+     * @return the variant
+     */
+    public ScenarioData withCounts(int workersCount, int detailsCount) {
+        return new ScenarioData(new ArrayList<>(centers), new ArrayList<>(connections), workersCount, detailsCount,
+                startCenterId, endCenterId, graph);
+    }
 }
@@ -0,0 +1,117 @@
+package org.production.models;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Distribution of the time a center needs to process one detail.
+ * The mean is the {@code performance} of the center; the variation is the coefficient of variation
+ * (standard deviation divided by the mean) where the distribution has a free spread.
+ * Samples are never negative.
+ */
+public enum ServiceTimeDistribution {
+
+    /**
+     * Every detail takes exactly the mean time; the variation is ignored.
+     */
+    DETERMINISTIC("deterministic") {
+        @Override
+        public double sample(RandomGenerator random, double mean, double variation) {
+            return mean;
+        }
+    },
+
+    /**
+     * Memoryless service with the given mean; the variation is always 1 and the given one is ignored.
+     */
+    EXPONENTIAL("exponential") {
+        @Override
+        public double sample(RandomGenerator random, double mean, double variation) {
+            return mean * random.nextExponential();
+        }
+    },
+
+    /**
+     * Lognormal service with the given mean and coefficient of variation; a few details take much longer.
+     */
+    LOGNORMAL("lognormal") {
+        @Override
+        public double sample(RandomGenerator random, double mean, double variation) {
+            if (mean <= 0 || variation <= 0) {
+                return mean;
+            }
+            double sigmaSquared = Math.log1p(variation * variation);
+            double mu = Math.log(mean) - sigmaSquared / 2;
+            return Math.exp(mu + Math.sqrt(sigmaSquared) * random.nextGaussian());
+        }
+    },
+
+    /**
+     * Symmetric triangular service with its mode at the mean and the given coefficient of variation.
+     * The half-width is {@code variation * mean * sqrt(6)}, so the variation is at most {@link #maxVariation()},
+     * where the minimum reaches zero.
+     */
+    TRIANGULAR("triangular") {
+        @Override
+        public double sample(RandomGenerator random, double mean, double variation) {
+            double halfWidth = Math.min(mean, mean * variation * SQRT_6);
+            if (halfWidth <= 0) {
+                return mean;
+            }
+            double u = random.nextDouble();
+            if (u < 0.5) {
+                return mean - halfWidth + halfWidth * Math.sqrt(2 * u);
+            }
+            return mean + halfWidth - halfWidth * Math.sqrt(2 * (1 - u));
+        }
+
+        @Override
+        public double maxVariation() {
+            return 1 / SQRT_6;
+        }
+    };
+
+    private static final double SQRT_6 = Math.sqrt(6);
+
+    private final String optionName;
+
+    ServiceTimeDistribution(String optionName) {
+        this.optionName = optionName;
+    }
+
+    /**
+     * Draws the processing time of one detail.
+     *
+     * @param random    the generator of the run
+     * @param mean      the mean processing time
+     * @param variation the coefficient of variation
+     * @return the processing time
+     */
+    public abstract double sample(RandomGenerator random, double mean, double variation);
+
+    /**
+     * @return the largest coefficient of variation the distribution can take without negative samples
+     */
+    public double maxVariation() {
+        return Double.POSITIVE_INFINITY;
+    }
+
+    public String getOptionName() {
+        return optionName;
+    }
+
+    /**
+     * Resolves a distribution by its name in the command line or in the ProductionCenter sheet.
+     *
+     * @param optionName the name of the distribution, e.g. {@code lognormal}
+     * @return the matching distribution
+     * @throws IllegalArgumentException if no distribution has the given name
+     */
+    public static ServiceTimeDistribution fromOptionName(String optionName) {
+        for (ServiceTimeDistribution distribution : values()) {
+            if (distribution.optionName.equalsIgnoreCase(optionName.trim())) {
+                return distribution;
+            }
+        }
+        throw new IllegalArgumentException("Unknown service time distribution: " + optionName);
+    }
+}
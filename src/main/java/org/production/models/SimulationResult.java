@@ -13,6 +13,22 @@ public class SimulationResult {
         this.bufferCount = bufferCount;
     }
 
+    public Double getTime() {
+        return time;
+    }
+
+    public String getProductionCenter() {
+        return productionCenter;
+    }
+
+    public int getWorkersCount() {
+        return workersCount;
+    }
+
+    public int getBufferCount() {
+        return bufferCount;
+    }
+
     @Override
     public String toString() {
         return String.format("%.2f, %s, %d, %d", time, productionCenter, workersCount, bufferCount);
@@ -1,7 +1,7 @@
 package org.production.service;
 
-import org.production.models.Connection;
 import org.production.models.ProductionCenter;
+import org.production.models.ProductionGraph;
 import org.production.models.ScenarioData;
 
 import java.util.*;
@@ -13,66 +13,6 @@ import java.util.concurrent.BlockingQueue;
  */
 public class AlgorithmUtils {
 
-    /**
-     * Selects the next connection for a production center based on weights.
-     *
-     * @param productionCenter the current production center
-     * @param fromCenters list of connections originating from the current center
-     * @param centerBuffer map of production center IDs to their respective buffers
-     * @param centerWorkers map of production center IDs to the number of assigned workers
-     * @param visitedCenters set of visited center IDs to avoid loops
-     * @param scenarioData the scenario data containing configuration and details
-     * @return the connection with the minimum weight
-     * @throws RuntimeException if no valid connections are available
-     */
-    public static Connection selectNextConnection(ProductionCenter productionCenter,
-                                                  List<Connection> fromCenters,
-                                                  Map<String, BlockingQueue<String>> centerBuffer,
-                                                  Map<String, Integer> centerWorkers,
-                                                  Set<String> visitedCenters,
-                                                  ScenarioData scenarioData) {
-
-        if (fromCenters.isEmpty()) {
-            if (productionCenter.getId().equals(scenarioData.startCenterId())) {
-                return null;
-            }
-            throw new RuntimeException("No outgoing connections available for center: " + productionCenter.getId());
-        }
-
-        Map<String, Double> weights = new HashMap<>();
-
-        for (Connection connection : fromCenters) {
-            ProductionCenter destinationCenter = connection.toCenter();
-
-            if (visitedCenters.contains(destinationCenter.getId())) {
-                continue;
-            }
-
-            BlockingQueue<String> buffer = centerBuffer.get(destinationCenter.getId());
-            if (buffer == null) {
-                throw new RuntimeException("Buffer not found for center: " + destinationCenter.getId());
-            }
-
-            int currentWorkers = destinationCenter.getCurrentWorkers();
-            if (currentWorkers == 0) {
-                AlgorithmUtils.redistributeWorkers(centerWorkers, centerBuffer, scenarioData);
-                currentWorkers = destinationCenter.getCurrentWorkers();
-            }
-
-            double weight = (destinationCenter.getPerformance() * buffer.size()) /
-                    (destinationCenter.getMaxWorkers() - currentWorkers + 1);
-            weights.put(destinationCenter.getId(), weight);
-        }
-
-        if (weights.isEmpty()) {
-            throw new RuntimeException("No valid connections available for center: " + productionCenter.getId());
-        }
-
-        return fromCenters.stream()
-                .min(Comparator.comparingDouble(conn -> weights.getOrDefault(conn.toCenter().getId(), Double.MAX_VALUE)))
-                .orElseThrow(() -> new RuntimeException("No valid connections found for Dijkstra selection."));
-    }
-
     /**
      * Redistributes workers among production centers based on their needs.
      *
@@ -227,19 +167,193 @@ public class AlgorithmUtils {
     }
 
     /**
-     * Retrieves the outgoing connections for a given production center.
+     * Selects the next production center for a processed detail with the routing policy and counts the detail
+     * as routed there in the snapshot. Workers are never redistributed while routing.
+     *
+     * @param center the dense index of the current production center, it must have outgoing connections
+     * @param policy the routing policy of the run
+     * @param snapshot the workers and buffer sizes of the current step
+     * @return the dense index of the selected destination
+     * @throws RuntimeException if no valid connections are available
+     */
+    public static int selectNextCenter(int center, RoutingPolicy policy, RoutingSnapshot snapshot) {
+        ProductionGraph graph = snapshot.graph();
+        int selected = policy.selectConnection(center, snapshot);
+        if (selected == RoutingPolicy.NO_CONNECTION) {
+            throw new RuntimeException("No valid connections available for center: " + graph.center(center).getId());
+        }
+        snapshot.recordRouted(center, selected);
+        return graph.outTarget(center, selected);
+    }
+
+    /**
+     * Splits a batch of processed details across the outgoing connections of a center. Every detail of the batch
+     * is routed by the policy in turn and counted in the snapshot, so the split equals the destinations that
+     * {@code count} successive calls of {@link #selectNextCenter} would return.
+     *
+     * @param center the dense index of the current production center, it must have outgoing connections
+     * @param count the number of details in the batch
+     * @param policy the routing policy of the run
+     * @param snapshot the workers and buffer sizes of the current step
+     * @param shares receives the number of details for every outgoing connection, indexed like
+     *               {@link ProductionGraph#outTarget}; at least {@code outDegree} long
+     * @throws RuntimeException if no valid connections are available
+     */
+    public static void splitAcrossDestinations(int center, int count, RoutingPolicy policy, RoutingSnapshot snapshot,
+                                               int[] shares) {
+        ProductionGraph graph = snapshot.graph();
+        Arrays.fill(shares, 0, graph.outDegree(center), 0);
+        for (int detail = 0; detail < count; detail++) {
+            int selected = policy.selectConnection(center, snapshot);
+            if (selected == RoutingPolicy.NO_CONNECTION) {
+                throw new RuntimeException("No valid connections available for center: " + graph.center(center).getId());
+            }
+            shares[selected]++;
+            snapshot.recordRouted(center, selected);
+        }
+    }
+
+    /**
+     * Redistributes workers among production centers based on their needs.
+     *
+     * @param state the state of the running simulation
+     * @param scenarioData the scenario data containing configuration and details
+     */
+    public static void redistributeWorkers(SimulationState state, ScenarioData scenarioData) {
+        int totalWorkers = scenarioData.workersCount();
+
+        if (totalWorkers < state.size()) {
+            redistributeWorkersLess(state, totalWorkers);
+        } else {
+            redistributeWorkersMore(state, totalWorkers);
+        }
+    }
+
+    /**
+     * Redistributes workers when the total number of workers is greater than or equal to the number of production centers.
+     * Only the centers holding workers are reset, and the centers are visited in load order only until
+     * the workers run out or the remaining buffers are empty. When the workers cover the demand of all centers
+     * and did so at the previous redistribution, only the centers whose buffers changed are updated.
      *
-     * @param center the current production center
-     * @param connections list of all connections
-     * @return a list of outgoing connections for the given center
+     * @param state the state of the running simulation
+     * @param totalWorkers the total number of workers available for redistribution
      */
-    public static List<Connection> getOutgoingConnectionsForCenter(ProductionCenter center, List<Connection> connections) {
-        List<Connection> outgoingConnections = new ArrayList<>();
-        for (Connection conn : connections) {
-            if (conn.fromCenter().getId().equals(center.getId())) {
-                outgoingConnections.add(conn);
+    public static void redistributeWorkersMore(SimulationState state, int totalWorkers) {
+        synchronized (state) {
+            ProductionGraph graph = state.graph();
+            CenterPriorityIndex priorityIndex = state.priorityIndex();
+            int changedCount = priorityIndex.refresh(state);
+
+            if (priorityIndex.totalDemand() <= totalWorkers) {
+                // Every center gets all the workers it can use, the load order does not matter.
+                if (state.isDemandAssigned()) {
+                    for (int i = 0; i < changedCount; i++) {
+                        int center = priorityIndex.refreshedCenter(i);
+                        state.assignWorkers(center, priorityIndex.demand(center));
+                    }
+                } else {
+                    for (int center : state.staffedCenters()) {
+                        state.assignWorkers(center, 0);
+                    }
+                    priorityIndex.forEachByPriority(center -> {
+                        state.assignWorkers(center, priorityIndex.demand(center));
+                        return priorityIndex.bufferSize(center) > 0;
+                    });
+                }
+                state.setDemandAssigned(true);
+                return;
+            }
+
+            for (int center : state.staffedCenters()) {
+                state.setWorkers(center, 0);
+            }
+
+            int[] freeWorkers = {totalWorkers};
+            if (freeWorkers[0] <= 0) {
+                return;
+            }
+            priorityIndex.forEachByPriority(center -> {
+                int bufferSize = priorityIndex.bufferSize(center);
+                if (bufferSize == 0) {
+                    return false;
+                }
+
+                int needed = Math.min(bufferSize, graph.center(center).getMaxWorkers());
+                int toAssign = Math.min(needed, freeWorkers[0]);
+                state.setWorkers(center, toAssign);
+
+                freeWorkers[0] -= toAssign;
+                return freeWorkers[0] > 0;
+            });
+        }
+    }
+
+    /**
+     * Redistributes workers when the total number of workers is less than the number of production centers.
+     * Only the centers holding workers are checked for empty buffers, and the centers are visited in load order
+     * only until the workers run out or the remaining buffers are empty.
+     *
+     * @param state the state of the running simulation
+     * @param totalWorkers the total number of workers available for redistribution
+     */
+    public static void redistributeWorkersLess(SimulationState state, int totalWorkers) {
+        synchronized (state) {
+            ProductionGraph graph = state.graph();
+            for (int center : state.staffedCenters()) {
+                if (state.bufferSize(center) == 0) {
+                    state.setWorkers(center, 0);
+                }
+            }
+
+            CenterPriorityIndex priorityIndex = state.priorityIndex();
+            priorityIndex.refresh(state);
+
+            int[] freeWorkers = {totalWorkers - state.totalWorkers()};
+            if (freeWorkers[0] <= 0) {
+                return;
+            }
+
+            priorityIndex.forEachByPriority(center -> {
+                int bufferSize = priorityIndex.bufferSize(center);
+                if (bufferSize == 0) {
+                    return false;
+                }
+
+                int currentAssigned = state.workers(center);
+                int toAssign = Math.min(bufferSize, graph.center(center).getMaxWorkers()) - currentAssigned;
+                if (toAssign > 0) {
+                    int assignNow = Math.min(toAssign, freeWorkers[0]);
+                    state.setWorkers(center, currentAssigned + assignNow);
+                    freeWorkers[0] -= assignNow;
+                }
+                return freeWorkers[0] > 0;
+            });
+        }
+    }
+
+    /**
+     * Adjusts the number of workers assigned to centers if the total exceeds the available workers,
+     * removing workers from the centers with the most workers first.
+     *
+     * @param state the state of the running simulation
+     * @param excessWorkers the number of workers to remove from the total assignments
+     */
+    public static void adjustExcessWorkers(SimulationState state, int excessWorkers) {
+        synchronized (state) {
+            // The staffed centers are few, and the stable sort keeps centers with equal workers in index order.
+            Integer[] staffedCenters = Arrays.stream(state.staffedCenters()).sorted().boxed().toArray(Integer[]::new);
+            Arrays.sort(staffedCenters, Comparator.comparingInt(state::workers).reversed());
+
+            int excess = excessWorkers;
+            for (int center : staffedCenters) {
+                if (excess <= 0) {
+                    break;
+                }
+                int currentWorkers = state.workers(center);
+                int toRemove = Math.min(currentWorkers, excess);
+                state.setWorkers(center, currentWorkers - toRemove);
+                excess -= toRemove;
             }
         }
-        return outgoingConnections;
     }
 }
@@ -0,0 +1,411 @@
+package org.production.service;
+
+import org.production.models.ProductionGraph;
+import org.production.models.ScenarioData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Searches fixed worker allocations, static or per phase, that minimize the makespan of a scenario.
+ * <p>
+ * Every candidate allocation is evaluated by a discrete-event run in which the allocation replaces the greedy
+ * redistribution. The candidates of a search step are simulated in parallel; they share the immutable scenario,
+ * and every thread takes one of {@code parallelism} simulation states allocated up front and resets it before
+ * the run. Every center the details can reach keeps at least one worker in every phase, so no candidate stalls.
+ * The candidates of a step are generated and compared in a fixed order, so the result depends only on the
+ * settings, not on the parallelism.
+ * <p>
+ * With several phases, the phases split the makespan of the greedy redistribution into equal parts;
+ * the last phase lasts until the end of the run.
+ */
+public final class AllocationOptimizer {
+    private static final int NEIGHBORS_PER_ITERATION = 8;
+    private static final double INITIAL_TEMPERATURE = 0.05;
+    private static final double FINAL_TEMPERATURE = 0.001;
+    private static final double IMPROVEMENT = 1e-9;
+
+    private AllocationOptimizer() {
+    }
+
+    /**
+     * Runs the search.
+     *
+     * @param scenarioData the scenario, shared read-only by all evaluations
+     * @param settings     the search method, the phases and the parallelism
+     * @return the best allocation found
+     * @throws IllegalArgumentException if the workers cannot cover every center the details reach
+     * @throws IllegalStateException    if an evaluation fails
+     */
+    public static AllocationResult optimize(ScenarioData scenarioData, OptimizerSettings settings) {
+        ProductionGraph graph = scenarioData.graph();
+        int[] minimum = minimumWorkers(scenarioData);
+        double greedyMakespan = makespan(scenarioData, null, settings.routingPolicy());
+        double phaseLength = settings.phases() == 1 ? 0 : greedyMakespan / settings.phases();
+
+        Candidate best;
+        long evaluations;
+        try (Evaluator evaluator = new Evaluator(scenarioData, settings, phaseLength)) {
+            best = switch (settings.method()) {
+                case MARGINAL -> marginalAllocation(evaluator, graph, minimum, settings.phases(),
+                        scenarioData.workersCount());
+                case ANNEALING -> annealing(evaluator, scenarioData, settings, minimum, greedyMakespan);
+            };
+            evaluations = evaluator.evaluations;
+        }
+
+        List<String> centerNames = new ArrayList<>(graph.size());
+        for (int center = 0; center < graph.size(); center++) {
+            centerNames.add(graph.center(center).getName());
+        }
+        List<List<Integer>> phaseWorkers = new ArrayList<>(best.workers.length);
+        for (int[] workers : best.workers) {
+            List<Integer> phase = new ArrayList<>(workers.length);
+            for (int count : workers) {
+                phase.add(count);
+            }
+            phaseWorkers.add(phase);
+        }
+        return new AllocationResult(settings.method(), best.makespan, greedyMakespan, evaluations, phaseLength,
+                centerNames, phaseWorkers);
+    }
+
+    /**
+     * Simulates the scenario once in the discrete-event mode.
+     *
+     * @param scenarioData  the scenario to simulate
+     * @param allocation    the workers of every tick, or {@code null} for the greedy redistribution by buffer load
+     * @param routingPolicy the routing policy of the run
+     * @return the makespan of the run
+     * @throws IllegalStateException if the details cannot all leave the plant with the allocation
+     */
+    public static double makespan(ScenarioData scenarioData, WorkerAllocation allocation,
+                                  RoutingPolicyType routingPolicy) {
+        return simulate(scenarioData, SimulationState.initial(scenarioData), allocation, routingPolicy);
+    }
+
+    private static double simulate(ScenarioData scenarioData, SimulationState state, WorkerAllocation allocation,
+                                   RoutingPolicyType routingPolicy) {
+        ProductionGraph graph = scenarioData.graph();
+        DiscreteEventEngine engine = new DiscreteEventEngine(scenarioData, state,
+                center -> graph.center(center).getPerformance(), null, routingPolicy.create(graph), allocation);
+        return engine.run(time -> {
+        });
+    }
+
+    /**
+     * Greedy marginal allocation: every step simulates each allocation with one more worker at one center in one
+     * phase and keeps the one with the shortest makespan, ties going to the earlier phase and center. Steps
+     * without gain are kept too, since a bottleneck shared by several centers only moves once all of them got
+     * a worker; the best allocation seen is returned, so idle workers are never added for nothing.
+     */
+    private static Candidate marginalAllocation(Evaluator evaluator, ProductionGraph graph, int[] minimum, int phases,
+                                                int workersCount) {
+        int[][] current = new int[phases][];
+        for (int phase = 0; phase < phases; phase++) {
+            current[phase] = minimum.clone();
+        }
+        Candidate best = new Candidate(current, evaluator.evaluate(current));
+
+        while (true) {
+            List<int[][]> candidates = new ArrayList<>();
+            for (int phase = 0; phase < phases; phase++) {
+                if (sum(current[phase]) >= workersCount) {
+                    continue;
+                }
+                for (int center = 0; center < graph.size(); center++) {
+                    if (minimum[center] > 0 && current[phase][center] < graph.center(center).getMaxWorkers()) {
+                        int[][] candidate = copy(current);
+                        candidate[phase][center]++;
+                        candidates.add(candidate);
+                    }
+                }
+            }
+            if (candidates.isEmpty()) {
+                return best;
+            }
+
+            double[] makespans = evaluator.evaluate(candidates);
+            int selected = 0;
+            for (int i = 1; i < makespans.length; i++) {
+                if (makespans[i] < makespans[selected]) {
+                    selected = i;
+                }
+            }
+            current = candidates.get(selected);
+            if (makespans[selected] < best.makespan - IMPROVEMENT) {
+                best = new Candidate(current, makespans[selected]);
+            }
+        }
+    }
+
+    /**
+     * Simulated annealing over allocations using all assignable workers. The start spreads the workers by the
+     * demand per detail of every center, as estimated by {@link QueueingNetworkEstimator}. Every iteration
+     * simulates {@value #NEIGHBORS_PER_ITERATION} allocations moving one worker between two centers in one phase and
+     * takes the best of them if it is shorter, or otherwise with the Metropolis probability; the temperature cools
+     * geometrically from {@value #INITIAL_TEMPERATURE} to {@value #FINAL_TEMPERATURE} of the greedy makespan.
+     */
+    private static Candidate annealing(Evaluator evaluator, ScenarioData scenarioData, OptimizerSettings settings,
+                                       int[] minimum, double greedyMakespan) {
+        ProductionGraph graph = scenarioData.graph();
+        List<Double> visits = QueueingNetworkEstimator.estimate(scenarioData, settings.routingPolicy()).centerVisits();
+        double[] demand = new double[graph.size()];
+        for (int center = 0; center < demand.length; center++) {
+            demand[center] = visits.get(center) * graph.center(center).getPerformance();
+        }
+        int[] spread = spreadByDemand(graph, minimum, demand, scenarioData.workersCount());
+        int[][] current = new int[settings.phases()][];
+        for (int phase = 0; phase < current.length; phase++) {
+            current[phase] = spread.clone();
+        }
+
+        double currentMakespan = evaluator.evaluate(current);
+        Candidate best = new Candidate(current, currentMakespan);
+        SplittableRandom random = new SplittableRandom(settings.seed());
+        double scale = greedyMakespan > 0 ? greedyMakespan : 1.0;
+        for (int iteration = 0; iteration < settings.iterations(); iteration++) {
+            double progress = settings.iterations() == 1 ? 1.0 : (double) iteration / (settings.iterations() - 1);
+            double temperature = scale * INITIAL_TEMPERATURE
+                    * Math.pow(FINAL_TEMPERATURE / INITIAL_TEMPERATURE, progress);
+
+            List<int[][]> neighbors = new ArrayList<>(NEIGHBORS_PER_ITERATION);
+            for (int i = 0; i < NEIGHBORS_PER_ITERATION; i++) {
+                int[][] neighbor = moveOneWorker(graph, current, minimum, random);
+                if (neighbor == null) {
+                    return best;
+                }
+                neighbors.add(neighbor);
+            }
+            double[] makespans = evaluator.evaluate(neighbors);
+            int selected = 0;
+            for (int i = 1; i < makespans.length; i++) {
+                if (makespans[i] < makespans[selected]) {
+                    selected = i;
+                }
+            }
+
+            double delta = makespans[selected] - currentMakespan;
+            if (delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature)) {
+                current = neighbors.get(selected);
+                currentMakespan = makespans[selected];
+                if (currentMakespan < best.makespan - IMPROVEMENT) {
+                    best = new Candidate(current, currentMakespan);
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Gives the workers left after the minimum one by one to the center with the highest demand per worker
+     * that can take another one.
+     */
+    private static int[] spreadByDemand(ProductionGraph graph, int[] minimum, double[] demand, int workersCount) {
+        int[] workers = minimum.clone();
+        for (int remaining = workersCount - sum(minimum); remaining > 0; remaining--) {
+            int selected = -1;
+            double maxDemand = 0;
+            for (int center = 0; center < workers.length; center++) {
+                if (minimum[center] == 0 || workers[center] >= graph.center(center).getMaxWorkers()) {
+                    continue;
+                }
+                double perWorker = demand[center] / workers[center];
+                if (selected < 0 || perWorker > maxDemand) {
+                    selected = center;
+                    maxDemand = perWorker;
+                }
+            }
+            if (selected < 0) {
+                break;
+            }
+            workers[selected]++;
+        }
+        return workers;
+    }
+
+    /**
+     * @return a copy of the allocation with one worker moved between two reachable centers of a random phase,
+     *         or {@code null} if no phase allows a move
+     */
+    private static int[][] moveOneWorker(ProductionGraph graph, int[][] allocation, int[] minimum,
+                                         SplittableRandom random) {
+        int size = graph.size();
+        int[] donors = new int[size];
+        int[] receivers = new int[size];
+        int firstPhase = random.nextInt(allocation.length);
+        for (int offset = 0; offset < allocation.length; offset++) {
+            int phase = (firstPhase + offset) % allocation.length;
+            int donorCount = 0;
+            int receiverCount = 0;
+            for (int center = 0; center < size; center++) {
+                if (minimum[center] == 0) {
+                    continue;
+                }
+                if (allocation[phase][center] > minimum[center]) {
+                    donors[donorCount++] = center;
+                }
+                if (allocation[phase][center] < graph.center(center).getMaxWorkers()) {
+                    receivers[receiverCount++] = center;
+                }
+            }
+            if (donorCount == 0 || receiverCount == 0 || donorCount == 1 && receiverCount == 1
+                    && donors[0] == receivers[0]) {
+                continue;
+            }
+
+            int donor;
+            int receiver;
+            do {
+                donor = donors[random.nextInt(donorCount)];
+                receiver = receivers[random.nextInt(receiverCount)];
+            } while (donor == receiver);
+            int[][] neighbor = copy(allocation);
+            neighbor[phase][donor]--;
+            neighbor[phase][receiver]++;
+            return neighbor;
+        }
+        return null;
+    }
+
+    /**
+     * @return one worker for every center the details can reach from the start center, none for the others
+     * @throws IllegalArgumentException if a reachable center takes no workers or there are fewer workers
+     *                                  than reachable centers
+     */
+    private static int[] minimumWorkers(ScenarioData scenarioData) {
+        ProductionGraph graph = scenarioData.graph();
+        int start = graph.indexOf(scenarioData.startCenterId());
+        if (start < 0) {
+            throw new IllegalArgumentException("Start center not found: " + scenarioData.startCenterId());
+        }
+        int[] minimum = new int[graph.size()];
+        int[] queue = new int[graph.size()];
+        int head = 0;
+        int tail = 0;
+        minimum[start] = 1;
+        queue[tail++] = start;
+        while (head < tail) {
+            int center = queue[head++];
+            if (graph.center(center).getMaxWorkers() < 1) {
+                throw new IllegalArgumentException("Center " + graph.center(center).getId()
+                        + " is reached by details but takes no workers");
+            }
+            for (int k = 0; k < graph.outDegree(center); k++) {
+                int destination = graph.outTarget(center, k);
+                if (minimum[destination] == 0) {
+                    minimum[destination] = 1;
+                    queue[tail++] = destination;
+                }
+            }
+        }
+        if (tail > scenarioData.workersCount()) {
+            throw new IllegalArgumentException("A fixed allocation needs at least " + tail
+                    + " workers, one for every center the details reach, but there are "
+                    + scenarioData.workersCount());
+        }
+        return minimum;
+    }
+
+    private static int sum(int[] values) {
+        int total = 0;
+        for (int value : values) {
+            total += value;
+        }
+        return total;
+    }
+
+    private static int[][] copy(int[][] allocation) {
+        int[][] copy = new int[allocation.length][];
+        for (int phase = 0; phase < allocation.length; phase++) {
+            copy[phase] = allocation[phase].clone();
+        }
+        return copy;
+    }
+
+    private record Candidate(int[][] workers, double makespan) {
+    }
+
+    /**
+     * Simulates candidate allocations on a fixed thread pool, each run on one of the pooled simulation states.
+     * A candidate whose run stalls gets an infinite makespan.
+     */
+    private static final class Evaluator implements AutoCloseable {
+        private final ScenarioData scenarioData;
+        private final RoutingPolicyType routingPolicy;
+        private final double phaseLength;
+        private final ExecutorService executor;
+        private final BlockingQueue<SimulationState> states;
+        private long evaluations;
+
+        Evaluator(ScenarioData scenarioData, OptimizerSettings settings, double phaseLength) {
+            this.scenarioData = scenarioData;
+            this.routingPolicy = settings.routingPolicy();
+            this.phaseLength = phaseLength;
+            this.executor = Executors.newFixedThreadPool(settings.parallelism());
+            this.states = new ArrayBlockingQueue<>(settings.parallelism());
+            for (int i = 0; i < settings.parallelism(); i++) {
+                states.add(new SimulationState(scenarioData.graph()));
+            }
+        }
+
+        /**
+         * @return the makespan of the candidate
+         */
+        double evaluate(int[][] candidate) {
+            List<int[][]> candidates = new ArrayList<>(1);
+            candidates.add(candidate);
+            return evaluate(candidates)[0];
+        }
+
+        /**
+         * @return the makespans of the candidates, in their order
+         */
+        double[] evaluate(List<int[][]> candidates) {
+            List<Callable<Double>> tasks = new ArrayList<>(candidates.size());
+            for (int[][] candidate : candidates) {
+                PhasedWorkerAllocation allocation = new PhasedWorkerAllocation(candidate, phaseLength);
+                tasks.add(() -> simulate(allocation));
+            }
+            try {
+                double[] makespans = new double[tasks.size()];
+                List<Future<Double>> futures = executor.invokeAll(tasks);
+                for (int i = 0; i < makespans.length; i++) {
+                    makespans[i] = futures.get(i).get();
+                }
+                evaluations += makespans.length;
+                return makespans;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("The optimization was interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("An evaluation failed: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+
+        private double simulate(PhasedWorkerAllocation allocation) throws InterruptedException {
+            SimulationState state = states.take();
+            try {
+                state.reset(scenarioData);
+                return AllocationOptimizer.simulate(scenarioData, state, allocation, routingPolicy);
+            } catch (IllegalStateException e) {
+                return Double.POSITIVE_INFINITY;
+            } finally {
+                states.put(state);
+            }
+        }
+
+        @Override
+        public void close() {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.production.service;
+
+import java.util.List;
+
+/**
+ * Best worker allocation found by an {@link AllocationOptimizer}.
+ *
+ * @param method         the search that found the allocation
+ * @param makespan       the simulated makespan with the allocation
+ * @param greedyMakespan the simulated makespan with the greedy redistribution by buffer load, for comparison
+ * @param evaluations    the number of simulated candidate allocations
+ * @param phaseLength    the simulated time every phase but the last one lasts
+ * @param centerNames    the names of the centers, in the order of the graph
+ * @param phaseWorkers   the workers of every center in every phase, each list in the order of {@code centerNames}
+ */
+public record AllocationResult(OptimizationMethod method, double makespan, double greedyMakespan, long evaluations,
+                               double phaseLength, List<String> centerNames, List<List<Integer>> phaseWorkers) {
+
+    public AllocationResult {
+        centerNames = List.copyOf(centerNames);
+        phaseWorkers = phaseWorkers.stream().<List<Integer>>map(List::copyOf).toList();
+    }
+
+    /**
+     * @return the allocation, to be simulated again
+     */
+    public PhasedWorkerAllocation allocation() {
+        int[][] workers = new int[phaseWorkers.size()][];
+        for (int phase = 0; phase < workers.length; phase++) {
+            workers[phase] = phaseWorkers.get(phase).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return new PhasedWorkerAllocation(workers, phaseLength);
+    }
+}
@@ -0,0 +1,64 @@
+package org.production.service;
+
+import org.production.io.CountingResultSink;
+import org.production.models.ScenarioData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs the variants of a parameter sweep in parallel, one {@link SimulationRunner} per variant.
+ * Every variant gets its own copy of the scenario lists and its own simulation state, while the immutable
+ * graph index is shared; the per-step rows are discarded and only the totals of each run are reported.
+ */
+public class BatchRunner {
+
+    /**
+     * Runs all variants of the sweep.
+     *
+     * @param scenarioData the base scenario
+     * @param sweep        the swept counts
+     * @param settings     the settings of every run; {@link SimulationMode#DISCRETE_EVENT} is by far the fastest.
+     *                     Progress summaries of the variants are not logged and no checkpoints are taken
+     * @param parallelism  the number of variants run at the same time
+     * @return the summaries in the order of {@link SweepSpecification#variants}
+     * @throws IllegalStateException if a variant fails
+     */
+    public static List<VariantSummary> run(ScenarioData scenarioData, SweepSpecification sweep,
+                                           SimulationSettings settings, int parallelism) {
+        SimulationSettings variantSettings = settings.withProgressInterval(null).withCheckpoint(null);
+        List<Callable<VariantSummary>> tasks = new ArrayList<>();
+        for (SweepSpecification.Variant variant : sweep.variants(scenarioData)) {
+            tasks.add(() -> runVariant(scenarioData.withCounts(variant.workersCount(), variant.detailsCount()), variantSettings));
+        }
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism))) {
+            List<VariantSummary> summaries = new ArrayList<>(tasks.size());
+            for (Future<VariantSummary> future : executor.invokeAll(tasks)) {
+                summaries.add(future.get());
+            }
+            return summaries;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The sweep was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A sweep variant failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static VariantSummary runVariant(ScenarioData variant, SimulationSettings settings) {
+        long start = System.nanoTime();
+        SimulationRunner runner = new SimulationRunner(variant, settings, new CountingResultSink());
+        runner.runSimulation();
+        long wallTimeMillis = (System.nanoTime() - start) / 1_000_000;
+
+        RunStatistics statistics = runner.getRunStatistics();
+        return new VariantSummary(variant.workersCount(), variant.detailsCount(), statistics.simulatedTime(),
+                statistics.utilization(variant.workersCount()), statistics.processedDetails(), wallTimeMillis);
+    }
+}
@@ -0,0 +1,130 @@
+package org.production.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free FIFO buffer of detail ids in a fixed circular array, safe for any number of producers and consumers.
+ * Every slot carries a sequence number telling whether it is free for the offer of the current lap or holds
+ * a detail for the poll of the current lap, so offers and polls only compete through a compare-and-set on
+ * the tail or the head position (the bounded MPMC queue of D. Vyukov).
+ * The capacity is rounded up to a power of two; offering into a full buffer fails.
+ */
+public final class BoundedLockFreeDetailBuffer implements DetailBuffer {
+    private final int capacity;
+    private final int mask;
+    private final int[] elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity the minimum number of details the buffer can hold
+     */
+    public BoundedLockFreeDetailBuffer(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30: " + capacity);
+        }
+        this.capacity = Math.max(2, Integer.highestOneBit(capacity - 1) << 1);
+        this.mask = this.capacity - 1;
+        this.elements = new int[this.capacity];
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return the number of details the buffer can hold
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public void offer(int detail) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements[index] = detail;
+                    // Publishes the detail to the poll of this lap.
+                    sequences.set(index, position + 1);
+                    return;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                if (position - head.get() >= capacity) {
+                    throw new IllegalStateException("Buffer is full, capacity " + capacity);
+                }
+                // A poll has taken the detail of the previous lap but not freed the slot yet.
+                Thread.onSpinWait();
+                position = tail.get();
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    @Override
+    public int poll() {
+        long position = head.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    int detail = elements[index];
+                    // Frees the slot for the offer of the next lap.
+                    sequences.set(index, position + capacity);
+                    return detail;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                return EMPTY;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    @Override
+    public int drainTo(int[] target, int maxElements) {
+        int count = 0;
+        while (count < maxElements) {
+            int detail = poll();
+            if (detail == EMPTY) {
+                break;
+            }
+            target[count++] = detail;
+        }
+        return count;
+    }
+
+    @Override
+    public void offerAll(int[] details, int offset, int count) {
+        for (int i = offset; i < offset + count; i++) {
+            offer(details[i]);
+        }
+    }
+
+    /**
+     * Counts the offers that claimed a slot minus the polls that claimed one. The head is read before
+     * the tail, so the count is never negative.
+     */
+    @Override
+    public int size() {
+        long consumed = head.get();
+        long produced = tail.get();
+        return (int) Math.max(0, Math.min(produced - consumed, capacity));
+    }
+
+    @Override
+    public void clear() {
+        while (poll() != EMPTY) {
+            // Drops the detail.
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.production.service;
+
+/**
+ * Defines the {@link DetailBuffer} implementation holding the details waiting at every production center.
+ */
+public enum BufferType {
+
+    /**
+     * Growable circular array with synchronized updates; allocates nothing per detail.
+     */
+    SYNCHRONIZED("synchronized") {
+        @Override
+        DetailBuffer create(int detailsCount) {
+            return new IntRingBuffer();
+        }
+    },
+
+    /**
+     * Unbounded lock-free linked chunks; offers never retry, suited for many centers feeding the same center.
+     */
+    LOCK_FREE("lock-free") {
+        @Override
+        DetailBuffer create(int detailsCount) {
+            return new LockFreeDetailBuffer();
+        }
+    },
+
+    /**
+     * Lock-free circular array able to hold every detail of the run, so it never fills up.
+     * Every center allocates the whole array up front, which suits graphs with few centers.
+     */
+    LOCK_FREE_BOUNDED("lock-free-bounded") {
+        @Override
+        DetailBuffer create(int detailsCount) {
+            return new BoundedLockFreeDetailBuffer(Math.max(1, detailsCount));
+        }
+    };
+
+    private final String optionName;
+
+    BufferType(String optionName) {
+        this.optionName = optionName;
+    }
+
+    /**
+     * @param detailsCount the number of details of the run
+     * @return an empty buffer for one center
+     */
+    abstract DetailBuffer create(int detailsCount);
+
+    public String getOptionName() {
+        return optionName;
+    }
+
+    /**
+     * Resolves a buffer type by its command line name.
+     *
+     * @param optionName the name of the buffer type, e.g. {@code lock-free}
+     * @return the matching buffer type
+     * @throws IllegalArgumentException if no buffer type has the given name
+     */
+    public static BufferType fromOptionName(String optionName) {
+        for (BufferType type : values()) {
+            if (type.optionName.equalsIgnoreCase(optionName.trim())) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown buffer type: " + optionName);
+    }
+}
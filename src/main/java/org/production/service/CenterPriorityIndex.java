@@ -0,0 +1,251 @@
+package org.production.service;
+
+import org.production.models.ProductionGraph;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntPredicate;
+
+/**
+ * Indexed max-heap of production centers ordered by their load, {@code buffer size * performance}.
+ * Buffer changes only mark a center as changed; the heap positions of the changed centers are repaired
+ * by {@link #refresh}, so keeping the order costs O(changed centers * log n) instead of sorting all
+ * centers for every redistribution. Centers with equal load are ordered by buffer size and then by their index.
+ * The index also keeps the demand of every center, {@code min(buffer size, max workers)}, and its total.
+ * Marking a center that is already marked takes no lock, so concurrent offers and polls on the buffers
+ * only meet here once per center between two refreshes.
+ */
+final class CenterPriorityIndex {
+    private final double[] performance;
+    private final int[] maxWorkers;
+    private final double[] load;
+    private final int[] bufferSize;
+    private final int[] demand;
+    private final int[] heap;
+    private final int[] position;
+    private final AtomicIntegerArray changed;
+    private final int[] changedCenters;
+    private final int[] refreshedCenters;
+    private final int[] candidates;
+    private int changedCount;
+    private int refreshedCount;
+    private long totalDemand;
+
+    CenterPriorityIndex(ProductionGraph graph) {
+        int size = graph.size();
+        this.performance = new double[size];
+        this.maxWorkers = new int[size];
+        this.load = new double[size];
+        this.bufferSize = new int[size];
+        this.demand = new int[size];
+        this.heap = new int[size];
+        this.position = new int[size];
+        this.changed = new AtomicIntegerArray(size);
+        this.changedCenters = new int[size];
+        this.refreshedCenters = new int[size];
+        this.candidates = new int[size];
+        for (int center = 0; center < size; center++) {
+            performance[center] = graph.center(center).getPerformance();
+            maxWorkers[center] = Math.max(graph.center(center).getMaxWorkers(), 0);
+            heap[center] = center;
+            position[center] = center;
+        }
+    }
+
+    /**
+     * Records that the buffer of the center has changed.
+     *
+     * @param center the dense index of the center
+     */
+    void markChanged(int center) {
+        // The buffer was changed before the flag is read, and refresh clears the flag before it reads
+        // the buffer size, so a set flag guarantees the coming refresh sees this change.
+        if (changed.get(center) == 0) {
+            markChangedLocked(center);
+        }
+    }
+
+    private synchronized void markChangedLocked(int center) {
+        if (changed.get(center) == 0) {
+            changed.set(center, 1);
+            changedCenters[changedCount++] = center;
+        }
+    }
+
+    /**
+     * Marks every center as changed, e.g. after the state was reset.
+     */
+    synchronized void markAllChanged() {
+        for (int center = 0; center < heap.length; center++) {
+            markChangedLocked(center);
+        }
+    }
+
+    /**
+     * Reads the buffer sizes of the centers changed since the last refresh and repairs their heap positions.
+     *
+     * @param state the state providing the current buffer sizes
+     * @return the number of refreshed centers, available through {@link #refreshedCenter}
+     */
+    synchronized int refresh(SimulationState state) {
+        for (int i = 0; i < changedCount; i++) {
+            int center = changedCenters[i];
+            changed.set(center, 0);
+            refreshedCenters[i] = center;
+
+            bufferSize[center] = state.bufferSize(center);
+            load[center] = bufferSize[center] * performance[center];
+            int newDemand = Math.min(bufferSize[center], maxWorkers[center]);
+            totalDemand += newDemand - demand[center];
+            demand[center] = newDemand;
+
+            siftUp(position[center]);
+            siftDown(position[center]);
+        }
+        refreshedCount = changedCount;
+        changedCount = 0;
+        return refreshedCount;
+    }
+
+    /**
+     * @param i the position among the centers of the last {@link #refresh}
+     * @return the dense index of the refreshed center
+     */
+    synchronized int refreshedCenter(int i) {
+        return refreshedCenters[i];
+    }
+
+    /**
+     * @param center the dense index of a center
+     * @return the buffer size of the center as of the last refresh
+     */
+    synchronized int bufferSize(int center) {
+        return bufferSize[center];
+    }
+
+    /**
+     * @param center the dense index of a center
+     * @return the number of workers the center can use as of the last refresh
+     */
+    synchronized int demand(int center) {
+        return demand[center];
+    }
+
+    /**
+     * @return the number of workers all centers together can use as of the last refresh
+     */
+    synchronized long totalDemand() {
+        return totalDemand;
+    }
+
+    /**
+     * Visits the centers in descending order of their load as of the last {@link #refresh}
+     * until the visitor returns false. Only the visited part of the heap is traversed,
+     * so visiting k centers costs O(k * log k).
+     *
+     * @param visitor receives the dense index of each center, returns false to stop the traversal
+     */
+    synchronized void forEachByPriority(IntPredicate visitor) {
+        if (heap.length == 0) {
+            return;
+        }
+
+        // Candidates form a second heap of positions in the main heap: the best unvisited center
+        // is always either a child of a visited one or the root.
+        int candidateCount = 0;
+        candidates[candidateCount++] = 0;
+        while (candidateCount > 0) {
+            int best = candidates[0];
+            candidates[0] = candidates[--candidateCount];
+            siftDownCandidate(candidateCount);
+
+            if (!visitor.test(heap[best])) {
+                return;
+            }
+
+            for (int child = 2 * best + 1; child <= 2 * best + 2 && child < heap.length; child++) {
+                candidates[candidateCount] = child;
+                siftUpCandidate(candidateCount++);
+            }
+        }
+    }
+
+    private boolean before(int center, int other) {
+        int byLoad = Double.compare(load[center], load[other]);
+        if (byLoad != 0) {
+            return byLoad > 0;
+        }
+        if (bufferSize[center] != bufferSize[other]) {
+            return bufferSize[center] > bufferSize[other];
+        }
+        return center < other;
+    }
+
+    private void siftUp(int index) {
+        int center = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!before(center, heap[parent])) {
+                break;
+            }
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(center, index);
+    }
+
+    private void siftDown(int index) {
+        int center = heap[index];
+        int half = heap.length >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < heap.length && before(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!before(heap[child], center)) {
+                break;
+            }
+            place(heap[child], index);
+            index = child;
+        }
+        place(center, index);
+    }
+
+    private void place(int center, int index) {
+        heap[index] = center;
+        position[center] = index;
+    }
+
+    private void siftUpCandidate(int index) {
+        int candidate = candidates[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!before(heap[candidate], heap[candidates[parent]])) {
+                break;
+            }
+            candidates[index] = candidates[parent];
+            index = parent;
+        }
+        candidates[index] = candidate;
+    }
+
+    private void siftDownCandidate(int count) {
+        if (count == 0) {
+            return;
+        }
+        int index = 0;
+        int candidate = candidates[0];
+        int half = count >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < count && before(heap[candidates[child + 1]], heap[candidates[child]])) {
+                child++;
+            }
+            if (!before(heap[candidates[child]], heap[candidate])) {
+                break;
+            }
+            candidates[index] = candidates[child];
+            index = child;
+        }
+        candidates[index] = candidate;
+    }
+}
@@ -0,0 +1,24 @@
+package org.production.service;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Settings of the periodic checkpoints of a discrete-event run, see {@link SimulationCheckpoint}.
+ *
+ * @param file     the checkpoint file, replaced by every checkpoint
+ * @param interval the wall-clock time between two checkpoints; {@link Duration#ZERO} checkpoints every tick
+ */
+public record CheckpointSettings(Path file, Duration interval) {
+
+    /**
+     * @throws IllegalArgumentException if the interval is negative
+     */
+    public CheckpointSettings {
+        Objects.requireNonNull(file, "file");
+        if (interval.isNegative()) {
+            throw new IllegalArgumentException("The checkpoint interval must not be negative");
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.production.service;
+
+/**
+ * Settings of the steady-state detection of a {@link SteadyStateDetector}.
+ *
+ * @param batchSize         the number of ticks averaged into one observation of the MSER-5 warm-up rule
+ * @param batches           the number of batch means the steady-state confidence intervals are computed from
+ * @param relativePrecision the largest half width of the 95% confidence intervals, relative to their mean,
+ *                          at which the run is considered converged
+ * @param checkInterval     the number of ticks between two convergence checks
+ */
+public record ConvergenceSettings(int batchSize, int batches, double relativePrecision, int checkInterval) {
+
+    /**
+     * @throws IllegalArgumentException if a size is not positive, fewer than two batches are requested
+     *                                  or the precision is not positive
+     */
+    public ConvergenceSettings {
+        if (batchSize < 1 || checkInterval < 1) {
+            throw new IllegalArgumentException("Batch size and check interval must be at least 1");
+        }
+        if (batches < 2) {
+            throw new IllegalArgumentException("At least two batches are needed for a confidence interval");
+        }
+        if (relativePrecision <= 0) {
+            throw new IllegalArgumentException("The relative precision must be positive");
+        }
+    }
+
+    /**
+     * @return MSER-5 truncation, 20 batch means, 5% precision, checked every 50 ticks
+     */
+    public static ConvergenceSettings defaults() {
+        return new ConvergenceSettings(5, 20, 0.05, 50);
+    }
+
+    public ConvergenceSettings withRelativePrecision(double relativePrecision) {
+        return new ConvergenceSettings(batchSize, batches, relativePrecision, checkInterval);
+    }
+}
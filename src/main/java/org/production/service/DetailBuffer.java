@@ -0,0 +1,62 @@
+package org.production.service;
+
+/**
+ * FIFO buffer of the detail ids waiting at a production center.
+ * Any thread may offer details, and any thread may take them; {@link #size()} never takes a lock.
+ * The implementations are selected by {@link BufferType}.
+ */
+public interface DetailBuffer {
+    /**
+     * Returned by {@link #poll()} when the buffer is empty.
+     */
+    int EMPTY = -1;
+
+    /**
+     * Appends a detail id to the tail of the buffer.
+     *
+     * @param detail the non-negative id of the detail
+     * @throws IllegalStateException if the buffer is bounded and full
+     */
+    void offer(int detail);
+
+    /**
+     * Removes the detail id at the head of the buffer.
+     *
+     * @return the detail id, or {@link #EMPTY} if the buffer is empty
+     */
+    int poll();
+
+    /**
+     * Removes up to {@code maxElements} detail ids from the head of the buffer, in FIFO order.
+     *
+     * @param target      the array receiving the ids from index {@code 0}
+     * @param maxElements the maximum number of ids to remove, at most {@code target.length}
+     * @return the number of ids removed
+     */
+    int drainTo(int[] target, int maxElements);
+
+    /**
+     * Appends detail ids to the tail of the buffer, in the order of the array.
+     *
+     * @param details the array holding the non-negative ids
+     * @param offset  the index of the first id to append
+     * @param count   the number of ids to append
+     * @throws IllegalStateException if the buffer is bounded and full
+     */
+    void offerAll(int[] details, int offset, int count);
+
+    /**
+     * @return the number of details in the buffer; concurrent implementations may include details
+     *         whose offer has not completed yet, but never report a negative size
+     */
+    int size();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Removes all details from the buffer.
+     */
+    void clear();
+}
@@ -0,0 +1,365 @@
+package org.production.service;
+
+import org.production.metrics.SimulationMetrics;
+import org.production.models.ProductionGraph;
+import org.production.models.ScenarioData;
+
+import java.util.PriorityQueue;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntToDoubleFunction;
+
+import static org.production.service.AlgorithmUtils.adjustExcessWorkers;
+
+/**
+ * Discrete-event implementation of the simulation loop.
+ * Processing a detail takes {@code performance} units of simulated time, or a time drawn for every detail
+ * when the engine is given service times. Instead of sleeping, the completion is scheduled on a virtual clock
+ * and the events are handled in time order, so a run is bound by CPU time only. Workers are redistributed and
+ * results are recorded on every whole time unit, which keeps the output compatible with the real-time mode.
+ */
+class DiscreteEventEngine {
+    private static final double TICK_INTERVAL = 1.0;
+    private static final int NO_CENTER = -1;
+
+    private final ScenarioData scenarioData;
+    private final SimulationState state;
+    private final ProductionGraph graph;
+    private final int[] busyWorkers;
+    private final PriorityQueue<Event> events;
+    private final IntToDoubleFunction serviceTimes;
+    private final SimulationMetrics metrics;
+    private final RoutingPolicy routingPolicy;
+    private final RoutingSnapshot routingSnapshot;
+    private final WorkerAllocation workerAllocation;
+    private int totalBusy;
+    private double clock;
+    private long processedDetails;
+    private long departedDetails;
+    private double busyWorkerTime;
+
+    DiscreteEventEngine(ScenarioData scenarioData, SimulationState state) {
+        this(scenarioData, state, center -> state.graph().center(center).getPerformance());
+    }
+
+    /**
+     * @param serviceTimes draws the processing time of the next detail started at a center
+     */
+    DiscreteEventEngine(ScenarioData scenarioData, SimulationState state, IntToDoubleFunction serviceTimes) {
+        this(scenarioData, state, serviceTimes, null);
+    }
+
+    /**
+     * @param serviceTimes draws the processing time of the next detail started at a center
+     * @param metrics      the registry to record the queue waits, processed details and redistributions in,
+     *                     or {@code null}
+     */
+    DiscreteEventEngine(ScenarioData scenarioData, SimulationState state, IntToDoubleFunction serviceTimes,
+                        SimulationMetrics metrics) {
+        this(scenarioData, state, serviceTimes, metrics, RoutingPolicyType.WEIGHTED.create(state.graph()));
+    }
+
+    /**
+     * @param serviceTimes  draws the processing time of the next detail started at a center
+     * @param metrics       the registry to record the queue waits, processed details and redistributions in,
+     *                      or {@code null}
+     * @param routingPolicy chooses the next center of a processed detail from the snapshot taken on every tick
+     */
+    DiscreteEventEngine(ScenarioData scenarioData, SimulationState state, IntToDoubleFunction serviceTimes,
+                        SimulationMetrics metrics, RoutingPolicy routingPolicy) {
+        this(scenarioData, state, serviceTimes, metrics, routingPolicy, null);
+    }
+
+    /**
+     * @param serviceTimes     draws the processing time of the next detail started at a center
+     * @param metrics          the registry to record the queue waits, processed details and redistributions in,
+     *                         or {@code null}
+     * @param routingPolicy    chooses the next center of a processed detail from the snapshot taken on every tick
+     * @param workerAllocation assigns the workers on every tick, or {@code null} to redistribute them by load
+     */
+    DiscreteEventEngine(ScenarioData scenarioData, SimulationState state, IntToDoubleFunction serviceTimes,
+                        SimulationMetrics metrics, RoutingPolicy routingPolicy, WorkerAllocation workerAllocation) {
+        this.scenarioData = scenarioData;
+        this.state = state;
+        this.graph = state.graph();
+        this.busyWorkers = new int[graph.size()];
+        this.events = new PriorityQueue<>();
+        this.serviceTimes = serviceTimes;
+        this.metrics = metrics;
+        this.routingPolicy = routingPolicy;
+        this.routingSnapshot = new RoutingSnapshot(graph);
+        this.workerAllocation = workerAllocation;
+    }
+
+    /**
+     * Runs the event loop until all buffers are empty and no detail is in progress.
+     *
+     * @param recorder callback invoked with the simulated time on every tick, after the workers were assigned
+     * @return the simulated time of the last tick
+     */
+    double run(DoubleConsumer recorder) {
+        return run(recorder, () -> false);
+    }
+
+    /**
+     * Runs the event loop until all buffers are empty and no detail is in progress, or until a stop is requested.
+     *
+     * @param recorder      callback invoked with the simulated time on every tick, after the workers were assigned
+     * @param stopRequested checked after every tick; when it returns true the run ends with that tick
+     * @return the simulated time of the last tick
+     */
+    double run(DoubleConsumer recorder, BooleanSupplier stopRequested) {
+        schedule(new Event(0.0, EventKind.TICK, NO_CENTER, DetailBuffer.EMPTY));
+        return processEvents(recorder, stopRequested);
+    }
+
+    /**
+     * Restores the state of a checkpoint into a fresh engine and continues the run from the end of its tick.
+     * The state of the engine must use the graph the checkpoint was taken with.
+     *
+     * @param checkpoint    the state at the end of a tick, taken by {@link #checkpoint}
+     * @param recorder      callback invoked with the simulated time on every following tick
+     * @param stopRequested checked after every tick; when it returns true the run ends with that tick
+     * @return the simulated time of the last tick
+     */
+    double resume(SimulationCheckpoint checkpoint, DoubleConsumer recorder, BooleanSupplier stopRequested) {
+        restore(checkpoint);
+        if (finishTick(stopRequested)) {
+            return clock;
+        }
+        return processEvents(recorder, stopRequested);
+    }
+
+    private double processEvents(DoubleConsumer recorder, BooleanSupplier stopRequested) {
+        Event event;
+        while ((event = events.poll()) != null) {
+            clock = event.time();
+            if (event.kind() == EventKind.COMPLETION) {
+                completeDetail(event.center(), event.detail());
+                continue;
+            }
+
+            assignWorkers();
+            startWorkEverywhere();
+            recorder.accept(clock);
+
+            if (finishTick(stopRequested)) {
+                break;
+            }
+        }
+        return clock;
+    }
+
+    /**
+     * Ends the current tick: schedules the next one unless the run is over.
+     *
+     * @return true if the run ends with the current tick
+     */
+    private boolean finishTick(BooleanSupplier stopRequested) {
+        if (isComplete() || stopRequested.getAsBoolean()) {
+            return true;
+        }
+        if (totalBusy == 0 && (state.noWorkersAssigned()
+                || workerAllocation != null && !workerAllocation.changesAfter(clock))) {
+            throw new IllegalStateException("Simulation cannot progress at time " + clock
+                    + ": details are waiting but no workers can be assigned.");
+        }
+        schedule(new Event(clock + TICK_INTERVAL, EventKind.TICK, NO_CENTER, DetailBuffer.EMPTY));
+        return false;
+    }
+
+    /**
+     * Captures the state of the run. It must be called from the recorder, when the workers of the tick
+     * are assigned and the next tick is not scheduled yet.
+     *
+     * @param fingerprint  the fingerprint of the scenario and routing policy of the run
+     * @param sinkPosition the length of the output file holding the rows recorded up to this tick
+     * @return the checkpoint
+     */
+    SimulationCheckpoint checkpoint(long fingerprint, long sinkPosition) {
+        int size = graph.size();
+        int[] workers = new int[size];
+        int[] capturedBufferSizes = new int[size];
+        int[][] buffers = new int[size][];
+        for (int center = 0; center < size; center++) {
+            workers[center] = state.workers(center);
+            capturedBufferSizes[center] = routingSnapshot.bufferSize(center);
+            buffers[center] = state.bufferContents(center);
+        }
+
+        int count = events.size();
+        double[] completionTimes = new double[count];
+        int[] completionCenters = new int[count];
+        int[] completionDetails = new int[count];
+        int i = 0;
+        for (Event event : events) {
+            if (event.kind() != EventKind.COMPLETION) {
+                throw new IllegalStateException("A checkpoint is only taken while a tick is recorded");
+            }
+            completionTimes[i] = event.time();
+            completionCenters[i] = event.center();
+            completionDetails[i] = event.detail();
+            i++;
+        }
+
+        return new SimulationCheckpoint(fingerprint, clock, processedDetails, departedDetails, busyWorkerTime,
+                sinkPosition, workers, capturedBufferSizes, routingSnapshot.routedCounts(), buffers,
+                routingPolicy.saveState(),
+                completionTimes, completionCenters, completionDetails);
+    }
+
+    private void restore(SimulationCheckpoint checkpoint) {
+        if (checkpoint.workers.length != graph.size()) {
+            throw new IllegalArgumentException("The checkpoint holds " + checkpoint.workers.length
+                    + " centers, the scenario " + graph.size());
+        }
+        clock = checkpoint.clock;
+        processedDetails = checkpoint.processedDetails;
+        departedDetails = checkpoint.departedDetails;
+        busyWorkerTime = checkpoint.busyWorkerTime;
+        state.restore(checkpoint.workers, checkpoint.buffers);
+        routingSnapshot.restore(checkpoint.workers, checkpoint.capturedBufferSizes, checkpoint.routed);
+        routingPolicy.restoreState(checkpoint.policyState);
+
+        for (int i = 0; i < checkpoint.completionTimes.length; i++) {
+            int center = checkpoint.completionCenters[i];
+            busyWorkers[center]++;
+            totalBusy++;
+            schedule(new Event(checkpoint.completionTimes[i], EventKind.COMPLETION, center,
+                    checkpoint.completionDetails[i]));
+        }
+    }
+
+    private void assignWorkers() {
+        long startNanos = metrics == null ? 0 : System.nanoTime();
+        if (workerAllocation != null) {
+            workerAllocation.assign(state, clock);
+        } else {
+            AlgorithmUtils.redistributeWorkers(state, scenarioData);
+
+            int totalAssignedWorkers = state.totalWorkers();
+            if (totalAssignedWorkers > scenarioData.workersCount()) {
+                adjustExcessWorkers(state, totalAssignedWorkers - scenarioData.workersCount());
+            }
+        }
+        routingSnapshot.capture(state);
+        if (metrics != null) {
+            metrics.redistributionCompleted(System.nanoTime() - startNanos);
+        }
+    }
+
+    private void startWorkEverywhere() {
+        for (int center = 0; center < graph.size(); center++) {
+            startWork(center);
+        }
+    }
+
+    /**
+     * Starts processing details at the center while it has free assigned workers
+     * and the plant-wide workforce is not exhausted.
+     */
+    private void startWork(int center) {
+        while (busyWorkers[center] < state.workers(center) && totalBusy < scenarioData.workersCount()) {
+            int detail = state.poll(center);
+            if (detail == DetailBuffer.EMPTY) {
+                break;
+            }
+            double processingTime = serviceTimes.applyAsDouble(center);
+            busyWorkers[center]++;
+            totalBusy++;
+            busyWorkerTime += processingTime;
+            if (metrics != null) {
+                metrics.detailStarted(center, detail, clock, processingTime);
+            }
+            schedule(new Event(clock + processingTime, EventKind.COMPLETION, center, detail));
+        }
+    }
+
+    private void completeDetail(int center, int detail) {
+        boolean workforceExhausted = totalBusy >= scenarioData.workersCount();
+        busyWorkers[center]--;
+        totalBusy--;
+        processedDetails++;
+        if (metrics != null) {
+            metrics.detailProcessed(center);
+        }
+
+        if (graph.outDegree(center) > 0) {
+            int destination = AlgorithmUtils.selectNextCenter(center, routingPolicy, routingSnapshot);
+            if (metrics != null) {
+                metrics.detailQueued(destination, detail, clock);
+            }
+            state.offer(destination, detail);
+            startWork(destination);
+        } else {
+            departedDetails++;
+        }
+
+        if (workforceExhausted) {
+            // A worker was released plant-wide, any center may be waiting for it.
+            startWorkEverywhere();
+        } else {
+            startWork(center);
+        }
+    }
+
+    /**
+     * @return the number of details processed at any center so far
+     */
+    long processedDetails() {
+        return processedDetails;
+    }
+
+    /**
+     * @return the number of details that left the plant so far
+     */
+    long departedDetails() {
+        return departedDetails;
+    }
+
+    /**
+     * @return the simulated time the workers spent processing details so far
+     */
+    double busyWorkerTime() {
+        return busyWorkerTime;
+    }
+
+    private boolean isComplete() {
+        return totalBusy == 0 && state.allBuffersEmpty();
+    }
+
+    private void schedule(Event event) {
+        events.add(event);
+    }
+
+    private enum EventKind {
+        // Completions at a given time are handled before the tick at the same time.
+        COMPLETION,
+        TICK
+    }
+
+    /**
+     * Simultaneous completions are ordered by center and detail rather than by the order they were scheduled in,
+     * so the order can also be reproduced by {@link ParallelDiscreteEventEngine}, whose regions schedule
+     * independently.
+     */
+    private record Event(double time, EventKind kind, int center, int detail) implements Comparable<Event> {
+
+        @Override
+        public int compareTo(Event other) {
+            int byTime = Double.compare(time, other.time);
+            if (byTime != 0) {
+                return byTime;
+            }
+            int byKind = kind.compareTo(other.kind);
+            if (byKind != 0) {
+                return byKind;
+            }
+            int byCenter = Integer.compare(center, other.center);
+            if (byCenter != 0) {
+                return byCenter;
+            }
+            return Integer.compare(detail, other.detail);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.production.service;
+
+/**
+ * Estimate of a quantity from independent replications.
+ *
+ * @param mean              the sample mean
+ * @param standardDeviation the sample standard deviation
+ * @param halfWidth         the half width of the 95% confidence interval of the mean
+ * @param count             the number of replications
+ */
+public record Estimate(double mean, double standardDeviation, double halfWidth, long count) {
+
+    public double lower() {
+        return mean - halfWidth;
+    }
+
+    public double upper() {
+        return mean + halfWidth;
+    }
+}
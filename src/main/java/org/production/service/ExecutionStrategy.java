@@ -0,0 +1,55 @@
+package org.production.service;
+
+/**
+ * Defines which threads run the center and detail tasks in the {@link SimulationMode#REAL_TIME} mode.
+ */
+public enum ExecutionStrategy {
+
+    /**
+     * Work-stealing fork/join pool sized to the number of cores; pausing details are managed blockers.
+     */
+    FORK_JOIN("fork-join") {
+        @Override
+        TaskExecutor createExecutor(int workersCount) {
+            return new ForkJoinTaskExecutor(workersCount);
+        }
+    },
+
+    /**
+     * One virtual thread per task; suited for runs with many details pausing at the same time.
+     */
+    VIRTUAL_THREADS("virtual-threads") {
+        @Override
+        TaskExecutor createExecutor(int workersCount) {
+            return new VirtualThreadTaskExecutor();
+        }
+    };
+
+    private final String optionName;
+
+    ExecutionStrategy(String optionName) {
+        this.optionName = optionName;
+    }
+
+    abstract TaskExecutor createExecutor(int workersCount);
+
+    public String getOptionName() {
+        return optionName;
+    }
+
+    /**
+     * Resolves a strategy by its command line name.
+     *
+     * @param optionName the name of the strategy, e.g. {@code virtual-threads}
+     * @return the matching strategy
+     * @throws IllegalArgumentException if no strategy has the given name
+     */
+    public static ExecutionStrategy fromOptionName(String optionName) {
+        for (ExecutionStrategy strategy : values()) {
+            if (strategy.optionName.equalsIgnoreCase(optionName.trim())) {
+                return strategy;
+            }
+        }
+        throw new IllegalArgumentException("Unknown execution strategy: " + optionName);
+    }
+}
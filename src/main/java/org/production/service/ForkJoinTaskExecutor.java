@@ -0,0 +1,87 @@
+package org.production.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs tasks on a work-stealing {@link ForkJoinPool} whose parallelism follows the number of cores.
+ * Waiting for nested tasks is done by fork/join, so the waiting thread executes queued tasks itself
+ * instead of blocking a worker, and pauses are managed blockers the pool can compensate for.
+ */
+class ForkJoinTaskExecutor implements TaskExecutor {
+    private static final int MAX_POOL_SIZE = 0x7fff;
+
+    private final ForkJoinPool forkJoinPool;
+
+    /**
+     * @param workersCount the total number of workers in the scenario, which bounds the number of details
+     *                     pausing at the same time and therefore the number of compensating threads
+     */
+    ForkJoinTaskExecutor(int workersCount) {
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        int maximumPoolSize = (int) Math.min(MAX_POOL_SIZE, (long) parallelism + Math.max(workersCount, 0));
+        this.forkJoinPool = new ForkJoinPool(
+                parallelism,
+                ForkJoinPool.defaultForkJoinWorkerThreadFactory,
+                null,
+                false,
+                0,
+                maximumPoolSize,
+                1,
+                pool -> true,
+                60,
+                TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void invokeAll(List<Runnable> actions) {
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(actions.size());
+        for (Runnable action : actions) {
+            tasks.add(ForkJoinTask.adapt(action));
+        }
+
+        if (ForkJoinTask.getPool() == forkJoinPool) {
+            ForkJoinTask.invokeAll(tasks);
+        } else {
+            forkJoinPool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+        }
+    }
+
+    @Override
+    public void pause(long millis) throws InterruptedException {
+        ForkJoinPool.managedBlock(new SleepBlocker(millis));
+    }
+
+    @Override
+    public void close() {
+        forkJoinPool.shutdown();
+    }
+
+    /**
+     * Sleeps until the deadline, letting the fork/join pool compensate for the blocked thread.
+     */
+    private static final class SleepBlocker implements ForkJoinPool.ManagedBlocker {
+        private final long deadline;
+
+        SleepBlocker(long millis) {
+            this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        }
+
+        @Override
+        public boolean block() throws InterruptedException {
+            long remaining = deadline - System.nanoTime();
+            if (remaining > 0) {
+                TimeUnit.NANOSECONDS.sleep(remaining);
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return deadline - System.nanoTime() <= 0;
+        }
+    }
+}
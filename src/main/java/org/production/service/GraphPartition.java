@@ -0,0 +1,231 @@
+package org.production.service;
+
+import org.production.models.ProductionGraph;
+
+import java.util.Arrays;
+
+/**
+ * Split of the production graph into regions simulated on separate threads by {@link ParallelDiscreteEventEngine}.
+ * <p>
+ * The centers are laid out in breadth-first order over the undirected connections and cut into regions of similar
+ * size, then single centers are moved to the neighbouring region holding most of their connections while that
+ * reduces the cut connections and keeps the sizes balanced. Routing does not constrain the split: a center only
+ * reads the snapshot and the details it routed itself, see {@link RoutingSnapshot}.
+ */
+final class GraphPartition {
+    private static final double IMBALANCE = 0.1;
+    private static final int REFINEMENT_PASSES = 8;
+
+    private final int[] regionOf;
+    private final int[][] centers;
+    private final int cutConnections;
+
+    private GraphPartition(int[] regionOf, int[][] centers, int cutConnections) {
+        this.regionOf = regionOf;
+        this.centers = centers;
+        this.cutConnections = cutConnections;
+    }
+
+    /**
+     * Partitions the graph.
+     *
+     * @param graph   the index of the production graph
+     * @param regions the maximum number of regions
+     * @return the partition, with fewer regions if the graph has fewer centers
+     * @throws IllegalArgumentException if the number of regions is not positive
+     */
+    static GraphPartition of(ProductionGraph graph, int regions) {
+        if (regions < 1) {
+            throw new IllegalArgumentException("At least one region is required: " + regions);
+        }
+        int size = graph.size();
+        int regionCount = Math.min(regions, Math.max(size, 1));
+        int[][] adjacency = adjacency(graph);
+        int[] regionOf = initialRegions(adjacency, regionCount);
+        refine(adjacency, regionOf, regionCount);
+        return compact(graph, regionOf);
+    }
+
+    /**
+     * @return the number of regions
+     */
+    int regionCount() {
+        return centers.length;
+    }
+
+    /**
+     * @param center the dense index of a center
+     * @return the region of the center
+     */
+    int region(int center) {
+        return regionOf[center];
+    }
+
+    /**
+     * @param region the index of a region
+     * @return the dense indexes of the centers of the region, in ascending order
+     */
+    int[] centers(int region) {
+        return centers[region];
+    }
+
+    /**
+     * @return the number of connections between centers of different regions
+     */
+    int cutConnections() {
+        return cutConnections;
+    }
+
+    /**
+     * @return for every center the centers it is connected to in either direction, once per connection
+     */
+    private static int[][] adjacency(ProductionGraph graph) {
+        int size = graph.size();
+        int[] degree = new int[size];
+        for (int center = 0; center < size; center++) {
+            for (int k = 0; k < graph.outDegree(center); k++) {
+                int target = graph.outTarget(center, k);
+                if (target != center) {
+                    degree[center]++;
+                    degree[target]++;
+                }
+            }
+        }
+        int[][] adjacency = new int[size][];
+        for (int center = 0; center < size; center++) {
+            adjacency[center] = new int[degree[center]];
+        }
+        Arrays.fill(degree, 0);
+        for (int center = 0; center < size; center++) {
+            for (int k = 0; k < graph.outDegree(center); k++) {
+                int target = graph.outTarget(center, k);
+                if (target != center) {
+                    adjacency[center][degree[center]++] = target;
+                    adjacency[target][degree[target]++] = center;
+                }
+            }
+        }
+        return adjacency;
+    }
+
+    /**
+     * Cuts the breadth-first order of the centers into regions of similar size, so connected centers
+     * mostly end up in the same region.
+     */
+    private static int[] initialRegions(int[][] adjacency, int regions) {
+        int size = adjacency.length;
+        int[] order = new int[size];
+        boolean[] visited = new boolean[size];
+        int head = 0;
+        int tail = 0;
+        for (int root = 0; root < size; root++) {
+            if (visited[root]) {
+                continue;
+            }
+            visited[root] = true;
+            order[tail++] = root;
+            while (head < tail) {
+                int center = order[head++];
+                for (int neighbour : adjacency[center]) {
+                    if (!visited[neighbour]) {
+                        visited[neighbour] = true;
+                        order[tail++] = neighbour;
+                    }
+                }
+            }
+        }
+
+        int[] regionOf = new int[size];
+        for (int position = 0; position < size; position++) {
+            regionOf[order[position]] = (int) ((long) position * regions / size);
+        }
+        return regionOf;
+    }
+
+    /**
+     * Moves single centers to the region holding most of their connections while that cuts fewer connections
+     * and keeps every region within the allowed imbalance.
+     */
+    private static void refine(int[][] adjacency, int[] regionOf, int regions) {
+        int[] regionSize = new int[regions];
+        for (int region : regionOf) {
+            regionSize[region]++;
+        }
+        double average = (double) adjacency.length / regions;
+        int maxSize = (int) Math.ceil(average * (1 + IMBALANCE));
+        int minSize = (int) Math.floor(average * (1 - IMBALANCE));
+        int[] links = new int[regions];
+        int[] touched = new int[regions];
+
+        for (int pass = 0; pass < REFINEMENT_PASSES; pass++) {
+            boolean moved = false;
+            for (int center = 0; center < adjacency.length; center++) {
+                int current = regionOf[center];
+                int touchedCount = 0;
+                for (int neighbour : adjacency[center]) {
+                    int region = regionOf[neighbour];
+                    if (links[region]++ == 0) {
+                        touched[touchedCount++] = region;
+                    }
+                }
+
+                int best = current;
+                for (int i = 0; i < touchedCount; i++) {
+                    int region = touched[i];
+                    if (region != current && links[region] > links[best]
+                            && regionSize[region] + 1 <= maxSize && regionSize[current] - 1 >= minSize) {
+                        best = region;
+                    }
+                }
+                for (int i = 0; i < touchedCount; i++) {
+                    links[touched[i]] = 0;
+                }
+
+                if (best != current) {
+                    regionOf[center] = best;
+                    regionSize[current]--;
+                    regionSize[best]++;
+                    moved = true;
+                }
+            }
+            if (!moved) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Drops empty regions and counts the cut connections.
+     */
+    private static GraphPartition compact(ProductionGraph graph, int[] regionOf) {
+        int size = graph.size();
+        int[] renumbered = new int[size];
+        Arrays.fill(renumbered, -1);
+        int[] counts = new int[Math.max(size, 1)];
+        int regionCount = 0;
+        for (int center = 0; center < size; center++) {
+            int region = regionOf[center];
+            if (renumbered[region] < 0) {
+                renumbered[region] = regionCount++;
+            }
+            regionOf[center] = renumbered[region];
+            counts[regionOf[center]]++;
+        }
+
+        int[][] centers = new int[Math.max(regionCount, 1)][];
+        for (int region = 0; region < centers.length; region++) {
+            centers[region] = new int[counts[region]];
+        }
+        int[] filled = new int[centers.length];
+        int cutConnections = 0;
+        for (int center = 0; center < size; center++) {
+            centers[regionOf[center]][filled[regionOf[center]]++] = center;
+            for (int k = 0; k < graph.outDegree(center); k++) {
+                if (regionOf[graph.outTarget(center, k)] != regionOf[center]) {
+                    cutConnections++;
+                }
+            }
+        }
+        return new GraphPartition(regionOf, centers, cutConnections);
+    }
+}
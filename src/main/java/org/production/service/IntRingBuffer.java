@@ -0,0 +1,128 @@
+package org.production.service;
+
+import java.util.Arrays;
+
+/**
+ * Growable FIFO queue of detail ids stored in a circular {@code int} array.
+ * Unlike a queue of strings it allocates nothing per element. All mutating operations are synchronized;
+ * the size can be read without locking.
+ */
+public final class IntRingBuffer implements DetailBuffer {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] elements;
+    private int head;
+    private volatile int size;
+
+    public IntRingBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param initialCapacity the number of elements the buffer can hold before it grows
+     */
+    public IntRingBuffer(int initialCapacity) {
+        this.elements = new int[Math.max(initialCapacity, 1)];
+    }
+
+    /**
+     * Appends a detail id to the tail of the buffer.
+     *
+     * @param detail the non-negative id of the detail
+     */
+    @Override
+    public synchronized void offer(int detail) {
+        if (size == elements.length) {
+            grow();
+        }
+        elements[(head + size) % elements.length] = detail;
+        size++;
+    }
+
+    /**
+     * Removes the detail id at the head of the buffer.
+     *
+     * @return the detail id, or {@link #EMPTY} if the buffer is empty
+     */
+    @Override
+    public synchronized int poll() {
+        if (size == 0) {
+            return EMPTY;
+        }
+        int detail = elements[head];
+        head = (head + 1) % elements.length;
+        size--;
+        return detail;
+    }
+
+    /**
+     * Removes up to {@code maxElements} detail ids from the head of the buffer, in FIFO order.
+     *
+     * @param target      the array receiving the ids from index {@code 0}
+     * @param maxElements the maximum number of ids to remove, at most {@code target.length}
+     * @return the number of ids removed
+     */
+    @Override
+    public synchronized int drainTo(int[] target, int maxElements) {
+        int count = Math.min(size, maxElements);
+        int firstPart = Math.min(count, elements.length - head);
+        System.arraycopy(elements, head, target, 0, firstPart);
+        System.arraycopy(elements, 0, target, firstPart, count - firstPart);
+        head = (head + count) % elements.length;
+        size -= count;
+        return count;
+    }
+
+    /**
+     * Appends detail ids to the tail of the buffer, in the order of the array.
+     *
+     * @param details the array holding the non-negative ids
+     * @param offset  the index of the first id to append
+     * @param count   the number of ids to append
+     */
+    @Override
+    public synchronized void offerAll(int[] details, int offset, int count) {
+        while (size + count > elements.length) {
+            grow();
+        }
+        int tail = (head + size) % elements.length;
+        int firstPart = Math.min(count, elements.length - tail);
+        System.arraycopy(details, offset, elements, tail, firstPart);
+        System.arraycopy(details, offset + firstPart, elements, 0, count - firstPart);
+        size += count;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public synchronized void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    private void grow() {
+        int[] grown = new int[elements.length * 2];
+        int firstPart = Math.min(size, elements.length - head);
+        System.arraycopy(elements, head, grown, 0, firstPart);
+        System.arraycopy(elements, 0, grown, firstPart, size - firstPart);
+        elements = grown;
+        head = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        int[] content = new int[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = elements[(head + i) % elements.length];
+        }
+        return Arrays.toString(content);
+    }
+}
@@ -0,0 +1,15 @@
+package org.production.service;
+
+/**
+ * Prefers the destination with the fewest details in it, queued or held by its assigned workers,
+ * relative to the number of workers it can take.
+ */
+final class LeastLoadedRoutingPolicy extends ScoredRoutingPolicy {
+
+    @Override
+    double score(int center, int k, RoutingSnapshot snapshot) {
+        int destination = snapshot.graph().outTarget(center, k);
+        int capacity = Math.max(1, snapshot.graph().center(destination).getMaxWorkers());
+        return (double) (snapshot.queued(center, k) + snapshot.workers(destination)) / capacity;
+    }
+}
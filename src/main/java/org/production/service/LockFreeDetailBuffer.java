@@ -0,0 +1,169 @@
+package org.production.service;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Unbounded lock-free FIFO buffer of detail ids, safe for any number of producers and consumers.
+ * The details are kept in a linked list of fixed-size chunks that are never reused. An offer claims its position
+ * with one atomic increment of the tail, and {@link #offerAll} claims all its positions with one atomic addition,
+ * so producers never retry; a poll claims the head position with a compare-and-set once the detail at it
+ * is published. A poll reaching a position whose offer is still writing waits for that write, which only
+ * takes a few instructions.
+ * <p>
+ * Unlike {@link IntRingBuffer} the buffer allocates a chunk for every {@value #CHUNK_SIZE} details offered.
+ */
+public final class LockFreeDetailBuffer implements DetailBuffer {
+    static final int CHUNK_SIZE = 128;
+    private static final int CHUNK_SHIFT = Integer.numberOfTrailingZeros(CHUNK_SIZE);
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicReference<Chunk> producerChunk;
+    private final AtomicReference<Chunk> consumerChunk;
+
+    public LockFreeDetailBuffer() {
+        Chunk first = new Chunk(0);
+        this.producerChunk = new AtomicReference<>(first);
+        this.consumerChunk = new AtomicReference<>(first);
+    }
+
+    @Override
+    public void offer(int detail) {
+        long position = tail.getAndIncrement();
+        publish(chunkForOffer(position), position, detail);
+    }
+
+    @Override
+    public void offerAll(int[] details, int offset, int count) {
+        if (count == 0) {
+            return;
+        }
+        long position = tail.getAndAdd(count);
+        Chunk chunk = chunkForOffer(position);
+        for (int i = 0; i < count; i++, position++) {
+            if (position >>> CHUNK_SHIFT != chunk.index) {
+                chunk = chunk.next();
+                advance(producerChunk, chunk);
+            }
+            publish(chunk, position, details[offset + i]);
+        }
+    }
+
+    @Override
+    public int poll() {
+        while (true) {
+            long position = head.get();
+            if (position >= tail.get()) {
+                return EMPTY;
+            }
+            long chunkIndex = position >>> CHUNK_SHIFT;
+            Chunk chunk = consumerChunk.get();
+            if (chunk.index > chunkIndex) {
+                // Another poll has already taken the position and moved on.
+                continue;
+            }
+            while (chunk.index < chunkIndex) {
+                chunk = chunk.next();
+            }
+
+            int slot = (int) (position & CHUNK_MASK);
+            int published = chunk.slots.get(slot);
+            if (published == 0) {
+                // The offer that claimed the position has not written its detail yet.
+                Thread.onSpinWait();
+                continue;
+            }
+            if (head.compareAndSet(position, position + 1)) {
+                if (slot == CHUNK_MASK) {
+                    advance(consumerChunk, chunk.next());
+                }
+                return published - 1;
+            }
+        }
+    }
+
+    @Override
+    public int drainTo(int[] target, int maxElements) {
+        int count = 0;
+        while (count < maxElements) {
+            int detail = poll();
+            if (detail == EMPTY) {
+                break;
+            }
+            target[count++] = detail;
+        }
+        return count;
+    }
+
+    /**
+     * Counts the offers that claimed a position minus the polls that claimed one. The head is read before
+     * the tail, so the count is never negative; it includes offers still writing their detail.
+     */
+    @Override
+    public int size() {
+        long consumed = head.get();
+        long produced = tail.get();
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(0, produced - consumed));
+    }
+
+    @Override
+    public void clear() {
+        while (poll() != EMPTY) {
+            // Drops the detail.
+        }
+    }
+
+    private static void publish(Chunk chunk, long position, int detail) {
+        // Zero marks a slot whose detail is not written yet.
+        chunk.slots.set((int) (position & CHUNK_MASK), detail + 1);
+    }
+
+    /**
+     * Finds the chunk of a claimed tail position. The position is not consumed yet, so it lies in the chunk
+     * of the consumers or after it, even when a faster offer has already moved the producer chunk further.
+     */
+    private Chunk chunkForOffer(long position) {
+        long chunkIndex = position >>> CHUNK_SHIFT;
+        Chunk chunk = producerChunk.get();
+        if (chunk.index > chunkIndex) {
+            chunk = consumerChunk.get();
+        }
+        while (chunk.index < chunkIndex) {
+            chunk = chunk.next();
+        }
+        advance(producerChunk, chunk);
+        return chunk;
+    }
+
+    private static void advance(AtomicReference<Chunk> reference, Chunk chunk) {
+        Chunk current = reference.get();
+        while (current.index < chunk.index && !reference.compareAndSet(current, chunk)) {
+            current = reference.get();
+        }
+    }
+
+    private static final class Chunk {
+        final long index;
+        final AtomicIntegerArray slots = new AtomicIntegerArray(CHUNK_SIZE);
+        final AtomicReference<Chunk> next = new AtomicReference<>();
+
+        Chunk(long index) {
+            this.index = index;
+        }
+
+        /**
+         * @return the following chunk, appended by whichever offer or poll reaches the end of the list first
+         */
+        Chunk next() {
+            Chunk following = next.get();
+            if (following == null) {
+                Chunk created = new Chunk(index + 1);
+                following = next.compareAndSet(null, created) ? created : next.get();
+            }
+            return following;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package org.production.service;
+
+import org.production.models.ProductionGraph;
+import org.production.models.ScenarioData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs independent discrete-event replications of a scenario with stochastic processing times
+ * and estimates the makespan, the throughput and the buffer sizes with 95% confidence intervals.
+ * <p>
+ * Replications are grouped in blocks of {@value #BLOCK_SIZE}; every block reuses one simulation state and one
+ * set of sampling arrays, and gets a generator split from the root generator in block order, with one generator
+ * split from it per replication. Blocks are merged in their order, so the estimates depend only on the seed,
+ * not on the parallelism or the thread scheduling.
+ */
+public class MonteCarloRunner {
+    private static final int BLOCK_SIZE = 64;
+
+    /**
+     * Runs the replications.
+     *
+     * @param scenarioData the scenario, shared read-only by all replications
+     * @param settings     the number of replications, the seed and the service time distribution
+     * @return the estimates
+     * @throws IllegalStateException if a replication fails
+     */
+    public static MonteCarloSummary run(ScenarioData scenarioData, MonteCarloSettings settings) {
+        SplittableRandom root = new SplittableRandom(settings.seed());
+        List<Callable<BlockStatistics>> blocks = new ArrayList<>();
+        for (int first = 0; first < settings.replications(); first += BLOCK_SIZE) {
+            int replications = Math.min(BLOCK_SIZE, settings.replications() - first);
+            SplittableRandom blockRandom = root.split();
+            blocks.add(() -> runBlock(scenarioData, settings, replications, blockRandom));
+        }
+
+        BlockStatistics total = new BlockStatistics(scenarioData.graph().size());
+        try (ExecutorService executor = Executors.newFixedThreadPool(settings.parallelism())) {
+            for (Future<BlockStatistics> block : executor.invokeAll(blocks)) {
+                total.merge(block.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The replications were interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A replication failed: " + e.getCause().getMessage(), e.getCause());
+        }
+        return total.summary(scenarioData.graph());
+    }
+
+    private static BlockStatistics runBlock(ScenarioData scenarioData, MonteCarloSettings settings, int replications,
+                                            SplittableRandom blockRandom) {
+        ProductionGraph graph = scenarioData.graph();
+        SimulationState state = new SimulationState(graph);
+        StochasticServiceTimes serviceTimes = new StochasticServiceTimes(graph, settings.defaultDistribution(),
+                settings.defaultVariation());
+        double[] bufferSums = new double[graph.size()];
+        long[] ticks = new long[1];
+        BlockStatistics statistics = new BlockStatistics(graph.size());
+
+        for (int replication = 0; replication < replications; replication++) {
+            state.reset(scenarioData);
+            serviceTimes.setRandom(blockRandom.split());
+            Arrays.fill(bufferSums, 0.0);
+            ticks[0] = 0;
+
+            DiscreteEventEngine engine = new DiscreteEventEngine(scenarioData, state, serviceTimes);
+            double makespan = engine.run(time -> {
+                for (int center = 0; center < bufferSums.length; center++) {
+                    bufferSums[center] += state.bufferSize(center);
+                }
+                ticks[0]++;
+            });
+
+            statistics.makespan.add(makespan);
+            statistics.throughput.add(makespan > 0 ? scenarioData.detailsCount() / makespan : 0.0);
+            double bufferedDetails = 0;
+            for (int center = 0; center < bufferSums.length; center++) {
+                double meanBuffer = bufferSums[center] / ticks[0];
+                statistics.centerMeanBuffers[center].add(meanBuffer);
+                bufferedDetails += meanBuffer;
+            }
+            statistics.meanBufferedDetails.add(bufferedDetails);
+        }
+        return statistics;
+    }
+
+    private static final class BlockStatistics {
+        private final RunningStatistics makespan = new RunningStatistics();
+        private final RunningStatistics throughput = new RunningStatistics();
+        private final RunningStatistics meanBufferedDetails = new RunningStatistics();
+        private final RunningStatistics[] centerMeanBuffers;
+
+        BlockStatistics(int centersCount) {
+            centerMeanBuffers = new RunningStatistics[centersCount];
+            for (int center = 0; center < centersCount; center++) {
+                centerMeanBuffers[center] = new RunningStatistics();
+            }
+        }
+
+        void merge(BlockStatistics other) {
+            makespan.merge(other.makespan);
+            throughput.merge(other.throughput);
+            meanBufferedDetails.merge(other.meanBufferedDetails);
+            for (int center = 0; center < centerMeanBuffers.length; center++) {
+                centerMeanBuffers[center].merge(other.centerMeanBuffers[center]);
+            }
+        }
+
+        MonteCarloSummary summary(ProductionGraph graph) {
+            List<String> centerNames = new ArrayList<>(graph.size());
+            List<Estimate> centerEstimates = new ArrayList<>(graph.size());
+            for (int center = 0; center < graph.size(); center++) {
+                centerNames.add(graph.center(center).getName());
+                centerEstimates.add(centerMeanBuffers[center].estimate());
+            }
+            return new MonteCarloSummary(makespan.estimate(), throughput.estimate(), meanBufferedDetails.estimate(),
+                    centerNames, centerEstimates);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.production.service;
+
+import org.production.models.ServiceTimeDistribution;
+
+/**
+ * Settings of a {@link MonteCarloRunner}.
+ *
+ * @param replications        the number of independent replications
+ * @param seed                the seed of all replications; equal settings produce equal estimates
+ * @param defaultDistribution the service time distribution of the centers without their own distribution
+ * @param defaultVariation    the coefficient of variation used with the default distribution
+ * @param parallelism         the number of threads running the replications
+ */
+public record MonteCarloSettings(int replications, long seed, ServiceTimeDistribution defaultDistribution,
+                                 double defaultVariation, int parallelism) {
+
+    /**
+     * @throws IllegalArgumentException if the replications or the parallelism are not positive
+     *                                  or the variation is negative or above the maximum of the distribution
+     */
+    public MonteCarloSettings {
+        if (replications < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("Replications and parallelism must be at least 1");
+        }
+        if (defaultVariation < 0) {
+            throw new IllegalArgumentException("The variation must not be negative");
+        }
+        if (defaultVariation > defaultDistribution.maxVariation()) {
+            throw new IllegalArgumentException("The variation of the " + defaultDistribution.getOptionName()
+                    + " service time must not exceed " + defaultDistribution.maxVariation());
+        }
+    }
+}
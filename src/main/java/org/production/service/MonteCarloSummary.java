@@ -0,0 +1,21 @@
+package org.production.service;
+
+import java.util.List;
+
+/**
+ * Estimates from the replications of a {@link MonteCarloRunner}.
+ *
+ * @param makespan            the simulated time until all details have left the plant
+ * @param throughput          the details leaving the plant per unit of simulated time
+ * @param meanBufferedDetails the time-averaged number of details waiting in all buffers
+ * @param centerNames         the names of the centers, in the order of the graph
+ * @param centerMeanBuffers   the time-averaged buffer size of every center, in the order of {@code centerNames}
+ */
+public record MonteCarloSummary(Estimate makespan, Estimate throughput, Estimate meanBufferedDetails,
+                                List<String> centerNames, List<Estimate> centerMeanBuffers) {
+
+    public MonteCarloSummary {
+        centerNames = List.copyOf(centerNames);
+        centerMeanBuffers = List.copyOf(centerMeanBuffers);
+    }
+}
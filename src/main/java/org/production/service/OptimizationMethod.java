@@ -0,0 +1,45 @@
+package org.production.service;
+
+/**
+ * Defines how the {@link AllocationOptimizer} searches the worker allocations.
+ */
+public enum OptimizationMethod {
+
+    /**
+     * Starts with one worker at every center the details reach and repeatedly adds the worker that shortens
+     * the makespan the most, until no added worker helps or the workers run out.
+     */
+    MARGINAL("marginal"),
+
+    /**
+     * Starts with the workers spread by the demand of the centers and moves single workers between centers,
+     * accepting longer makespans with a probability that falls as the temperature cools.
+     */
+    ANNEALING("annealing");
+
+    private final String optionName;
+
+    OptimizationMethod(String optionName) {
+        this.optionName = optionName;
+    }
+
+    public String getOptionName() {
+        return optionName;
+    }
+
+    /**
+     * Resolves an optimization method by its command line name.
+     *
+     * @param optionName the name of the method, e.g. {@code annealing}
+     * @return the matching method
+     * @throws IllegalArgumentException if no method has the given name
+     */
+    public static OptimizationMethod fromOptionName(String optionName) {
+        for (OptimizationMethod method : values()) {
+            if (method.optionName.equalsIgnoreCase(optionName.trim())) {
+                return method;
+            }
+        }
+        throw new IllegalArgumentException("Unknown optimization method: " + optionName);
+    }
+}
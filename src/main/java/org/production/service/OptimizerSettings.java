@@ -0,0 +1,28 @@
+package org.production.service;
+
+/**
+ * Settings of an {@link AllocationOptimizer}.
+ *
+ * @param method        how the allocations are searched
+ * @param phases        the number of phases of equal length with their own allocation; {@code 1} for a static one
+ * @param iterations    the number of annealing steps; ignored by {@link OptimizationMethod#MARGINAL}
+ * @param seed          the seed of the annealing moves; equal settings produce equal allocations
+ * @param routingPolicy the routing policy of the evaluated runs
+ * @param parallelism   the number of threads evaluating candidate allocations
+ */
+public record OptimizerSettings(OptimizationMethod method, int phases, int iterations, long seed,
+                                RoutingPolicyType routingPolicy, int parallelism) {
+
+    /**
+     * @throws IllegalArgumentException if the phases or the parallelism are not positive
+     *                                  or the iterations are negative
+     */
+    public OptimizerSettings {
+        if (phases < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("Phases and parallelism must be at least 1");
+        }
+        if (iterations < 0) {
+            throw new IllegalArgumentException("The iterations must not be negative");
+        }
+    }
+}
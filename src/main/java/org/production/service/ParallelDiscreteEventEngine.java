@@ -0,0 +1,452 @@
+package org.production.service;
+
+import org.production.metrics.SimulationMetrics;
+import org.production.models.ProductionGraph;
+import org.production.models.ScenarioData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+
+import static org.production.service.AlgorithmUtils.adjustExcessWorkers;
+
+/**
+ * Conservative parallel implementation of the discrete-event loop of {@link DiscreteEventEngine}, producing the same
+ * results. The graph is split by a {@link GraphPartition}; every region keeps the completions of its centers in its
+ * own event queue and is processed on its own thread.
+ * <p>
+ * Ticks are handled by the calling thread, since the workers are redistributed over the whole plant. Between two
+ * ticks, the completions are handled in windows as long as the lookahead, the smallest {@code performance} of any
+ * center: a detail started within a window completes after it, so the completions of a window are all known when
+ * it begins. A window runs in two phases, each region on its own thread:
+ * <ol>
+ *     <li>every region routes its completions of the window in time order, which only reads the routing snapshot
+ *     and the counts of the routing center, and sends the details leaving the region to the region of their
+ *     destination;</li>
+ *     <li>every region merges its completions with the details arriving from other regions in the order of the
+ *     sequential engine, fills its buffers and starts work at its centers.</li>
+ * </ol>
+ * A region only starts work at a center below its assigned workers, so a window cannot exhaust the plant-wide
+ * workforce when the centers together hold at most {@code workersCount} busy or assigned workers; other windows
+ * handle the second phase on the calling thread in the global order, exactly like the sequential engine.
+ */
+final class ParallelDiscreteEventEngine {
+    private static final double TICK_INTERVAL = 1.0;
+    private static final int UNROUTED = -2;
+    private static final int DEPARTED = -1;
+
+    private final ScenarioData scenarioData;
+    private final SimulationState state;
+    private final ProductionGraph graph;
+    private final GraphPartition partition;
+    private final double[] performance;
+    private final double lookahead;
+    private final int[] busyWorkers;
+    private final Region[] regions;
+    private final SimulationMetrics metrics;
+    private final RoutingPolicy routingPolicy;
+    private final RoutingSnapshot routingSnapshot;
+    private ExecutorService executor;
+    private int totalBusy;
+    private double clock;
+
+    /**
+     * @param metrics       the registry to record the queue waits, processed details and redistributions in,
+     *                      or {@code null}
+     * @param routingPolicy chooses the next center of a processed detail from the snapshot taken on every tick
+     * @param partition     the regions of the graph
+     * @throws IllegalArgumentException if a center has no positive performance, so no lookahead exists
+     */
+    ParallelDiscreteEventEngine(ScenarioData scenarioData, SimulationState state, SimulationMetrics metrics,
+                                RoutingPolicy routingPolicy, GraphPartition partition) {
+        this.scenarioData = scenarioData;
+        this.state = state;
+        this.graph = state.graph();
+        this.partition = partition;
+        this.performance = new double[graph.size()];
+        double minPerformance = Double.POSITIVE_INFINITY;
+        for (int center = 0; center < graph.size(); center++) {
+            performance[center] = graph.center(center).getPerformance();
+            minPerformance = Math.min(minPerformance, performance[center]);
+        }
+        if (!(minPerformance > 0)) {
+            throw new IllegalArgumentException("The parallel mode requires a positive performance at every center");
+        }
+        this.lookahead = minPerformance;
+        this.busyWorkers = new int[graph.size()];
+        this.regions = new Region[partition.regionCount()];
+        for (int region = 0; region < regions.length; region++) {
+            regions[region] = new Region(region);
+        }
+        this.metrics = metrics;
+        this.routingPolicy = routingPolicy;
+        this.routingSnapshot = new RoutingSnapshot(graph);
+    }
+
+    /**
+     * Runs the event loop until all buffers are empty and no detail is in progress, or until a stop is requested.
+     *
+     * @param recorder      callback invoked with the simulated time on every tick, after the workers were assigned
+     * @param stopRequested checked after every tick; when it returns true the run ends with that tick
+     * @return the simulated time of the last tick
+     */
+    double run(DoubleConsumer recorder, BooleanSupplier stopRequested) {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        try (ExecutorService regionExecutor = Executors.newFixedThreadPool(Math.max(regions.length - 1, 1), task -> {
+            Thread thread = new Thread(task, "des-region-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        })) {
+            executor = regionExecutor;
+            double tickTime = 0.0;
+            while (true) {
+                double windowStart = earliestCompletion();
+                if (windowStart <= tickTime) {
+                    processWindow(windowStart, tickTime);
+                    continue;
+                }
+
+                clock = tickTime;
+                assignWorkers();
+                startWorkEverywhere(clock);
+                recorder.accept(clock);
+
+                if (isComplete() || stopRequested.getAsBoolean()) {
+                    break;
+                }
+                if (totalBusy == 0 && state.noWorkersAssigned()) {
+                    throw new IllegalStateException("Simulation cannot progress at time " + clock
+                            + ": details are waiting but no workers can be assigned.");
+                }
+                tickTime = clock + TICK_INTERVAL;
+            }
+        } finally {
+            executor = null;
+        }
+        return clock;
+    }
+
+    private void assignWorkers() {
+        long startNanos = metrics == null ? 0 : System.nanoTime();
+        AlgorithmUtils.redistributeWorkers(state, scenarioData);
+
+        int totalAssignedWorkers = state.totalWorkers();
+        if (totalAssignedWorkers > scenarioData.workersCount()) {
+            adjustExcessWorkers(state, totalAssignedWorkers - scenarioData.workersCount());
+        }
+        routingSnapshot.capture(state);
+        if (metrics != null) {
+            metrics.redistributionCompleted(System.nanoTime() - startNanos);
+        }
+    }
+
+    private double earliestCompletion() {
+        double earliest = Double.POSITIVE_INFINITY;
+        for (Region region : regions) {
+            Event event = region.completions.peek();
+            if (event != null) {
+                earliest = Math.min(earliest, event.time());
+            }
+        }
+        return earliest;
+    }
+
+    /**
+     * Handles the completions from {@code windowStart} up to the lookahead, and at most up to the next tick.
+     */
+    private void processWindow(double windowStart, double tickTime) {
+        double horizon = windowStart + lookahead;
+        inParallel(region -> region.route(horizon, tickTime));
+
+        long peakBusy = 0;
+        for (Region region : regions) {
+            peakBusy += region.peakBusy;
+        }
+        if (peakBusy <= scenarioData.workersCount()) {
+            inParallel(Region::apply);
+            for (Region region : regions) {
+                totalBusy += region.busyChange;
+                region.busyChange = 0;
+            }
+        } else {
+            applyInGlobalOrder();
+        }
+        for (Region region : regions) {
+            region.clearWindow();
+        }
+    }
+
+    /**
+     * Runs the task for every region, the first one on the calling thread, and waits for all of them.
+     */
+    private void inParallel(Consumer<Region> task) {
+        List<Future<?>> futures = new ArrayList<>(regions.length - 1);
+        for (int index = 1; index < regions.length; index++) {
+            Region region = regions[index];
+            futures.add(executor.submit(() -> task.accept(region)));
+        }
+        task.accept(regions[0]);
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the regions", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException("A region failed", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Handles the routed completions of all regions on the calling thread in the order of the sequential engine,
+     * when the workforce may be exhausted during the window.
+     */
+    private void applyInGlobalOrder() {
+        List<Event> window = new ArrayList<>();
+        for (Region region : regions) {
+            window.addAll(region.window);
+        }
+        window.sort(null);
+
+        int workersCount = scenarioData.workersCount();
+        for (Event event : window) {
+            int center = event.center();
+            Region region = regions[partition.region(center)];
+            boolean workforceExhausted = totalBusy >= workersCount;
+            busyWorkers[center]--;
+            totalBusy--;
+            region.detailProcessed(center);
+
+            int destination = event.destination();
+            if (destination == DEPARTED) {
+                region.departedDetails++;
+            } else {
+                queue(destination, event);
+                startWork(regions[partition.region(destination)], destination, event.time(), true);
+            }
+
+            if (workforceExhausted) {
+                // A worker was released plant-wide, any center may be waiting for it.
+                startWorkEverywhere(event.time());
+            } else {
+                startWork(region, center, event.time(), true);
+            }
+        }
+    }
+
+    private void startWorkEverywhere(double time) {
+        for (int center = 0; center < graph.size(); center++) {
+            startWork(regions[partition.region(center)], center, time, true);
+        }
+    }
+
+    /**
+     * Starts processing details at the center while it has free assigned workers and, if {@code capped},
+     * the plant-wide workforce is not exhausted.
+     *
+     * @param region the region of the center
+     * @param capped true on the calling thread, which keeps the plant-wide count of busy workers;
+     *               false in a window that cannot exhaust the workforce
+     */
+    private void startWork(Region region, int center, double time, boolean capped) {
+        while (busyWorkers[center] < state.workers(center)
+                && (!capped || totalBusy < scenarioData.workersCount())) {
+            int detail = state.poll(center);
+            if (detail == DetailBuffer.EMPTY) {
+                break;
+            }
+            double processingTime = performance[center];
+            busyWorkers[center]++;
+            if (capped) {
+                totalBusy++;
+            } else {
+                region.busyChange++;
+            }
+            region.busyWorkerTime += processingTime;
+            if (metrics != null) {
+                metrics.detailStarted(center, detail, time, processingTime);
+            }
+            region.completions.add(new Event(time + processingTime, center, detail, UNROUTED));
+        }
+    }
+
+    private void queue(int destination, Event event) {
+        if (metrics != null) {
+            metrics.detailQueued(destination, event.detail(), event.time());
+        }
+        state.offer(destination, event.detail());
+    }
+
+    /**
+     * @return the number of details processed at any center so far
+     */
+    long processedDetails() {
+        long processed = 0;
+        for (Region region : regions) {
+            processed += region.processedDetails;
+        }
+        return processed;
+    }
+
+    /**
+     * @return the number of details that left the plant so far
+     */
+    long departedDetails() {
+        long departed = 0;
+        for (Region region : regions) {
+            departed += region.departedDetails;
+        }
+        return departed;
+    }
+
+    /**
+     * @return the simulated time the workers spent processing details so far; the regions add their share
+     *         separately, so the sum may differ from the sequential engine in the last digits
+     */
+    double busyWorkerTime() {
+        double busyWorkerTime = 0;
+        for (Region region : regions) {
+            busyWorkerTime += region.busyWorkerTime;
+        }
+        return busyWorkerTime;
+    }
+
+    private boolean isComplete() {
+        return totalBusy == 0 && state.allBuffersEmpty();
+    }
+
+    /**
+     * The centers of one region with their event queue. Between two windows it is only touched by the calling
+     * thread; during a window only by the thread processing the region.
+     */
+    private final class Region {
+        private final int index;
+        private final int[] centers;
+        private final PriorityQueue<Event> completions = new PriorityQueue<>();
+        private final List<Event> window = new ArrayList<>();
+        private final List<List<Event>> outboxes;
+        private long peakBusy;
+        private int busyChange;
+        private long processedDetails;
+        private long departedDetails;
+        private double busyWorkerTime;
+
+        Region(int index) {
+            this.index = index;
+            this.centers = partition.centers(index);
+            this.outboxes = new ArrayList<>(partition.regionCount());
+            for (int region = 0; region < partition.regionCount(); region++) {
+                outboxes.add(new ArrayList<>());
+            }
+        }
+
+        /**
+         * First phase: takes the completions of the window in time order, chooses their destinations and sends
+         * the details leaving the region, and sums the workers the region may hold busy during the window.
+         */
+        void route(double horizon, double tickTime) {
+            long peak = 0;
+            for (int center : centers) {
+                peak += Math.max(busyWorkers[center], state.workers(center));
+            }
+            peakBusy = peak;
+
+            Event event;
+            while ((event = completions.peek()) != null && event.time() < horizon && event.time() <= tickTime) {
+                completions.poll();
+                int center = event.center();
+                int destination = graph.outDegree(center) > 0
+                        ? AlgorithmUtils.selectNextCenter(center, routingPolicy, routingSnapshot)
+                        : DEPARTED;
+                Event routed = new Event(event.time(), center, event.detail(), destination);
+                window.add(routed);
+                if (destination != DEPARTED && partition.region(destination) != index) {
+                    outboxes.get(partition.region(destination)).add(routed);
+                }
+            }
+        }
+
+        /**
+         * Second phase: handles the own completions and the arriving details in the order of the sequential
+         * engine, where a detail arrives at the time, and in the place of the order, of its completion.
+         */
+        void apply() {
+            List<Event> merged = new ArrayList<>(window);
+            for (Region source : regions) {
+                if (source != this) {
+                    merged.addAll(source.outboxes.get(index));
+                }
+            }
+            merged.sort(null);
+
+            for (Event event : merged) {
+                int center = event.center();
+                int destination = event.destination();
+                if (partition.region(center) != index) {
+                    queue(destination, event);
+                    startWork(this, destination, event.time(), false);
+                    continue;
+                }
+
+                busyWorkers[center]--;
+                busyChange--;
+                detailProcessed(center);
+                if (destination == DEPARTED) {
+                    departedDetails++;
+                } else if (partition.region(destination) == index) {
+                    queue(destination, event);
+                    startWork(this, destination, event.time(), false);
+                }
+                startWork(this, center, event.time(), false);
+            }
+        }
+
+        void detailProcessed(int center) {
+            processedDetails++;
+            if (metrics != null) {
+                metrics.detailProcessed(center);
+            }
+        }
+
+        void clearWindow() {
+            window.clear();
+            for (List<Event> outbox : outboxes) {
+                outbox.clear();
+            }
+        }
+    }
+
+    /**
+     * A completion at a center, ordered like the completions of {@link DiscreteEventEngine}.
+     *
+     * @param destination the center the detail was routed to, {@link #DEPARTED} if it leaves the plant,
+     *                    or {@link #UNROUTED} while it is in progress
+     */
+    private record Event(double time, int center, int detail, int destination) implements Comparable<Event> {
+
+        @Override
+        public int compareTo(Event other) {
+            int byTime = Double.compare(time, other.time);
+            if (byTime != 0) {
+                return byTime;
+            }
+            int byCenter = Integer.compare(center, other.center);
+            if (byCenter != 0) {
+                return byCenter;
+            }
+            return Integer.compare(detail, other.detail);
+        }
+    }
+}
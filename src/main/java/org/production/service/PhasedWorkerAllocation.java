@@ -0,0 +1,130 @@
+package org.production.service;
+
+import org.production.models.ProductionGraph;
+
+import java.util.Arrays;
+
+/**
+ * Fixed number of workers per center for consecutive phases of equal length; the last phase lasts until the end
+ * of the run. With one phase the allocation is static.
+ */
+public final class PhasedWorkerAllocation implements WorkerAllocation {
+    private final int[][] workers;
+    private final double phaseLength;
+
+    /**
+     * @param workers     the workers of every center, indexed by phase and by the dense index of the center
+     * @param phaseLength the simulated time every phase but the last one lasts
+     * @throws IllegalArgumentException if there is no phase, the phases differ in size, a count is negative,
+     *                                  or the phase length is not positive while there are several phases
+     */
+    public PhasedWorkerAllocation(int[][] workers, double phaseLength) {
+        if (workers.length == 0) {
+            throw new IllegalArgumentException("An allocation needs at least one phase");
+        }
+        if (workers.length > 1 && !(phaseLength > 0)) {
+            throw new IllegalArgumentException("The phase length must be positive: " + phaseLength);
+        }
+        this.workers = new int[workers.length][];
+        for (int phase = 0; phase < workers.length; phase++) {
+            if (workers[phase].length != workers[0].length) {
+                throw new IllegalArgumentException("All phases must cover the same centers");
+            }
+            for (int count : workers[phase]) {
+                if (count < 0) {
+                    throw new IllegalArgumentException("Worker counts must not be negative");
+                }
+            }
+            this.workers[phase] = workers[phase].clone();
+        }
+        this.phaseLength = phaseLength;
+    }
+
+    /**
+     * @param workers the workers of every center, indexed by the dense index of the center
+     * @return the allocation keeping these workers for the whole run
+     */
+    public static PhasedWorkerAllocation fixed(int[] workers) {
+        return new PhasedWorkerAllocation(new int[][]{workers}, 0);
+    }
+
+    /**
+     * Checks that the allocation fits the scenario: every phase covers all centers, assigns at most
+     * {@code maxWorkers} to a center and at most {@code workersCount} in total.
+     *
+     * @param graph        the index of the production graph
+     * @param workersCount the plant-wide number of workers
+     * @throws IllegalArgumentException if the allocation does not fit
+     */
+    public void validate(ProductionGraph graph, int workersCount) {
+        for (int phase = 0; phase < workers.length; phase++) {
+            if (workers[phase].length != graph.size()) {
+                throw new IllegalArgumentException("The allocation covers " + workers[phase].length
+                        + " centers instead of " + graph.size());
+            }
+            int total = 0;
+            for (int center = 0; center < graph.size(); center++) {
+                if (workers[phase][center] > graph.center(center).getMaxWorkers()) {
+                    throw new IllegalArgumentException("Center " + graph.center(center).getId()
+                            + " cannot take " + workers[phase][center] + " workers");
+                }
+                total += workers[phase][center];
+            }
+            if (total > workersCount) {
+                throw new IllegalArgumentException("Phase " + phase + " assigns " + total + " of "
+                        + workersCount + " workers");
+            }
+        }
+    }
+
+    public int phases() {
+        return workers.length;
+    }
+
+    public double phaseLength() {
+        return phaseLength;
+    }
+
+    /**
+     * @param phase  the index of a phase
+     * @param center the dense index of a center
+     * @return the workers of the center in the phase
+     */
+    public int workers(int phase, int center) {
+        return workers[phase][center];
+    }
+
+    @Override
+    public void assign(SimulationState state, double time) {
+        int[] phaseWorkers = workers[phaseAt(time)];
+        for (int center = 0; center < phaseWorkers.length; center++) {
+            if (state.workers(center) != phaseWorkers[center]) {
+                state.setWorkers(center, phaseWorkers[center]);
+            }
+        }
+    }
+
+    @Override
+    public boolean changesAfter(double time) {
+        return phaseAt(time) < workers.length - 1;
+    }
+
+    private int phaseAt(double time) {
+        if (workers.length == 1) {
+            return 0;
+        }
+        return (int) Math.min(workers.length - 1, Math.floor(time / phaseLength));
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof PhasedWorkerAllocation allocation
+                && phaseLength == allocation.phaseLength
+                && Arrays.deepEquals(workers, allocation.workers);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.deepHashCode(workers) + Double.hashCode(phaseLength);
+    }
+}
@@ -0,0 +1,56 @@
+package org.production.service;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+
+/**
+ * Logs a summary of a running simulation at most once per wall-clock interval, so the progress of large runs
+ * is visible without logging every detail. The summaries go to the {@code org.production.progress} logger at info.
+ * Not thread-safe, it is called from the thread driving the simulation steps.
+ */
+final class ProgressReporter {
+    private static final Logger LOGGER = LogManager.getLogger("org.production.progress");
+
+    private final long intervalNanos;
+    private final int detailsCount;
+    private long lastReportNanos;
+    private long lastProcessedDetails;
+
+    /**
+     * @param interval     the minimum wall-clock time between two summaries
+     * @param detailsCount the number of details of the run
+     */
+    ProgressReporter(Duration interval, int detailsCount) {
+        this.intervalNanos = interval.toNanos();
+        this.detailsCount = detailsCount;
+        this.lastReportNanos = System.nanoTime();
+    }
+
+    /**
+     * Logs a summary if the interval elapsed since the previous one.
+     *
+     * @param time             the simulated time of the completed step
+     * @param processedDetails the number of details processed at any center so far
+     * @param departedDetails  the number of details that left the plant so far
+     * @param state            the state of the run
+     */
+    void stepCompleted(double time, long processedDetails, long departedDetails, SimulationState state) {
+        long now = System.nanoTime();
+        if (now - lastReportNanos < intervalNanos || !LOGGER.isInfoEnabled()) {
+            return;
+        }
+        long bufferedDetails = 0;
+        for (int center = 0; center < state.size(); center++) {
+            bufferedDetails += state.bufferSize(center);
+        }
+        double rate = (processedDetails - lastProcessedDetails) * 1e9 / (now - lastReportNanos);
+        LOGGER.printf(Level.INFO, "Simulated time %.1f: %d of %d details departed, %d buffered, "
+                        + "%d processings (%.0f/s), %d workers assigned",
+                time, departedDetails, detailsCount, bufferedDetails, processedDetails, rate, state.totalWorkers());
+        lastReportNanos = now;
+        lastProcessedDetails = processedDetails;
+    }
+}
@@ -0,0 +1,306 @@
+package org.production.service;
+
+import org.production.models.ProductionCenter;
+import org.production.models.ProductionGraph;
+import org.production.models.ScenarioData;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Estimates the throughput, the bottleneck and the makespan of a scenario without simulating it, by treating
+ * the production graph as a queueing network.
+ * <p>
+ * Every center is a station with {@code min(maxWorkers, workersCount)} servers and a mean service time of
+ * {@code performance}. A detail enters at the start center and leaves the plant at a center without outgoing
+ * connections; at the other centers it follows a connection with the probability implied by the
+ * {@link RoutingPolicyType}: round-robin splits evenly, and the load-balancing policies split in proportion to the
+ * capacity {@code maxWorkers / performance} of the destinations. The mean number of visits of every center follows
+ * from these probabilities; the visits times the service time give the demand of the center per detail.
+ * <p>
+ * All details of the run wait in the plant from the start, so the throughput is that of a closed network holding
+ * {@code detailsCount} details. It is computed by the approximate mean-value analysis of Schweitzer, with the
+ * multi-server stations split into a queue and a delay as proposed by Seidmann, and bounded by
+ * {@code workersCount / total demand}, since every busy worker is taken from the same workforce. The makespan is
+ * the time of the first detail through the plant plus the time the remaining details leave at that throughput.
+ * The cost is linear in the size of the graph, so the estimate takes milliseconds even for large scenarios.
+ */
+public final class QueueingNetworkEstimator {
+    private static final int MAX_SWEEPS = 100_000;
+    private static final double MASS_TOLERANCE = 1e-12;
+    private static final int MAX_MVA_ITERATIONS = 10_000;
+    private static final double MVA_TOLERANCE = 1e-9;
+
+    private QueueingNetworkEstimator() {
+    }
+
+    /**
+     * Estimates the scenario.
+     *
+     * @param scenarioData  the scenario to estimate
+     * @param routingPolicy the routing policy the run would use
+     * @return the estimates
+     * @throws IllegalArgumentException if the start center is not part of the scenario, or if details
+     *                                  can never leave the plant because the connections form a closed loop
+     */
+    public static ThroughputEstimate estimate(ScenarioData scenarioData, RoutingPolicyType routingPolicy) {
+        ProductionGraph graph = scenarioData.graph();
+        int start = graph.indexOf(scenarioData.startCenterId());
+        if (start < 0) {
+            throw new IllegalArgumentException("Unknown start center: " + scenarioData.startCenterId());
+        }
+        int workersCount = scenarioData.workersCount();
+        double[] visits = visitRatios(graph, start, routingPolicy, workersCount);
+
+        int size = graph.size();
+        double[] demand = new double[size];
+        int[] servers = new int[size];
+        double totalDemand = 0;
+        int blocked = -1;
+        for (int center = 0; center < size; center++) {
+            ProductionCenter productionCenter = graph.center(center);
+            demand[center] = visits[center] * productionCenter.getPerformance();
+            servers[center] = Math.min(productionCenter.getMaxWorkers(), workersCount);
+            totalDemand += demand[center];
+            if (servers[center] == 0 && demand[center] > 0 && blocked < 0) {
+                blocked = center;
+            }
+        }
+
+        int details = scenarioData.detailsCount();
+        double throughput;
+        if (blocked >= 0) {
+            throughput = 0;
+        } else if (totalDemand == 0) {
+            throughput = Double.POSITIVE_INFINITY;
+        } else {
+            throughput = Math.min(meanValueThroughput(demand, servers, Math.max(1, details)), workersCount / totalDemand);
+        }
+
+        List<String> centerNames = new ArrayList<>(size);
+        List<Double> centerVisits = new ArrayList<>(size);
+        List<Double> centerUtilizations = new ArrayList<>(size);
+        int bottleneck = blocked;
+        double maxUtilization = 0;
+        for (int center = 0; center < size; center++) {
+            double utilization;
+            if (servers[center] == 0) {
+                utilization = demand[center] > 0 ? 1.0 : 0.0;
+            } else {
+                utilization = Double.isInfinite(throughput) ? 0.0 : throughput * demand[center] / servers[center];
+            }
+            if (blocked < 0 && utilization > maxUtilization) {
+                maxUtilization = utilization;
+                bottleneck = center;
+            }
+            centerNames.add(graph.center(center).getName());
+            centerVisits.add(visits[center]);
+            centerUtilizations.add(utilization);
+        }
+
+        double busyWorkers = Double.isInfinite(throughput) ? 0.0 : throughput * totalDemand;
+        if (blocked < 0 && workersCount > 0 && busyWorkers >= workersCount * (1 - MVA_TOLERANCE)
+                && maxUtilization < 1 - MVA_TOLERANCE) {
+            // The workforce is exhausted before any center is.
+            bottleneck = -1;
+        }
+        double makespan;
+        if (details == 0) {
+            makespan = 0;
+        } else if (throughput == 0) {
+            makespan = Double.POSITIVE_INFINITY;
+        } else {
+            makespan = totalDemand + (details - 1) / throughput;
+        }
+        return new ThroughputEstimate(throughput, makespan, totalDemand, busyWorkers,
+                bottleneck < 0 ? null : graph.center(bottleneck).getName(), centerNames, centerVisits,
+                centerUtilizations);
+    }
+
+    /**
+     * Computes the mean number of visits of a detail to every center. The visits are pushed from the start center
+     * along the connections in topological order, so an acyclic graph takes one sweep; the centers of loops
+     * are swept again until the remaining share of the details is negligible.
+     */
+    private static double[] visitRatios(ProductionGraph graph, int start, RoutingPolicyType routingPolicy,
+                                        int workersCount) {
+        int size = graph.size();
+        int[] order = topologicalOrder(graph);
+        double[] visits = new double[size];
+        double[] pending = new double[size];
+        pending[start] = 1.0;
+
+        for (int sweep = 0; sweep < MAX_SWEEPS; sweep++) {
+            double remaining = 0;
+            for (int center : order) {
+                double arriving = pending[center];
+                if (arriving == 0) {
+                    continue;
+                }
+                pending[center] = 0;
+                visits[center] += arriving;
+                routeShare(graph, center, arriving, routingPolicy, workersCount, pending);
+            }
+            for (double share : pending) {
+                remaining += share;
+            }
+            if (remaining < MASS_TOLERANCE) {
+                return visits;
+            }
+        }
+        throw new IllegalArgumentException("Details can never leave the plant: the connections form a closed loop");
+    }
+
+    /**
+     * Splits the share of the details leaving a center across its outgoing connections. Connections leading back
+     * to the center are skipped, as by every {@link RoutingPolicy}; a center without other connections is an exit.
+     */
+    private static void routeShare(ProductionGraph graph, int center, double share, RoutingPolicyType routingPolicy,
+                                   int workersCount, double[] pending) {
+        int outDegree = graph.outDegree(center);
+        double totalWeight = 0;
+        int unlimited = 0;
+        int valid = 0;
+        for (int k = 0; k < outDegree; k++) {
+            int destination = graph.outTarget(center, k);
+            if (destination == center) {
+                continue;
+            }
+            valid++;
+            double weight = routingWeight(graph.center(destination), routingPolicy, workersCount);
+            if (Double.isInfinite(weight)) {
+                unlimited++;
+            } else {
+                totalWeight += weight;
+            }
+        }
+        if (valid == 0) {
+            return;
+        }
+
+        for (int k = 0; k < outDegree; k++) {
+            int destination = graph.outTarget(center, k);
+            if (destination == center) {
+                continue;
+            }
+            double weight = routingWeight(graph.center(destination), routingPolicy, workersCount);
+            double probability;
+            if (unlimited > 0) {
+                // Destinations processing instantly take all details.
+                probability = Double.isInfinite(weight) ? 1.0 / unlimited : 0.0;
+            } else if (totalWeight > 0) {
+                probability = weight / totalWeight;
+            } else {
+                probability = 1.0 / valid;
+            }
+            pending[destination] += share * probability;
+        }
+    }
+
+    private static double routingWeight(ProductionCenter destination, RoutingPolicyType routingPolicy,
+                                        int workersCount) {
+        if (routingPolicy == RoutingPolicyType.ROUND_ROBIN) {
+            return 1.0;
+        }
+        int servers = Math.min(destination.getMaxWorkers(), workersCount);
+        if (servers == 0) {
+            return 0.0;
+        }
+        return destination.getPerformance() == 0 ? Double.POSITIVE_INFINITY : servers / destination.getPerformance();
+    }
+
+    /**
+     * Orders the centers so that every connection, except those of loops, leads to a later center.
+     * The centers of loops follow in the order of the graph.
+     */
+    private static int[] topologicalOrder(ProductionGraph graph) {
+        int size = graph.size();
+        int[] inDegree = new int[size];
+        for (int center = 0; center < size; center++) {
+            for (int k = 0; k < graph.outDegree(center); k++) {
+                int destination = graph.outTarget(center, k);
+                if (destination != center) {
+                    inDegree[destination]++;
+                }
+            }
+        }
+
+        int[] order = new int[size];
+        boolean[] ordered = new boolean[size];
+        int head = 0;
+        int tail = 0;
+        for (int center = 0; center < size; center++) {
+            if (inDegree[center] == 0) {
+                order[tail++] = center;
+                ordered[center] = true;
+            }
+        }
+        while (head < tail) {
+            int center = order[head++];
+            for (int k = 0; k < graph.outDegree(center); k++) {
+                int destination = graph.outTarget(center, k);
+                if (destination != center && --inDegree[destination] == 0) {
+                    order[tail++] = destination;
+                    ordered[destination] = true;
+                }
+            }
+        }
+        for (int center = 0; center < size; center++) {
+            if (!ordered[center]) {
+                order[tail++] = center;
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Solves the closed network holding {@code population} details with Schweitzer's approximate mean-value
+     * analysis. A station with {@code c} servers and demand {@code D} is a queue with demand {@code D / c}
+     * followed by a delay of {@code D * (c - 1) / c}.
+     */
+    private static double meanValueThroughput(double[] demand, int[] servers, int population) {
+        int size = demand.length;
+        double[] queueDemand = new double[size];
+        double delay = 0;
+        int stations = 0;
+        for (int center = 0; center < size; center++) {
+            if (demand[center] == 0) {
+                continue;
+            }
+            queueDemand[center] = demand[center] / servers[center];
+            delay += demand[center] - queueDemand[center];
+            stations++;
+        }
+
+        double[] queued = new double[size];
+        for (int center = 0; center < size; center++) {
+            if (queueDemand[center] > 0) {
+                queued[center] = (double) population / stations;
+            }
+        }
+        double othersFactor = (population - 1.0) / population;
+        double throughput = 0;
+        for (int iteration = 0; iteration < MAX_MVA_ITERATIONS; iteration++) {
+            double cycleTime = delay;
+            for (int center = 0; center < size; center++) {
+                if (queueDemand[center] > 0) {
+                    cycleTime += queueDemand[center] * (1 + queued[center] * othersFactor);
+                }
+            }
+            throughput = population / cycleTime;
+
+            double change = 0;
+            for (int center = 0; center < size; center++) {
+                if (queueDemand[center] > 0) {
+                    double next = throughput * queueDemand[center] * (1 + queued[center] * othersFactor);
+                    change = Math.max(change, Math.abs(next - queued[center]));
+                    queued[center] = next;
+                }
+            }
+            if (change < MVA_TOLERANCE * population) {
+                break;
+            }
+        }
+        return throughput;
+    }
+}
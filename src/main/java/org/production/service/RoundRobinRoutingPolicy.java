@@ -0,0 +1,53 @@
+package org.production.service;
+
+import org.production.models.ProductionGraph;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Sends the details leaving a center along its outgoing connections in turn, ignoring the snapshot.
+ * Every center keeps its own atomic cursor, so concurrent details of one center still alternate.
+ */
+final class RoundRobinRoutingPolicy implements RoutingPolicy {
+    private final AtomicIntegerArray cursors;
+
+    RoundRobinRoutingPolicy(ProductionGraph graph) {
+        this.cursors = new AtomicIntegerArray(graph.size());
+    }
+
+    @Override
+    public int selectConnection(int center, RoutingSnapshot snapshot) {
+        ProductionGraph graph = snapshot.graph();
+        int outDegree = graph.outDegree(center);
+        if (outDegree == 0) {
+            return NO_CONNECTION;
+        }
+        int start = Math.floorMod(cursors.getAndIncrement(center), outDegree);
+        for (int i = 0; i < outDegree; i++) {
+            int k = (start + i) % outDegree;
+            if (graph.outTarget(center, k) != center) {
+                return k;
+            }
+        }
+        return NO_CONNECTION;
+    }
+
+    @Override
+    public int[] saveState() {
+        int[] state = new int[cursors.length()];
+        for (int center = 0; center < state.length; center++) {
+            state[center] = cursors.get(center);
+        }
+        return state;
+    }
+
+    @Override
+    public void restoreState(int[] state) {
+        if (state.length != cursors.length()) {
+            throw new IllegalArgumentException("Expected " + cursors.length() + " cursors, got " + state.length);
+        }
+        for (int center = 0; center < state.length; center++) {
+            cursors.set(center, state[center]);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.production.service;
+
+/**
+ * Chooses the outgoing connection a processed detail follows.
+ * A policy reads the workers and buffer sizes of the {@link RoutingSnapshot} taken for the current step only,
+ * so it never redistributes workers itself, and looks at the outgoing connections of the center once,
+ * without allocating. Policies are created per run by {@link RoutingPolicyType} and may be called concurrently.
+ */
+public interface RoutingPolicy {
+
+    /**
+     * Returned by {@link #selectConnection} when the center has no connection a detail can follow.
+     */
+    int NO_CONNECTION = -1;
+
+    /**
+     * Selects the connection for a detail leaving the center. Connections leading back to the center are skipped.
+     *
+     * @param center   the dense index of the current production center
+     * @param snapshot the workers and buffer sizes of the current step
+     * @return the index {@code k} of the selected connection, as in {@link org.production.models.ProductionGraph#outTarget},
+     *         or {@link #NO_CONNECTION} if no connection leads to another center
+     */
+    int selectConnection(int center, RoutingSnapshot snapshot);
+
+    /**
+     * Returns the state the policy carries from one detail to the next, stored in a {@link SimulationCheckpoint}.
+     * It is called between steps only.
+     *
+     * @return the state of the policy, empty for a policy that only reads the snapshot
+     */
+    default int[] saveState() {
+        return new int[0];
+    }
+
+    /**
+     * Restores the state returned by {@link #saveState} on a policy of the same type and graph.
+     *
+     * @param state the saved state
+     */
+    default void restoreState(int[] state) {
+    }
+}
@@ -0,0 +1,81 @@
+package org.production.service;
+
+import org.production.models.ProductionGraph;
+
+/**
+ * Defines the {@link RoutingPolicy} choosing where a processed detail goes next.
+ */
+public enum RoutingPolicyType {
+
+    /**
+     * The least queued work per free worker slot, {@code performance * queued / (maxWorkers - workers + 1)}.
+     */
+    WEIGHTED("weighted") {
+        @Override
+        public RoutingPolicy create(ProductionGraph graph) {
+            return new WeightedRoutingPolicy();
+        }
+    },
+
+    /**
+     * The outgoing connections of every center in turn.
+     */
+    ROUND_ROBIN("round-robin") {
+        @Override
+        public RoutingPolicy create(ProductionGraph graph) {
+            return new RoundRobinRoutingPolicy(graph);
+        }
+    },
+
+    /**
+     * The fewest queued details.
+     */
+    SHORTEST_QUEUE("shortest-queue") {
+        @Override
+        public RoutingPolicy create(ProductionGraph graph) {
+            return new ShortestQueueRoutingPolicy();
+        }
+    },
+
+    /**
+     * The fewest queued and assigned details relative to the maximum number of workers.
+     */
+    LEAST_LOADED("least-loaded") {
+        @Override
+        public RoutingPolicy create(ProductionGraph graph) {
+            return new LeastLoadedRoutingPolicy();
+        }
+    };
+
+    private final String optionName;
+
+    RoutingPolicyType(String optionName) {
+        this.optionName = optionName;
+    }
+
+    /**
+     * @param graph the index of the production graph of the run
+     * @return a policy for one run
+     */
+    public abstract RoutingPolicy create(ProductionGraph graph);
+
+    public String getOptionName() {
+        return optionName;
+    }
+
+    /**
+     * Resolves a routing policy by its command line name.
+     *
+     * @param optionName the name of the policy, e.g. {@code shortest-queue}
+     * @return the matching policy type
+     * @throws IllegalArgumentException if no policy has the given name
+     */
+    public static RoutingPolicyType fromOptionName(String optionName) {
+        for (RoutingPolicyType type : values()) {
+            if (type.optionName.equalsIgnoreCase(optionName.trim())) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown routing policy: " + optionName);
+    }
+}
@@ -0,0 +1,161 @@
+package org.production.service;
+
+import org.production.models.ProductionGraph;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Workers and buffer sizes of every center, taken once per step after the workers are redistributed.
+ * Routing reads the snapshot instead of the live {@link SimulationState}, so all details of a step see the same
+ * assignment. The only part that changes during a step is the count of details every center sent to each of its
+ * destinations since the snapshot was taken; {@link #queued} adds it to the captured buffer size, which spreads
+ * the successive details of a center the way the buffers would grow. A center only sees its own details, so the
+ * choices of a center never depend on the order in which other centers route theirs.
+ */
+public final class RoutingSnapshot {
+    private final ProductionGraph graph;
+    private final int[] workers;
+    private final int[] bufferSizes;
+    private final int[] routedSlot;
+    private final AtomicIntegerArray routed;
+
+    /**
+     * Creates an empty snapshot; {@link #capture} fills it before the first step.
+     *
+     * @param graph the index of the production graph
+     */
+    public RoutingSnapshot(ProductionGraph graph) {
+        this.graph = graph;
+        this.workers = new int[graph.size()];
+        this.bufferSizes = new int[graph.size()];
+        this.routedSlot = routedSlots(graph);
+        this.routed = new AtomicIntegerArray(graph.connectionCount());
+    }
+
+    /**
+     * Connections of a center leading to the same destination share the count of the first of them.
+     */
+    private static int[] routedSlots(ProductionGraph graph) {
+        int[] slots = new int[graph.connectionCount()];
+        for (int center = 0; center < graph.size(); center++) {
+            for (int k = 0; k < graph.outDegree(center); k++) {
+                slots[graph.connectionIndex(center, k)] = graph.connectionIndex(center, firstTo(graph, center, k));
+            }
+        }
+        return slots;
+    }
+
+    private static int firstTo(ProductionGraph graph, int center, int k) {
+        int destination = graph.outTarget(center, k);
+        for (int first = 0; first < k; first++) {
+            if (graph.outTarget(center, first) == destination) {
+                return first;
+            }
+        }
+        return k;
+    }
+
+    /**
+     * Creates a snapshot of the current state.
+     *
+     * @param state the state of the running simulation
+     * @return the snapshot
+     */
+    public static RoutingSnapshot of(SimulationState state) {
+        RoutingSnapshot snapshot = new RoutingSnapshot(state.graph());
+        snapshot.capture(state);
+        return snapshot;
+    }
+
+    /**
+     * Takes the workers and buffer sizes of a new step and forgets the details routed in the previous one.
+     * It must not run while details of the previous step are being routed.
+     *
+     * @param state the state of the running simulation
+     */
+    public void capture(SimulationState state) {
+        for (int center = 0; center < workers.length; center++) {
+            workers[center] = state.workers(center);
+            bufferSizes[center] = state.bufferSize(center);
+        }
+        for (int connection = 0; connection < routedSlot.length; connection++) {
+            routed.set(connection, 0);
+        }
+    }
+
+    /**
+     * Replaces the snapshot with one taken earlier, e.g. from a checkpoint.
+     *
+     * @param workers     the captured workers of every center
+     * @param bufferSizes the captured buffer sizes of every center
+     * @param routed      the details routed along every connection since the capture, as returned by
+     *                    {@link #routedCounts()}
+     * @throws IllegalArgumentException if the counts do not match the connections of the graph
+     */
+    void restore(int[] workers, int[] bufferSizes, int[] routed) {
+        if (routed.length != routedSlot.length) {
+            throw new IllegalArgumentException("Expected " + routedSlot.length + " routed counts, got "
+                    + routed.length);
+        }
+        for (int center = 0; center < this.workers.length; center++) {
+            this.workers[center] = workers[center];
+            this.bufferSizes[center] = bufferSizes[center];
+        }
+        for (int connection = 0; connection < routed.length; connection++) {
+            this.routed.set(connection, routed[connection]);
+        }
+    }
+
+    /**
+     * @return the details routed along every connection since the capture, indexed by
+     *         {@link ProductionGraph#connectionIndex}
+     */
+    int[] routedCounts() {
+        int[] counts = new int[routedSlot.length];
+        for (int connection = 0; connection < counts.length; connection++) {
+            counts[connection] = routed.get(connection);
+        }
+        return counts;
+    }
+
+    /**
+     * Counts a detail the center sent along its k-th connection during the current step.
+     *
+     * @param center the dense index of the source
+     * @param k      the position among the outgoing connections of the source
+     */
+    public void recordRouted(int center, int k) {
+        routed.incrementAndGet(routedSlot[graph.connectionIndex(center, k)]);
+    }
+
+    public ProductionGraph graph() {
+        return graph;
+    }
+
+    /**
+     * @param center the dense index of a center
+     * @return the number of workers assigned to the center in this step
+     */
+    public int workers(int center) {
+        return workers[center];
+    }
+
+    /**
+     * @param center the dense index of a center
+     * @return the number of details in the buffer of the center when the snapshot was taken
+     */
+    public int bufferSize(int center) {
+        return bufferSizes[center];
+    }
+
+    /**
+     * @param center the dense index of the source
+     * @param k      the position among the outgoing connections of the source
+     * @return the captured buffer size of the destination of the connection plus the details the source sent
+     *         to that destination since the snapshot was taken
+     */
+    public int queued(int center, int k) {
+        int connection = graph.connectionIndex(center, k);
+        return bufferSizes[graph.outTarget(center, k)] + routed.get(routedSlot[connection]);
+    }
+}
@@ -0,0 +1,22 @@
+package org.production.service;
+
+/**
+ * Totals of a completed simulation run.
+ *
+ * @param simulatedTime    the simulated time at which all details had left the plant (the makespan)
+ * @param processedDetails the number of times a detail was processed at any center
+ * @param busyWorkerTime   the simulated time the workers spent processing details, summed over the workers
+ */
+public record RunStatistics(double simulatedTime, long processedDetails, double busyWorkerTime) {
+
+    /**
+     * @param workersCount the number of workers of the plant
+     * @return the share of the available worker time spent processing details, between {@code 0} and {@code 1}
+     */
+    public double utilization(int workersCount) {
+        if (simulatedTime <= 0 || workersCount <= 0) {
+            return 0.0;
+        }
+        return Math.min(1.0, busyWorkerTime / (workersCount * simulatedTime));
+    }
+}
@@ -0,0 +1,83 @@
+package org.production.service;
+
+/**
+ * Running mean and variance of a series of observations (Welford's algorithm), without keeping the observations.
+ * Statistics collected separately can be merged, so replications can be accumulated in parallel blocks.
+ */
+public final class RunningStatistics {
+    /**
+     * Two-sided 95% quantiles of Student's t distribution for 1 to 30 degrees of freedom.
+     */
+    private static final double[] T_QUANTILES_95 = {
+            12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+    };
+
+    private long count;
+    private double mean;
+    private double squaredDeviations;
+
+    /**
+     * @param value the next observation
+     */
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        squaredDeviations += delta * (value - mean);
+    }
+
+    /**
+     * Adds the observations summarized by another instance.
+     *
+     * @param other the statistics to merge, left unchanged
+     */
+    public void merge(RunningStatistics other) {
+        if (other.count == 0) {
+            return;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        squaredDeviations += other.squaredDeviations + delta * delta * count * other.count / total;
+        count = total;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public double mean() {
+        return mean;
+    }
+
+    /**
+     * @return the sample variance, {@code 0} for fewer than two observations
+     */
+    public double variance() {
+        return count < 2 ? 0.0 : squaredDeviations / (count - 1);
+    }
+
+    /**
+     * @return the mean with its 95% confidence interval; the half width is {@code 0} for fewer than two observations
+     */
+    public Estimate estimate() {
+        double standardDeviation = Math.sqrt(variance());
+        double halfWidth = count < 2 ? 0.0 : tQuantile95(count - 1) * standardDeviation / Math.sqrt(count);
+        return new Estimate(mean, standardDeviation, halfWidth, count);
+    }
+
+    private static double tQuantile95(long degreesOfFreedom) {
+        if (degreesOfFreedom <= T_QUANTILES_95.length) {
+            return T_QUANTILES_95[(int) degreesOfFreedom - 1];
+        }
+        if (degreesOfFreedom <= 60) {
+            return 2.000;
+        }
+        if (degreesOfFreedom <= 120) {
+            return 1.980;
+        }
+        return 1.960;
+    }
+}
@@ -0,0 +1,37 @@
+package org.production.service;
+
+import org.production.models.ProductionGraph;
+
+/**
+ * Base of the policies sending a detail along the connection whose destination has the minimum score.
+ * Ties go to the connection listed first.
+ */
+abstract class ScoredRoutingPolicy implements RoutingPolicy {
+
+    @Override
+    public int selectConnection(int center, RoutingSnapshot snapshot) {
+        ProductionGraph graph = snapshot.graph();
+        int selected = NO_CONNECTION;
+        double minScore = Double.MAX_VALUE;
+        for (int k = 0; k < graph.outDegree(center); k++) {
+            int destination = graph.outTarget(center, k);
+            if (destination == center) {
+                continue;
+            }
+            double score = score(center, k, snapshot);
+            if (selected == NO_CONNECTION || score < minScore) {
+                selected = k;
+                minScore = score;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * @param center   the dense index of the current production center
+     * @param k        the position of the candidate connection, leading to another center
+     * @param snapshot the workers and buffer sizes of the current step
+     * @return the score of the destination of the connection, lower is preferred
+     */
+    abstract double score(int center, int k, RoutingSnapshot snapshot);
+}
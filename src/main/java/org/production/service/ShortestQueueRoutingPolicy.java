@@ -0,0 +1,12 @@
+package org.production.service;
+
+/**
+ * Prefers the destination with the fewest queued details, regardless of its workers and performance.
+ */
+final class ShortestQueueRoutingPolicy extends ScoredRoutingPolicy {
+
+    @Override
+    double score(int center, int k, RoutingSnapshot snapshot) {
+        return snapshot.queued(center, k);
+    }
+}
@@ -0,0 +1,266 @@
+package org.production.service;
+
+import org.production.models.ProductionCenter;
+import org.production.models.ProductionGraph;
+import org.production.models.ScenarioData;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Full state of a discrete-event run at the end of a tick, from which {@link SimulationRunner#resumeSimulation}
+ * continues the run exactly as if it had not been interrupted.
+ * <p>
+ * The checkpoint holds the clock, the totals of the run, the workers and the details waiting in every buffer
+ * in polling order, the routing snapshot of the tick, the state of the routing policy, the details in progress
+ * with their completion time, and the length of the output file holding the rows recorded up to the tick.
+ * The run draws no random numbers: processing times are the {@code performance} of the centers, so no generator
+ * state is needed to replay the rest of the run.
+ * <p>
+ * Layout (big-endian): magic {@code "PSCK"}, format version, fingerprint of the scenario and routing policy,
+ * clock, processed and departed details, busy worker time, output position, center count,
+ * then per center the workers, the captured buffer size and the buffer length followed by its details,
+ * then the count of connections followed by the details routed along every connection since the capture,
+ * then the length of the routing policy state followed by its values, and finally the count of
+ * details in progress followed by (completion time, center, detail) per detail.
+ */
+public final class SimulationCheckpoint {
+    private static final int MAGIC = 0x5053434B;
+    private static final int VERSION = 3;
+
+    final long fingerprint;
+    final double clock;
+    final long processedDetails;
+    final long departedDetails;
+    final double busyWorkerTime;
+    final long sinkPosition;
+    final int[] workers;
+    final int[] capturedBufferSizes;
+    final int[] routed;
+    final int[][] buffers;
+    final int[] policyState;
+    final double[] completionTimes;
+    final int[] completionCenters;
+    final int[] completionDetails;
+
+    SimulationCheckpoint(long fingerprint, double clock, long processedDetails, long departedDetails,
+                         double busyWorkerTime, long sinkPosition, int[] workers, int[] capturedBufferSizes,
+                         int[] routed, int[][] buffers, int[] policyState, double[] completionTimes,
+                         int[] completionCenters, int[] completionDetails) {
+        this.fingerprint = fingerprint;
+        this.clock = clock;
+        this.processedDetails = processedDetails;
+        this.departedDetails = departedDetails;
+        this.busyWorkerTime = busyWorkerTime;
+        this.sinkPosition = sinkPosition;
+        this.workers = workers;
+        this.capturedBufferSizes = capturedBufferSizes;
+        this.routed = routed;
+        this.buffers = buffers;
+        this.policyState = policyState;
+        this.completionTimes = completionTimes;
+        this.completionCenters = completionCenters;
+        this.completionDetails = completionDetails;
+    }
+
+    /**
+     * @return the simulated time of the tick the checkpoint was taken at
+     */
+    public double time() {
+        return clock;
+    }
+
+    /**
+     * @return the length of the output file holding exactly the rows recorded up to the checkpoint,
+     *         as returned by {@link org.production.io.ResultSink#sync()}
+     */
+    public long sinkPosition() {
+        return sinkPosition;
+    }
+
+    /**
+     * Checks that the checkpoint was taken from a run of the scenario with the routing policy.
+     *
+     * @param scenarioData  the scenario to resume
+     * @param routingPolicy the routing policy of the resumed run
+     * @throws IllegalArgumentException if the scenario or the policy differ from the checkpointed run
+     */
+    void requireMatches(ScenarioData scenarioData, RoutingPolicyType routingPolicy) {
+        if (fingerprint != fingerprint(scenarioData, routingPolicy)) {
+            throw new IllegalArgumentException(
+                    "The checkpoint was taken from another scenario or with another routing policy");
+        }
+    }
+
+    /**
+     * Hashes everything the course of a discrete-event run depends on: the centers, the connections in the order
+     * of the graph, the counts, the start and end centers and the routing policy.
+     */
+    static long fingerprint(ScenarioData scenarioData, RoutingPolicyType routingPolicy) {
+        CRC32C checksum = new CRC32C();
+        try (DataOutputStream out = new DataOutputStream(
+                new CheckedOutputStream(OutputStream.nullOutputStream(), checksum))) {
+            ProductionGraph graph = scenarioData.graph();
+            out.writeInt(graph.size());
+            for (int center = 0; center < graph.size(); center++) {
+                ProductionCenter productionCenter = graph.center(center);
+                out.writeUTF(productionCenter.getId());
+                out.writeUTF(productionCenter.getName());
+                out.writeDouble(productionCenter.getPerformance());
+                out.writeInt(productionCenter.getMaxWorkers());
+                out.writeInt(graph.outDegree(center));
+                for (int k = 0; k < graph.outDegree(center); k++) {
+                    out.writeInt(graph.outTarget(center, k));
+                }
+            }
+            out.writeInt(scenarioData.workersCount());
+            out.writeInt(scenarioData.detailsCount());
+            out.writeUTF(scenarioData.startCenterId());
+            out.writeUTF(scenarioData.endCenterId());
+            out.writeUTF(routingPolicy.getOptionName());
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to hash the scenario", e);
+        }
+        return checksum.getValue();
+    }
+
+    /**
+     * Writes the checkpoint file. The file is written next to the target and moved in place,
+     * so an interrupted run always leaves the previous complete checkpoint behind.
+     *
+     * @param path the checkpoint file
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path path) throws IOException {
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (OutputStream fileOut = Files.newOutputStream(tempPath);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut, 64 * 1024))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(fingerprint);
+            out.writeDouble(clock);
+            out.writeLong(processedDetails);
+            out.writeLong(departedDetails);
+            out.writeDouble(busyWorkerTime);
+            out.writeLong(sinkPosition);
+
+            out.writeInt(workers.length);
+            for (int center = 0; center < workers.length; center++) {
+                out.writeInt(workers[center]);
+                out.writeInt(capturedBufferSizes[center]);
+                writeInts(out, buffers[center]);
+            }
+            writeInts(out, routed);
+            writeInts(out, policyState);
+
+            out.writeInt(completionTimes.length);
+            for (int i = 0; i < completionTimes.length; i++) {
+                out.writeDouble(completionTimes[i]);
+                out.writeInt(completionCenters[i]);
+                out.writeInt(completionDetails[i]);
+            }
+        }
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Decodes a checkpoint file from its memory mapping.
+     *
+     * @param path the checkpoint file
+     * @return the checkpoint
+     * @throws IOException if the file cannot be read, is malformed or of another format version
+     */
+    public static SimulationCheckpoint read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return decode(buffer);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Malformed checkpoint file: " + path, e);
+        }
+    }
+
+    private static SimulationCheckpoint decode(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < 8 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("Not a checkpoint file of format version " + VERSION);
+        }
+        long fingerprint = buffer.getLong();
+        double clock = buffer.getDouble();
+        long processedDetails = buffer.getLong();
+        long departedDetails = buffer.getLong();
+        double busyWorkerTime = buffer.getDouble();
+        long sinkPosition = buffer.getLong();
+
+        int centerCount = requireCount(buffer, buffer.getInt());
+        int[] workers = new int[centerCount];
+        int[] capturedBufferSizes = new int[centerCount];
+        int[][] buffers = new int[centerCount][];
+        for (int center = 0; center < centerCount; center++) {
+            workers[center] = buffer.getInt();
+            capturedBufferSizes[center] = buffer.getInt();
+            buffers[center] = readInts(buffer);
+        }
+        int[] routed = readInts(buffer);
+        int[] policyState = readInts(buffer);
+
+        int completionCount = requireCount(buffer, buffer.getInt());
+        double[] completionTimes = new double[completionCount];
+        int[] completionCenters = new int[completionCount];
+        int[] completionDetails = new int[completionCount];
+        for (int i = 0; i < completionCount; i++) {
+            completionTimes[i] = buffer.getDouble();
+            completionCenters[i] = requireIndex(buffer.getInt(), centerCount);
+            completionDetails[i] = buffer.getInt();
+        }
+
+        if (buffer.hasRemaining()) {
+            throw new IOException("Unexpected data after the checkpoint");
+        }
+        return new SimulationCheckpoint(fingerprint, clock, processedDetails, departedDetails, busyWorkerTime,
+                sinkPosition, workers, capturedBufferSizes, routed, buffers, policyState, completionTimes,
+                completionCenters, completionDetails);
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static int[] readInts(ByteBuffer buffer) {
+        int[] values = new int[requireCount(buffer, buffer.getInt())];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + values.length * Integer.BYTES);
+        return values;
+    }
+
+    /**
+     * Every counted item takes at least one byte, so a count beyond the remaining bytes means a damaged file.
+     */
+    private static int requireCount(ByteBuffer buffer, int count) {
+        if (count < 0 || count > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid length in checkpoint: " + count);
+        }
+        return count;
+    }
+
+    private static int requireIndex(int index, int centerCount) {
+        if (index < 0 || index >= centerCount) {
+            throw new IllegalArgumentException("Center index out of range in checkpoint: " + index);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,52 @@
+package org.production.service;
+
+/**
+ * Defines how {@link SimulationRunner#runSimulation()} advances the simulation.
+ */
+public enum SimulationMode {
+
+    /**
+     * Step-based mode: every step each assigned worker processes one detail on a thread pool,
+     * pacing the processing with real (wall-clock) sleeps.
+     */
+    REAL_TIME("real-time"),
+
+    /**
+     * Discrete-event mode: detail completions are scheduled on a virtual clock and processed
+     * in time order, so a run takes only CPU time.
+     */
+    DISCRETE_EVENT("discrete-event"),
+
+    /**
+     * Discrete-event mode with the production graph split into regions whose events are processed on
+     * separate threads, see {@link ParallelDiscreteEventEngine}. The results equal those of the
+     * {@link #DISCRETE_EVENT} mode.
+     */
+    PARALLEL_DISCRETE_EVENT("parallel-discrete-event");
+
+    private final String optionName;
+
+    SimulationMode(String optionName) {
+        this.optionName = optionName;
+    }
+
+    public String getOptionName() {
+        return optionName;
+    }
+
+    /**
+     * Resolves a mode by its command line name.
+     *
+     * @param optionName the name of the mode, e.g. {@code discrete-event}
+     * @return the matching mode
+     * @throws IllegalArgumentException if no mode has the given name
+     */
+    public static SimulationMode fromOptionName(String optionName) {
+        for (SimulationMode mode : values()) {
+            if (mode.optionName.equalsIgnoreCase(optionName.trim())) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown simulation mode: " + optionName);
+    }
+}
@@ -1,94 +1,297 @@
 package org.production.service;
 
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.production.io.InMemoryResultSink;
+import org.production.io.ResultSink;
+import org.production.metrics.SimulationMetrics;
+import org.production.models.ProductionGraph;
 import org.production.models.ScenarioData;
 import org.production.models.ProductionCenter;
-import org.production.models.Connection;
 import org.production.models.SimulationResult;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.*;
-import java.util.concurrent.*;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleConsumer;
 
 import static org.production.service.AlgorithmUtils.adjustExcessWorkers;
-import static org.production.service.AlgorithmUtils.getOutgoingConnectionsForCenter;
 
 /**
  * Class responsible for running the simulation of production centers.
  * It manages buffers, worker distribution, and processing of details across multiple centers.
  */
 public class SimulationRunner {
+    private static final Logger LOGGER = LogManager.getLogger(SimulationRunner.class);
+
     private final ScenarioData scenarioData;
-    private final ExecutorService executorService;
-    private final Map<String, BlockingQueue<String>> centerBuffers;
-    private final Map<String, Integer> centerWorkers;
-    private final List<SimulationResult> resultList;
+    private final SimulationSettings settings;
+    private final SimulationState state;
+    private final ResultSink resultSink;
+    private final LongAdder processedDetails;
+    private final DoubleAdder busyWorkerTime;
+    private final LongAdder departedDetails;
+    private final SteadyStateDetector steadyStateDetector;
+    private final SimulationMetrics metrics;
+    private final ProgressReporter progressReporter;
+    private final RoutingPolicy routingPolicy;
+    private final RoutingSnapshot routingSnapshot;
     private double currentTime;
 
     public SimulationRunner(ScenarioData scenarioData) {
+        this(scenarioData, SimulationMode.REAL_TIME);
+    }
+
+    public SimulationRunner(ScenarioData scenarioData, SimulationMode mode) {
+        this(scenarioData, SimulationSettings.defaults().withMode(mode));
+    }
+
+    public SimulationRunner(ScenarioData scenarioData, SimulationSettings settings) {
+        this(scenarioData, settings, new InMemoryResultSink());
+    }
+
+    /**
+     * Creates a runner pushing the recorded rows into the given sink while the simulation runs.
+     * The sink is not closed by the runner.
+     *
+     * @param scenarioData the scenario to simulate
+     * @param settings     the simulation settings
+     * @param resultSink   the destination of the recorded rows
+     */
+    public SimulationRunner(ScenarioData scenarioData, SimulationSettings settings, ResultSink resultSink) {
+        this(scenarioData, settings, resultSink, null);
+    }
+
+    /**
+     * Creates a runner pushing the recorded rows into the given sink and recording its metrics while the simulation runs.
+     * The sink is not closed by the runner.
+     *
+     * @param scenarioData the scenario to simulate
+     * @param settings     the simulation settings
+     * @param resultSink   the destination of the recorded rows
+     * @param metrics      the registry of the run, created for the same scenario, or {@code null} to record no metrics
+     * @throws IllegalArgumentException if checkpoints are requested outside of the discrete-event mode,
+     *                                  together with the steady-state detection or with a sink that cannot sync
+     */
+    public SimulationRunner(ScenarioData scenarioData, SimulationSettings settings, ResultSink resultSink,
+                            SimulationMetrics metrics) {
+        if (settings.checkpoint() != null) {
+            requireResumable(settings);
+            if (!resultSink.supportsSync()) {
+                throw new IllegalArgumentException("Checkpoints require a result sink that can sync, not "
+                        + resultSink.getClass().getSimpleName());
+            }
+        }
         this.scenarioData = scenarioData;
-        this.executorService = Executors.newFixedThreadPool(scenarioData.workersCount());
-        this.centerBuffers = new ConcurrentHashMap<>();
-        this.centerWorkers = new ConcurrentHashMap<>();
-        this.resultList = new ArrayList<>();
+        this.settings = settings;
+        this.state = SimulationState.initial(scenarioData, settings.bufferType());
+        this.resultSink = resultSink;
+        this.processedDetails = new LongAdder();
+        this.busyWorkerTime = new DoubleAdder();
+        this.departedDetails = new LongAdder();
+        this.steadyStateDetector = settings.convergence() == null
+                ? null
+                : new SteadyStateDetector(scenarioData.graph(), settings.convergence());
+        this.metrics = metrics;
+        this.progressReporter = settings.progressInterval() == null
+                ? null
+                : new ProgressReporter(settings.progressInterval(), scenarioData.detailsCount());
+        this.routingPolicy = settings.routingPolicy().create(scenarioData.graph());
+        this.routingSnapshot = new RoutingSnapshot(scenarioData.graph());
         this.currentTime = 0.0;
-        initializeBuffers();
     }
 
     /**
-     * Initializes the buffers for all production centers, filling the start center with details.
+     * Runs the simulation until all details are processed or all buffers are empty,
+     * using the {@link SimulationMode} the runner was created with.
+     * With {@link SimulationSettings#convergence()} the run also stops once it has reached its steady state.
+     * With {@link SimulationSettings#checkpoint()} the state of the run is saved periodically at the end of a tick,
+     * so an interrupted run can be continued by {@link #resumeSimulation}.
      */
-    private void initializeBuffers() {
-        for (ProductionCenter center : scenarioData.centers()) {
+    public void runSimulation() {
+        if (settings.mode() == SimulationMode.DISCRETE_EVENT) {
+            runDiscreteEventSimulation(null);
+        } else if (settings.mode() == SimulationMode.PARALLEL_DISCRETE_EVENT) {
+            runParallelDiscreteEventSimulation();
+        } else {
+            runRealTimeSimulation();
+        }
+    }
 
-            centerBuffers.put(center.getId(), new LinkedBlockingQueue<>());
-            centerWorkers.put(center.getId(), 0);
+    /**
+     * Continues an interrupted discrete-event run from its last checkpoint. The result sink must append to the
+     * output file cut to {@link SimulationCheckpoint#sinkPosition()}; the run then writes exactly the output of
+     * an uninterrupted run. The metrics of the run only cover the ticks after the checkpoint.
+     *
+     * @param checkpoint the checkpoint of a run of the same scenario and routing policy
+     * @throws IllegalArgumentException if the runner is not in the discrete-event mode, detects the steady state,
+     *                                  or the checkpoint was taken from another scenario or routing policy
+     */
+    public void resumeSimulation(SimulationCheckpoint checkpoint) {
+        requireResumable(settings);
+        checkpoint.requireMatches(scenarioData, settings.routingPolicy());
+        currentTime = checkpoint.time();
+        LOGGER.printf(Level.INFO, "Resuming the simulation from the checkpoint at simulated time %.2f",
+                checkpoint.time());
+        runDiscreteEventSimulation(checkpoint);
+    }
+
+    private static void requireResumable(SimulationSettings settings) {
+        if (settings.mode() != SimulationMode.DISCRETE_EVENT) {
+            throw new IllegalArgumentException("Checkpoints require the discrete-event mode");
+        }
+        if (settings.convergence() != null) {
+            throw new IllegalArgumentException("Checkpoints cannot be combined with the steady-state detection");
         }
+    }
 
-        BlockingQueue<String> startBuffer = centerBuffers.get(scenarioData.startCenterId());
-        for (int i = 0; i < scenarioData.detailsCount(); i++) {
-            startBuffer.offer("Detail-" + (i + 1));
+    /**
+     * Runs the simulation on the virtual clock of a {@link DiscreteEventEngine}.
+     *
+     * @param checkpoint the checkpoint to continue from, or {@code null} to start a new run
+     */
+    private void runDiscreteEventSimulation(SimulationCheckpoint checkpoint) {
+        DiscreteEventEngine engine = new DiscreteEventEngine(scenarioData, state,
+                center -> state.graph().center(center).getPerformance(), metrics, routingPolicy);
+        CheckpointSettings checkpointSettings = settings.checkpoint();
+        long fingerprint = checkpointSettings == null
+                ? 0
+                : SimulationCheckpoint.fingerprint(scenarioData, settings.routingPolicy());
+        boolean[] converged = {false};
+        long[] stepStartNanos = {System.nanoTime()};
+        long[] nextCheckpointNanos = {checkpointSettings == null ? 0
+                : stepStartNanos[0] + checkpointSettings.interval().toNanos()};
+        DoubleConsumer recorder = time -> {
+            converged[0] = recordTick(time, engine.processedDetails(), engine.departedDetails(), stepStartNanos);
+            if (checkpointSettings != null && System.nanoTime() - nextCheckpointNanos[0] >= 0) {
+                writeCheckpoint(engine, fingerprint, checkpointSettings.file());
+                nextCheckpointNanos[0] = System.nanoTime() + checkpointSettings.interval().toNanos();
+            }
+        };
+        if (checkpoint == null) {
+            engine.run(recorder, () -> converged[0]);
+        } else {
+            engine.resume(checkpoint, recorder, () -> converged[0]);
         }
+        processedDetails.add(engine.processedDetails());
+        departedDetails.add(engine.departedDetails());
+        busyWorkerTime.add(engine.busyWorkerTime());
+        LOGGER.printf(Level.INFO, "Simulation complete! Simulated time: %.2f", currentTime);
+        reportSteadyState();
     }
 
     /**
-     * Runs the simulation until all details are processed or all buffers are empty.
+     * Runs the simulation on the regions of a {@link ParallelDiscreteEventEngine}.
      */
-    public void runSimulation() {
+    private void runParallelDiscreteEventSimulation() {
+        GraphPartition partition = GraphPartition.of(scenarioData.graph(), settings.regions());
+        int largestRegion = 0;
+        for (int region = 0; region < partition.regionCount(); region++) {
+            largestRegion = Math.max(largestRegion, partition.centers(region).length);
+        }
+        LOGGER.info("Simulating {} regions of up to {} centers with {} connections between them",
+                partition.regionCount(), largestRegion, partition.cutConnections());
+        ParallelDiscreteEventEngine engine = new ParallelDiscreteEventEngine(scenarioData, state, metrics,
+                routingPolicy, partition);
+        boolean[] converged = {false};
+        long[] stepStartNanos = {System.nanoTime()};
+        engine.run(time -> converged[0] = recordTick(time, engine.processedDetails(), engine.departedDetails(),
+                stepStartNanos), () -> converged[0]);
+        processedDetails.add(engine.processedDetails());
+        departedDetails.add(engine.departedDetails());
+        busyWorkerTime.add(engine.busyWorkerTime());
+        LOGGER.printf(Level.INFO, "Simulation complete! Simulated time: %.2f", currentTime);
+        reportSteadyState();
+    }
+
+    /**
+     * Records a tick of a discrete-event run: the rows, the metrics, the progress and the steady-state observation.
+     *
+     * @param stepStartNanos holds the wall-clock start of the tick and receives the start of the next one
+     * @return true if the run has reached its steady state
+     */
+    private boolean recordTick(double time, long processed, long departed, long[] stepStartNanos) {
+        currentTime = time;
+        recordResults();
+        if (metrics != null) {
+            long now = System.nanoTime();
+            metrics.stepCompleted(time, now - stepStartNanos[0]);
+            stepStartNanos[0] = now;
+        }
+        if (progressReporter != null) {
+            progressReporter.stepCompleted(time, processed, departed, state);
+        }
+        return steadyStateDetector != null && steadyStateDetector.observe(time, departed, state);
+    }
+
+    /**
+     * Writes the rows recorded so far to the output file, then the state of the run to the checkpoint file,
+     * so the checkpoint never refers to rows that are not stored.
+     */
+    private void writeCheckpoint(DiscreteEventEngine engine, long fingerprint, Path file) {
         try {
-            while (!isSimulationComplete()) {
-                List<Future<?>> tasks = new ArrayList<>();
+            long sinkPosition = resultSink.sync();
+            engine.checkpoint(fingerprint, sinkPosition).write(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write the checkpoint " + file, e);
+        }
+        LOGGER.printf(Level.DEBUG, "Checkpoint written at simulated time %.2f", currentTime);
+    }
 
-                AlgorithmUtils.redistributeWorkers(centerWorkers, centerBuffers, scenarioData);
+    /**
+     * Runs the simulation step by step, processing the details of every step on the executor
+     * selected by the {@link ExecutionStrategy}.
+     */
+    private void runRealTimeSimulation() {
+        try (TaskExecutor taskExecutor = settings.executionStrategy().createExecutor(scenarioData.workersCount())) {
+            while (!isSimulationComplete()) {
+                long stepStartNanos = System.nanoTime();
+                AlgorithmUtils.redistributeWorkers(state, scenarioData);
 
-                int totalAssignedWorkers = centerWorkers.values()
-                        .stream()
-                        .mapToInt(Integer::intValue)
-                        .sum();
+                int totalAssignedWorkers = state.totalWorkers();
 
-                System.out.printf("==> Шаг симуляции %.1f. Назначено работников: %d (из %d)%n",
-                        currentTime, totalAssignedWorkers, scenarioData.workersCount());
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.printf(Level.DEBUG, "==> Шаг симуляции %.1f. Назначено работников: %d (из %d)",
+                            currentTime, totalAssignedWorkers, scenarioData.workersCount());
+                }
 
                 if (totalAssignedWorkers > scenarioData.workersCount()) {
                     int excessWorkers = totalAssignedWorkers - scenarioData.workersCount();
-                    adjustExcessWorkers(centerWorkers, excessWorkers);
+                    adjustExcessWorkers(state, excessWorkers);
                 }
-
-                List<ProductionCenter> centersSnapshot = new ArrayList<>(scenarioData.centers());
-                for (ProductionCenter center : centersSnapshot) {
-                    tasks.add(executorService.submit(() -> processCenter(center)));
+                routingSnapshot.capture(state);
+                if (metrics != null) {
+                    metrics.redistributionCompleted(System.nanoTime() - stepStartNanos);
                 }
 
-                for (Future<?> task : tasks) {
-                    task.get();
+                List<Runnable> centerTasks = new ArrayList<>(state.size());
+                for (int center = 0; center < state.size(); center++) {
+                    int centerIndex = center;
+                    centerTasks.add(() -> processCenter(taskExecutor, centerIndex));
                 }
+                taskExecutor.invokeAll(centerTasks);
 
                 recordResults();
+                if (metrics != null) {
+                    metrics.stepCompleted(currentTime, System.nanoTime() - stepStartNanos);
+                }
+                if (progressReporter != null) {
+                    progressReporter.stepCompleted(currentTime, processedDetails.sum(), departedDetails.sum(), state);
+                }
+                if (steadyStateDetector != null
+                        && steadyStateDetector.observe(currentTime, departedDetails.sum(), state)) {
+                    break;
+                }
                 currentTime += 1.0;
             }
-            System.out.println("Simulation complete!");
+            LOGGER.info("Simulation complete!");
+            reportSteadyState();
         } catch (Exception e) {
-            e.printStackTrace();
-        } finally {
-            executorService.shutdown();
+            LOGGER.error("The simulation failed at step " + currentTime, e);
         }
     }
 
@@ -98,59 +301,93 @@ public class SimulationRunner {
      * @return true if the simulation is complete, false otherwise
      */
     private boolean isSimulationComplete() {
-        for (ProductionCenter center : scenarioData.centers()) {
-            if (!centerBuffers.get(center.getId()).isEmpty()) {
-                return false;
-            }
-        }
-        return centerWorkers.values().stream().allMatch(count -> count == 0);
+        return state.allBuffersEmpty() && state.noWorkersAssigned();
     }
 
     /**
      * Processes the given production center by simulating the processing of details and moving them to the next buffer.
      *
-     * @param center the production center to process
+     * @param taskExecutor the executor running the detail tasks
+     * @param center the dense index of the production center to process
      */
-    private void processCenter(ProductionCenter center) {
-        String centerId = center.getId();
-        BlockingQueue<String> buffer = centerBuffers.get(centerId);
-        int currentWorkers = centerWorkers.getOrDefault(centerId, 0);
+    private void processCenter(TaskExecutor taskExecutor, int center) {
+        int currentWorkers = state.workers(center);
+        if (settings.transferMode() == TransferMode.BATCHED) {
+            processCenterBatch(taskExecutor, center, currentWorkers);
+            return;
+        }
 
-        List<Future<?>> tasks = new ArrayList<>();
+        List<Runnable> tasks = new ArrayList<>();
         for (int i = 0; i < currentWorkers; i++) {
-            String detail = buffer.poll();
-            if (detail == null) {
+            int detail = state.poll(center);
+            if (detail == DetailBuffer.EMPTY) {
                 break;
             }
 
-            tasks.add(executorService.submit(() -> {
-                simulateProcessing(center, detail);
+            tasks.add(() -> {
+                simulateProcessing(taskExecutor, center, detail);
                 moveDetailToNextBuffer(center, detail);
-            }));
+            });
         }
 
-        for (Future<?> task : tasks) {
-            try {
-                task.get();
-            } catch (InterruptedException | ExecutionException e) {
-                Thread.currentThread().interrupt();
-                e.printStackTrace();
-            }
+        taskExecutor.invokeAll(tasks);
+    }
+
+    /**
+     * Processes the given production center in one batch: the details of all its workers are drained at once,
+     * processed in parallel, and then moved to the next buffers together.
+     *
+     * @param taskExecutor the executor running the detail tasks
+     * @param center the dense index of the production center to process
+     * @param currentWorkers the number of workers assigned to the center
+     */
+    private void processCenterBatch(TaskExecutor taskExecutor, int center, int currentWorkers) {
+        if (currentWorkers == 0) {
+            return;
         }
+        int[] batch = new int[currentWorkers];
+        int count = state.drain(center, batch, currentWorkers);
+        if (count == 0) {
+            return;
+        }
+
+        List<Runnable> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int detail = batch[i];
+            tasks.add(() -> simulateProcessing(taskExecutor, center, detail));
+        }
+        taskExecutor.invokeAll(tasks);
+
+        moveBatchToNextBuffers(center, batch, count);
     }
 
     /**
      * Simulates the processing of a detail at a production center.
      *
-     * @param center the production center processing the detail
-     * @param detail the detail being processed
+     * @param taskExecutor the executor running the detail task
+     * @param center the dense index of the production center processing the detail
+     * @param detail the number of the detail being processed
      */
-    private void simulateProcessing(ProductionCenter center, String detail) {
+    private void simulateProcessing(TaskExecutor taskExecutor, int center, int detail) {
         try {
-            double processingTime = center.getPerformance();
-            System.out.printf("Processing detail %s at center %s for %.2f seconds.%n", detail, center.getName(), processingTime);
-            Thread.sleep((long) (processingTime * 10));
-            System.out.printf("Detail %s processed at center %s.%n", detail, center.getName());
+            ProductionCenter productionCenter = state.graph().center(center);
+            double processingTime = productionCenter.getPerformance();
+            if (metrics != null) {
+                metrics.detailStarted(center, detail, currentTime, processingTime);
+            }
+            if (LOGGER.isTraceEnabled()) {
+                LOGGER.printf(Level.TRACE, "Processing detail Detail-%d at center %s for %.2f seconds.",
+                        detail, productionCenter.getName(), processingTime);
+            }
+            taskExecutor.pause((long) (processingTime * 10));
+            busyWorkerTime.add(processingTime);
+            processedDetails.increment();
+            if (metrics != null) {
+                metrics.detailProcessed(center);
+            }
+            if (LOGGER.isTraceEnabled()) {
+                LOGGER.trace("Detail Detail-{} processed at center {}.", detail, productionCenter.getName());
+            }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
@@ -159,52 +396,119 @@ public class SimulationRunner {
     /**
      * Moves a processed detail to the buffer of the next production center based on selected connections.
      *
-     * @param center the current production center
-     * @param detail the processed detail
+     * @param center the dense index of the current production center
+     * @param detail the number of the processed detail
      */
-    private void moveDetailToNextBuffer(ProductionCenter center, String detail) {
-        List<Connection> outgoingConnections = getOutgoingConnectionsForCenter(center, scenarioData.connections());
-
-        if (outgoingConnections.isEmpty())
+    private void moveDetailToNextBuffer(int center, int detail) {
+        if (state.graph().outDegree(center) == 0) {
+            departedDetails.increment();
             return;
+        }
 
-        Set<String> visitedCenters = new HashSet<>();
-        visitedCenters.add(center.getId());
+        int destination = AlgorithmUtils.selectNextCenter(center, routingPolicy, routingSnapshot);
+        if (metrics != null) {
+            metrics.detailQueued(destination, detail, currentTime);
+        }
+        state.offer(destination, detail);
+    }
 
-        Connection selectedConnection = AlgorithmUtils.selectNextConnection(
-                center,
-                outgoingConnections,
-                centerBuffers,
-                centerWorkers,
-                visitedCenters,
-                scenarioData
-        );
+    /**
+     * Moves a processed batch to the buffers of the next production centers: the batch is split across
+     * the outgoing connections once and every share is appended to its buffer in one operation.
+     *
+     * @param center the dense index of the current production center
+     * @param batch the numbers of the processed details
+     * @param count the number of details in the batch
+     */
+    private void moveBatchToNextBuffers(int center, int[] batch, int count) {
+        ProductionGraph graph = state.graph();
+        int outDegree = graph.outDegree(center);
+        if (outDegree == 0) {
+            departedDetails.add(count);
+            return;
+        }
 
-        centerBuffers.get(selectedConnection.toCenter().getId()).offer(detail);
+        int[] shares = new int[outDegree];
+        AlgorithmUtils.splitAcrossDestinations(center, count, routingPolicy, routingSnapshot, shares);
+        int offset = 0;
+        for (int k = 0; k < outDegree; k++) {
+            if (shares[k] == 0) {
+                continue;
+            }
+            int destination = graph.outTarget(center, k);
+            if (metrics != null) {
+                for (int i = offset; i < offset + shares[k]; i++) {
+                    metrics.detailQueued(destination, batch[i], currentTime);
+                }
+            }
+            state.offerAll(destination, batch, offset, shares[k]);
+            offset += shares[k];
+        }
+    }
+
+    private void reportSteadyState() {
+        if (steadyStateDetector == null) {
+            return;
+        }
+        SteadyStateEstimate estimate = steadyStateDetector.estimate();
+        LOGGER.printf(Level.INFO,
+                "%s after warm-up ending at %.1f: throughput %.4f +/- %.4f, buffered details %.2f +/- %.2f",
+                estimate.converged() ? "Steady state reached" : "Steady state not reached",
+                estimate.warmUpEnd(), estimate.throughput().mean(), estimate.throughput().halfWidth(),
+                estimate.bufferedDetails().mean(), estimate.bufferedDetails().halfWidth());
     }
 
     /**
-     * Records the current simulation state into the results list.
+     * Pushes the current simulation state into the result sink, one row per center in the order of the graph.
      */
     public void recordResults() {
-        for (ProductionCenter center : scenarioData.centers()) {
-            resultList.add(
+        ProductionGraph graph = state.graph();
+        for (int center = 0; center < graph.size(); center++) {
+            resultSink.accept(
                     new SimulationResult(
                             currentTime,
-                            center.getName(),
-                            centerWorkers.get(center.getId()),
-                            centerBuffers.get(center.getId()).size()
+                            graph.center(center).getName(),
+                            state.workers(center),
+                            state.bufferSize(center)
                     )
             );
         }
     }
 
     /**
-     * Retrieves the list of simulation results.
+     * Returns the totals of the run. In the real-time mode the simulated time counts the steps.
+     *
+     * @return the totals of the completed run, or of the run so far
+     */
+    public RunStatistics getRunStatistics() {
+        return new RunStatistics(currentTime, processedDetails.sum(), busyWorkerTime.sum());
+    }
+
+    /**
+     * @return the steady-state estimates of the run, or {@code null} if the run was not created with
+     *         {@link SimulationSettings#convergence()}
+     */
+    public SteadyStateEstimate getSteadyStateEstimate() {
+        return steadyStateDetector == null ? null : steadyStateDetector.estimate();
+    }
+
+    /**
+     * @return the metrics registry of the run, or {@code null} if the runner records no metrics
+     */
+    public SimulationMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Retrieves the list of simulation results kept in memory.
      *
      * @return the list of results
+     * @throws IllegalStateException if the runner streams its results into another {@link ResultSink}
      */
     public List<SimulationResult> getResults() {
-        return resultList;
+        if (!(resultSink instanceof InMemoryResultSink inMemoryResultSink)) {
+            throw new IllegalStateException("The results are streamed to " + resultSink.getClass().getSimpleName());
+        }
+        return inMemoryResultSink.getResults();
     }
 }
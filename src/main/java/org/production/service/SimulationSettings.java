@@ -0,0 +1,78 @@
+package org.production.service;
+
+import java.time.Duration;
+
+/**
+ * Settings of a {@link SimulationRunner}.
+ *
+ * @param mode              how the simulation advances in time
+ * @param executionStrategy which threads run the tasks of the real-time mode
+ * @param convergence       if not {@code null}, the run stops as soon as it reaches its steady state
+ * @param progressInterval  the wall-clock time between two logged progress summaries, or {@code null} to log none
+ * @param transferMode      how the real-time mode moves processed details to the next buffers
+ * @param bufferType        the implementation of the center buffers
+ * @param routingPolicy     how processed details choose the next center
+ * @param checkpoint        if not {@code null}, the discrete-event mode periodically saves its state to a file
+ * @param regions           the maximum number of regions, each processed on its own thread,
+ *                          of the parallel discrete-event mode
+ */
+public record SimulationSettings(SimulationMode mode, ExecutionStrategy executionStrategy,
+                                 ConvergenceSettings convergence, Duration progressInterval,
+                                 TransferMode transferMode, BufferType bufferType,
+                                 RoutingPolicyType routingPolicy, CheckpointSettings checkpoint,
+                                 int regions) {
+
+    /**
+     * @return the settings used when nothing else is specified
+     */
+    public static SimulationSettings defaults() {
+        return new SimulationSettings(SimulationMode.REAL_TIME, ExecutionStrategy.FORK_JOIN, null,
+                Duration.ofSeconds(1), TransferMode.PER_DETAIL, BufferType.SYNCHRONIZED, RoutingPolicyType.WEIGHTED,
+                null, Runtime.getRuntime().availableProcessors());
+    }
+
+    public SimulationSettings withMode(SimulationMode mode) {
+        return new SimulationSettings(mode, executionStrategy, convergence, progressInterval, transferMode,
+                bufferType, routingPolicy, checkpoint, regions);
+    }
+
+    public SimulationSettings withExecutionStrategy(ExecutionStrategy executionStrategy) {
+        return new SimulationSettings(mode, executionStrategy, convergence, progressInterval, transferMode,
+                bufferType, routingPolicy, checkpoint, regions);
+    }
+
+    public SimulationSettings withConvergence(ConvergenceSettings convergence) {
+        return new SimulationSettings(mode, executionStrategy, convergence, progressInterval, transferMode,
+                bufferType, routingPolicy, checkpoint, regions);
+    }
+
+    public SimulationSettings withProgressInterval(Duration progressInterval) {
+        return new SimulationSettings(mode, executionStrategy, convergence, progressInterval, transferMode,
+                bufferType, routingPolicy, checkpoint, regions);
+    }
+
+    public SimulationSettings withTransferMode(TransferMode transferMode) {
+        return new SimulationSettings(mode, executionStrategy, convergence, progressInterval, transferMode,
+                bufferType, routingPolicy, checkpoint, regions);
+    }
+
+    public SimulationSettings withBufferType(BufferType bufferType) {
+        return new SimulationSettings(mode, executionStrategy, convergence, progressInterval, transferMode,
+                bufferType, routingPolicy, checkpoint, regions);
+    }
+
+    public SimulationSettings withRoutingPolicy(RoutingPolicyType routingPolicy) {
+        return new SimulationSettings(mode, executionStrategy, convergence, progressInterval, transferMode,
+                bufferType, routingPolicy, checkpoint, regions);
+    }
+
+    public SimulationSettings withCheckpoint(CheckpointSettings checkpoint) {
+        return new SimulationSettings(mode, executionStrategy, convergence, progressInterval, transferMode,
+                bufferType, routingPolicy, checkpoint, regions);
+    }
+
+    public SimulationSettings withRegions(int regions) {
+        return new SimulationSettings(mode, executionStrategy, convergence, progressInterval, transferMode,
+                bufferType, routingPolicy, checkpoint, regions);
+    }
+}
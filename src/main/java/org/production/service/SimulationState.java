@@ -0,0 +1,304 @@
+package org.production.service;
+
+import org.production.models.ProductionGraph;
+import org.production.models.ScenarioData;
+
+import java.util.Arrays;
+
+/**
+ * Compact mutable state of a running simulation.
+ * Worker counts and detail buffers are kept in arrays indexed by the dense center index of the
+ * {@link ProductionGraph}, and details are identified by their {@code int} number, so the state of a run
+ * does not depend on string keys, boxed counters or per-detail objects.
+ * Buffer changes are reported to a {@link CenterPriorityIndex}, and the centers with assigned workers
+ * are tracked, so a redistribution only touches the centers that changed or hold workers.
+ */
+public final class SimulationState {
+    private final ProductionGraph graph;
+    private final int[] workers;
+    private final DetailBuffer[] buffers;
+    private final CenterPriorityIndex priorityIndex;
+    private final int[] staffedCenters;
+    private final int[] staffedPosition;
+    private int staffedCount;
+    private int totalWorkers;
+    private boolean demandAssigned;
+
+    /**
+     * Creates a state with no workers assigned and all buffers empty, using {@link BufferType#SYNCHRONIZED} buffers.
+     *
+     * @param graph the index of the production graph
+     */
+    public SimulationState(ProductionGraph graph) {
+        this(graph, BufferType.SYNCHRONIZED, 0);
+    }
+
+    /**
+     * Creates a state with no workers assigned and all buffers empty.
+     *
+     * @param graph        the index of the production graph
+     * @param bufferType   the implementation of the center buffers
+     * @param detailsCount the number of details of the run, used to size bounded buffers
+     */
+    public SimulationState(ProductionGraph graph, BufferType bufferType, int detailsCount) {
+        this.graph = graph;
+        this.workers = new int[graph.size()];
+        this.buffers = new DetailBuffer[graph.size()];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = bufferType.create(detailsCount);
+        }
+        this.priorityIndex = new CenterPriorityIndex(graph);
+        this.staffedCenters = new int[graph.size()];
+        this.staffedPosition = new int[graph.size()];
+    }
+
+    /**
+     * Creates the state at the beginning of a run: all details, numbered from 1, wait in the start center.
+     *
+     * @param scenarioData the scenario to simulate
+     * @return the initial state
+     * @throws IllegalArgumentException if the start center is not part of the scenario
+     */
+    public static SimulationState initial(ScenarioData scenarioData) {
+        return initial(scenarioData, BufferType.SYNCHRONIZED);
+    }
+
+    /**
+     * Creates the state at the beginning of a run: all details, numbered from 1, wait in the start center.
+     *
+     * @param scenarioData the scenario to simulate
+     * @param bufferType   the implementation of the center buffers
+     * @return the initial state
+     * @throws IllegalArgumentException if the start center is not part of the scenario
+     */
+    public static SimulationState initial(ScenarioData scenarioData, BufferType bufferType) {
+        SimulationState state = new SimulationState(scenarioData.graph(), bufferType, scenarioData.detailsCount());
+        state.reset(scenarioData);
+        return state;
+    }
+
+    /**
+     * Returns the state to the beginning of a run, reusing the allocated buffers.
+     *
+     * @param scenarioData the scenario to simulate, it must use the graph of this state
+     * @throws IllegalArgumentException if the start center is not part of the scenario
+     */
+    public void reset(ScenarioData scenarioData) {
+        int startIndex = graph.indexOf(scenarioData.startCenterId());
+        if (startIndex < 0) {
+            throw new IllegalArgumentException("Start center not found: " + scenarioData.startCenterId());
+        }
+
+        for (int i = 0; i < buffers.length; i++) {
+            workers[i] = 0;
+            buffers[i].clear();
+        }
+        staffedCount = 0;
+        totalWorkers = 0;
+        demandAssigned = false;
+        for (int detail = 1; detail <= scenarioData.detailsCount(); detail++) {
+            buffers[startIndex].offer(detail);
+        }
+        priorityIndex.markAllChanged();
+    }
+
+    /**
+     * Replaces the workers and the buffer contents, e.g. with those of a checkpoint.
+     *
+     * @param workers the workers of every center
+     * @param buffers the details waiting at every center, in polling order
+     */
+    void restore(int[] workers, int[][] buffers) {
+        for (int i = 0; i < this.buffers.length; i++) {
+            this.buffers[i].clear();
+            setWorkers(i, workers[i]);
+            this.buffers[i].offerAll(buffers[i], 0, buffers[i].length);
+        }
+        priorityIndex.markAllChanged();
+    }
+
+    public ProductionGraph graph() {
+        return graph;
+    }
+
+    /**
+     * @return the number of production centers
+     */
+    public int size() {
+        return workers.length;
+    }
+
+    /**
+     * @param center the dense index of a center
+     * @return the number of workers assigned to the center
+     */
+    public int workers(int center) {
+        return workers[center];
+    }
+
+    /**
+     * @param center  the dense index of a center
+     * @param workers the number of workers assigned to the center
+     */
+    public void setWorkers(int center, int workers) {
+        demandAssigned = false;
+        assignWorkers(center, workers);
+    }
+
+    /**
+     * Sets the workers of a center without invalidating {@link #isDemandAssigned()}.
+     */
+    void assignWorkers(int center, int workers) {
+        int previous = this.workers[center];
+        this.workers[center] = workers;
+        totalWorkers += workers - previous;
+
+        if (previous == 0 && workers != 0) {
+            staffedPosition[center] = staffedCount;
+            staffedCenters[staffedCount++] = center;
+        } else if (previous != 0 && workers == 0) {
+            int last = staffedCenters[--staffedCount];
+            staffedCenters[staffedPosition[center]] = last;
+            staffedPosition[last] = staffedPosition[center];
+        }
+    }
+
+    /**
+     * @return the number of workers assigned to all centers
+     */
+    public int totalWorkers() {
+        return totalWorkers;
+    }
+
+    /**
+     * @return the indexes of the centers with at least one assigned worker, in no particular order
+     */
+    public int[] staffedCenters() {
+        return Arrays.copyOf(staffedCenters, staffedCount);
+    }
+
+    /**
+     * Appends a detail to the buffer of the center.
+     *
+     * @param center the dense index of a center
+     * @param detail the number of the detail
+     */
+    public void offer(int center, int detail) {
+        buffers[center].offer(detail);
+        priorityIndex.markChanged(center);
+    }
+
+    /**
+     * Removes the next detail from the buffer of the center.
+     *
+     * @param center the dense index of a center
+     * @return the number of the detail, or {@link DetailBuffer#EMPTY} if the buffer is empty
+     */
+    public int poll(int center) {
+        int detail = buffers[center].poll();
+        if (detail != DetailBuffer.EMPTY) {
+            priorityIndex.markChanged(center);
+        }
+        return detail;
+    }
+
+    /**
+     * Removes up to {@code maxDetails} details from the buffer of the center in one operation.
+     *
+     * @param center     the dense index of a center
+     * @param target     the array receiving the numbers of the details from index {@code 0}
+     * @param maxDetails the maximum number of details to remove, at most {@code target.length}
+     * @return the number of details removed
+     */
+    public int drain(int center, int[] target, int maxDetails) {
+        int count = buffers[center].drainTo(target, maxDetails);
+        if (count > 0) {
+            priorityIndex.markChanged(center);
+        }
+        return count;
+    }
+
+    /**
+     * Appends details to the buffer of the center in one operation.
+     *
+     * @param center  the dense index of a center
+     * @param details the array holding the numbers of the details
+     * @param offset  the index of the first detail to append
+     * @param count   the number of details to append
+     */
+    public void offerAll(int center, int[] details, int offset, int count) {
+        if (count == 0) {
+            return;
+        }
+        buffers[center].offerAll(details, offset, count);
+        priorityIndex.markChanged(center);
+    }
+
+    /**
+     * Removes all details from the buffer of the center.
+     *
+     * @param center the dense index of a center
+     */
+    public void clearBuffer(int center) {
+        buffers[center].clear();
+        priorityIndex.markChanged(center);
+    }
+
+    CenterPriorityIndex priorityIndex() {
+        return priorityIndex;
+    }
+
+    /**
+     * @return true if, as of the last refresh of the priority index, every center holds exactly
+     *         the workers it can use; any {@link #setWorkers} call clears the flag
+     */
+    boolean isDemandAssigned() {
+        return demandAssigned;
+    }
+
+    void setDemandAssigned(boolean demandAssigned) {
+        this.demandAssigned = demandAssigned;
+    }
+
+    /**
+     * @param center the dense index of a center
+     * @return the number of details waiting at the center
+     */
+    public int bufferSize(int center) {
+        return buffers[center].size();
+    }
+
+    /**
+     * Copies the details waiting at the center without removing them.
+     * It must not run while other threads offer or poll details.
+     *
+     * @param center the dense index of a center
+     * @return the numbers of the details, in polling order
+     */
+    int[] bufferContents(int center) {
+        DetailBuffer buffer = buffers[center];
+        int[] details = new int[buffer.size()];
+        int count = buffer.drainTo(details, details.length);
+        buffer.offerAll(details, 0, count);
+        return count == details.length ? details : Arrays.copyOf(details, count);
+    }
+
+    /**
+     * @return true if no details wait in any buffer
+     */
+    public boolean allBuffersEmpty() {
+        for (DetailBuffer buffer : buffers) {
+            if (!buffer.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if no workers are assigned to any center
+     */
+    public boolean noWorkersAssigned() {
+        return staffedCount == 0;
+    }
+}
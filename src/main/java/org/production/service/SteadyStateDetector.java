@@ -0,0 +1,214 @@
+package org.production.service;
+
+import org.production.models.ProductionGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Detects the end of the warm-up period and the steady state of a run from its ticks.
+ * <p>
+ * Every tick contributes the number of details that left the plant since the previous tick and the number of
+ * details waiting in all buffers. The ticks are averaged into batches of {@link ConvergenceSettings#batchSize()},
+ * and the warm-up is truncated with the MSER rule: the truncation point minimizes the squared error of the mean
+ * of the remaining batches divided by their squared count, and the warm-up is over once that point lies in the
+ * first half of the series. The rest of the series is split into {@link ConvergenceSettings#batches()} batch means;
+ * the run has converged when details leave the plant and the 95% confidence intervals of both the throughput
+ * and the buffered details are narrower than the requested precision.
+ * <p>
+ * Per-center buffer sums are kept as a running total, with a copy every check interval, so the per-center means
+ * after the warm-up are measured from the first copy after the truncation point. At most {@value #MAX_SNAPSHOTS}
+ * copies are kept: once they are used up, every other copy is dropped and the interval between copies doubles,
+ * so a long run keeps a bounded number of them at the cost of measuring from a copy a little after the truncation.
+ */
+public class SteadyStateDetector {
+    private static final int MAX_SNAPSHOTS = 32;
+
+    private final ProductionGraph graph;
+    private final ConvergenceSettings settings;
+    private int snapshotEvery;
+    private final double[] cumulativeBuffers;
+    private final List<double[]> snapshots = new ArrayList<>();
+    private double[] throughputBatches = new double[64];
+    private double[] bufferBatches = new double[64];
+    private int batchCount;
+    private double throughputSum;
+    private double bufferSum;
+    private int ticksInBatch;
+    private long ticks;
+    private long lastDeparted;
+    private double firstTime = Double.NaN;
+    private double lastTime;
+    private boolean converged;
+
+    public SteadyStateDetector(ProductionGraph graph, ConvergenceSettings settings) {
+        this.graph = graph;
+        this.settings = settings;
+        this.snapshotEvery = Math.max(1, settings.checkInterval() / settings.batchSize());
+        this.cumulativeBuffers = new double[graph.size()];
+        snapshots.add(cumulativeBuffers.clone());
+    }
+
+    /**
+     * Observes the next tick.
+     *
+     * @param time     the simulated time of the tick
+     * @param departed the number of details that left the plant since the beginning of the run
+     * @param state    the state of the run at the tick
+     * @return true if the run has converged
+     */
+    public boolean observe(double time, long departed, SimulationState state) {
+        if (Double.isNaN(firstTime)) {
+            firstTime = time;
+        }
+        lastTime = time;
+        ticks++;
+
+        long bufferedDetails = 0;
+        for (int center = 0; center < cumulativeBuffers.length; center++) {
+            int bufferSize = state.bufferSize(center);
+            cumulativeBuffers[center] += bufferSize;
+            bufferedDetails += bufferSize;
+        }
+        throughputSum += departed - lastDeparted;
+        lastDeparted = departed;
+        bufferSum += bufferedDetails;
+
+        if (++ticksInBatch == settings.batchSize()) {
+            appendBatch(throughputSum / ticksInBatch, bufferSum / ticksInBatch);
+            throughputSum = 0;
+            bufferSum = 0;
+            ticksInBatch = 0;
+            if (batchCount % snapshotEvery == 0) {
+                addSnapshot();
+            }
+        }
+
+        if (!converged && ticks % settings.checkInterval() == 0) {
+            converged = check();
+        }
+        return converged;
+    }
+
+    public boolean isConverged() {
+        return converged;
+    }
+
+    /**
+     * @return the estimates from the ticks observed so far, truncated at the detected warm-up end
+     */
+    public SteadyStateEstimate estimate() {
+        int warmUpBatches = batchCount < 2 ? 0 : Math.max(mser(throughputBatches), mser(bufferBatches));
+        int groupSize = Math.max(1, (batchCount - warmUpBatches) / settings.batches());
+        int first = batchCount - groupSize * ((batchCount - warmUpBatches) / groupSize);
+        RunningStatistics throughput = batchMeans(throughputBatches, first, groupSize);
+        RunningStatistics buffered = batchMeans(bufferBatches, first, groupSize);
+
+        int snapshot = Math.min(snapshots.size() - 1, (first + snapshotEvery - 1) / snapshotEvery);
+        long ticksSinceSnapshot = ticks - (long) snapshot * snapshotEvery * settings.batchSize();
+        double[] base = snapshots.get(snapshot);
+        List<String> centerNames = new ArrayList<>(graph.size());
+        List<Double> centerMeanBuffers = new ArrayList<>(graph.size());
+        for (int center = 0; center < graph.size(); center++) {
+            centerNames.add(graph.center(center).getName());
+            centerMeanBuffers.add(ticksSinceSnapshot == 0 ? 0.0
+                    : (cumulativeBuffers[center] - base[center]) / ticksSinceSnapshot);
+        }
+
+        double warmUpEnd = Double.isNaN(firstTime) ? 0.0 : firstTime + (double) first * settings.batchSize();
+        return new SteadyStateEstimate(converged, warmUpEnd, lastTime, throughput.estimate(), buffered.estimate(),
+                centerNames, centerMeanBuffers);
+    }
+
+    private boolean check() {
+        if (batchCount < 2 * settings.batches()) {
+            return false;
+        }
+        int warmUpBatches = Math.max(mser(throughputBatches), mser(bufferBatches));
+        if (warmUpBatches > batchCount / 2) {
+            return false;
+        }
+        int groupSize = (batchCount - warmUpBatches) / settings.batches();
+        if (groupSize < 1) {
+            return false;
+        }
+        int first = batchCount - groupSize * settings.batches();
+        // A plant that has not delivered a detail yet is still warming up, however stable it looks.
+        Estimate throughput = batchMeans(throughputBatches, first, groupSize).estimate();
+        return throughput.mean() > 0 && isPrecise(throughput)
+                && isPrecise(batchMeans(bufferBatches, first, groupSize).estimate());
+    }
+
+    private boolean isPrecise(Estimate estimate) {
+        return estimate.halfWidth() <= settings.relativePrecision() * Math.abs(estimate.mean());
+    }
+
+    /**
+     * @return the number of leading batches to drop, keeping at least {@link ConvergenceSettings#batches()} batches
+     */
+    private int mser(double[] series) {
+        double sum = 0;
+        double squares = 0;
+        for (int i = 0; i < batchCount; i++) {
+            sum += series[i];
+            squares += series[i] * series[i];
+        }
+
+        int best = 0;
+        double bestStatistic = Double.MAX_VALUE;
+        int last = Math.max(0, batchCount - settings.batches());
+        for (int d = 0; d <= last; d++) {
+            int remaining = batchCount - d;
+            double mean = sum / remaining;
+            double squaredError = Math.max(0.0, squares - remaining * mean * mean);
+            double statistic = squaredError / ((double) remaining * remaining);
+            if (statistic < bestStatistic) {
+                bestStatistic = statistic;
+                best = d;
+            }
+            sum -= series[d];
+            squares -= series[d] * series[d];
+        }
+        return best;
+    }
+
+    private RunningStatistics batchMeans(double[] series, int first, int groupSize) {
+        RunningStatistics statistics = new RunningStatistics();
+        for (int start = first; start + groupSize <= batchCount; start += groupSize) {
+            double sum = 0;
+            for (int i = start; i < start + groupSize; i++) {
+                sum += series[i];
+            }
+            statistics.add(sum / groupSize);
+        }
+        return statistics;
+    }
+
+    /**
+     * Copies the running totals; the copy at index i is taken after i * snapshotEvery batches.
+     */
+    private void addSnapshot() {
+        if (snapshots.size() == MAX_SNAPSHOTS) {
+            // Keeps the copies at even indexes, which lie on the doubled interval.
+            for (int i = 1; i < snapshots.size(); i++) {
+                snapshots.remove(i);
+            }
+            snapshotEvery *= 2;
+            if (batchCount % snapshotEvery != 0) {
+                return;
+            }
+        }
+        snapshots.add(cumulativeBuffers.clone());
+    }
+
+    private void appendBatch(double throughput, double buffered) {
+        if (batchCount == throughputBatches.length) {
+            throughputBatches = Arrays.copyOf(throughputBatches, batchCount * 2);
+            bufferBatches = Arrays.copyOf(bufferBatches, batchCount * 2);
+        }
+        throughputBatches[batchCount] = throughput;
+        bufferBatches[batchCount] = buffered;
+        batchCount++;
+    }
+}
@@ -0,0 +1,23 @@
+package org.production.service;
+
+import java.util.List;
+
+/**
+ * Steady-state estimates of a run observed by a {@link SteadyStateDetector}.
+ *
+ * @param converged         true if the confidence intervals reached the requested precision
+ * @param warmUpEnd         the simulated time at which the warm-up period was found to end
+ * @param observedTime      the simulated time of the last observed tick
+ * @param throughput        the details leaving the plant per unit of simulated time after the warm-up
+ * @param bufferedDetails   the number of details waiting in all buffers after the warm-up
+ * @param centerNames       the names of the centers, in the order of the graph
+ * @param centerMeanBuffers the mean buffer size of every center after the warm-up, in the order of {@code centerNames}
+ */
+public record SteadyStateEstimate(boolean converged, double warmUpEnd, double observedTime, Estimate throughput,
+                                  Estimate bufferedDetails, List<String> centerNames, List<Double> centerMeanBuffers) {
+
+    public SteadyStateEstimate {
+        centerNames = List.copyOf(centerNames);
+        centerMeanBuffers = List.copyOf(centerMeanBuffers);
+    }
+}
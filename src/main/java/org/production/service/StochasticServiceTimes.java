@@ -0,0 +1,54 @@
+package org.production.service;
+
+import org.production.models.ProductionCenter;
+import org.production.models.ProductionGraph;
+import org.production.models.ServiceTimeDistribution;
+
+import java.util.SplittableRandom;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Draws the processing time of every detail from the distribution of its center.
+ * The distribution parameters are copied into arrays once, and the generator is replaced between replications,
+ * so drawing a time does not allocate.
+ */
+final class StochasticServiceTimes implements IntToDoubleFunction {
+    private final ServiceTimeDistribution[] distributions;
+    private final double[] means;
+    private final double[] variations;
+    private SplittableRandom random;
+
+    /**
+     * @param graph               the index of the production graph
+     * @param defaultDistribution the distribution of the centers whose own distribution is deterministic
+     * @param defaultVariation    the coefficient of variation used with the default distribution
+     */
+    StochasticServiceTimes(ProductionGraph graph, ServiceTimeDistribution defaultDistribution, double defaultVariation) {
+        distributions = new ServiceTimeDistribution[graph.size()];
+        means = new double[graph.size()];
+        variations = new double[graph.size()];
+        for (int center = 0; center < graph.size(); center++) {
+            ProductionCenter productionCenter = graph.center(center);
+            means[center] = productionCenter.getPerformance();
+            if (productionCenter.getServiceTimeDistribution() == ServiceTimeDistribution.DETERMINISTIC) {
+                distributions[center] = defaultDistribution;
+                variations[center] = defaultVariation;
+            } else {
+                distributions[center] = productionCenter.getServiceTimeDistribution();
+                variations[center] = productionCenter.getServiceTimeVariation();
+            }
+        }
+    }
+
+    /**
+     * @param random the generator of the next replication
+     */
+    void setRandom(SplittableRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public double applyAsDouble(int center) {
+        return Math.max(0.0, distributions[center].sample(random, means[center], variations[center]));
+    }
+}
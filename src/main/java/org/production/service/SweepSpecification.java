@@ -0,0 +1,91 @@
+package org.production.service;
+
+import org.production.models.ScenarioData;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Values of the scenario counts to run in a parameter sweep; every combination of the values is one variant.
+ * An empty list keeps the value of the base scenario.
+ *
+ * @param workersCounts the numbers of workers to try
+ * @param detailsCounts the numbers of details to try
+ */
+public record SweepSpecification(List<Integer> workersCounts, List<Integer> detailsCounts) {
+
+    public SweepSpecification {
+        workersCounts = List.copyOf(workersCounts);
+        detailsCounts = List.copyOf(detailsCounts);
+    }
+
+    /**
+     * A variant of the swept scenario.
+     *
+     * @param workersCount the number of workers
+     * @param detailsCount the number of details
+     */
+    public record Variant(int workersCount, int detailsCount) {
+    }
+
+    /**
+     * Lists the variants, varying the number of details fastest.
+     *
+     * @param scenarioData the base scenario, providing the counts that are not swept
+     * @return the variants in the order they are reported
+     */
+    public List<Variant> variants(ScenarioData scenarioData) {
+        List<Integer> workers = workersCounts.isEmpty() ? List.of(scenarioData.workersCount()) : workersCounts;
+        List<Integer> details = detailsCounts.isEmpty() ? List.of(scenarioData.detailsCount()) : detailsCounts;
+
+        List<Variant> variants = new ArrayList<>(workers.size() * details.size());
+        for (int workersCount : workers) {
+            for (int detailsCount : details) {
+                variants.add(new Variant(workersCount, detailsCount));
+            }
+        }
+        return variants;
+    }
+
+    /**
+     * Parses the values of one swept count: a comma separated list of values and ranges,
+     * e.g. {@code 5,10,20} or {@code 10..100:10} (from 10 to 100 with step 10; the step defaults to 1).
+     *
+     * @param specification the values
+     * @return the values in the given order
+     * @throws IllegalArgumentException if a value is malformed or negative, or a range is empty
+     */
+    public static List<Integer> parseValues(String specification) {
+        List<Integer> values = new ArrayList<>();
+        for (String part : specification.split(",")) {
+            String item = part.trim();
+            int range = item.indexOf("..");
+            try {
+                if (range < 0) {
+                    values.add(requireNotNegative(Integer.parseInt(item)));
+                    continue;
+                }
+                int stepSeparator = item.indexOf(':', range);
+                int from = Integer.parseInt(item.substring(0, range).trim());
+                int to = Integer.parseInt(item.substring(range + 2, stepSeparator < 0 ? item.length() : stepSeparator).trim());
+                int step = stepSeparator < 0 ? 1 : Integer.parseInt(item.substring(stepSeparator + 1).trim());
+                if (step <= 0 || to < from) {
+                    throw new IllegalArgumentException("Empty sweep range: " + item);
+                }
+                for (long value = from; value <= to; value += step) {
+                    values.add(requireNotNegative((int) value));
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Malformed sweep value: " + item);
+            }
+        }
+        return values;
+    }
+
+    private static int requireNotNegative(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Sweep values must not be negative: " + value);
+        }
+        return value;
+    }
+}
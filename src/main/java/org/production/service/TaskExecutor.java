@@ -0,0 +1,29 @@
+package org.production.service;
+
+import java.util.List;
+
+/**
+ * Runs the center and detail tasks of the real-time simulation mode.
+ * Implementations must allow a task to wait for nested tasks without exhausting the executor.
+ */
+interface TaskExecutor extends AutoCloseable {
+
+    /**
+     * Runs the tasks and waits until all of them are finished.
+     *
+     * @param tasks the tasks to run
+     * @throws RuntimeException the failure of the first failed task
+     */
+    void invokeAll(List<Runnable> tasks);
+
+    /**
+     * Blocks the calling task for the processing time of a detail.
+     *
+     * @param millis the time to wait in milliseconds
+     * @throws InterruptedException if the waiting thread is interrupted
+     */
+    void pause(long millis) throws InterruptedException;
+
+    @Override
+    void close();
+}
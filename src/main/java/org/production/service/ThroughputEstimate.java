@@ -0,0 +1,35 @@
+package org.production.service;
+
+import java.util.List;
+
+/**
+ * Analytical estimates of a scenario computed by {@link QueueingNetworkEstimator}.
+ *
+ * @param throughput         the details leaving the plant per unit of simulated time
+ * @param makespan           the simulated time until all details have left the plant
+ * @param detailTime         the time one detail alone needs to pass the plant, without waiting
+ * @param busyWorkers        the mean number of busy workers at the estimated throughput
+ * @param bottleneck         the name of the center limiting the throughput, or {@code null} if the plant-wide
+ *                           number of workers limits it
+ * @param centerNames        the names of the centers, in the order of the graph
+ * @param centerVisits       the mean number of visits of a detail to every center, in the order of {@code centerNames}
+ * @param centerUtilizations the share of the {@code maxWorkers} capacity of every center that is busy,
+ *                           in the order of {@code centerNames}
+ */
+public record ThroughputEstimate(double throughput, double makespan, double detailTime, double busyWorkers,
+                                 String bottleneck, List<String> centerNames, List<Double> centerVisits,
+                                 List<Double> centerUtilizations) {
+
+    public ThroughputEstimate {
+        centerNames = List.copyOf(centerNames);
+        centerVisits = List.copyOf(centerVisits);
+        centerUtilizations = List.copyOf(centerUtilizations);
+    }
+
+    /**
+     * @return true if the plant-wide number of workers, not a single center, limits the throughput
+     */
+    public boolean workforceBound() {
+        return bottleneck == null;
+    }
+}
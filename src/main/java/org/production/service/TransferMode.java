@@ -0,0 +1,44 @@
+package org.production.service;
+
+/**
+ * Defines how the {@link SimulationMode#REAL_TIME} mode moves the details of a center to the next buffers.
+ */
+public enum TransferMode {
+
+    /**
+     * Every worker polls its detail and routes it on its own once it is processed.
+     */
+    PER_DETAIL("per-detail"),
+
+    /**
+     * The center drains the details of all its workers at once, processes them, splits the batch across
+     * the destinations by weight once and appends every share to its buffer in one operation.
+     */
+    BATCHED("batched");
+
+    private final String optionName;
+
+    TransferMode(String optionName) {
+        this.optionName = optionName;
+    }
+
+    public String getOptionName() {
+        return optionName;
+    }
+
+    /**
+     * Resolves a transfer mode by its command line name.
+     *
+     * @param optionName the name of the mode, e.g. {@code batched}
+     * @return the matching mode
+     * @throws IllegalArgumentException if no mode has the given name
+     */
+    public static TransferMode fromOptionName(String optionName) {
+        for (TransferMode mode : values()) {
+            if (mode.optionName.equalsIgnoreCase(optionName.trim())) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown transfer mode: " + optionName);
+    }
+}
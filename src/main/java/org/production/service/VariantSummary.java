@@ -0,0 +1,15 @@
+package org.production.service;
+
+/**
+ * Outcome of one variant of a parameter sweep.
+ *
+ * @param workersCount     the number of workers of the variant
+ * @param detailsCount     the number of details of the variant
+ * @param makespan         the simulated time at which all details had left the plant
+ * @param utilization      the share of the available worker time spent processing details
+ * @param processedDetails the number of times a detail was processed at any center
+ * @param wallTimeMillis   the wall-clock duration of the run
+ */
+public record VariantSummary(int workersCount, int detailsCount, double makespan, double utilization,
+                             long processedDetails, long wallTimeMillis) {
+}
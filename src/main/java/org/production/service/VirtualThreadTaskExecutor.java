@@ -0,0 +1,48 @@
+package org.production.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs every task on its own virtual thread. A pausing or waiting task only parks its virtual thread,
+ * so tens of thousands of details can be in processing at the same time at the cost of a few kilobytes each.
+ */
+class VirtualThreadTaskExecutor implements TaskExecutor {
+    private final ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Override
+    public void invokeAll(List<Runnable> actions) {
+        List<Future<?>> tasks = new ArrayList<>(actions.size());
+        for (Runnable action : actions) {
+            tasks.add(executorService.submit(action));
+        }
+
+        for (Future<?> task : tasks) {
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for simulation tasks", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new RuntimeException(e.getCause());
+            }
+        }
+    }
+
+    @Override
+    public void pause(long millis) throws InterruptedException {
+        Thread.sleep(millis);
+    }
+
+    @Override
+    public void close() {
+        executorService.shutdown();
+    }
+}
@@ -0,0 +1,18 @@
+package org.production.service;
+
+import org.production.models.ProductionCenter;
+
+/**
+ * Prefers the destination with the least queued work per free worker slot:
+ * {@code performance * queued / (maxWorkers - workers + 1)}.
+ */
+final class WeightedRoutingPolicy extends ScoredRoutingPolicy {
+
+    @Override
+    double score(int center, int k, RoutingSnapshot snapshot) {
+        int destination = snapshot.graph().outTarget(center, k);
+        ProductionCenter destinationCenter = snapshot.graph().center(destination);
+        int freeSlots = Math.max(0, destinationCenter.getMaxWorkers() - snapshot.workers(destination));
+        return destinationCenter.getPerformance() * snapshot.queued(center, k) / (freeSlots + 1);
+    }
+}
@@ -0,0 +1,23 @@
+package org.production.service;
+
+/**
+ * Assigns workers to the centers on every tick of a {@link DiscreteEventEngine}, in place of the greedy
+ * redistribution by buffer load. Used by the {@link AllocationOptimizer} to evaluate fixed allocations.
+ */
+public interface WorkerAllocation {
+
+    /**
+     * Sets the workers of every center for the tick.
+     *
+     * @param state the state of the running simulation
+     * @param time  the simulated time of the tick
+     */
+    void assign(SimulationState state, double time);
+
+    /**
+     * @param time the simulated time of a tick
+     * @return true if a later tick may get other workers; a run whose details are all waiting at centers without
+     *         workers fails instead of waiting forever when this returns false
+     */
+    boolean changesAfter(double time);
+}
@@ -5,6 +5,10 @@ import org.production.models.Connection;
 import org.production.models.ProductionCenter;
 import org.production.models.ScenarioData;
 import org.production.service.AlgorithmUtils;
+import org.production.service.RoutingPolicy;
+import org.production.service.RoutingPolicyType;
+import org.production.service.RoutingSnapshot;
+import org.production.service.SimulationState;
 
 import java.util.*;
 import java.util.concurrent.BlockingQueue;
@@ -18,6 +22,7 @@ class AlgorithmUtilsTest {
     Map<String, BlockingQueue<String>> centerBuffers;
     Map<String, Integer> centerWorkers;
     ScenarioData scenarioData;
+    SimulationState state;
     private List<Connection> connections;
 
     @BeforeEach
@@ -58,6 +63,13 @@ class AlgorithmUtilsTest {
                 14,
                 "1",
                 "4");
+
+        state = new SimulationState(scenarioData.graph());
+        for (int center = 0; center < state.size(); center++) {
+            for (int detail = 1; detail <= 4; detail++) {
+                state.offer(center, detail);
+            }
+        }
     }
 
     @Test
@@ -103,27 +115,6 @@ class AlgorithmUtilsTest {
         }
     }
 
-    @Test
-    void testSelectNextConnection() {
-        Set<String> visitedCenters = new HashSet<>();
-
-        Connection selected = AlgorithmUtils.selectNextConnection(
-                productionCenters.get(0),
-                connections,
-                centerBuffers,
-                centerWorkers,
-                visitedCenters,
-                scenarioData
-        );
-
-        assertNotNull(selected, "A connection must be selected");
-
-        ProductionCenter toCenter = selected.toCenter();
-        assertTrue(centerBuffers.containsKey(toCenter.getId()),
-                "The destination must exist in the buffers");
-    }
-
-
     @Test
     void testAdjustExcessWorkers() {
         centerWorkers.put("1", 5);
@@ -176,4 +167,185 @@ class AlgorithmUtilsTest {
                     "The number of workers assigned must not exceed the maximum number for the center.");
         }
     }
+
+    @Test
+    void testRedistributeWorkersMoreOnState() {
+        AlgorithmUtils.redistributeWorkersMore(state, scenarioData.workersCount());
+
+        assertEquals(scenarioData.workersCount(), state.totalWorkers(),
+                "The total number of assigned workers cannot exceed the number of available workers.");
+
+        for (int center = 0; center < state.size(); center++) {
+            int maxWorkers = scenarioData.graph().center(center).getMaxWorkers();
+            assertTrue(state.workers(center) <= Math.min(state.bufferSize(center), maxWorkers),
+                    "Assigned workers should not exceed buffer size or max workers for the center.");
+        }
+        assertEquals(3, state.workers(3), "The most loaded center is served first");
+    }
+
+    @Test
+    void testRedistributeWorkersMoreFollowsBufferChanges() {
+        AlgorithmUtils.redistributeWorkersMore(state, 20);
+        assertEquals(9, state.totalWorkers(), "With enough workers every center gets min(buffer, max workers)");
+
+        state.poll(3);
+        state.poll(3);
+        state.clearBuffer(0);
+        AlgorithmUtils.redistributeWorkersMore(state, 20);
+
+        assertEquals(0, state.workers(0), "A drained center must release its workers");
+        assertEquals(2, state.workers(3), "Workers follow the remaining details of a changed center");
+        assertEquals(2, state.workers(1), "Unchanged centers keep their workers");
+        assertEquals(6, state.totalWorkers());
+    }
+
+    @Test
+    void testRedistributeWorkersLessOnState() {
+        state.clearBuffer(1);
+        state.setWorkers(1, 2);
+
+        AlgorithmUtils.redistributeWorkersLess(state, 3);
+
+        assertTrue(state.totalWorkers() <= 3,
+                "The total number of assigned workers cannot exceed the number of available workers.");
+        assertEquals(0, state.workers(1), "A center without details should not keep workers");
+        assertEquals(3, state.workers(3), "Free workers go to the most loaded center first");
+    }
+
+    @Test
+    void testSelectNextCenterPrefersLighterDestination() {
+        state.clearBuffer(1);
+        RoutingPolicy policy = RoutingPolicyType.WEIGHTED.create(scenarioData.graph());
+
+        int selected = AlgorithmUtils.selectNextCenter(0, policy, RoutingSnapshot.of(state));
+
+        assertEquals(1, selected, "The destination with the empty buffer has the minimum weight");
+        assertTrue(state.noWorkersAssigned(), "Routing must not redistribute workers");
+    }
+
+    @Test
+    void testSplitAcrossDestinationsMatchesSuccessiveSelections() {
+        state.clearBuffer(1);
+        RoutingPolicy policy = RoutingPolicyType.WEIGHTED.create(scenarioData.graph());
+        int[] shares = new int[2];
+
+        AlgorithmUtils.splitAcrossDestinations(0, 9, policy, RoutingSnapshot.of(state), shares);
+
+        int[] expected = new int[2];
+        RoutingSnapshot snapshot = RoutingSnapshot.of(state);
+        for (int detail = 0; detail < 9; detail++) {
+            int destination = AlgorithmUtils.selectNextCenter(0, policy, snapshot);
+            expected[destination == scenarioData.graph().outTarget(0, 0) ? 0 : 1]++;
+        }
+        assertArrayEquals(expected, shares, "A batch is split like successive selections");
+        assertEquals(9, shares[0] + shares[1]);
+        assertTrue(shares[0] > 0 && shares[1] > 0, "Both destinations receive details: " + Arrays.toString(shares));
+    }
+
+    @Test
+    void testRoutingReadsTheSnapshotOfTheStep() {
+        state.clearBuffer(1);
+        RoutingPolicy policy = RoutingPolicyType.SHORTEST_QUEUE.create(scenarioData.graph());
+        RoutingSnapshot snapshot = RoutingSnapshot.of(state);
+        for (int detail = 10; detail < 20; detail++) {
+            state.offer(1, detail);
+        }
+
+        assertEquals(1, AlgorithmUtils.selectNextCenter(0, policy, snapshot),
+                "Details offered after the snapshot are not seen until the next step");
+        snapshot.capture(state);
+        assertEquals(2, AlgorithmUtils.selectNextCenter(0, policy, snapshot));
+    }
+
+    @Test
+    void testRoutingOnlyCountsTheDetailsOfTheSameCenter() {
+        List<ProductionCenter> centers = List.of(
+                new ProductionCenter("A", "A", 2, 1.0),
+                new ProductionCenter("B", "B", 2, 1.0),
+                new ProductionCenter("C", "C", 2, 1.0),
+                new ProductionCenter("D", "D", 2, 1.0));
+        List<Connection> sharedDestination = List.of(
+                new Connection(centers.get(0), centers.get(1)),
+                new Connection(centers.get(0), centers.get(2)),
+                new Connection(centers.get(3), centers.get(1)));
+        ScenarioData scenario = new ScenarioData(centers, sharedDestination, 4, 10, "A", "B");
+        RoutingPolicy policy = RoutingPolicyType.SHORTEST_QUEUE.create(scenario.graph());
+        RoutingSnapshot snapshot = RoutingSnapshot.of(new SimulationState(scenario.graph()));
+
+        for (int detail = 0; detail < 5; detail++) {
+            assertEquals(1, AlgorithmUtils.selectNextCenter(3, policy, snapshot));
+        }
+        assertEquals(1, AlgorithmUtils.selectNextCenter(0, policy, snapshot),
+                "Details another center routed in the step are not counted");
+        assertEquals(2, AlgorithmUtils.selectNextCenter(0, policy, snapshot));
+    }
+
+    @Test
+    void testRoutingPolicies() {
+        state.clearBuffer(1);
+        state.clearBuffer(2);
+        state.setWorkers(2, 2);
+        RoutingSnapshot snapshot = RoutingSnapshot.of(state);
+
+        RoutingPolicy roundRobin = RoutingPolicyType.ROUND_ROBIN.create(scenarioData.graph());
+        assertEquals(1, AlgorithmUtils.selectNextCenter(0, roundRobin, snapshot));
+        assertEquals(2, AlgorithmUtils.selectNextCenter(0, roundRobin, snapshot));
+        assertEquals(1, AlgorithmUtils.selectNextCenter(0, roundRobin, snapshot));
+
+        snapshot.capture(state);
+        RoutingPolicy shortestQueue = RoutingPolicyType.SHORTEST_QUEUE.create(scenarioData.graph());
+        assertEquals(1, AlgorithmUtils.selectNextCenter(0, shortestQueue, snapshot), "Ties go to the first connection");
+        assertEquals(2, AlgorithmUtils.selectNextCenter(0, shortestQueue, snapshot),
+                "Details routed in the step count as queued");
+
+        snapshot.capture(state);
+        RoutingPolicy leastLoaded = RoutingPolicyType.LEAST_LOADED.create(scenarioData.graph());
+        assertEquals(1, AlgorithmUtils.selectNextCenter(0, leastLoaded, snapshot),
+                "The workers of a center count towards its load");
+    }
+
+    @Test
+    void testRoutingPolicyFromOptionName() {
+        assertEquals(RoutingPolicyType.LEAST_LOADED, RoutingPolicyType.fromOptionName("least-loaded"));
+        assertEquals(RoutingPolicyType.ROUND_ROBIN, RoutingPolicyType.fromOptionName(" Round-Robin "));
+        assertThrows(IllegalArgumentException.class, () -> RoutingPolicyType.fromOptionName("random"));
+    }
+
+    @Test
+    void testDrainAndOfferAllKeepOrder() {
+        // Wrap the ring around its end before draining and appending in bulk.
+        for (int detail = 5; detail <= 20; detail++) {
+            state.offer(0, detail);
+            state.poll(0);
+        }
+        int[] drained = new int[3];
+
+        assertEquals(3, state.drain(0, drained, 3));
+        assertEquals(1, state.bufferSize(0));
+
+        state.offerAll(0, new int[]{0, 30, 31, 32, 33, 34, 35, 36, 37, 38, 39, 40, 41, 42, 43, 44, 45, 46}, 1, 17);
+        int[] all = new int[20];
+        int count = state.drain(0, all, 20);
+
+        assertArrayEquals(new int[]{17, 18, 19}, drained);
+        assertEquals(18, count);
+        assertEquals(20, all[0]);
+        for (int i = 1; i < count; i++) {
+            assertEquals(29 + i, all[i], "Bulk appended details keep their order");
+        }
+        assertEquals(0, state.bufferSize(0));
+    }
+
+    @Test
+    void testAdjustExcessWorkersOnState() {
+        state.setWorkers(0, 5);
+        state.setWorkers(1, 3);
+        state.setWorkers(2, 2);
+
+        AlgorithmUtils.adjustExcessWorkers(state, 4);
+
+        assertEquals(6, state.totalWorkers(), "The total number of employees should be reduced to 6");
+        assertTrue(state.workers(0) <= 3,
+                "Excess workers should be removed from the busiest centers first.");
+    }
 }
@@ -0,0 +1,80 @@
+package org.production;
+
+import org.junit.jupiter.api.Test;
+import org.production.generator.GeneratorSettings;
+import org.production.generator.ScenarioGenerator;
+import org.production.generator.Topology;
+import org.production.models.Connection;
+import org.production.models.ProductionCenter;
+import org.production.models.ScenarioData;
+import org.production.service.AllocationOptimizer;
+import org.production.service.AllocationResult;
+import org.production.service.OptimizationMethod;
+import org.production.service.OptimizerSettings;
+import org.production.service.PhasedWorkerAllocation;
+import org.production.service.RoutingPolicyType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AllocationOptimizerTest {
+
+    private static ScenarioData scenario() {
+        return ScenarioGenerator.generate(GeneratorSettings.defaults()
+                .withTopology(Topology.DIAMOND)
+                .withCentersCount(8)
+                .withWorkersCount(12)
+                .withDetailsCount(60));
+    }
+
+    private static OptimizerSettings settings(OptimizationMethod method, int phases, int parallelism) {
+        return new OptimizerSettings(method, phases, 30, 7, RoutingPolicyType.WEIGHTED, parallelism);
+    }
+
+    @Test
+    void testMarginalAllocationFollowsTheBottleneck() {
+        ProductionCenter slow = new ProductionCenter("1", "Slow", 4, 3.0);
+        ProductionCenter fast = new ProductionCenter("2", "Fast", 4, 1.0);
+        ScenarioData scenarioData = new ScenarioData(new ArrayList<>(List.of(slow, fast)),
+                List.of(new Connection(slow, fast)), 4, 24, "1", "2");
+
+        AllocationResult result = AllocationOptimizer.optimize(scenarioData,
+                settings(OptimizationMethod.MARGINAL, 1, 2));
+
+        assertEquals(List.of(List.of(3, 1)), result.phaseWorkers(), "The slow center needs the most workers");
+        assertTrue(result.makespan() < AllocationOptimizer.makespan(scenarioData,
+                PhasedWorkerAllocation.fixed(new int[]{2, 2}), RoutingPolicyType.WEIGHTED), result.toString());
+        assertEquals(result.makespan(), AllocationOptimizer.makespan(scenarioData, result.allocation(),
+                RoutingPolicyType.WEIGHTED), 1e-9, "The reported makespan is the one of the allocation");
+    }
+
+    @Test
+    void testResultDoesNotDependOnParallelism() {
+        ScenarioData scenarioData = scenario();
+        for (OptimizationMethod method : OptimizationMethod.values()) {
+            AllocationResult sequential = AllocationOptimizer.optimize(scenarioData, settings(method, 2, 1));
+            AllocationResult parallel = AllocationOptimizer.optimize(scenarioData, settings(method, 2, 4));
+
+            assertEquals(sequential, parallel, method.getOptionName());
+            assertEquals(2, sequential.phaseWorkers().size());
+            sequential.allocation().validate(scenarioData.graph(), scenarioData.workersCount());
+            assertEquals(sequential.makespan(), AllocationOptimizer.makespan(scenarioData, sequential.allocation(),
+                    RoutingPolicyType.WEIGHTED), 1e-9, method.getOptionName());
+        }
+    }
+
+    @Test
+    void testStalledAllocationFails() {
+        ProductionCenter first = new ProductionCenter("1", "First", 1, 1.0);
+        ProductionCenter second = new ProductionCenter("2", "Second", 1, 1.0);
+        ScenarioData scenarioData = new ScenarioData(new ArrayList<>(List.of(first, second)),
+                List.of(new Connection(first, second)), 1, 5, "1", "2");
+
+        assertThrows(IllegalStateException.class, () -> AllocationOptimizer.makespan(scenarioData,
+                PhasedWorkerAllocation.fixed(new int[]{1, 0}), RoutingPolicyType.WEIGHTED));
+        assertThrows(IllegalArgumentException.class, () -> AllocationOptimizer.optimize(scenarioData,
+                settings(OptimizationMethod.MARGINAL, 1, 1)), "Two reachable centers need two workers");
+    }
+}
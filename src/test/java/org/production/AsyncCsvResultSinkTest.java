@@ -0,0 +1,58 @@
+package org.production;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.production.io.AsyncCsvResultSink;
+import org.production.io.CsvWritter;
+import org.production.models.SimulationResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncCsvResultSinkTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testWritesSameFileAsCsvWritter() throws IOException {
+        List<SimulationResult> results = new ArrayList<>();
+        for (int step = 0; step < 250; step++) {
+            for (int center = 1; center <= 4; center++) {
+                results.add(new SimulationResult(step * 1.0, "Center " + center, center % 3, step % 17));
+            }
+        }
+
+        Path expected = tempDir.resolve("expected.csv");
+        CsvWritter.writeResults(expected.toString(), results);
+
+        Path actual = tempDir.resolve("actual.csv");
+        // A small batch and queue make the producer wait for the writer thread several times.
+        try (AsyncCsvResultSink sink = new AsyncCsvResultSink(actual.toString(), 7, 1)) {
+            results.forEach(sink::accept);
+        }
+
+        assertEquals(Files.readAllLines(expected), Files.readAllLines(actual));
+    }
+
+    @Test
+    void testEmptyRunWritesHeaderOnly() throws IOException {
+        Path output = tempDir.resolve("empty.csv");
+        new AsyncCsvResultSink(output.toString()).close();
+
+        assertEquals(List.of("Time, ProductionCenter, WorkersCount, BufferCount"), Files.readAllLines(output));
+    }
+
+    @Test
+    void testAcceptAfterCloseIsRejected() throws IOException {
+        AsyncCsvResultSink sink = new AsyncCsvResultSink(tempDir.resolve("closed.csv").toString());
+        sink.close();
+
+        assertThrows(IllegalStateException.class, () -> sink.accept(new SimulationResult(0.0, "Center 1", 0, 0)));
+    }
+}
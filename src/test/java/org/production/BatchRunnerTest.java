@@ -0,0 +1,67 @@
+package org.production;
+
+import org.junit.jupiter.api.Test;
+import org.production.generator.GeneratorSettings;
+import org.production.generator.ScenarioGenerator;
+import org.production.generator.Topology;
+import org.production.models.ScenarioData;
+import org.production.service.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchRunnerTest {
+
+    private static final SimulationSettings DISCRETE_EVENT =
+            SimulationSettings.defaults().withMode(SimulationMode.DISCRETE_EVENT);
+
+    @Test
+    void testParallelSweepMatchesSeparateRuns() {
+        ScenarioData scenarioData = ScenarioGenerator.generate(GeneratorSettings.defaults()
+                .withTopology(Topology.DIAMOND)
+                .withCentersCount(10));
+        SweepSpecification sweep = new SweepSpecification(List.of(2, 5, 10), List.of(50, 200));
+
+        List<VariantSummary> summaries = BatchRunner.run(scenarioData, sweep, DISCRETE_EVENT, 4);
+
+        assertEquals(6, summaries.size());
+        int row = 0;
+        for (int workersCount : List.of(2, 5, 10)) {
+            for (int detailsCount : List.of(50, 200)) {
+                VariantSummary summary = summaries.get(row++);
+                assertEquals(workersCount, summary.workersCount());
+                assertEquals(detailsCount, summary.detailsCount());
+
+                SimulationRunner runner = new SimulationRunner(scenarioData.withCounts(workersCount, detailsCount),
+                        DISCRETE_EVENT);
+                runner.runSimulation();
+                RunStatistics statistics = runner.getRunStatistics();
+                assertEquals(statistics.simulatedTime(), summary.makespan(), 1e-9);
+                assertEquals(statistics.processedDetails(), summary.processedDetails());
+                assertTrue(summary.utilization() > 0 && summary.utilization() <= 1, summary.toString());
+            }
+        }
+    }
+
+    @Test
+    void testVariantsDoNotShareCenterLists() {
+        ScenarioData scenarioData = ScenarioGenerator.generate(GeneratorSettings.defaults().withCentersCount(10));
+
+        ScenarioData variant = scenarioData.withCounts(3, 30);
+
+        assertNotSame(scenarioData.centers(), variant.centers());
+        assertSame(scenarioData.graph(), variant.graph());
+        assertEquals(3, variant.workersCount());
+        assertEquals(30, variant.detailsCount());
+    }
+
+    @Test
+    void testParseSweepValues() {
+        assertEquals(List.of(5, 10, 20), SweepSpecification.parseValues("5, 10,20"));
+        assertEquals(List.of(10, 40, 70, 100, 3), SweepSpecification.parseValues("10..100:30,3"));
+        assertEquals(List.of(1, 2, 3), SweepSpecification.parseValues("1..3"));
+        assertThrows(IllegalArgumentException.class, () -> SweepSpecification.parseValues("5..1"));
+        assertThrows(IllegalArgumentException.class, () -> SweepSpecification.parseValues("ten"));
+    }
+}
@@ -0,0 +1,123 @@
+package org.production;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.production.io.ColumnarResultReader;
+import org.production.io.ColumnarResultSink;
+import org.production.io.CsvWritter;
+import org.production.models.SimulationResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarResultSinkTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testScanAllRestoresRowsInOrder() throws IOException {
+        List<SimulationResult> results = simulatedRows(4, 1000);
+        Path output = tempDir.resolve("results.col");
+        // A buffered row limit that does not divide the steps splits the rows of a step across row groups.
+        write(output, results, 4096, 333);
+
+        List<String> restored = new ArrayList<>();
+        try (ColumnarResultReader reader = ColumnarResultReader.open(output)) {
+            assertEquals(results.size(), reader.getRowCount());
+            assertEquals(List.of("Center 0", "Center 1", "Center 2", "Center 3"), reader.getCenterNames());
+            reader.scanAll((time, center, workers, buffer) ->
+                    restored.add(new SimulationResult(time, center, workers, buffer).toString()));
+        }
+
+        assertEquals(results.stream().map(SimulationResult::toString).toList(), restored);
+    }
+
+    @Test
+    void testScanCenterReturnsSeriesOfOneCenter() throws IOException {
+        List<SimulationResult> results = simulatedRows(5, 500);
+        Path output = tempDir.resolve("results.col");
+        write(output, results, 128, 1 << 20);
+
+        List<SimulationResult> series;
+        try (ColumnarResultReader reader = ColumnarResultReader.open(output)) {
+            series = reader.readCenter("Center 3");
+            assertThrows(IllegalArgumentException.class, () -> reader.readCenter("Unknown"));
+        }
+
+        List<String> expected = results.stream()
+                .filter(r -> r.getProductionCenter().equals("Center 3"))
+                .map(SimulationResult::toString)
+                .toList();
+        assertEquals(expected, series.stream().map(SimulationResult::toString).toList());
+    }
+
+    @Test
+    void testOutputIsSmallerThanCsv() throws IOException {
+        List<SimulationResult> results = simulatedRows(20, 5000);
+        Path columnar = tempDir.resolve("results.col");
+        Path csv = tempDir.resolve("results.csv");
+        write(columnar, results, 4096, 1 << 21);
+        CsvWritter.writeResults(csv.toString(), results);
+
+        assertTrue(Files.size(columnar) * 10 < Files.size(csv),
+                "Columnar " + Files.size(columnar) + " bytes, CSV " + Files.size(csv) + " bytes");
+    }
+
+    @Test
+    void testWidePlantIsStillCompressed() throws IOException {
+        // Row groups are sized per center, so the segments of a wide plant still hold every step.
+        List<SimulationResult> results = simulatedRows(3000, 40);
+        Path columnar = tempDir.resolve("results.col");
+        Path csv = tempDir.resolve("results.csv");
+        write(columnar, results, 4096, 1 << 21);
+        CsvWritter.writeResults(csv.toString(), results);
+
+        assertTrue(Files.size(columnar) * 5 < Files.size(csv),
+                "Columnar " + Files.size(columnar) + " bytes, CSV " + Files.size(csv) + " bytes");
+        try (ColumnarResultReader reader = ColumnarResultReader.open(columnar)) {
+            assertEquals(40, reader.readCenter("Center 2999").size());
+        }
+    }
+
+    @Test
+    void testRejectsOtherFiles() throws IOException {
+        Path other = tempDir.resolve("results.csv");
+        CsvWritter.writeResults(other.toString(), simulatedRows(2, 3));
+
+        assertThrows(IOException.class, () -> ColumnarResultReader.open(other));
+    }
+
+    /**
+     * Rows shaped like the runner output: one row per center per step, with slowly changing counts.
+     */
+    private static List<SimulationResult> simulatedRows(int centersCount, int steps) {
+        SplittableRandom random = new SplittableRandom(3);
+        int[] workers = new int[centersCount];
+        int[] buffers = new int[centersCount];
+        List<SimulationResult> results = new ArrayList<>();
+        for (int step = 0; step < steps; step++) {
+            for (int center = 0; center < centersCount; center++) {
+                if (random.nextInt(10) == 0) {
+                    workers[center] = random.nextInt(5);
+                }
+                buffers[center] = Math.max(0, buffers[center] + random.nextInt(3) - 1);
+                results.add(new SimulationResult(step * 1.0, "Center " + center, workers[center], buffers[center]));
+            }
+        }
+        return results;
+    }
+
+    private static void write(Path output, List<SimulationResult> results, int rowsPerCenter, int maxBufferedRows)
+            throws IOException {
+        try (ColumnarResultSink sink = new ColumnarResultSink(output, rowsPerCenter, maxBufferedRows)) {
+            results.forEach(sink::accept);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package org.production;
+
+import org.junit.jupiter.api.Test;
+import org.production.generator.GeneratorSettings;
+import org.production.generator.ScenarioGenerator;
+import org.production.generator.Topology;
+import org.production.models.ScenarioData;
+import org.production.models.SimulationResult;
+import org.production.service.BoundedLockFreeDetailBuffer;
+import org.production.service.BufferType;
+import org.production.service.DetailBuffer;
+import org.production.service.IntRingBuffer;
+import org.production.service.LockFreeDetailBuffer;
+import org.production.service.SimulationMode;
+import org.production.service.SimulationRunner;
+import org.production.service.SimulationSettings;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DetailBufferTest {
+
+    private static final Map<String, Supplier<DetailBuffer>> BUFFERS = Map.of(
+            "synchronized", IntRingBuffer::new,
+            "lock-free", LockFreeDetailBuffer::new,
+            "lock-free-bounded", () -> new BoundedLockFreeDetailBuffer(4096));
+
+    @Test
+    void testBuffersKeepFifoOrderAcrossBulkOperations() {
+        BUFFERS.forEach((name, factory) -> {
+            DetailBuffer buffer = factory.get();
+            int[] details = new int[1000];
+            for (int i = 0; i < details.length; i++) {
+                details[i] = i;
+            }
+
+            for (int round = 0; round < 3; round++) {
+                buffer.offer(5000 + round);
+                buffer.offerAll(details, 1, 999);
+                assertEquals(1000, buffer.size(), name);
+
+                assertEquals(5000 + round, buffer.poll(), name);
+                int[] drained = new int[1000];
+                assertEquals(600, buffer.drainTo(drained, 600), name);
+                for (int i = 0; i < 600; i++) {
+                    assertEquals(i + 1, drained[i], name);
+                }
+                assertEquals(399, buffer.drainTo(drained, 1000), name);
+                assertEquals(999, drained[398], name);
+                assertTrue(buffer.isEmpty(), name);
+                assertEquals(DetailBuffer.EMPTY, buffer.poll(), name);
+            }
+
+            buffer.offerAll(details, 0, 10);
+            buffer.clear();
+            assertEquals(0, buffer.size(), name);
+            assertEquals(DetailBuffer.EMPTY, buffer.poll(), name);
+        });
+    }
+
+    @Test
+    void testManyProducersFeedingOneBuffer() throws Exception {
+        int producers = 8;
+        int consumers = 2;
+        int perProducer = 20_000;
+        for (Map.Entry<String, Supplier<DetailBuffer>> entry : BUFFERS.entrySet()) {
+            String name = entry.getKey();
+            DetailBuffer buffer = entry.getKey().equals("lock-free-bounded")
+                    ? new BoundedLockFreeDetailBuffer(producers * perProducer)
+                    : entry.getValue().get();
+
+            ExecutorService executor = Executors.newFixedThreadPool(producers + consumers);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int producer = 0; producer < producers; producer++) {
+                    int first = producer * perProducer;
+                    futures.add(executor.submit(() -> {
+                        int[] bulk = new int[10];
+                        for (int i = 0; i < perProducer; i += 20) {
+                            for (int j = 0; j < 10; j++) {
+                                buffer.offer(first + i + j);
+                            }
+                            for (int j = 0; j < 10; j++) {
+                                bulk[j] = first + i + 10 + j;
+                            }
+                            buffer.offerAll(bulk, 0, 10);
+                        }
+                    }));
+                }
+                List<Future<List<Integer>>> received = new ArrayList<>();
+                ConcurrentHashMap<Integer, Boolean> seen = new ConcurrentHashMap<>();
+                for (int consumer = 0; consumer < consumers; consumer++) {
+                    received.add(executor.submit(() -> {
+                        List<Integer> taken = new ArrayList<>();
+                        while (seen.size() < producers * perProducer && !Thread.currentThread().isInterrupted()) {
+                            int detail = buffer.poll();
+                            if (detail == DetailBuffer.EMPTY) {
+                                Thread.onSpinWait();
+                                continue;
+                            }
+                            assertNull(seen.put(detail, Boolean.TRUE), name + " detail taken twice: " + detail);
+                            taken.add(detail);
+                        }
+                        return taken;
+                    }));
+                }
+
+                for (Future<?> future : futures) {
+                    future.get(30, TimeUnit.SECONDS);
+                }
+                BitSet all = new BitSet();
+                for (Future<List<Integer>> future : received) {
+                    int[] lastOfProducer = new int[producers];
+                    Arrays.fill(lastOfProducer, -1);
+                    for (int detail : future.get(30, TimeUnit.SECONDS)) {
+                        int producer = detail / perProducer;
+                        assertTrue(detail > lastOfProducer[producer],
+                                name + " details of one producer are taken in order");
+                        lastOfProducer[producer] = detail;
+                        all.set(detail);
+                    }
+                }
+                assertEquals(producers * perProducer, all.cardinality(), name);
+                assertEquals(0, buffer.size(), name);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    @Test
+    void testBoundedBufferRejectsOfferWhenFull() {
+        BoundedLockFreeDetailBuffer buffer = new BoundedLockFreeDetailBuffer(3);
+        assertEquals(4, buffer.capacity());
+        for (int detail = 0; detail < 4; detail++) {
+            buffer.offer(detail);
+        }
+
+        assertThrows(IllegalStateException.class, () -> buffer.offer(4));
+        assertEquals(0, buffer.poll());
+        buffer.offer(4);
+        assertEquals(4, buffer.size());
+    }
+
+    @Test
+    void testBufferTypesProduceIdenticalRuns() {
+        ScenarioData scenarioData = ScenarioGenerator.generate(GeneratorSettings.defaults()
+                .withTopology(Topology.DIAMOND)
+                .withCentersCount(40)
+                .withWorkersCount(30)
+                .withDetailsCount(2000));
+
+        List<String> expected = null;
+        for (BufferType bufferType : BufferType.values()) {
+            SimulationRunner runner = new SimulationRunner(scenarioData, SimulationSettings.defaults()
+                    .withMode(SimulationMode.DISCRETE_EVENT)
+                    .withBufferType(bufferType));
+            assertTimeoutPreemptively(Duration.ofSeconds(30), runner::runSimulation);
+
+            List<String> rows = runner.getResults().stream().map(SimulationResult::toString).toList();
+            if (expected == null) {
+                expected = rows;
+            } else {
+                assertEquals(expected, rows, bufferType + " must not change the run");
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.production;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.production.io.CsvWritter;
+import org.production.io.FastCsvWriter;
+import org.production.models.SimulationResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FastCsvWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testMatchesCsvWritterOnRoundingEdgeCases() throws IOException {
+        double[] times = {0.0, -0.0, 0.005, 0.125, 1.005, 2.675, 0.995, 9.995, 123.456, 1e7 + 0.555,
+                999_999_999.995, 1e15, 12345678901234.5, -1.5, -0.001, Double.NaN, Double.POSITIVE_INFINITY};
+        List<SimulationResult> results = new ArrayList<>();
+        for (double time : times) {
+            results.add(new SimulationResult(time, "Центр, 1", Integer.MAX_VALUE, Integer.MIN_VALUE));
+        }
+        results.add(new SimulationResult(null, "Center 2", 0, 0));
+
+        assertSameOutput(results);
+    }
+
+    @Test
+    void testMatchesCsvWritterOnRandomRows() throws IOException {
+        SplittableRandom random = new SplittableRandom(7);
+        List<SimulationResult> results = new ArrayList<>();
+        // Enough rows to overflow the write buffer several times.
+        for (int i = 0; i < 50_000; i++) {
+            double time = random.nextInt(3) == 0 ? random.nextInt(100_000) / 1000.0 : random.nextDouble() * 10_000;
+            results.add(new SimulationResult(time, "Center " + random.nextInt(20),
+                    random.nextInt(50), random.nextInt(5000)));
+        }
+
+        assertSameOutput(results);
+    }
+
+    @Test
+    void testUsesDecimalSeparatorOfDefaultLocale() throws IOException {
+        Locale defaultLocale = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.GERMANY);
+            List<SimulationResult> results = List.of(new SimulationResult(3.14159, "Center 1", 1, 2));
+
+            assertSameOutput(results);
+            assertTrue(Files.readAllLines(tempDir.resolve("fast.csv")).get(1).startsWith("3,14, "));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    private void assertSameOutput(List<SimulationResult> results) throws IOException {
+        Path expected = tempDir.resolve("expected.csv");
+        Path actual = tempDir.resolve("fast.csv");
+        CsvWritter.writeResults(expected.toString(), results);
+        FastCsvWriter.writeResults(actual.toString(), results);
+
+        assertArrayEquals(Files.readAllBytes(expected), Files.readAllBytes(actual));
+    }
+}
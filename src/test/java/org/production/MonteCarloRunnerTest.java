@@ -0,0 +1,139 @@
+package org.production;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.production.generator.GeneratorSettings;
+import org.production.generator.ScenarioGenerator;
+import org.production.generator.Topology;
+import org.production.io.ExcelReader;
+import org.production.io.ScenarioCache;
+import org.production.io.ScenarioWorkbookWriter;
+import org.production.io.StreamingExcelReader;
+import org.production.models.Connection;
+import org.production.models.ProductionCenter;
+import org.production.models.ScenarioData;
+import org.production.models.ServiceTimeDistribution;
+import org.production.service.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonteCarloRunnerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static ScenarioData scenario() {
+        return ScenarioGenerator.generate(GeneratorSettings.defaults()
+                .withTopology(Topology.DIAMOND)
+                .withCentersCount(10)
+                .withWorkersCount(6)
+                .withDetailsCount(60));
+    }
+
+    @Test
+    void testEstimatesDoNotDependOnParallelism() {
+        ScenarioData scenarioData = scenario();
+
+        MonteCarloSummary sequential = MonteCarloRunner.run(scenarioData,
+                new MonteCarloSettings(150, 11, ServiceTimeDistribution.LOGNORMAL, 0.8, 1));
+        MonteCarloSummary parallel = MonteCarloRunner.run(scenarioData,
+                new MonteCarloSettings(150, 11, ServiceTimeDistribution.LOGNORMAL, 0.8, 4));
+
+        assertEquals(sequential, parallel);
+        assertEquals(150, sequential.makespan().count());
+        assertTrue(sequential.makespan().halfWidth() > 0, "Stochastic replications must differ");
+        assertTrue(sequential.makespan().lower() < sequential.makespan().mean());
+    }
+
+    @Test
+    void testDeterministicReplicationsMatchSingleRun() {
+        ScenarioData scenarioData = scenario();
+        SimulationRunner runner = new SimulationRunner(scenarioData, SimulationMode.DISCRETE_EVENT);
+        runner.runSimulation();
+
+        MonteCarloSummary summary = MonteCarloRunner.run(scenarioData,
+                new MonteCarloSettings(5, 1, ServiceTimeDistribution.DETERMINISTIC, 0.0, 2));
+
+        assertEquals(runner.getRunStatistics().simulatedTime(), summary.makespan().mean(), 1e-9);
+        assertEquals(0.0, summary.makespan().halfWidth(), 1e-9);
+        assertEquals(scenarioData.centers().size(), summary.centerMeanBuffers().size());
+    }
+
+    @Test
+    void testDistributionsKeepTheMeanAndVariation() {
+        SplittableRandom random = new SplittableRandom(5);
+        for (ServiceTimeDistribution distribution : ServiceTimeDistribution.values()) {
+            double variation = Math.min(0.4, distribution.maxVariation());
+            RunningStatistics statistics = new RunningStatistics();
+            for (int i = 0; i < 200_000; i++) {
+                double sample = distribution.sample(random, 2.0, variation);
+                assertTrue(sample >= 0, distribution + " sampled " + sample);
+                statistics.add(sample);
+            }
+            double expectedVariation = switch (distribution) {
+                case DETERMINISTIC -> 0.0;
+                case EXPONENTIAL -> 1.0;
+                default -> variation;
+            };
+            assertEquals(2.0, statistics.mean(), 0.02, distribution.getOptionName());
+            assertEquals(expectedVariation, Math.sqrt(statistics.variance()) / statistics.mean(), 0.01,
+                    distribution.getOptionName());
+        }
+    }
+
+    @Test
+    void testTriangularVariationNeedingNegativeTimesIsRejected() {
+        assertEquals(1 / Math.sqrt(6), ServiceTimeDistribution.TRIANGULAR.maxVariation(), 1e-12);
+        assertThrows(IllegalArgumentException.class,
+                () -> new MonteCarloSettings(10, 1, ServiceTimeDistribution.TRIANGULAR, 0.5, 1));
+        assertDoesNotThrow(() -> new MonteCarloSettings(10, 1, ServiceTimeDistribution.LOGNORMAL, 2.0, 1));
+    }
+
+    @Test
+    void testRunningStatisticsMerge() {
+        RunningStatistics all = new RunningStatistics();
+        RunningStatistics first = new RunningStatistics();
+        RunningStatistics second = new RunningStatistics();
+        for (int i = 1; i <= 10; i++) {
+            all.add(i * i);
+            (i <= 4 ? first : second).add(i * i);
+        }
+        first.merge(second);
+
+        assertEquals(all.count(), first.count());
+        assertEquals(all.mean(), first.mean(), 1e-9);
+        assertEquals(all.variance(), first.variance(), 1e-9);
+    }
+
+    @Test
+    void testServiceTimeColumnsAreReadAndCached() throws IOException {
+        List<ProductionCenter> centers = new ArrayList<>();
+        List<Connection> connections = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            centers.add(new ProductionCenter(String.valueOf(i), "Center " + i, 2, 1.5,
+                    ServiceTimeDistribution.TRIANGULAR, 0.25));
+            if (i > 1) {
+                connections.add(new Connection(centers.get(i - 2), centers.get(i - 1)));
+            }
+        }
+        Path file = tempDir.resolve("stochastic.xlsx");
+        ScenarioWorkbookWriter.write(file.toString(), new ScenarioData(centers, connections, 2, 10, "1", "4"));
+
+        // The second cache load decodes the cache written by the first one.
+        for (ScenarioData read : List.of(ExcelReader.collectData(file.toString()),
+                StreamingExcelReader.collectData(file.toString()),
+                ScenarioCache.load(file, StreamingExcelReader::collectData, false),
+                ScenarioCache.load(file, StreamingExcelReader::collectData, false))) {
+            for (ProductionCenter center : read.centers()) {
+                assertEquals(ServiceTimeDistribution.TRIANGULAR, center.getServiceTimeDistribution(), center.getId());
+                assertEquals(0.25, center.getServiceTimeVariation(), 1e-12);
+            }
+        }
+    }
+}
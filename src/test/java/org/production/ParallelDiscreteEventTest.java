@@ -0,0 +1,88 @@
+package org.production;
+
+import org.junit.jupiter.api.Test;
+import org.production.generator.GeneratorSettings;
+import org.production.generator.PerformanceDistribution;
+import org.production.generator.ScenarioGenerator;
+import org.production.generator.Topology;
+import org.production.models.ScenarioData;
+import org.production.models.SimulationResult;
+import org.production.service.RoutingPolicyType;
+import org.production.service.RunStatistics;
+import org.production.service.SimulationMode;
+import org.production.service.SimulationRunner;
+import org.production.service.SimulationSettings;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelDiscreteEventTest {
+
+    private static final int[] REGIONS = {1, 2, 4, 7};
+
+    private static ScenarioData scenario(Topology topology, int workersCount) {
+        return ScenarioGenerator.generate(GeneratorSettings.defaults()
+                .withTopology(topology)
+                .withCentersCount(40)
+                .withWorkersCount(workersCount)
+                .withDetailsCount(300));
+    }
+
+    @Test
+    void testParallelRunsMatchSequentialRunForEveryPolicy() {
+        for (Topology topology : Topology.values()) {
+            // Scarce workers make the plant-wide limit bind, plentiful workers let the regions run in parallel.
+            for (int workersCount : new int[]{8, 200}) {
+                for (RoutingPolicyType policy : RoutingPolicyType.values()) {
+                    assertParallelMatchesSequential(scenario(topology, workersCount), policy,
+                            topology + ", " + workersCount + " workers, " + policy);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testSimultaneousCompletionsKeepTheSequentialOrder() {
+        // Whole processing times make many details complete at the same time and at the ticks.
+        ScenarioData scenarioData = ScenarioGenerator.generate(GeneratorSettings.defaults()
+                .withTopology(Topology.RANDOM_DAG)
+                .withCentersCount(60)
+                .withWorkersCount(150)
+                .withDetailsCount(400)
+                .withPerformance(PerformanceDistribution.CONSTANT, 1.0, 0.0));
+
+        for (RoutingPolicyType policy : RoutingPolicyType.values()) {
+            assertParallelMatchesSequential(scenarioData, policy, policy.toString());
+        }
+    }
+
+    private static void assertParallelMatchesSequential(ScenarioData scenarioData, RoutingPolicyType policy,
+                                                        String description) {
+        SimulationSettings settings = SimulationSettings.defaults()
+                .withRoutingPolicy(policy)
+                .withProgressInterval(null);
+        SimulationRunner sequential = new SimulationRunner(scenarioData,
+                settings.withMode(SimulationMode.DISCRETE_EVENT));
+        sequential.runSimulation();
+        List<String> expectedRows = rows(sequential);
+        RunStatistics expected = sequential.getRunStatistics();
+
+        for (int regions : REGIONS) {
+            SimulationRunner parallel = new SimulationRunner(scenarioData,
+                    settings.withMode(SimulationMode.PARALLEL_DISCRETE_EVENT).withRegions(regions));
+            parallel.runSimulation();
+            RunStatistics actual = parallel.getRunStatistics();
+
+            String message = description + ", " + regions + " regions";
+            assertEquals(expectedRows, rows(parallel), message);
+            assertEquals(expected.simulatedTime(), actual.simulatedTime(), message);
+            assertEquals(expected.processedDetails(), actual.processedDetails(), message);
+            assertEquals(expected.busyWorkerTime(), actual.busyWorkerTime(), 1e-6 * expected.busyWorkerTime(), message);
+        }
+    }
+
+    private static List<String> rows(SimulationRunner runner) {
+        return runner.getResults().stream().map(SimulationResult::toString).toList();
+    }
+}
@@ -0,0 +1,60 @@
+package org.production;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.production.models.Connection;
+import org.production.models.ProductionCenter;
+import org.production.models.ProductionGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductionGraphTest {
+
+    private List<ProductionCenter> productionCenters;
+    private List<Connection> connections;
+
+    @BeforeEach
+    void setUp() {
+        productionCenters = new ArrayList<>();
+        productionCenters.add(new ProductionCenter("1", "Center 1", 2, 1.5));
+        productionCenters.add(new ProductionCenter("2", "Center 2", 2, 2.1));
+        productionCenters.add(new ProductionCenter("3", "Center 3", 2, 1.7));
+        productionCenters.add(new ProductionCenter("4", "Center 4", 3, 2.5));
+
+        connections = new ArrayList<>();
+        connections.add(new Connection(productionCenters.get(2), productionCenters.get(3)));
+        connections.add(new Connection(productionCenters.get(0), productionCenters.get(1)));
+        connections.add(new Connection(productionCenters.get(1), productionCenters.get(3)));
+        connections.add(new Connection(productionCenters.get(0), productionCenters.get(2)));
+    }
+
+    @Test
+    void testAdjacencyMatchesConnections() {
+        ProductionGraph graph = ProductionGraph.build(productionCenters, connections);
+
+        assertEquals(4, graph.size());
+        assertEquals(2, graph.indexOf("3"));
+        assertEquals(-1, graph.indexOf("5"), "Unknown centers have no index");
+
+        assertEquals(2, graph.outDegree(0));
+        assertEquals(1, graph.outTarget(0, 0), "Outgoing connections keep their original order");
+        assertEquals(2, graph.outTarget(0, 1));
+        assertEquals(0, graph.outDegree(3));
+        assertEquals(2, graph.inDegree(3));
+        assertEquals(2, graph.inSource(3, 0));
+        assertEquals(1, graph.inSource(3, 1));
+        assertEquals(0, graph.inDegree(0));
+
+        assertEquals(List.of(connections.get(1), connections.get(3)), graph.outgoingConnections(0));
+    }
+
+    @Test
+    void testUnknownCenterInConnectionIsRejected() {
+        connections.add(new Connection(productionCenters.get(3), new ProductionCenter("5", "Center 5", 1, 1.0)));
+
+        assertThrows(IllegalArgumentException.class, () -> ProductionGraph.build(productionCenters, connections));
+    }
+}
@@ -0,0 +1,87 @@
+package org.production;
+
+import org.junit.jupiter.api.Test;
+import org.production.models.Connection;
+import org.production.models.ProductionCenter;
+import org.production.models.ScenarioData;
+import org.production.service.QueueingNetworkEstimator;
+import org.production.service.RoutingPolicyType;
+import org.production.service.SimulationMode;
+import org.production.service.SimulationRunner;
+import org.production.service.ThroughputEstimate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueueingNetworkEstimatorTest {
+
+    private static ScenarioData chain(int workersCount, int detailsCount) {
+        ProductionCenter slow = new ProductionCenter("1", "Slow", 2, 2.0);
+        ProductionCenter fast = new ProductionCenter("2", "Fast", 2, 1.0);
+        return new ScenarioData(new ArrayList<>(List.of(slow, fast)), List.of(new Connection(slow, fast)),
+                workersCount, detailsCount, "1", "2");
+    }
+
+    @Test
+    void testEstimateMatchesSimulatedChain() {
+        ScenarioData scenarioData = chain(4, 100);
+        SimulationRunner runner = new SimulationRunner(scenarioData, SimulationMode.DISCRETE_EVENT);
+        runner.runSimulation();
+
+        ThroughputEstimate estimate = QueueingNetworkEstimator.estimate(scenarioData, RoutingPolicyType.WEIGHTED);
+
+        assertEquals("Slow", estimate.bottleneck());
+        assertEquals(1.0, estimate.throughput(), 0.02, "The slow center processes two details per two time units");
+        assertEquals(3.0, estimate.detailTime(), 1e-9);
+        assertEquals(1.0, estimate.centerUtilizations().get(0), 0.02);
+        assertEquals(0.5, estimate.centerUtilizations().get(1), 0.02);
+        double simulated = runner.getRunStatistics().simulatedTime();
+        assertEquals(simulated, estimate.makespan(), simulated * 0.1,
+                "The estimate must be close to the simulated makespan");
+    }
+
+    @Test
+    void testWorkforceLimitsThroughput() {
+        ThroughputEstimate estimate = QueueingNetworkEstimator.estimate(chain(1, 100), RoutingPolicyType.WEIGHTED);
+
+        assertTrue(estimate.workforceBound(), "One worker cannot keep both centers busy");
+        assertNull(estimate.bottleneck());
+        assertEquals(1.0 / 3.0, estimate.throughput(), 1e-9);
+        assertEquals(1.0, estimate.busyWorkers(), 1e-9);
+        assertEquals(3.0 + 99 * 3.0, estimate.makespan(), 1e-6);
+    }
+
+    @Test
+    void testRoutingPolicyDefinesVisits() {
+        ProductionCenter source = new ProductionCenter("1", "Source", 4, 1.0);
+        ProductionCenter large = new ProductionCenter("2", "Large", 3, 1.0);
+        ProductionCenter small = new ProductionCenter("3", "Small", 1, 1.0);
+        ProductionCenter sink = new ProductionCenter("4", "Sink", 4, 0.5);
+        ScenarioData scenarioData = new ScenarioData(new ArrayList<>(List.of(source, large, small, sink)),
+                List.of(new Connection(source, large), new Connection(source, small),
+                        new Connection(large, sink), new Connection(small, sink)),
+                8, 50, "1", "4");
+
+        ThroughputEstimate roundRobin = QueueingNetworkEstimator.estimate(scenarioData, RoutingPolicyType.ROUND_ROBIN);
+        assertEquals(List.of(1.0, 0.5, 0.5, 1.0), roundRobin.centerVisits());
+        assertEquals("Small", roundRobin.bottleneck(), "Half of the details overload the single worker");
+
+        ThroughputEstimate weighted = QueueingNetworkEstimator.estimate(scenarioData, RoutingPolicyType.WEIGHTED);
+        assertEquals(List.of(1.0, 0.75, 0.25, 1.0), weighted.centerVisits());
+        assertTrue(weighted.throughput() > roundRobin.throughput(),
+                "Routing by capacity balances the destinations");
+    }
+
+    @Test
+    void testClosedLoopIsRejected() {
+        ProductionCenter first = new ProductionCenter("1", "First", 1, 1.0);
+        ProductionCenter second = new ProductionCenter("2", "Second", 1, 1.0);
+        ScenarioData scenarioData = new ScenarioData(new ArrayList<>(List.of(first, second)),
+                List.of(new Connection(first, second), new Connection(second, first)), 2, 10, "1", "2");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> QueueingNetworkEstimator.estimate(scenarioData, RoutingPolicyType.WEIGHTED));
+    }
+}
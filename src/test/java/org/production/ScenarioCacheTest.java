@@ -0,0 +1,122 @@
+package org.production;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.production.io.ScenarioCache;
+import org.production.models.Connection;
+import org.production.models.ProductionCenter;
+import org.production.models.ScenarioData;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScenarioCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path source;
+    private ScenarioData scenarioData;
+    private AtomicInteger loads;
+    private ScenarioCache.Loader loader;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        source = tempDir.resolve("plant.xlsx");
+        Files.writeString(source, "workbook content");
+
+        List<ProductionCenter> centers = new ArrayList<>();
+        centers.add(new ProductionCenter("1", "Cutting", 2, 1.5));
+        centers.add(new ProductionCenter("2", "Сварка", 2, 2.1));
+        centers.add(new ProductionCenter("3", "Painting", 3, 2.5));
+        List<Connection> connections = new ArrayList<>();
+        connections.add(new Connection(centers.get(0), centers.get(1)));
+        connections.add(new Connection(centers.get(1), centers.get(2)));
+        connections.add(new Connection(centers.get(0), centers.get(2)));
+        scenarioData = new ScenarioData(centers, connections, 5, 40, "1", "3");
+
+        loads = new AtomicInteger();
+        loader = path -> {
+            loads.incrementAndGet();
+            return scenarioData;
+        };
+    }
+
+    @Test
+    void testSecondLoadUsesCache() throws IOException {
+        ScenarioCache.load(source, loader, false);
+        assertTrue(Files.exists(ScenarioCache.cachePathFor(source)));
+
+        ScenarioData cached = ScenarioCache.load(source, loader, false);
+
+        assertEquals(1, loads.get(), "The workbook must be parsed only once");
+        assertSameScenario(scenarioData, cached);
+    }
+
+    @Test
+    void testChangedWorkbookInvalidatesCache() throws IOException {
+        ScenarioCache.load(source, loader, false);
+        Files.writeString(source, "edited workbook content");
+
+        assertNull(ScenarioCache.read(ScenarioCache.cachePathFor(source), ScenarioCache.hash(source)));
+        ScenarioCache.load(source, loader, false);
+        assertEquals(2, loads.get());
+
+        ScenarioCache.load(source, loader, false);
+        assertEquals(2, loads.get(), "The rebuilt cache must match the edited workbook");
+    }
+
+    @Test
+    void testRebuildIgnoresValidCache() throws IOException {
+        ScenarioCache.load(source, loader, false);
+        ScenarioCache.load(source, loader, true);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testDamagedCacheIsRebuilt() throws IOException {
+        ScenarioCache.load(source, loader, false);
+        Path cachePath = ScenarioCache.cachePathFor(source);
+        byte[] bytes = Files.readAllBytes(cachePath);
+        Files.write(cachePath, Arrays.copyOf(bytes, bytes.length - 5));
+
+        ScenarioData reloaded = ScenarioCache.load(source, loader, false);
+
+        assertEquals(2, loads.get());
+        assertSameScenario(scenarioData, reloaded);
+        assertNotNull(ScenarioCache.read(cachePath, ScenarioCache.hash(source)));
+    }
+
+    private static void assertSameScenario(ScenarioData expected, ScenarioData actual) {
+        assertEquals(expected.workersCount(), actual.workersCount());
+        assertEquals(expected.detailsCount(), actual.detailsCount());
+        assertEquals(expected.startCenterId(), actual.startCenterId());
+        assertEquals(expected.endCenterId(), actual.endCenterId());
+        assertEquals(expected.centers().size(), actual.centers().size());
+        for (int i = 0; i < expected.centers().size(); i++) {
+            ProductionCenter e = expected.centers().get(i);
+            ProductionCenter a = actual.centers().get(i);
+            assertEquals(e.getId(), a.getId());
+            assertEquals(e.getName(), a.getName());
+            assertEquals(e.getPerformance(), a.getPerformance());
+            assertEquals(e.getMaxWorkers(), a.getMaxWorkers());
+        }
+        assertEquals(expected.connections().size(), actual.connections().size());
+        for (int i = 0; i < expected.connections().size(); i++) {
+            Connection e = expected.connections().get(i);
+            Connection a = actual.connections().get(i);
+            assertEquals(e.fromCenter().getId(), a.fromCenter().getId());
+            assertEquals(e.toCenter().getId(), a.toCenter().getId());
+        }
+        assertEquals(expected.graph().size(), actual.graph().size());
+    }
+}
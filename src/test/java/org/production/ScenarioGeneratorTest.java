@@ -0,0 +1,151 @@
+package org.production;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.production.generator.GeneratorSettings;
+import org.production.generator.PerformanceDistribution;
+import org.production.generator.ScenarioGenerator;
+import org.production.generator.Topology;
+import org.production.io.ExcelReader;
+import org.production.io.ScenarioWorkbookWriter;
+import org.production.io.StreamingExcelReader;
+import org.production.models.Connection;
+import org.production.models.ProductionCenter;
+import org.production.models.ProductionGraph;
+import org.production.models.ScenarioData;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScenarioGeneratorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSameSeedGeneratesSameScenario() {
+        GeneratorSettings settings = GeneratorSettings.defaults()
+                .withCentersCount(500)
+                .withPerformance(PerformanceDistribution.LOGNORMAL, 2.0, 1.0)
+                .withSeed(7);
+
+        ScenarioData first = ScenarioGenerator.generate(settings);
+        ScenarioData second = ScenarioGenerator.generate(settings);
+        ScenarioData otherSeed = ScenarioGenerator.generate(settings.withSeed(8));
+
+        assertEquals(describeCenters(first.centers()), describeCenters(second.centers()));
+        assertEquals(describeConnections(first.connections()), describeConnections(second.connections()));
+        assertNotEquals(describeConnections(first.connections()), describeConnections(otherSeed.connections()));
+    }
+
+    @Test
+    void testEveryTopologyHasSingleStartAndEnd() {
+        for (Topology topology : Topology.values()) {
+            ScenarioData scenario = ScenarioGenerator.generate(GeneratorSettings.defaults()
+                    .withTopology(topology)
+                    .withCentersCount(50));
+            ProductionGraph graph = scenario.graph();
+
+            assertEquals(50, graph.size(), topology.getOptionName());
+            for (int center = 0; center < graph.size(); center++) {
+                assertEquals(center == 0, graph.inDegree(center) == 0, topology + " in-degree of " + center);
+                assertEquals(center == graph.size() - 1, graph.outDegree(center) == 0,
+                        topology + " out-degree of " + center);
+                for (int k = 0; k < graph.outDegree(center); k++) {
+                    assertTrue(graph.outTarget(center, k) > center, topology + " must be acyclic");
+                }
+            }
+        }
+    }
+
+    @Test
+    void testRandomDagHasNoParallelConnections() {
+        ScenarioData scenario = ScenarioGenerator.generate(GeneratorSettings.defaults()
+                .withTopology(Topology.RANDOM_DAG)
+                .withCentersCount(200)
+                .withMaxOutDegree(4));
+        ProductionGraph graph = scenario.graph();
+
+        for (int center = 0; center < graph.size(); center++) {
+            Set<Integer> targets = new HashSet<>();
+            for (int k = 0; k < graph.outDegree(center); k++) {
+                assertTrue(targets.add(graph.outTarget(center, k)), "Parallel connection from " + center);
+            }
+        }
+    }
+
+    @Test
+    void testPerformanceDistributionBounds() {
+        ScenarioData uniform = ScenarioGenerator.generate(GeneratorSettings.defaults()
+                .withCentersCount(1000)
+                .withMaxWorkers(3)
+                .withPerformance(PerformanceDistribution.UNIFORM, 2.0, 0.5));
+        for (ProductionCenter center : uniform.centers()) {
+            assertTrue(center.getPerformance() >= 1.5 && center.getPerformance() <= 2.5, center.toString());
+            assertTrue(center.getMaxWorkers() >= 1 && center.getMaxWorkers() <= 3, center.toString());
+        }
+
+        ScenarioData constant = ScenarioGenerator.generate(GeneratorSettings.defaults()
+                .withPerformance(PerformanceDistribution.CONSTANT, 1.25, 0.5));
+        assertTrue(constant.centers().stream().allMatch(center -> center.getPerformance() == 1.25));
+    }
+
+    @Test
+    void testTooFewCentersForTopologyIsRejected() {
+        GeneratorSettings settings = GeneratorSettings.defaults().withTopology(Topology.DIAMOND);
+
+        assertThrows(IllegalArgumentException.class, () -> settings.withCentersCount(3));
+    }
+
+    @Test
+    void testWrittenWorkbookIsReadBack() throws IOException {
+        ScenarioData generated = ScenarioGenerator.generate(GeneratorSettings.defaults()
+                .withTopology(Topology.DIAMOND)
+                .withCentersCount(40)
+                .withWorkersCount(12)
+                .withDetailsCount(300));
+        Path file = tempDir.resolve("generated.xlsx");
+        ScenarioWorkbookWriter.write(file.toString(), generated);
+
+        for (ScenarioData read : List.of(ExcelReader.collectData(file.toString()),
+                StreamingExcelReader.collectData(file.toString()))) {
+            assertEquals(12, read.workersCount());
+            assertEquals(300, read.detailsCount());
+            assertEquals(generated.startCenterId(), read.startCenterId());
+            assertEquals(generated.endCenterId(), read.endCenterId());
+            assertEquals(describeCenters(generated.centers()), describeCenters(read.centers()));
+            assertEquals(describeConnections(generated.connections()), describeConnections(read.connections()));
+        }
+    }
+
+    @Test
+    void testCommandLineDefaultsFollowCentersCount() {
+        GeneratorOptions options = GeneratorOptions.parse(
+                new String[]{"--topology=chain", "--centers=20", "--seed=3", "out.xlsx"});
+        GeneratorSettings settings = options.getSettings();
+
+        assertEquals("out.xlsx", options.getOutputFilePath());
+        assertEquals(Topology.CHAIN, settings.topology());
+        assertEquals(20, settings.workersCount());
+        assertEquals(200, settings.detailsCount());
+        assertEquals(3, settings.seed());
+        assertThrows(IllegalArgumentException.class, () -> GeneratorOptions.parse(new String[]{"--centers=many"}));
+    }
+
+    private static List<String> describeCenters(List<ProductionCenter> centers) {
+        return centers.stream()
+                .map(c -> c.getId() + "|" + c.getName() + "|" + c.getPerformance() + "|" + c.getMaxWorkers())
+                .toList();
+    }
+
+    private static List<String> describeConnections(List<Connection> connections) {
+        return connections.stream()
+                .map(c -> c.fromCenter().getId() + "->" + c.toCenter().getId())
+                .toList();
+    }
+}
@@ -0,0 +1,184 @@
+package org.production;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.production.io.FastCsvWriter;
+import org.production.io.InMemoryResultSink;
+import org.production.io.OutputFormat;
+import org.production.io.ResultSink;
+import org.production.models.Connection;
+import org.production.models.ProductionCenter;
+import org.production.models.ScenarioData;
+import org.production.models.SimulationResult;
+import org.production.service.CheckpointSettings;
+import org.production.service.RoutingPolicyType;
+import org.production.service.SimulationCheckpoint;
+import org.production.service.SimulationMode;
+import org.production.service.SimulationRunner;
+import org.production.service.SimulationSettings;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationCheckpointTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ScenarioData scenarioData;
+    private SimulationSettings settings;
+
+    @BeforeEach
+    void setUp() {
+        List<ProductionCenter> centers = new ArrayList<>();
+        centers.add(new ProductionCenter("1", "Center 1", 2, 1.5));
+        centers.add(new ProductionCenter("2", "Center 2", 2, 2.1));
+        centers.add(new ProductionCenter("3", "Center 3", 2, 1.7));
+        centers.add(new ProductionCenter("4", "Center 4", 3, 2.5));
+
+        List<Connection> connections = new ArrayList<>();
+        connections.add(new Connection(centers.get(0), centers.get(1)));
+        connections.add(new Connection(centers.get(0), centers.get(2)));
+        connections.add(new Connection(centers.get(1), centers.get(3)));
+        connections.add(new Connection(centers.get(2), centers.get(3)));
+
+        scenarioData = new ScenarioData(centers, connections, 5, 200, "1", "4");
+        // Round-robin keeps a cursor per center, and fractional processing times keep details
+        // in progress across ticks, so both are part of every checkpoint.
+        settings = SimulationSettings.defaults()
+                .withMode(SimulationMode.DISCRETE_EVENT)
+                .withRoutingPolicy(RoutingPolicyType.ROUND_ROBIN)
+                .withProgressInterval(null);
+    }
+
+    @Test
+    void testResumedRunWritesSameOutputAsUninterruptedRun() throws IOException {
+        Path expected = tempDir.resolve("expected.csv");
+        try (FastCsvWriter sink = new FastCsvWriter(expected, Locale.ROOT)) {
+            new SimulationRunner(scenarioData, settings, sink).runSimulation();
+        }
+
+        Path output = tempDir.resolve("output.csv");
+        Path checkpointFile = tempDir.resolve("run.checkpoint");
+        SimulationSettings checkpointed = settings.withCheckpoint(new CheckpointSettings(checkpointFile, Duration.ZERO));
+        try (CrashingSink sink = new CrashingSink(new FastCsvWriter(output, Locale.ROOT), 150)) {
+            SimulationRunner runner = new SimulationRunner(scenarioData, checkpointed, sink);
+            assertThrows(IllegalStateException.class, runner::runSimulation);
+        }
+
+        SimulationCheckpoint checkpoint = SimulationCheckpoint.read(checkpointFile);
+        assertTrue(checkpoint.time() > 0, "The run must have been checkpointed before the crash");
+        try (FastCsvWriter sink = new FastCsvWriter(output, Locale.ROOT, checkpoint.sinkPosition())) {
+            new SimulationRunner(scenarioData, checkpointed, sink).resumeSimulation(checkpoint);
+        }
+
+        assertEquals(Files.readString(expected), Files.readString(output));
+    }
+
+    @Test
+    void testResumedCsvOutputMatchesAcrossBackgroundWriter() throws Exception {
+        Path expected = tempDir.resolve("expected.csv");
+        try (ResultSink sink = OutputFormat.CSV.createSink(expected.toString())) {
+            new SimulationRunner(scenarioData, settings, sink).runSimulation();
+        }
+
+        Path output = tempDir.resolve("output.csv");
+        Path checkpointFile = tempDir.resolve("run.checkpoint");
+        SimulationSettings checkpointed = settings.withCheckpoint(new CheckpointSettings(checkpointFile, Duration.ZERO));
+        try (CrashingSink sink = new CrashingSink(OutputFormat.CSV.createSink(output.toString()), 301)) {
+            SimulationRunner runner = new SimulationRunner(scenarioData, checkpointed, sink);
+            assertThrows(IllegalStateException.class, runner::runSimulation);
+        }
+
+        SimulationCheckpoint checkpoint = SimulationCheckpoint.read(checkpointFile);
+        try (ResultSink sink = OutputFormat.CSV.resumeSink(output.toString(), checkpoint.sinkPosition())) {
+            SimulationRunner runner = new SimulationRunner(scenarioData, checkpointed, sink);
+            runner.resumeSimulation(checkpoint);
+        }
+
+        assertEquals(Files.readString(expected), Files.readString(output));
+    }
+
+    @Test
+    void testCheckpointOfAnotherScenarioIsRejected() throws IOException {
+        Path checkpointFile = tempDir.resolve("run.checkpoint");
+        SimulationSettings checkpointed = settings.withCheckpoint(new CheckpointSettings(checkpointFile, Duration.ZERO));
+        try (FastCsvWriter sink = new FastCsvWriter(tempDir.resolve("output.csv"), Locale.ROOT)) {
+            new SimulationRunner(scenarioData, checkpointed, sink).runSimulation();
+        }
+        SimulationCheckpoint checkpoint = SimulationCheckpoint.read(checkpointFile);
+
+        ScenarioData otherScenario = new ScenarioData(scenarioData.centers(), scenarioData.connections(),
+                6, 200, "1", "4");
+        SimulationRunner runner = new SimulationRunner(otherScenario, settings);
+        assertThrows(IllegalArgumentException.class, () -> runner.resumeSimulation(checkpoint));
+
+        SimulationRunner weightedRunner = new SimulationRunner(scenarioData,
+                settings.withRoutingPolicy(RoutingPolicyType.WEIGHTED));
+        assertThrows(IllegalArgumentException.class, () -> weightedRunner.resumeSimulation(checkpoint));
+    }
+
+    @Test
+    void testCheckpointsRequireDiscreteEventMode() {
+        SimulationSettings realTime = settings.withMode(SimulationMode.REAL_TIME)
+                .withCheckpoint(new CheckpointSettings(tempDir.resolve("run.checkpoint"), Duration.ZERO));
+
+        assertThrows(IllegalArgumentException.class, () -> new SimulationRunner(scenarioData, realTime));
+    }
+
+    @Test
+    void testCheckpointsRequireResumableOutput() {
+        SimulationSettings checkpointed = settings.withCheckpoint(
+                new CheckpointSettings(tempDir.resolve("run.checkpoint"), Duration.ZERO));
+
+        assertTrue(OutputFormat.CSV.supportsResume());
+        assertFalse(OutputFormat.COLUMNAR.supportsResume());
+        assertThrows(IllegalArgumentException.class,
+                () -> new SimulationRunner(scenarioData, checkpointed, new InMemoryResultSink()));
+    }
+
+    /**
+     * Passes the rows through until the given row, then fails like a crashed process would.
+     */
+    private static final class CrashingSink implements ResultSink {
+        private final ResultSink delegate;
+        private final int crashRow;
+        private int rows;
+
+        CrashingSink(ResultSink delegate, int crashRow) {
+            this.delegate = delegate;
+            this.crashRow = crashRow;
+        }
+
+        @Override
+        public void accept(SimulationResult result) {
+            if (++rows == crashRow) {
+                throw new IllegalStateException("Simulated crash");
+            }
+            delegate.accept(result);
+        }
+
+        @Override
+        public boolean supportsSync() {
+            return delegate.supportsSync();
+        }
+
+        @Override
+        public long sync() throws IOException {
+            return delegate.sync();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
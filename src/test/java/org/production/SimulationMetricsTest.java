@@ -0,0 +1,121 @@
+package org.production;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.production.io.InMemoryResultSink;
+import org.production.metrics.CenterMetrics;
+import org.production.metrics.Histogram;
+import org.production.metrics.MetricsDumper;
+import org.production.metrics.MetricsSnapshot;
+import org.production.metrics.SimulationMetrics;
+import org.production.models.Connection;
+import org.production.models.ProductionCenter;
+import org.production.models.ScenarioData;
+import org.production.service.SimulationMode;
+import org.production.service.SimulationRunner;
+import org.production.service.SimulationSettings;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationMetricsTest {
+
+    @Test
+    void testHistogramPercentilesWithinResolution() {
+        Histogram histogram = new Histogram(3);
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(10_000, histogram.count());
+        assertEquals(5000.5, histogram.mean(), 1e-9);
+        assertEquals(10_000, histogram.max());
+        assertEquals(5000, histogram.percentile(0.5), 5000 / 8.0);
+        assertEquals(9900, histogram.percentile(0.99), 9900 / 8.0);
+        assertTrue(histogram.percentile(0.5) >= 5000, "A percentile is the upper bound of its bucket");
+        assertEquals(10_000, histogram.percentile(1.0));
+        assertEquals(0, new Histogram(3).percentile(0.5));
+    }
+
+    @Test
+    void testDiscreteEventRunIsRecorded() {
+        ScenarioData scenarioData = twoCenterScenario();
+        SimulationMetrics metrics = new SimulationMetrics(scenarioData);
+        SimulationRunner runner = new SimulationRunner(scenarioData,
+                SimulationSettings.defaults().withMode(SimulationMode.DISCRETE_EVENT), new InMemoryResultSink(), metrics);
+
+        runner.runSimulation();
+        MetricsSnapshot snapshot = metrics.snapshot();
+
+        assertEquals(runner.getRunStatistics().processedDetails(), snapshot.detailsProcessed());
+        assertEquals(runner.getRunStatistics().simulatedTime(), snapshot.simulatedTime());
+        assertEquals(runner.getResults().size() / 2, snapshot.steps());
+        assertEquals(snapshot.steps(), snapshot.stepDuration().count());
+        assertEquals(snapshot.steps(), snapshot.redistributionTime().count());
+
+        CenterMetrics source = snapshot.centers().get(0);
+        assertEquals("Source", source.name());
+        assertEquals(3, source.detailsProcessed());
+        assertEquals(3, source.queueWait().count());
+        // One worker at the source takes the three details at times 0, 1 and 2.
+        assertEquals(2 * SimulationMetrics.TIME_RESOLUTION, source.queueWait().max());
+        for (CenterMetrics center : snapshot.centers()) {
+            assertTrue(center.utilization() > 0 && center.utilization() <= 1.0,
+                    center.name() + " utilization " + center.utilization());
+        }
+        assertTrue(snapshot.jvm().heapUsedBytes() > 0);
+    }
+
+    @Test
+    void testMBeanExposesMetrics() throws Exception {
+        ScenarioData scenarioData = twoCenterScenario();
+        SimulationMetrics metrics = new SimulationMetrics(scenarioData);
+        new SimulationRunner(scenarioData, SimulationSettings.defaults().withMode(SimulationMode.DISCRETE_EVENT),
+                new InMemoryResultSink(), metrics).runSimulation();
+
+        ObjectName name = metrics.registerMBean();
+        try {
+            assertEquals(6L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "DetailsProcessed"));
+            assertArrayEquals(new String[]{"Source", "Sink"},
+                    (String[]) ManagementFactory.getPlatformMBeanServer().getAttribute(name, "CenterNames"));
+        } finally {
+            SimulationMetrics.unregisterMBean(name);
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+
+    @Test
+    void testDumperWritesFinalSnapshot(@TempDir Path directory) throws Exception {
+        ScenarioData scenarioData = twoCenterScenario();
+        SimulationMetrics metrics = new SimulationMetrics(scenarioData);
+        Path dump = directory.resolve("metrics.csv");
+
+        MetricsDumper dumper = new MetricsDumper(metrics, dump, Duration.ofHours(1));
+        try {
+            new SimulationRunner(scenarioData, SimulationSettings.defaults().withMode(SimulationMode.DISCRETE_EVENT),
+                    new InMemoryResultSink(), metrics).runSimulation();
+        } finally {
+            dumper.close();
+        }
+
+        List<String> lines = Files.readAllLines(dump);
+        assertTrue(lines.get(0).startsWith("Snapshot, SimulatedTime"), lines.get(0));
+        assertTrue(lines.get(1).startsWith("1, "), lines.get(1));
+        assertTrue(lines.get(2).startsWith("Center, DetailsProcessed"), lines.get(2));
+        assertTrue(lines.get(3).startsWith("Source, 3, "), lines.get(3));
+        assertTrue(lines.get(4).startsWith("Sink, 3, "), lines.get(4));
+        assertEquals("", lines.get(5));
+    }
+
+    private static ScenarioData twoCenterScenario() {
+        ProductionCenter source = new ProductionCenter("1", "Source", 1, 1.0);
+        ProductionCenter sink = new ProductionCenter("2", "Sink", 1, 1.0);
+        return new ScenarioData(List.of(source, sink), List.of(new Connection(source, sink)), 2, 3, "1", "2");
+    }
+}
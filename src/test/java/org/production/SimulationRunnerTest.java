@@ -0,0 +1,139 @@
+package org.production;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.production.io.ResultSink;
+import org.production.models.Connection;
+import org.production.models.ProductionCenter;
+import org.production.models.ScenarioData;
+import org.production.models.SimulationResult;
+import org.production.service.ExecutionStrategy;
+import org.production.service.SimulationMode;
+import org.production.service.SimulationRunner;
+import org.production.service.SimulationSettings;
+import org.production.service.TransferMode;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationRunnerTest {
+
+    private List<ProductionCenter> productionCenters;
+    private List<Connection> connections;
+
+    @BeforeEach
+    void setUp() {
+        productionCenters = new ArrayList<>();
+        productionCenters.add(new ProductionCenter("1", "Center 1", 2, 1.5));
+        productionCenters.add(new ProductionCenter("2", "Center 2", 2, 2.1));
+        productionCenters.add(new ProductionCenter("3", "Center 3", 2, 1.7));
+        productionCenters.add(new ProductionCenter("4", "Center 4", 3, 2.5));
+
+        connections = new ArrayList<>();
+        connections.add(new Connection(productionCenters.get(0), productionCenters.get(1)));
+        connections.add(new Connection(productionCenters.get(0), productionCenters.get(2)));
+        connections.add(new Connection(productionCenters.get(1), productionCenters.get(3)));
+        connections.add(new Connection(productionCenters.get(2), productionCenters.get(3)));
+    }
+
+    @Test
+    void testDiscreteEventSimulationProcessesAllDetails() {
+        ScenarioData scenarioData = new ScenarioData(productionCenters, connections, 7, 1000, "1", "4");
+        SimulationRunner runner = new SimulationRunner(scenarioData, SimulationMode.DISCRETE_EVENT);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), runner::runSimulation,
+                "The discrete-event mode must not wait for wall-clock time");
+
+        List<SimulationResult> results = runner.getResults();
+        assertFalse(results.isEmpty(), "Results must be recorded on every tick");
+        assertEquals(0, results.size() % productionCenters.size(),
+                "Every tick must record one row per production center");
+
+        List<SimulationResult> lastTick = results.subList(results.size() - productionCenters.size(), results.size());
+        for (SimulationResult result : lastTick) {
+            assertTrue(result.toString().endsWith(", 0, 0"),
+                    "After the last tick no workers are assigned and all buffers are empty: " + result);
+        }
+    }
+
+    @Test
+    void testResultsAreStreamedIntoSink() {
+        ScenarioData scenarioData = new ScenarioData(productionCenters, connections, 7, 100, "1", "4");
+        List<SimulationResult> streamed = new ArrayList<>();
+        ResultSink sink = new ResultSink() {
+            @Override
+            public void accept(SimulationResult result) {
+                streamed.add(result);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        SimulationRunner runner = new SimulationRunner(scenarioData,
+                SimulationSettings.defaults().withMode(SimulationMode.DISCRETE_EVENT), sink);
+
+        runner.runSimulation();
+
+        assertFalse(streamed.isEmpty(), "Rows must be pushed into the sink during the run");
+        assertEquals(0, streamed.size() % productionCenters.size());
+        assertEquals(0, streamed.get(streamed.size() - 1).getBufferCount());
+        assertThrows(IllegalStateException.class, runner::getResults,
+                "Streamed results are not kept by the runner");
+    }
+
+    @Test
+    void testRealTimeSimulationWithSingleWorkerDoesNotHang() {
+        assertRealTimeSimulationWithSingleWorkerCompletes(ExecutionStrategy.FORK_JOIN);
+    }
+
+    @Test
+    void testRealTimeSimulationOnVirtualThreads() {
+        assertRealTimeSimulationWithSingleWorkerCompletes(ExecutionStrategy.VIRTUAL_THREADS);
+    }
+
+    @Test
+    void testRealTimeSimulationWithBatchedTransfer() {
+        SimulationRunner runner = assertRealTimeSimulationCompletes(
+                SimulationSettings.defaults().withTransferMode(TransferMode.BATCHED), 7);
+
+        assertEquals(30, runner.getRunStatistics().processedDetails(),
+                "Every detail is processed at the start, one of the middle centers and the end center");
+    }
+
+    private void assertRealTimeSimulationWithSingleWorkerCompletes(ExecutionStrategy executionStrategy) {
+        // A single worker used to size the thread pool: the center task then occupied the only thread
+        // while waiting for its own detail tasks, and the first step never finished.
+        assertRealTimeSimulationCompletes(SimulationSettings.defaults().withExecutionStrategy(executionStrategy), 1);
+    }
+
+    private SimulationRunner assertRealTimeSimulationCompletes(SimulationSettings settings, int workersCount) {
+        List<ProductionCenter> fastCenters = new ArrayList<>();
+        for (ProductionCenter center : productionCenters) {
+            fastCenters.add(new ProductionCenter(center.getId(), center.getName(), center.getMaxWorkers(), 0.1));
+        }
+        List<Connection> fastConnections = new ArrayList<>();
+        fastConnections.add(new Connection(fastCenters.get(0), fastCenters.get(1)));
+        fastConnections.add(new Connection(fastCenters.get(0), fastCenters.get(2)));
+        fastConnections.add(new Connection(fastCenters.get(1), fastCenters.get(3)));
+        fastConnections.add(new Connection(fastCenters.get(2), fastCenters.get(3)));
+
+        ScenarioData scenarioData = new ScenarioData(fastCenters, fastConnections, workersCount, 10, "1", "4");
+        SimulationRunner runner = new SimulationRunner(scenarioData, settings);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(30), runner::runSimulation,
+                "Nested center and detail tasks must not starve the executor");
+
+        List<SimulationResult> results = runner.getResults();
+        assertFalse(results.isEmpty(), "Results must be recorded on every step");
+        List<SimulationResult> lastStep = results.subList(results.size() - fastCenters.size(), results.size());
+        for (SimulationResult result : lastStep) {
+            assertTrue(result.toString().endsWith(", 0, 0"),
+                    "After the last step no workers are assigned and all buffers are empty: " + result);
+        }
+        return runner;
+    }
+}
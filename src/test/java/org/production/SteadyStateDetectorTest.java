@@ -0,0 +1,108 @@
+package org.production;
+
+import org.junit.jupiter.api.Test;
+import org.production.generator.GeneratorSettings;
+import org.production.generator.PerformanceDistribution;
+import org.production.generator.ScenarioGenerator;
+import org.production.generator.Topology;
+import org.production.io.InMemoryResultSink;
+import org.production.models.Connection;
+import org.production.models.ProductionCenter;
+import org.production.models.ScenarioData;
+import org.production.service.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SteadyStateDetectorTest {
+
+    @Test
+    void testWarmUpIsTruncated() {
+        ProductionCenter source = new ProductionCenter("1", "Source", 1, 1.0);
+        ProductionCenter sink = new ProductionCenter("2", "Sink", 1, 1.0);
+        ScenarioData scenarioData = new ScenarioData(List.of(source, sink), List.of(new Connection(source, sink)),
+                1, 0, "1", "2");
+        SimulationState state = new SimulationState(scenarioData.graph());
+        SteadyStateDetector detector = new SteadyStateDetector(scenarioData.graph(), ConvergenceSettings.defaults());
+        SplittableRandom random = new SplittableRandom(3);
+
+        // The buffer fills up during the first 300 ticks and then fluctuates around 50 details.
+        long departed = 0;
+        int tick = 0;
+        while (!detector.isConverged() && tick < 100_000) {
+            int target = tick < 300 ? tick / 6 : 45 + random.nextInt(11);
+            while (state.bufferSize(0) < target) {
+                state.offer(0, tick);
+            }
+            while (state.bufferSize(0) > target) {
+                state.poll(0);
+            }
+            departed += tick < 300 ? 0 : 1 + random.nextInt(3);
+            detector.observe(tick, departed, state);
+            tick++;
+        }
+
+        SteadyStateEstimate estimate = detector.estimate();
+        assertTrue(estimate.converged(), "The stationary part must converge");
+        assertTrue(estimate.warmUpEnd() >= 250, "The filling phase is warm-up: " + estimate.warmUpEnd());
+        assertEquals(2.0, estimate.throughput().mean(), 0.1);
+        assertEquals(50.0, estimate.bufferedDetails().mean(), 2.0);
+        assertEquals(50.0, estimate.centerMeanBuffers().get(0), 2.0);
+    }
+
+    @Test
+    void testCenterMeansStayExactInALongRun() {
+        ProductionCenter source = new ProductionCenter("1", "Source", 1, 1.0);
+        ProductionCenter sink = new ProductionCenter("2", "Sink", 1, 1.0);
+        ScenarioData scenarioData = new ScenarioData(List.of(source, sink), List.of(new Connection(source, sink)),
+                1, 0, "1", "2");
+        SimulationState state = new SimulationState(scenarioData.graph());
+        SteadyStateDetector detector = new SteadyStateDetector(scenarioData.graph(), ConvergenceSettings.defaults());
+
+        // Nothing leaves the plant, so the run never converges and the buffer copies are thinned many times.
+        for (int tick = 0; tick < 100_000; tick++) {
+            int target = tick < 1000 ? 20 : 5;
+            while (state.bufferSize(0) < target) {
+                state.offer(0, tick);
+            }
+            while (state.bufferSize(0) > target) {
+                state.poll(0);
+            }
+            detector.observe(tick, 0, state);
+        }
+
+        SteadyStateEstimate estimate = detector.estimate();
+        assertFalse(estimate.converged());
+        assertTrue(estimate.warmUpEnd() >= 1000, "The full buffer is warm-up: " + estimate.warmUpEnd());
+        assertEquals(5.0, estimate.centerMeanBuffers().get(0), 1e-9);
+    }
+
+    @Test
+    void testRunStopsAtSteadyState() {
+        ScenarioData scenarioData = ScenarioGenerator.generate(GeneratorSettings.defaults()
+                .withTopology(Topology.CHAIN)
+                .withCentersCount(5)
+                .withWorkersCount(5)
+                .withDetailsCount(20_000)
+                .withMaxWorkers(1)
+                .withPerformance(PerformanceDistribution.CONSTANT, 1.0, 0.0));
+        SimulationSettings settings = SimulationSettings.defaults().withMode(SimulationMode.DISCRETE_EVENT);
+
+        SimulationRunner fullRun = new SimulationRunner(scenarioData, settings, new InMemoryResultSink());
+        fullRun.runSimulation();
+        SimulationRunner steadyRun = new SimulationRunner(scenarioData,
+                settings.withConvergence(ConvergenceSettings.defaults()), new InMemoryResultSink());
+        steadyRun.runSimulation();
+
+        SteadyStateEstimate estimate = steadyRun.getSteadyStateEstimate();
+        double fullTime = fullRun.getRunStatistics().simulatedTime();
+        assertTrue(estimate.converged());
+        assertTrue(steadyRun.getRunStatistics().simulatedTime() < fullTime / 5,
+                "The steady-state run must stop early: " + steadyRun.getRunStatistics().simulatedTime() + " of " + fullTime);
+        assertEquals(scenarioData.detailsCount() / fullTime, estimate.throughput().mean(),
+                0.1 * estimate.throughput().mean(), "The steady throughput must match the overall rate");
+        assertNull(fullRun.getSteadyStateEstimate());
+    }
+}
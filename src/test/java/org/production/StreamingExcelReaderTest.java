@@ -0,0 +1,143 @@
+package org.production;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.production.io.ExcelReader;
+import org.production.io.StreamingExcelReader;
+import org.production.models.Connection;
+import org.production.models.ProductionCenter;
+import org.production.models.ScenarioData;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingExcelReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testStreamingReaderMatchesWorkbookReader() throws IOException {
+        Path file = tempDir.resolve("scenario.xlsx");
+        writeScenario(file, false);
+
+        assertSameScenario(ExcelReader.collectData(file.toString()), StreamingExcelReader.collectData(file.toString()));
+    }
+
+    @Test
+    void testConnectionSheetBeforeProductionCenterSheet() throws IOException {
+        Path file = tempDir.resolve("reordered.xlsx");
+        writeScenario(file, true);
+
+        ScenarioData scenario = StreamingExcelReader.collectData(file.toString());
+
+        assertSameScenario(ExcelReader.collectData(file.toString()), scenario);
+        assertEquals(4, scenario.connections().size());
+        assertEquals("1", scenario.startCenterId());
+        assertEquals("4", scenario.endCenterId());
+    }
+
+    @Test
+    void testMissingSheetIsReported() throws IOException {
+        Path file = tempDir.resolve("incomplete.xlsx");
+        try (Workbook workbook = new XSSFWorkbook(); FileOutputStream out = new FileOutputStream(file.toFile())) {
+            writeScenarioSheet(workbook.createSheet("Scenario"));
+            workbook.write(out);
+        }
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> StreamingExcelReader.collectData(file.toString()));
+        assertEquals("Sheet 'ProductionCenter' not found in Excel.", e.getMessage());
+    }
+
+    private static void writeScenario(Path file, boolean connectionsFirst) throws IOException {
+        try (Workbook workbook = new XSSFWorkbook(); FileOutputStream out = new FileOutputStream(file.toFile())) {
+            writeScenarioSheet(workbook.createSheet("Scenario"));
+            if (connectionsFirst) {
+                writeConnectionSheet(workbook.createSheet("Connection"));
+                writeProductionCenterSheet(workbook.createSheet("ProductionCenter"));
+            } else {
+                writeProductionCenterSheet(workbook.createSheet("ProductionCenter"));
+                writeConnectionSheet(workbook.createSheet("Connection"));
+            }
+            workbook.write(out);
+        }
+    }
+
+    private static void writeScenarioSheet(Sheet sheet) {
+        Row title = sheet.createRow(0);
+        title.createCell(0).setCellValue("Plant scenario");
+        Row header = sheet.createRow(2);
+        header.createCell(1).setCellValue("workersCount");
+        header.createCell(2).setCellValue("detailsCount");
+        Row values = sheet.createRow(3);
+        values.createCell(1).setCellValue(6);
+        values.createCell(2).setCellValue(100);
+    }
+
+    private static void writeProductionCenterSheet(Sheet sheet) {
+        Row header = sheet.createRow(0);
+        header.createCell(0).setCellValue("id");
+        header.createCell(1).setCellValue("name");
+        header.createCell(2).setCellValue("performance");
+        header.createCell(3).setCellValue("maxWorkersCount");
+
+        Object[][] centers = {
+                {"1", "Cutting", 1.5, 2},
+                {"2", "Welding", 2.1, 2},
+                {"3", "Painting", 1.7, 2},
+                {"4", "Assembly", 2.5, 3},
+        };
+        for (int i = 0; i < centers.length; i++) {
+            // Leave an empty row between the centers, the readers must skip it.
+            Row row = sheet.createRow(1 + i * 2);
+            row.createCell(0).setCellValue((String) centers[i][0]);
+            row.createCell(1).setCellValue((String) centers[i][1]);
+            row.createCell(2).setCellValue((Double) centers[i][2]);
+            row.createCell(3).setCellValue((Integer) centers[i][3]);
+        }
+    }
+
+    private static void writeConnectionSheet(Sheet sheet) {
+        Row header = sheet.createRow(0);
+        header.createCell(0).setCellValue("sourceCenter");
+        header.createCell(1).setCellValue("destCenter");
+
+        String[][] connections = {{"1", "2"}, {"1", "3"}, {"2", "4"}, {"3", "4"}, {"3", "unknown"}};
+        for (int i = 0; i < connections.length; i++) {
+            Row row = sheet.createRow(1 + i);
+            row.createCell(0).setCellValue(connections[i][0]);
+            row.createCell(1).setCellValue(connections[i][1]);
+        }
+    }
+
+    private static void assertSameScenario(ScenarioData expected, ScenarioData actual) {
+        assertEquals(expected.workersCount(), actual.workersCount());
+        assertEquals(expected.detailsCount(), actual.detailsCount());
+        assertEquals(expected.startCenterId(), actual.startCenterId());
+        assertEquals(expected.endCenterId(), actual.endCenterId());
+
+        assertEquals(describeCenters(expected.centers()), describeCenters(actual.centers()));
+        assertEquals(describeConnections(expected.connections()), describeConnections(actual.connections()));
+    }
+
+    private static List<String> describeCenters(List<ProductionCenter> centers) {
+        return centers.stream()
+                .map(c -> c.getId() + "|" + c.getName() + "|" + c.getPerformance() + "|" + c.getMaxWorkers())
+                .toList();
+    }
+
+    private static List<String> describeConnections(List<Connection> connections) {
+        return connections.stream()
+                .map(c -> c.fromCenter().getId() + "->" + c.toCenter().getId())
+                .toList();
+    }
+}
@@ -0,0 +1,82 @@
+package org.production.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.production.service.BoundedLockFreeDetailBuffer;
+import org.production.service.DetailBuffer;
+import org.production.service.IntRingBuffer;
+import org.production.service.LockFreeDetailBuffer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the center buffers when many centers feed one sink: seven producer threads offer details
+ * into a shared buffer while one consumer thread takes them. Producers back off while the buffer holds
+ * more than {@link #BACKLOG_LIMIT} details, reading only its size, so the buffer does not grow without bound.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class BufferContentionBenchmark {
+    private static final int CAPACITY = 1 << 16;
+    private static final int BACKLOG_LIMIT = CAPACITY / 2;
+
+    @Param({"synchronized", "lock-free", "lock-free-bounded"})
+    private String bufferType;
+
+    @Param({"1", "16"})
+    private int batchSize;
+
+    private DetailBuffer sink;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        sink = switch (bufferType) {
+            case "synchronized" -> new IntRingBuffer();
+            case "lock-free" -> new LockFreeDetailBuffer();
+            case "lock-free-bounded" -> new BoundedLockFreeDetailBuffer(CAPACITY);
+            default -> throw new IllegalArgumentException("Unknown buffer type: " + bufferType);
+        };
+    }
+
+    @State(Scope.Thread)
+    public static class ProducerState {
+        private final int[] batch = new int[16];
+        private int nextDetail;
+    }
+
+    @Benchmark
+    @Group("feedSink")
+    @GroupThreads(7)
+    public void offer(ProducerState producer) {
+        if (sink.size() > BACKLOG_LIMIT) {
+            Thread.onSpinWait();
+            return;
+        }
+        if (batchSize == 1) {
+            sink.offer(producer.nextDetail++);
+            return;
+        }
+        for (int i = 0; i < batchSize; i++) {
+            producer.batch[i] = producer.nextDetail++;
+        }
+        sink.offerAll(producer.batch, 0, batchSize);
+    }
+
+    @Benchmark
+    @Group("feedSink")
+    @GroupThreads(1)
+    public void poll(Blackhole blackhole) {
+        blackhole.consume(sink.poll());
+    }
+
+    @Benchmark
+    @Group("feedSink")
+    @GroupThreads(1)
+    public void size(Blackhole blackhole) {
+        blackhole.consume(sink.size());
+    }
+}
@@ -0,0 +1,83 @@
+package org.production.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.production.generator.GeneratorSettings;
+import org.production.generator.ScenarioGenerator;
+import org.production.generator.Topology;
+import org.production.models.ProductionGraph;
+import org.production.models.ScenarioData;
+import org.production.service.AlgorithmUtils;
+import org.production.service.RoutingPolicy;
+import org.production.service.RoutingPolicyType;
+import org.production.service.RoutingSnapshot;
+import org.production.service.SimulationState;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures choosing the destination of a processed detail with {@link AlgorithmUtils#selectNextCenter} on a
+ * {@link RoutingSnapshot} of the {@link SimulationState}, for every {@link RoutingPolicyType}.
+ * The source center is drawn at random among the centers with outgoing connections.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConnectionSelectionBenchmark {
+
+    @Param({"FAN_OUT", "DIAMOND", "RANDOM_DAG"})
+    private Topology topology;
+
+    @Param({"100", "1000"})
+    private int centersCount;
+
+    @Param({"WEIGHTED", "ROUND_ROBIN", "SHORTEST_QUEUE", "LEAST_LOADED"})
+    private RoutingPolicyType routingPolicyType;
+
+    private int[] sources;
+    private SimulationState state;
+    private RoutingPolicy routingPolicy;
+    private RoutingSnapshot routingSnapshot;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ScenarioData scenarioData = ScenarioGenerator.generate(GeneratorSettings.defaults()
+                .withTopology(topology)
+                .withCentersCount(centersCount)
+                .withWorkersCount(centersCount)
+                .withDetailsCount(centersCount * 10));
+        ProductionGraph graph = scenarioData.graph();
+        random = new SplittableRandom(42);
+
+        sources = new int[graph.size()];
+        int sourcesCount = 0;
+        state = new SimulationState(graph);
+        for (int center = 0; center < graph.size(); center++) {
+            if (graph.outDegree(center) > 0) {
+                sources[sourcesCount++] = center;
+            }
+            int details = random.nextInt(10);
+            for (int detail = 0; detail < details; detail++) {
+                state.offer(center, detail);
+            }
+        }
+        sources = Arrays.copyOf(sources, sourcesCount);
+        routingPolicy = routingPolicyType.create(graph);
+        routingSnapshot = RoutingSnapshot.of(state);
+    }
+
+    @Setup(Level.Iteration)
+    public void captureSnapshot() {
+        routingSnapshot.capture(state);
+    }
+
+    @Benchmark
+    public int snapshotBased() {
+        return AlgorithmUtils.selectNextCenter(sources[random.nextInt(sources.length)], routingPolicy, routingSnapshot);
+    }
+}
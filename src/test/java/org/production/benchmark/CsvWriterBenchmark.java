@@ -0,0 +1,63 @@
+package org.production.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.production.io.CsvWritter;
+import org.production.io.FastCsvWriter;
+import org.production.models.SimulationResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares writing the simulation output with {@link CsvWritter}, which formats every row with
+ * {@link String#format}, and with {@link FastCsvWriter}, which encodes the rows into a reused byte buffer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CsvWriterBenchmark {
+    private static final int CENTERS_COUNT = 50;
+
+    @Param({"100000", "1000000"})
+    private int rowsCount;
+
+    private List<SimulationResult> results;
+    private Path output;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        SplittableRandom random = new SplittableRandom(42);
+        results = new ArrayList<>(rowsCount);
+        for (int row = 0; row < rowsCount; row++) {
+            double time = (row / CENTERS_COUNT) * 1.0 + random.nextInt(100) / 100.0;
+            results.add(new SimulationResult(time, "Center " + row % CENTERS_COUNT,
+                    random.nextInt(10), random.nextInt(1000)));
+        }
+        output = Files.createTempFile("simulation-output", ".csv");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(output);
+    }
+
+    @Benchmark
+    public long csvWritter() throws IOException {
+        CsvWritter.writeResults(output.toString(), results);
+        return Files.size(output);
+    }
+
+    @Benchmark
+    public long fastCsvWriter() throws IOException {
+        FastCsvWriter.writeResults(output.toString(), results);
+        return Files.size(output);
+    }
+}
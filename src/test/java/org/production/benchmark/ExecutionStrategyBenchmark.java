@@ -0,0 +1,59 @@
+package org.production.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.production.models.Connection;
+import org.production.models.ProductionCenter;
+import org.production.models.ScenarioData;
+import org.production.service.ExecutionStrategy;
+import org.production.service.SimulationMode;
+import org.production.service.SimulationRunner;
+import org.production.service.SimulationSettings;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the executors of the real-time mode when many details are processed concurrently.
+ * Every detail of the scenario is assigned a worker in the first step, so all of them pause at the same time.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExecutionStrategyBenchmark {
+
+    @Param({"1000", "10000"})
+    private int detailsCount;
+
+    @Param({"FORK_JOIN", "VIRTUAL_THREADS"})
+    private ExecutionStrategy executionStrategy;
+
+    private SimulationRunner runner;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        ProductionCenter source = new ProductionCenter("1", "Source", detailsCount, 1.0);
+        ProductionCenter sink = new ProductionCenter("2", "Sink", detailsCount, 0.0);
+        ScenarioData scenarioData = new ScenarioData(
+                new ArrayList<>(List.of(source, sink)),
+                List.of(new Connection(source, sink)),
+                detailsCount,
+                detailsCount,
+                "1",
+                "2");
+
+        SimulationSettings settings = SimulationSettings.defaults()
+                .withMode(SimulationMode.REAL_TIME)
+                .withExecutionStrategy(executionStrategy);
+        runner = new SimulationRunner(scenarioData, settings);
+    }
+
+    @Benchmark
+    public int runSimulation() {
+        runner.runSimulation();
+        return runner.getResults().size();
+    }
+}
@@ -0,0 +1,111 @@
+package org.production.benchmark;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilder;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilderFactory;
+import org.apache.logging.log4j.core.config.builder.impl.BuiltConfiguration;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares the ways of reporting a processed detail from many worker threads at once, as
+ * {@code SimulationRunner.simulateProcessing} does:
+ * <ul>
+ *     <li>{@code printStream} - the former two {@code printf} lines on a shared {@link PrintStream} set up like
+ *     {@code System.out} (128-byte buffer, flushed on every line); every call takes the lock of the stream
+ *     and writes to the file in the calling thread.</li>
+ *     <li>{@code asyncLogger} - the same lines on an asynchronous log4j logger enabled at trace, handing the
+ *     messages to the background thread of the disruptor, which writes them to a buffered file.</li>
+ *     <li>{@code disabledLogger} - the guarded trace calls of the runner at the default info level.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+    private static final String ENABLED_LOGGER = "org.production.benchmark.enabled";
+    private static final String DISABLED_LOGGER = "org.production.benchmark.disabled";
+
+    private final AtomicInteger details = new AtomicInteger();
+    private Path directory;
+    private PrintStream printStream;
+    private Logger enabledLogger;
+    private Logger disabledLogger;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("logging-benchmark");
+        printStream = new PrintStream(new BufferedOutputStream(
+                Files.newOutputStream(directory.resolve("console.log")), 128), true);
+
+        ConfigurationBuilder<BuiltConfiguration> builder = ConfigurationBuilderFactory.newConfigurationBuilder();
+        builder.add(builder.newAppender("File", "RandomAccessFile")
+                .addAttribute("fileName", directory.resolve("async.log").toString())
+                .addAttribute("immediateFlush", false)
+                .add(builder.newLayout("PatternLayout").addAttribute("pattern", "%msg%n")));
+        builder.add(builder.newAppender("Null", "Null"));
+        builder.add(builder.newAsyncLogger(ENABLED_LOGGER, org.apache.logging.log4j.Level.TRACE)
+                .add(builder.newAppenderRef("File"))
+                .addAttribute("additivity", false));
+        builder.add(builder.newAsyncLogger(DISABLED_LOGGER, org.apache.logging.log4j.Level.INFO)
+                .add(builder.newAppenderRef("Null"))
+                .addAttribute("additivity", false));
+        builder.add(builder.newAsyncRootLogger(org.apache.logging.log4j.Level.WARN).add(builder.newAppenderRef("Null")));
+        Configurator.reconfigure(builder.build());
+
+        enabledLogger = LogManager.getLogger(ENABLED_LOGGER);
+        disabledLogger = LogManager.getLogger(DISABLED_LOGGER);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        LogManager.shutdown();
+        printStream.close();
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public void printStream() {
+        int detail = details.incrementAndGet();
+        printStream.printf("Processing detail Detail-%d at center %s for %.2f seconds.%n", detail, "Center", 1.5);
+        printStream.printf("Detail Detail-%d processed at center %s.%n", detail, "Center");
+    }
+
+    @Benchmark
+    public void asyncLogger() {
+        report(enabledLogger, details.incrementAndGet());
+    }
+
+    @Benchmark
+    public void disabledLogger() {
+        report(disabledLogger, details.incrementAndGet());
+    }
+
+    private static void report(Logger logger, int detail) {
+        if (logger.isTraceEnabled()) {
+            logger.printf(org.apache.logging.log4j.Level.TRACE,
+                    "Processing detail Detail-%d at center %s for %.2f seconds.", detail, "Center", 1.5);
+        }
+        if (logger.isTraceEnabled()) {
+            logger.trace("Detail Detail-{} processed at center {}.", detail, "Center");
+        }
+    }
+}
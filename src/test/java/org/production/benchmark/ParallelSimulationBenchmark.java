@@ -0,0 +1,69 @@
+package org.production.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.production.generator.GeneratorSettings;
+import org.production.generator.ScenarioGenerator;
+import org.production.generator.Topology;
+import org.production.io.CountingResultSink;
+import org.production.models.ScenarioData;
+import org.production.service.RoutingPolicyType;
+import org.production.service.SimulationMode;
+import org.production.service.SimulationRunner;
+import org.production.service.SimulationSettings;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how complete parallel discrete-event runs of a large synthetic plant scale with the number of regions,
+ * each processed on its own thread. With one region the windows run on the calling thread only, which is the
+ * baseline of the speedup. The plant has enough workers that the regions rarely fall back to the sequential order.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelSimulationBenchmark {
+
+    @Param({"1", "2", "4", "8", "16", "32"})
+    private int regions;
+
+    @Param({"ROUND_ROBIN", "WEIGHTED"})
+    private RoutingPolicyType routingPolicy;
+
+    @Param({"4000"})
+    private int centersCount;
+
+    @Param({"20000"})
+    private int detailsCount;
+
+    private ScenarioData scenarioData;
+    private SimulationRunner runner;
+    private CountingResultSink sink;
+
+    @Setup(Level.Trial)
+    public void createScenario() {
+        scenarioData = ScenarioGenerator.generate(GeneratorSettings.defaults()
+                .withTopology(Topology.RANDOM_DAG)
+                .withCentersCount(centersCount)
+                .withWorkersCount(centersCount * 5)
+                .withDetailsCount(detailsCount));
+    }
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        sink = new CountingResultSink();
+        runner = new SimulationRunner(scenarioData, SimulationSettings.defaults()
+                .withMode(SimulationMode.PARALLEL_DISCRETE_EVENT)
+                .withRoutingPolicy(routingPolicy)
+                .withRegions(regions)
+                .withProgressInterval(null), sink);
+    }
+
+    @Benchmark
+    public long runSimulation() {
+        runner.runSimulation();
+        return sink.getRows();
+    }
+}
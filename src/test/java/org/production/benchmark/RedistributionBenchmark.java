@@ -0,0 +1,90 @@
+package org.production.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.production.models.ProductionCenter;
+import org.production.models.ScenarioData;
+import org.production.service.AlgorithmUtils;
+import org.production.service.SimulationState;
+
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the full re-sort of the map-based redistribution with the incrementally maintained
+ * priority index of {@link SimulationState}. Between two redistributions a few details move between
+ * random centers, as they do between two simulation steps.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RedistributionBenchmark {
+    private static final int MOVES_PER_STEP = 8;
+
+    @Param({"10", "1000", "100000"})
+    private int centersCount;
+
+    @Param({"0.5", "2"})
+    private double workersPerCenter;
+
+    private ScenarioData scenarioData;
+    private Map<String, BlockingQueue<String>> centerBuffers;
+    private Map<String, Integer> centerWorkers;
+    private SimulationState state;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new SplittableRandom(42);
+        List<ProductionCenter> centers = new ArrayList<>(centersCount);
+        for (int i = 0; i < centersCount; i++) {
+            centers.add(new ProductionCenter(String.valueOf(i), "Center " + i, 1 + random.nextInt(5),
+                    0.5 + random.nextDouble() * 3));
+        }
+        int workersCount = (int) Math.max(1, centersCount * workersPerCenter);
+        scenarioData = new ScenarioData(centers, List.of(), workersCount, 0, "0", "0");
+
+        centerBuffers = new HashMap<>();
+        centerWorkers = new HashMap<>();
+        state = new SimulationState(scenarioData.graph());
+        for (int i = 0; i < centersCount; i++) {
+            BlockingQueue<String> buffer = new LinkedBlockingQueue<>();
+            int details = random.nextInt(10);
+            for (int detail = 0; detail < details; detail++) {
+                buffer.offer("Detail-" + detail);
+                state.offer(i, detail);
+            }
+            centerBuffers.put(String.valueOf(i), buffer);
+            centerWorkers.put(String.valueOf(i), 0);
+        }
+    }
+
+    @Benchmark
+    public Map<String, Integer> fullSort() {
+        for (int move = 0; move < MOVES_PER_STEP; move++) {
+            int from = random.nextInt(centersCount);
+            String detail = centerBuffers.get(String.valueOf(from)).poll();
+            if (detail != null) {
+                centerBuffers.get(String.valueOf(random.nextInt(centersCount))).offer(detail);
+            }
+        }
+        AlgorithmUtils.redistributeWorkers(centerWorkers, centerBuffers, scenarioData);
+        return centerWorkers;
+    }
+
+    @Benchmark
+    public SimulationState incrementalIndex() {
+        for (int move = 0; move < MOVES_PER_STEP; move++) {
+            int detail = state.poll(random.nextInt(centersCount));
+            if (detail >= 0) {
+                state.offer(random.nextInt(centersCount), detail);
+            }
+        }
+        AlgorithmUtils.redistributeWorkers(state, scenarioData);
+        return state;
+    }
+}
@@ -0,0 +1,69 @@
+package org.production.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.production.generator.GeneratorSettings;
+import org.production.generator.ScenarioGenerator;
+import org.production.generator.Topology;
+import org.production.io.ScenarioCache;
+import org.production.io.ScenarioReader;
+import org.production.io.ScenarioWorkbookWriter;
+import org.production.models.ScenarioData;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares loading a synthetic scenario with the in-memory workbook reader, the streaming reader
+ * and the compiled scenario cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScenarioLoadBenchmark {
+
+    @Param({"1000", "10000"})
+    private int centersCount;
+
+    private Path directory;
+    private Path workbook;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("scenario-load");
+        workbook = directory.resolve("scenario.xlsx");
+        ScenarioData scenarioData = ScenarioGenerator.generate(GeneratorSettings.defaults()
+                .withTopology(Topology.RANDOM_DAG)
+                .withCentersCount(centersCount)
+                .withWorkersCount(centersCount)
+                .withDetailsCount(centersCount * 10));
+        ScenarioWorkbookWriter.write(workbook.toString(), scenarioData);
+        ScenarioCache.load(workbook, ScenarioReader.STREAMING::read, true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(ScenarioCache.cachePathFor(workbook));
+        Files.deleteIfExists(workbook);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public ScenarioData workbookReader() throws IOException {
+        return ScenarioReader.WORKBOOK.read(workbook.toString());
+    }
+
+    @Benchmark
+    public ScenarioData streamingReader() throws IOException {
+        return ScenarioReader.STREAMING.read(workbook.toString());
+    }
+
+    @Benchmark
+    public ScenarioData cache() throws IOException {
+        return ScenarioCache.load(workbook, ScenarioReader.STREAMING::read, false);
+    }
+}
@@ -0,0 +1,61 @@
+package org.production.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.production.generator.GeneratorSettings;
+import org.production.generator.ScenarioGenerator;
+import org.production.generator.Topology;
+import org.production.io.CountingResultSink;
+import org.production.models.ScenarioData;
+import org.production.service.SimulationMode;
+import org.production.service.SimulationRunner;
+import org.production.service.SimulationSettings;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures complete discrete-event runs of synthetic scenarios, from the initial state until every detail
+ * has left the plant. The recorded rows are only counted, so the time does not include writing the output.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SimulationRunBenchmark {
+
+    @Param({"CHAIN", "FAN_OUT", "DIAMOND", "RANDOM_DAG"})
+    private Topology topology;
+
+    @Param({"10", "100", "1000"})
+    private int centersCount;
+
+    @Param({"1000"})
+    private int detailsCount;
+
+    private ScenarioData scenarioData;
+    private SimulationRunner runner;
+    private CountingResultSink sink;
+
+    @Setup(Level.Trial)
+    public void createScenario() {
+        scenarioData = ScenarioGenerator.generate(GeneratorSettings.defaults()
+                .withTopology(topology)
+                .withCentersCount(centersCount)
+                .withWorkersCount(centersCount)
+                .withDetailsCount(detailsCount));
+    }
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        sink = new CountingResultSink();
+        runner = new SimulationRunner(scenarioData,
+                SimulationSettings.defaults().withMode(SimulationMode.DISCRETE_EVENT), sink);
+    }
+
+    @Benchmark
+    public long runSimulation() {
+        runner.runSimulation();
+        return sink.getRows();
+    }
+}
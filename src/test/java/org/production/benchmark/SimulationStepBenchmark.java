@@ -0,0 +1,82 @@
+package org.production.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.production.generator.GeneratorSettings;
+import org.production.generator.ScenarioGenerator;
+import org.production.generator.Topology;
+import org.production.models.ScenarioData;
+import org.production.service.AlgorithmUtils;
+import org.production.service.DetailBuffer;
+import org.production.service.RoutingPolicy;
+import org.production.service.RoutingPolicyType;
+import org.production.service.RoutingSnapshot;
+import org.production.service.SimulationState;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the bookkeeping of one step of the real-time mode without the processing pauses:
+ * workers are redistributed, a routing snapshot is taken, and every assigned worker takes a detail from its center and moves it
+ * to the destination chosen by {@link AlgorithmUtils#selectNextCenter}, as {@code SimulationRunner.processCenter} does.
+ * When the details have left the plant, the state is reset to the beginning of the run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SimulationStepBenchmark {
+
+    @Param({"CHAIN", "FAN_OUT", "DIAMOND", "RANDOM_DAG"})
+    private Topology topology;
+
+    @Param({"100", "1000", "10000"})
+    private int centersCount;
+
+    private ScenarioData scenarioData;
+    private SimulationState state;
+    private RoutingPolicy routingPolicy;
+    private RoutingSnapshot routingSnapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        scenarioData = ScenarioGenerator.generate(GeneratorSettings.defaults()
+                .withTopology(topology)
+                .withCentersCount(centersCount)
+                .withWorkersCount(centersCount)
+                .withDetailsCount(centersCount * 10));
+        state = SimulationState.initial(scenarioData);
+        routingPolicy = RoutingPolicyType.WEIGHTED.create(scenarioData.graph());
+        routingSnapshot = new RoutingSnapshot(scenarioData.graph());
+    }
+
+    @Benchmark
+    public int step() {
+        if (state.allBuffersEmpty()) {
+            state.reset(scenarioData);
+        }
+
+        AlgorithmUtils.redistributeWorkers(state, scenarioData);
+        int excessWorkers = state.totalWorkers() - scenarioData.workersCount();
+        if (excessWorkers > 0) {
+            AlgorithmUtils.adjustExcessWorkers(state, excessWorkers);
+        }
+        routingSnapshot.capture(state);
+
+        int moved = 0;
+        for (int center : state.staffedCenters()) {
+            for (int worker = state.workers(center); worker > 0; worker--) {
+                int detail = state.poll(center);
+                if (detail == DetailBuffer.EMPTY) {
+                    break;
+                }
+                if (state.graph().outDegree(center) > 0) {
+                    state.offer(AlgorithmUtils.selectNextCenter(center, routingPolicy, routingSnapshot), detail);
+                }
+                moved++;
+            }
+        }
+        return moved;
+    }
+}